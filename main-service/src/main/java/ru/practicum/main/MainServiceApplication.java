@@ -3,6 +3,7 @@ package ru.practicum.main;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Starts the ExploreWithMe Main Service application.
@@ -17,6 +18,7 @@ import org.springframework.context.annotation.ComponentScan;
  * </ul>
  */
 @SpringBootApplication
+@EnableScheduling
 @ComponentScan(basePackages = {"ru.practicum.main", "ru.practicum.client"})
 public class MainServiceApplication {
 
@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.service.CategoryService;
+import ru.practicum.main.util.ConditionalGet;
+import ru.practicum.main.util.VersionedResource;
 
 import java.util.List;
 
@@ -25,6 +27,7 @@ public class PublicCategoryController {
     private final CategoryService service;
 
     @GetMapping
+    @ConditionalGet(VersionedResource.CATEGORIES)
     public List<CategoryDto> getAll(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
                                     @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("Public: Запрос на получение всех категорий с параметрами from={}, size={}", from, size);
@@ -34,6 +37,7 @@ public class PublicCategoryController {
     }
 
     @GetMapping("/{catId}")
+    @ConditionalGet(VersionedResource.CATEGORIES)
     public CategoryDto getById(@PathVariable Long catId) {
         log.info("Public: Запрос на получение категории с id={}", catId);
         CategoryDto result = service.getById(catId);
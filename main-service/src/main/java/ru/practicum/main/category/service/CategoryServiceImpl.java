@@ -8,10 +8,13 @@ import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.mapper.CategoryMapper;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.compilation.service.CompilationFeedCache;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.util.PaginationValidator;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.VersionedResource;
 
 import java.util.List;
 
@@ -23,6 +26,8 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository repository;
     private final EventRepository eventRepository;
     private final CategoryMapper categoryMapper;
+    private final ResourceVersions resourceVersions;
+    private final CompilationFeedCache compilationFeedCache;
 
     @Override
     public CategoryDto create(CategoryDto dto) {
@@ -34,6 +39,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category saved = repository.save(categoryMapper.toEntity(dto));
+        resourceVersions.bump(VersionedResource.CATEGORIES);
         log.info("Категория создана успешно с id: {}", saved.getId());
         return categoryMapper.toDto(saved);
     }
@@ -55,6 +61,9 @@ public class CategoryServiceImpl implements CategoryService {
 
         category.setName(dto.getName());
         Category updated = repository.save(category);
+        // Название категории входит в представление событий и в кэшированные страницы подборок
+        resourceVersions.bump(VersionedResource.CATEGORIES, VersionedResource.EVENTS);
+        compilationFeedCache.invalidate();
         log.info("Категория с id={} успешно обновлена", catId);
         return categoryMapper.toDto(updated);
     }
@@ -74,6 +83,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         repository.deleteById(catId);
+        resourceVersions.bump(VersionedResource.CATEGORIES);
         log.info("Категория с id={} успешно удалена", catId);
     }
 
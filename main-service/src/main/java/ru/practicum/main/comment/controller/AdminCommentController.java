@@ -6,6 +6,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,6 +21,7 @@ import ru.practicum.main.comment.dto.AdminUpdateCommentRequest;
 import ru.practicum.main.comment.dto.CommentDto;
 import ru.practicum.main.comment.service.CommentService;
 import ru.practicum.main.comment.status.CommentStatus;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -37,17 +39,21 @@ public class AdminCommentController {
 
     /**
      * Returns comments using admin filters.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<CommentDto> getComments(
+    public ResponseEntity<List<CommentDto>> getComments(
             @RequestParam(required = false) List<Long> users,
             @RequestParam(required = false) List<Long> events,
             @RequestParam(required = false) List<CommentStatus> statuses,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /admin/comments - Получение комментариев для администратора");
-        return commentService.getCommentsForAdmin(users, events, statuses, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(commentService.getCommentsForAdmin(users, events, statuses, from, size));
+        }
+        return CursorPage.toResponse(commentService.getCommentsForAdmin(users, events, statuses, after, size));
     }
 
     /**
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +22,7 @@ import ru.practicum.main.comment.dto.CommentDto;
 import ru.practicum.main.comment.dto.NewCommentDto;
 import ru.practicum.main.comment.dto.UpdateCommentDto;
 import ru.practicum.main.comment.service.CommentService;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -51,16 +53,20 @@ public class PrivateCommentController {
 
     /**
      * Returns comments authored by the user.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping("/comments")
-    @ResponseStatus(HttpStatus.OK)
-    public List<CommentDto> getUserComments(
+    public ResponseEntity<List<CommentDto>> getUserComments(
             @PathVariable @Positive Long userId,
             @RequestParam(required = false) @Positive Long eventId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /users/{}/comments - Получение комментариев пользователя", userId);
-        return commentService.getUserComments(userId, eventId, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(commentService.getUserComments(userId, eventId, from, size));
+        }
+        return CursorPage.toResponse(commentService.getUserComments(userId, eventId, after, size));
     }
 
     /**
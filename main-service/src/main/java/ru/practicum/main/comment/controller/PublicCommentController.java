@@ -5,6 +5,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,6 +15,9 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.main.comment.dto.CommentDto;
 import ru.practicum.main.comment.service.CommentService;
+import ru.practicum.main.util.ConditionalGet;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.VersionedResource;
 
 import java.util.List;
 
@@ -31,21 +35,27 @@ public class PublicCommentController {
 
     /**
      * Returns published comments for an event.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<CommentDto> getPublishedComments(
+    @ConditionalGet(VersionedResource.COMMENTS)
+    public ResponseEntity<List<CommentDto>> getPublishedComments(
             @PathVariable @Positive Long eventId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /events/{}/comments - Получение опубликованных комментариев", eventId);
-        return commentService.getPublishedComments(eventId, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(commentService.getPublishedComments(eventId, from, size));
+        }
+        return CursorPage.toResponse(commentService.getPublishedComments(eventId, after, size));
     }
 
     /**
      * Returns a published comment by ID.
      */
     @GetMapping("/{commentId}")
+    @ConditionalGet(VersionedResource.COMMENTS)
     @ResponseStatus(HttpStatus.OK)
     public CommentDto getPublishedCommentById(
             @PathVariable @Positive Long eventId,
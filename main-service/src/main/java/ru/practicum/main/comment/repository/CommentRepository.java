@@ -1,5 +1,6 @@
 package ru.practicum.main.comment.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import ru.practicum.main.comment.model.Comment;
 import ru.practicum.main.comment.status.CommentStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -67,4 +69,61 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
             @Param("events") List<Long> events,
             @Param("statuses") List<CommentStatus> statuses,
             Pageable pageable);
+
+    /**
+     * Keyset page of user comments in {@code createdOn DESC, id DESC} order,
+     * starting after {@code (afterCreatedOn, afterId)}; {@code null} cursor means the first page.
+     */
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE c.author.id = :userId
+            AND (:eventId IS NULL OR c.event.id = :eventId)
+            AND (:afterId IS NULL OR c.createdOn < :afterCreatedOn
+                 OR (c.createdOn = :afterCreatedOn AND c.id < :afterId))
+            ORDER BY c.createdOn DESC, c.id DESC
+            """)
+    List<Comment> findUserCommentsAfter(
+            @Param("userId") Long userId,
+            @Param("eventId") Long eventId,
+            @Param("afterCreatedOn") LocalDateTime afterCreatedOn,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    /**
+     * Keyset page of event comments by status in {@code createdOn DESC, id DESC} order.
+     */
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE c.event.id = :eventId
+            AND c.status = :status
+            AND (:afterId IS NULL OR c.createdOn < :afterCreatedOn
+                 OR (c.createdOn = :afterCreatedOn AND c.id < :afterId))
+            ORDER BY c.createdOn DESC, c.id DESC
+            """)
+    List<Comment> findEventCommentsAfter(
+            @Param("eventId") Long eventId,
+            @Param("status") CommentStatus status,
+            @Param("afterCreatedOn") LocalDateTime afterCreatedOn,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    /**
+     * Keyset page of the admin comment search in {@code createdOn DESC, id DESC} order.
+     */
+    @Query("""
+            SELECT c FROM Comment c
+            WHERE (:users IS NULL OR c.author.id IN :users)
+            AND (:events IS NULL OR c.event.id IN :events)
+            AND (:statuses IS NULL OR c.status IN :statuses)
+            AND (:afterId IS NULL OR c.createdOn < :afterCreatedOn
+                 OR (c.createdOn = :afterCreatedOn AND c.id < :afterId))
+            ORDER BY c.createdOn DESC, c.id DESC
+            """)
+    List<Comment> searchForAdminAfter(
+            @Param("users") List<Long> users,
+            @Param("events") List<Long> events,
+            @Param("statuses") List<CommentStatus> statuses,
+            @Param("afterCreatedOn") LocalDateTime afterCreatedOn,
+            @Param("afterId") Long afterId,
+            Limit limit);
 }
@@ -5,6 +5,7 @@ import ru.practicum.main.comment.dto.CommentDto;
 import ru.practicum.main.comment.dto.NewCommentDto;
 import ru.practicum.main.comment.dto.UpdateCommentDto;
 import ru.practicum.main.comment.status.CommentStatus;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -33,11 +34,21 @@ public interface CommentService {
      */
     List<CommentDto> getUserComments(Long userId, Long eventId, int from, int size);
 
+    /**
+     * Returns comments created by a specific user, starting after the {@code after} cursor.
+     */
+    CursorPage<CommentDto> getUserComments(Long userId, Long eventId, String after, int size);
+
     /**
      * Returns published comments for a specific event.
      */
     List<CommentDto> getPublishedComments(Long eventId, int from, int size);
 
+    /**
+     * Returns published comments for a specific event, starting after the {@code after} cursor.
+     */
+    CursorPage<CommentDto> getPublishedComments(Long eventId, String after, int size);
+
     /**
      * Returns a published comment by event and comment ID.
      */
@@ -49,6 +60,12 @@ public interface CommentService {
     List<CommentDto> getCommentsForAdmin(List<Long> users, List<Long> events, List<CommentStatus> statuses,
                                          int from, int size);
 
+    /**
+     * Returns comments for administrators with filters, starting after the {@code after} cursor.
+     */
+    CursorPage<CommentDto> getCommentsForAdmin(List<Long> users, List<Long> events, List<CommentStatus> statuses,
+                                               String after, int size);
+
     /**
      * Moderates a comment (publish/reject).
      */
@@ -3,6 +3,7 @@ package ru.practicum.main.comment.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,7 +25,11 @@ import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
 import ru.practicum.main.util.PaginationValidator;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.TimeIdCursor;
+import ru.practicum.main.util.VersionedResource;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -57,6 +62,8 @@ public class CommentServiceImpl implements CommentService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CommentMapper commentMapper;
+    private final ResourceVersions resourceVersions;
+    private final PublishedCommentsCache publishedCommentsCache;
 
     @Override
     @Transactional
@@ -102,6 +109,9 @@ public class CommentServiceImpl implements CommentService {
 
         // TODO: Отправлять асинхронные уведомления модераторам после редактирования пользователем.
         Comment updatedComment = commentRepository.save(comment);
+        // Отредактированный комментарий снова уходит на модерацию и пропадает из публичной ленты
+        resourceVersions.bump(VersionedResource.COMMENTS);
+        publishedCommentsCache.invalidate(comment.getEvent().getId());
         return commentMapper.toDto(updatedComment);
     }
 
@@ -121,6 +131,8 @@ public class CommentServiceImpl implements CommentService {
         comment.setUpdatedOn(nowTruncatedToMillis());
         comment.setModerationNote("Удалено автором");
         commentRepository.save(comment);
+        resourceVersions.bump(VersionedResource.COMMENTS);
+        publishedCommentsCache.invalidate(comment.getEvent().getId());
     }
 
     @Override
@@ -137,10 +149,25 @@ public class CommentServiceImpl implements CommentService {
         return commentMapper.toDtoList(commentsPage.getContent());
     }
 
+    @Override
+    public CursorPage<CommentDto> getUserComments(Long userId, Long eventId, String after, int size) {
+        log.info("Получение комментариев пользователя по курсору: userId={}, eventId={}", userId, eventId);
+        PaginationValidator.validatePagination(0, size);
+        TimeIdCursor cursor = TimeIdCursor.decode(after);
+        validateUserExists(userId);
+
+        List<Comment> comments = commentRepository.findUserCommentsAfter(
+                userId, eventId, cursor.time(), cursor.id(), Limit.of(size));
+        return toCursorPage(comments, size);
+    }
+
     @Override
     public List<CommentDto> getPublishedComments(Long eventId, int from, int size) {
         log.info("Получение опубликованных комментариев события: eventId={}", eventId);
         PaginationValidator.validatePagination(from, size);
+        if (from + size <= publishedCommentsCache.getFirstPageSize()) {
+            return publishedCommentsCache.getPage(eventId, from, size, () -> loadFirstPublishedComments(eventId));
+        }
         validateEventPublished(eventId);
 
         Pageable pageable = createDefaultPageable(from, size);
@@ -151,6 +178,23 @@ public class CommentServiceImpl implements CommentService {
         return commentMapper.toDtoList(comments);
     }
 
+    @Override
+    public CursorPage<CommentDto> getPublishedComments(Long eventId, String after, int size) {
+        log.info("Получение опубликованных комментариев события по курсору: eventId={}", eventId);
+        PaginationValidator.validatePagination(0, size);
+        TimeIdCursor cursor = TimeIdCursor.decode(after);
+        if (cursor == TimeIdCursor.FIRST && size <= publishedCommentsCache.getFirstPageSize()) {
+            List<CommentDto> comments = publishedCommentsCache.getPage(
+                    eventId, 0, size, () -> loadFirstPublishedComments(eventId));
+            return CursorPage.of(comments, size, comment -> TimeIdCursor.encode(comment.getCreatedOn(), comment.getId()));
+        }
+        validateEventPublished(eventId);
+
+        List<Comment> comments = commentRepository.findEventCommentsAfter(
+                eventId, CommentStatus.PUBLISHED, cursor.time(), cursor.id(), Limit.of(size));
+        return toCursorPage(comments, size);
+    }
+
     @Override
     public CommentDto getPublishedCommentById(Long eventId, Long commentId) {
         log.info("Получение опубликованного комментария: eventId={}, commentId={}", eventId, commentId);
@@ -181,6 +225,24 @@ public class CommentServiceImpl implements CommentService {
         return commentMapper.toDtoList(comments);
     }
 
+    @Override
+    public CursorPage<CommentDto> getCommentsForAdmin(List<Long> users, List<Long> events,
+                                                      List<CommentStatus> statuses, String after, int size) {
+        log.info("Получение комментариев для администратора по курсору: users={}, events={}, statuses={}",
+                users, events, statuses);
+        PaginationValidator.validatePagination(0, size);
+        TimeIdCursor cursor = TimeIdCursor.decode(after);
+
+        List<Comment> comments = commentRepository.searchForAdminAfter(
+                normalizeFilter(users),
+                normalizeFilter(events),
+                normalizeFilter(statuses),
+                cursor.time(),
+                cursor.id(),
+                Limit.of(size));
+        return toCursorPage(comments, size);
+    }
+
     @Override
     @Transactional
     public CommentDto moderateComment(Long commentId, AdminUpdateCommentRequest request) {
@@ -207,6 +269,8 @@ public class CommentServiceImpl implements CommentService {
 
         comment.setUpdatedOn(nowTruncatedToMillis());
         Comment updatedComment = commentRepository.save(comment);
+        resourceVersions.bump(VersionedResource.COMMENTS);
+        publishedCommentsCache.invalidate(comment.getEvent().getId());
         return commentMapper.toDto(updatedComment);
     }
 
@@ -214,10 +278,10 @@ public class CommentServiceImpl implements CommentService {
     @Transactional
     public void deleteCommentByAdmin(Long commentId) {
         log.info("Удаление комментария администратором: commentId={}", commentId);
-        if (!commentRepository.existsById(commentId)) {
-            throw new NotFoundException("Комментарий не найден: id=" + commentId);
-        }
-        commentRepository.deleteById(commentId);
+        Comment comment = getCommentOrThrow(commentId);
+        commentRepository.delete(comment);
+        resourceVersions.bump(VersionedResource.COMMENTS);
+        publishedCommentsCache.invalidate(comment.getEvent().getId());
     }
 
     private Comment getCommentOrThrow(Long commentId) {
@@ -232,8 +296,20 @@ public class CommentServiceImpl implements CommentService {
     }
 
     private void validateEventPublished(Long eventId) {
-        eventRepository.findByIdAndState(eventId, EventState.PUBLISHED)
-                .orElseThrow(() -> new NotFoundException("Опубликованное событие не найдено: id=" + eventId));
+        if (!eventRepository.existsByIdAndState(eventId, EventState.PUBLISHED)) {
+            throw new NotFoundException("Опубликованное событие не найдено: id=" + eventId);
+        }
+    }
+
+    /**
+     * Loads the newest published comments of an event for {@link PublishedCommentsCache}.
+     * Published events are never unpublished, so a cached list also proves the event exists.
+     */
+    private List<CommentDto> loadFirstPublishedComments(Long eventId) {
+        validateEventPublished(eventId);
+        List<Comment> comments = commentRepository.findEventCommentsAfter(
+                eventId, CommentStatus.PUBLISHED, null, null, Limit.of(publishedCommentsCache.getFirstPageSize()));
+        return commentMapper.toDtoList(comments);
     }
 
     private void validateCommentOwner(Comment comment, Long userId) {
@@ -284,6 +360,11 @@ public class CommentServiceImpl implements CommentService {
                 .truncatedTo(ChronoUnit.MILLIS);
     }
 
+    private CursorPage<CommentDto> toCursorPage(List<Comment> comments, int size) {
+        return CursorPage.of(comments, size, comment -> TimeIdCursor.encode(comment.getCreatedOn(), comment.getId()))
+                .map(commentMapper::toDtoList);
+    }
+
     private Pageable createDefaultPageable(int from, int size) {
         return PageRequest.of(
                 from / size,
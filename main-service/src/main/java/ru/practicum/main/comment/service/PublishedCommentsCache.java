@@ -0,0 +1,102 @@
+package ru.practicum.main.comment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.comment.dto.CommentDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Newest published comments of an event, ready for the public comment thread.
+ * <p>
+ * For every event the first {@code comments.published-cache.first-page-size} published comments
+ * are kept as mapped {@link CommentDto}s in {@code createdOn DESC, id DESC} order, so pages inside
+ * that prefix are cut from memory. Comment changes drop the event's entry and user deletion,
+ * which removes the user's comments by cascade, drops every entry, both after their transaction
+ * commits; the removal waits for a load of the same event in progress, so a list read before the
+ * commit is not served after it. Metrics are published under the
+ * {@code publishedComments} cache name.
+ */
+@Component
+public class PublishedCommentsCache {
+
+    static final String CACHE_NAME = "publishedComments";
+
+    private final Cache<Long, List<CommentDto>> cache;
+    private final int firstPageSize;
+
+    public PublishedCommentsCache(MeterRegistry meterRegistry,
+                                  @Value("${comments.published-cache.first-page-size:50}") int firstPageSize,
+                                  @Value("${comments.published-cache.maximum-size:10000}") long maximumSize,
+                                  @Value("${comments.published-cache.ttl-ms:300000}") long ttlMs) {
+        if (firstPageSize <= 0) {
+            throw new IllegalArgumentException("Invalid comments.published-cache.first-page-size");
+        }
+        this.firstPageSize = firstPageSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Number of newest comments kept per event; pages ending within it are served from the cache.
+     */
+    public int getFirstPageSize() {
+        return firstPageSize;
+    }
+
+    /**
+     * Returns the cached comments or loads them with {@code loader}, which must return at most
+     * {@link #getFirstPageSize()} newest published comments. A failing loader caches nothing.
+     */
+    public List<CommentDto> getFirstPage(long eventId, Supplier<List<CommentDto>> loader) {
+        return cache.get(eventId, id -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Returns comments {@code [from, from + size)} of the cached prefix, loading it if needed.
+     */
+    public List<CommentDto> getPage(long eventId, int from, int size, Supplier<List<CommentDto>> loader) {
+        List<CommentDto> comments = getFirstPage(eventId, loader);
+        int start = Math.min(from, comments.size());
+        return comments.subList(start, Math.min(start + size, comments.size()));
+    }
+
+    /**
+     * Drops the event's comments once the current transaction, if any, commits.
+     */
+    public void invalidate(long eventId) {
+        afterCommit(() -> cache.invalidate(eventId));
+    }
+
+    /**
+     * Drops the comments of all events once the current transaction, if any, commits.
+     */
+    public void invalidateAll() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
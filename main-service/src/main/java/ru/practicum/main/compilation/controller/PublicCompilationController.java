@@ -3,6 +3,8 @@ package ru.practicum.main.compilation.controller;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,9 +12,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.main.compilation.dto.CompilationDto;
+import ru.practicum.main.compilation.service.CompilationFeedCache.CompilationFeed;
 import ru.practicum.main.compilation.service.CompilationService;
-
-import java.util.List;
+import ru.practicum.main.util.ConditionalGet;
+import ru.practicum.main.util.VersionedResource;
 
 @RestController
 @RequiredArgsConstructor
@@ -22,16 +25,25 @@ public class PublicCompilationController {
 
     private final CompilationService service;
 
+    /**
+     * Returns a page of compilations as cached JSON with its ETag. A request whose
+     * {@code If-None-Match} matches the ETag gets 304 Not Modified from Spring MVC without a body.
+     */
     @GetMapping
-    public List<CompilationDto> getAll(
+    public ResponseEntity<byte[]> getAll(
             @RequestParam(required = false) Boolean pinned,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
             @RequestParam(defaultValue = "10") @Positive int size
     ) {
-        return service.getAll(pinned, from, size);
+        CompilationFeed feed = service.getFeed(pinned, from, size);
+        return ResponseEntity.ok()
+                .eTag(feed.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(feed.json());
     }
 
     @GetMapping("/{compId}")
+    @ConditionalGet({VersionedResource.COMPILATIONS, VersionedResource.EVENTS})
     public CompilationDto getById(@PathVariable Long compId) {
         return service.getById(compId);
     }
@@ -3,9 +3,29 @@ package ru.practicum.main.compilation.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.main.compilation.model.Compilation;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
 
     Page<Compilation> findAllByPinned(Boolean pinned, Pageable pageable);
+
+    /**
+     * Event ids of several compilations in one query, ordered by compilation and event id.
+     */
+    @Query("SELECT c.id AS compilationId, e.id AS eventId " +
+            "FROM Compilation c JOIN c.events e " +
+            "WHERE c.id IN :compilationIds " +
+            "ORDER BY c.id, e.id")
+    List<CompilationEventProjection> findEventIds(@Param("compilationIds") Collection<Long> compilationIds);
+
+    interface CompilationEventProjection {
+        Long getCompilationId();
+
+        Long getEventId();
+    }
 }
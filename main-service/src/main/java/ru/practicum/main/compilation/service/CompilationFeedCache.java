@@ -0,0 +1,146 @@
+package ru.practicum.main.compilation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import ru.practicum.main.compilation.dto.CompilationDto;
+import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.service.EventUpdatedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized pages of the public compilations list.
+ * <p>
+ * A page is stored as ready JSON bytes with its ETag, keyed by {@code (pinned, from, size)}, so
+ * repeated reads neither query the database nor serialize. Any change of a compilation, and any
+ * change of an event that appears in a cached page, drops every page; the change is applied
+ * after its transaction commits. An event change that lands while a page is being read, before
+ * the page's event ids are known, moves the generation too, so the page is never served. Pages also expire after {@code compilations.feed-cache.ttl-ms}
+ * to pick up fresh views. Metrics are published under the {@code compilationFeed} cache name.
+ */
+@Slf4j
+@Component
+public class CompilationFeedCache {
+
+    static final String CACHE_NAME = "compilationFeed";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<FeedKey, CompilationFeed> cache;
+    /** Pages are keyed by generation, so a page loaded before an invalidation is never served after it. */
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<Long> cachedEventIds = ConcurrentHashMap.newKeySet();
+    /** Counts every committed event change, so a load can tell that one happened while it was reading. */
+    private final AtomicLong eventChanges = new AtomicLong();
+
+    public CompilationFeedCache(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${compilations.feed-cache.maximum-size:1000}") long maximumSize,
+                                @Value("${compilations.feed-cache.ttl-ms:60000}") long ttlMs) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached page or builds, serializes and caches it with {@code loader}.
+     */
+    public CompilationFeed get(Boolean pinned, int from, int size, Supplier<List<CompilationDto>> loader) {
+        FeedKey key = new FeedKey(generation.get(), pinned, from, size);
+        return cache.get(key, k -> load(loader));
+    }
+
+    /**
+     * Drops every cached page once the current transaction, if any, commits.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow();
+                }
+            });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventUpdated(EventUpdatedEvent event) {
+        // Counted before the lookup: a load either sees the change or has registered the id already
+        eventChanges.incrementAndGet();
+        if (cachedEventIds.contains(event.eventId())) {
+            log.debug("Сброс кэша подборок после изменения события id={}", event.eventId());
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        nextGeneration();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Ids are cleared before the generation moves, so ids registered by loads of the new
+     * generation are never lost.
+     */
+    private void nextGeneration() {
+        cachedEventIds.clear();
+        generation.incrementAndGet();
+    }
+
+    private CompilationFeed load(Supplier<List<CompilationDto>> loader) {
+        long changesBefore = eventChanges.get();
+        List<CompilationDto> compilations = loader.get();
+        compilations.forEach(compilation -> compilation.getEvents().stream()
+                .map(EventShortDto::getId)
+                .forEach(cachedEventIds::add));
+        if (eventChanges.get() != changesBefore) {
+            // Событие могло измениться после чтения, но до регистрации его id: страница устарела
+            log.debug("Страница подборок устарела во время загрузки, смена поколения");
+            nextGeneration();
+        }
+        return serialize(compilations);
+    }
+
+    private CompilationFeed serialize(List<CompilationDto> compilations) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(compilations);
+            return new CompilationFeed(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать подборки", e);
+        }
+    }
+
+    /**
+     * Serialized page of compilations.
+     *
+     * @param json UTF-8 JSON array of {@link CompilationDto}
+     * @param etag strong ETag of {@code json}, quoted
+     */
+    public record CompilationFeed(byte[] json, String etag) {
+    }
+
+    private record FeedKey(long generation, Boolean pinned, int from, int size) {
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.main.compilation.service;
 import ru.practicum.main.compilation.dto.CompilationDto;
 import ru.practicum.main.compilation.dto.NewCompilationDto;
 import ru.practicum.main.compilation.dto.UpdateCompilationRequest;
+import ru.practicum.main.compilation.service.CompilationFeedCache.CompilationFeed;
 
 import java.util.List;
 
@@ -16,5 +17,10 @@ public interface CompilationService {
 
     List<CompilationDto> getAll(Boolean pinned, int from, int size);
 
+    /**
+     * Same page as {@link #getAll}, serialized to JSON and served from {@link CompilationFeedCache}.
+     */
+    CompilationFeed getFeed(Boolean pinned, int from, int size);
+
     CompilationDto getById(Long compId);
 }
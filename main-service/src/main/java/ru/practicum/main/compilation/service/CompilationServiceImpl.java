@@ -9,20 +9,35 @@ import ru.practicum.main.compilation.dto.NewCompilationDto;
 import ru.practicum.main.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.main.compilation.model.Compilation;
 import ru.practicum.main.compilation.repository.CompilationRepository;
+import ru.practicum.main.compilation.repository.CompilationRepository.CompilationEventProjection;
+import ru.practicum.main.compilation.service.CompilationFeedCache.CompilationFeed;
 import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.mapper.EventMapper;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.service.EventViewsCache;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.exception.ValidationException;
 import ru.practicum.main.util.PaginationValidator;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.VersionedResource;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Compilation service.
+ * <p>
+ * Compilations are returned with a fixed number of queries whatever the page size: the
+ * compilations, their event ids, the events with category and initiator, and one views lookup.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -31,6 +46,9 @@ public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
     private final EventMapper eventMapper;
+    private final EventViewsCache eventViewsCache;
+    private final CompilationFeedCache compilationFeedCache;
+    private final ResourceVersions resourceVersions;
 
     @Override
     @Transactional
@@ -45,6 +63,8 @@ public class CompilationServiceImpl implements CompilationService {
                 .events(events)
                 .build();
 
+        compilationFeedCache.invalidate();
+        resourceVersions.bump(VersionedResource.COMPILATIONS);
         return toDto(compilationRepository.save(compilation));
     }
 
@@ -55,6 +75,8 @@ public class CompilationServiceImpl implements CompilationService {
             throw new NotFoundException("Подборка с id=" + compId + " не найдена");
         }
         compilationRepository.deleteById(compId);
+        compilationFeedCache.invalidate();
+        resourceVersions.bump(VersionedResource.COMPILATIONS);
     }
 
     @Override
@@ -73,6 +95,8 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setEvents(getEventsByIdsOrThrow(dto.getEvents()));
         }
 
+        compilationFeedCache.invalidate();
+        resourceVersions.bump(VersionedResource.COMPILATIONS);
         return toDto(compilationRepository.save(compilation));
     }
 
@@ -84,7 +108,13 @@ public class CompilationServiceImpl implements CompilationService {
                 ? compilationRepository.findAll(page).getContent()
                 : compilationRepository.findAllByPinned(pinned, page).getContent();
 
-        return comps.stream().map(this::toDto).toList();
+        return toDtos(comps);
+    }
+
+    @Override
+    public CompilationFeed getFeed(Boolean pinned, int from, int size) {
+        PaginationValidator.validatePagination(from, size);
+        return compilationFeedCache.get(pinned, from, size, () -> getAll(pinned, from, size));
     }
 
     @Override
@@ -94,16 +124,51 @@ public class CompilationServiceImpl implements CompilationService {
     }
 
     private CompilationDto toDto(Compilation compilation) {
-        List<EventShortDto> events = compilation.getEvents().stream()
-                .map(eventMapper::toEventShortDto)
+        return toDtos(List.of(compilation)).get(0);
+    }
+
+    private List<CompilationDto> toDtos(List<Compilation> compilations) {
+        if (compilations.isEmpty()) {
+            return List.of();
+        }
+        // Идентификаторы событий всех подборок страницы одним запросом вместо ленивой загрузки коллекций
+        Map<Long, List<Long>> eventIdsByCompilation = new HashMap<>();
+        Set<Long> eventIds = new LinkedHashSet<>();
+        List<Long> compilationIds = compilations.stream().map(Compilation::getId).toList();
+        for (CompilationEventProjection row : compilationRepository.findEventIds(compilationIds)) {
+            eventIdsByCompilation.computeIfAbsent(row.getCompilationId(), id -> new ArrayList<>()).add(row.getEventId());
+            eventIds.add(row.getEventId());
+        }
+        Map<Long, EventShortDto> eventsById = toEventShortDtos(eventIds);
+
+        return compilations.stream()
+                .map(compilation -> CompilationDto.builder()
+                        .id(compilation.getId())
+                        .title(compilation.getTitle())
+                        .pinned(compilation.getPinned())
+                        .events(eventIdsByCompilation.getOrDefault(compilation.getId(), List.of()).stream()
+                                .map(eventsById::get)
+                                .filter(Objects::nonNull)
+                                .toList())
+                        .build())
                 .toList();
+    }
 
-        return CompilationDto.builder()
-                .id(compilation.getId())
-                .title(compilation.getTitle())
-                .pinned(compilation.getPinned())
-                .events(events)
-                .build();
+    private Map<Long, EventShortDto> toEventShortDtos(Set<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+        // События вместе с категорией и инициатором, просмотры всех событий одним обращением к статистике
+        List<Event> events = eventRepository.findAllById(eventIds);
+        Map<Long, Long> views = eventViewsCache.getViews(events);
+
+        Map<Long, EventShortDto> eventsById = new HashMap<>();
+        for (Event event : events) {
+            EventShortDto dto = eventMapper.toEventShortDto(event);
+            dto.setViews(views.getOrDefault(event.getId(), 0L));
+            eventsById.put(event.getId(), dto);
+        }
+        return eventsById;
     }
 
     private Set<Event> getEventsByIdsOrThrow(List<Long> eventIds) {
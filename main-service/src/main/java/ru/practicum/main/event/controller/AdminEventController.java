@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -21,6 +22,7 @@ import ru.practicum.main.event.dto.UpdateEventAdminRequest;
 import ru.practicum.main.event.model.EventState;
 import ru.practicum.main.event.service.EventService;
 import ru.practicum.main.moderation.dto.EventModerationLogDto;
+import ru.practicum.main.util.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -39,10 +41,10 @@ public class AdminEventController {
 
     /**
      * Returns events matching administrative filters.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventFullDto> searchEvents(
+    public ResponseEntity<List<EventFullDto>> searchEvents(
             @RequestParam(required = false) List<Long> users,
             @RequestParam(required = false) List<EventState> states,
             @RequestParam(required = false) List<Long> categories,
@@ -51,10 +53,14 @@ public class AdminEventController {
             @RequestParam(required = false)
             @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /admin/events - Админ-поиск событий: users={}, states={}, categories={}",
                 users, states, categories);
-        return eventService.searchEventsForAdmin(users, states, categories, rangeStart, rangeEnd, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(eventService.searchEventsForAdmin(users, states, categories, rangeStart, rangeEnd, from, size));
+        }
+        return CursorPage.toResponse(eventService.searchEventsForAdmin(users, states, categories, rangeStart, rangeEnd, after, size));
     }
 
     /**
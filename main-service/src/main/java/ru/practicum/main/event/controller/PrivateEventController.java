@@ -6,6 +6,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -21,6 +22,7 @@ import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.dto.NewEventDto;
 import ru.practicum.main.event.dto.UpdateEventUserRequest;
 import ru.practicum.main.event.service.EventService;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -38,15 +40,19 @@ public class PrivateEventController {
 
     /**
      * Returns events created by the user.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventShortDto> getUserEvents(
+    public ResponseEntity<List<EventShortDto>> getUserEvents(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /users/{}/events - Получение событий пользователя", userId);
-        return eventService.getUserEvents(userId, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(eventService.getUserEvents(userId, from, size));
+        }
+        return CursorPage.toResponse(eventService.getUserEvents(userId, after, size));
     }
 
     /**
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,6 +18,9 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.main.event.dto.EventFullDto;
 import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.service.EventService;
+import ru.practicum.main.util.ConditionalGet;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.VersionedResource;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,11 +38,12 @@ public class PublicEventController {
     private final EventService eventService;
 
     /**
-     * Returns published events with filters and sorting (EVENT_DATE, VIEWS, RATING).
+     * Returns published events with filters and sorting (EVENT_DATE, VIEWS, RATING, RELEVANCE).
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventShortDto> getEvents(
+    @ConditionalGet(value = VersionedResource.EVENTS, recordsHit = true)
+    public ResponseEntity<List<EventShortDto>> getEvents(
             @RequestParam(required = false) String text,
             @RequestParam(required = false) List<Long> categories,
             @RequestParam(required = false) Boolean paid,
@@ -49,17 +54,23 @@ public class PublicEventController {
             @RequestParam(defaultValue = "false") Boolean onlyAvailable,
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size,
             HttpServletRequest request) {
         log.info("GET /events - Публичный поиск событий: text={}, categories={}", text, categories);
-        return eventService.searchPublicEvents(text, categories, paid, rangeStart, rangeEnd,
-                onlyAvailable, sort, from, size, request);
+        if (after == null) {
+            return ResponseEntity.ok(eventService.searchPublicEvents(text, categories, paid, rangeStart, rangeEnd,
+                    onlyAvailable, sort, from, size, request));
+        }
+        return CursorPage.toResponse(eventService.searchPublicEvents(text, categories, paid, rangeStart, rangeEnd,
+                onlyAvailable, sort, after, size, request));
     }
 
     /**
      * Returns a published event by identifier.
      */
     @GetMapping("/{id}")
+    @ConditionalGet(value = VersionedResource.EVENTS, recordsHit = true)
     @ResponseStatus(HttpStatus.OK)
     public EventFullDto getEventById(
             @PathVariable Long id,
@@ -11,6 +11,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.*;
@@ -24,6 +26,10 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "events")
+@NamedEntityGraph(name = Event.WITH_CATEGORY_AND_INITIATOR, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,6 +37,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Event {
 
+    /**
+     * Entity graph fetching the category and initiator with the event, as every event DTO shows both.
+     */
+    public static final String WITH_CATEGORY_AND_INITIATOR = "Event.withCategoryAndInitiator";
+
     /**
      * Unique event identifier.
      */
@@ -53,8 +64,11 @@ public class Event {
 
     /**
      * Number of approved participation requests.
+     * <p>
+     * Changed only by atomic updates in {@code EventRepository}; saving the entity never writes it,
+     * so an edit of a loaded event cannot overwrite participants confirmed in the meantime.
      */
-    @Column(name = "confirmed_requests")
+    @Column(name = "confirmed_requests", updatable = false)
     @Builder.Default
     private Long confirmedRequests = 0L;
 
@@ -132,10 +146,29 @@ public class Event {
 
     /**
      * View count.
+     * <p>
+     * Persisted by {@code EventViewsSynchronizer} only; entity updates never overwrite it.
      */
     @Builder.Default
+    @Column(nullable = false, updatable = false)
     private Long views = 0L;
 
+    /**
+     * Number of likes.
+     * <p>
+     * Changed by vote deltas and the periodic recount in {@code EventRatingCountersRepository} only.
+     */
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private Long likes = 0L;
+
+    /**
+     * Number of dislikes, maintained together with {@link #likes}.
+     */
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private Long dislikes = 0L;
+
     /**
      * Optimistic-lock field to protect concurrent updates.
      */
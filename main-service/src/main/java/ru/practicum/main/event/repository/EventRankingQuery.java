@@ -0,0 +1,66 @@
+package ru.practicum.main.event.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filters, ordering and page window for {@link EventRankingRepository}.
+ * <p>
+ * Only published events are ranked. {@code null} filters are not applied.
+ * If {@code after} is set the page starts right after that event and {@code offset} is ignored.
+ */
+@Getter
+@Builder
+public class EventRankingQuery {
+
+    /** Full-text query in web search syntax, matched against title, annotation and description. */
+    private final String text;
+    private final List<Long> categories;
+    private final Boolean paid;
+    private final LocalDateTime rangeStart;
+    private final LocalDateTime rangeEnd;
+    private final boolean onlyAvailable;
+    /** Only events in the materialized subscription feed of this user. */
+    private final Long feedFollowerId;
+    /** Only events with these ids; an empty collection matches nothing. */
+    private final Collection<Long> eventIds;
+    /** Only events within the circle. */
+    private final Circle within;
+
+    private final Order order;
+    /** Direction of the event date (and id) tie-breakers. */
+    private final boolean eventDateDescending;
+
+    private final EventRankingRepository.RankedEvent after;
+    private final long offset;
+    private final int limit;
+
+    /**
+     * Primary ordering of the ranking; ties are broken by event date and id.
+     */
+    public enum Order {
+        EVENT_DATE,
+        /** Views persisted in {@code events.views}, most viewed first. */
+        VIEWS,
+        /** Likes minus dislikes, best rated first, then by views. */
+        RATING,
+        /** Distance from the center of {@code within}, nearest first; offset pages only. */
+        DISTANCE,
+        /** Full-text rank against {@code text}, best match first; offset pages only. */
+        RELEVANCE
+    }
+
+    /**
+     * Search circle on the Earth's surface.
+     *
+     * @param lat      center latitude in degrees
+     * @param lon      center longitude in degrees
+     * @param radiusKm radius in kilometers
+     */
+    public record Circle(double lat, double lon, double radiusKm) {
+    }
+}
@@ -0,0 +1,218 @@
+package ru.practicum.main.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Ranks published events in the database for sorted public listings.
+ * <p>
+ * The whole ordering, including views and rating, is evaluated by the database, so both
+ * OFFSET pages and keyset pages are correct at any depth. Keyset pages continue after the
+ * sort key of the previous page's last event and cost the same regardless of depth.
+ * Only ids and sort keys are returned; entities are loaded by the caller.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventRankingRepository {
+
+    /** Rating from the vote counters of the event row; matches idx_events_published_rating. */
+    private static final String SCORE_COLUMN = "(e.likes - e.dislikes)";
+
+    /** Search query parsed like web search input: words, "quoted phrases", OR and -exclusions. */
+    private static final String TEXT_QUERY = "websearch_to_tsquery('russian', :text)";
+
+    private static final String RELEVANCE_EXPRESSION = "ts_rank_cd(e.search_vector, " + TEXT_QUERY + ")";
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /** Haversine distance from the circle center in kilometers. */
+    private static final String DISTANCE_EXPRESSION = "(2 * " + EARTH_RADIUS_KM + " * ASIN(SQRT(LEAST(1.0,"
+            + " POWER(SIN(RADIANS(e.lat - :centerLat) / 2), 2)"
+            + " + COS(RADIANS(:centerLat)) * COS(RADIANS(e.lat)) * POWER(SIN(RADIANS(e.lon - :centerLon) / 2), 2)))))";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public List<RankedEvent> findRanked(EventRankingQuery query) {
+        if (query.getOrder() == EventRankingQuery.Order.DISTANCE
+                && (query.getWithin() == null || query.getAfter() != null)) {
+            throw new IllegalArgumentException("Distance ordering requires a circle and supports offset pages only");
+        }
+        if (query.getOrder() == EventRankingQuery.Order.RELEVANCE
+                && (!hasText(query.getText()) || query.getAfter() != null)) {
+            throw new IllegalArgumentException("Relevance ordering requires a text and supports offset pages only");
+        }
+        if (query.getEventIds() != null && query.getEventIds().isEmpty()) {
+            return List.of();
+        }
+        boolean rating = query.getOrder() == EventRankingQuery.Order.RATING;
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        StringBuilder sql = new StringBuilder("SELECT e.id, e.views, e.event_date, ")
+                .append(rating ? SCORE_COLUMN : "0")
+                .append(" AS score FROM events e");
+        sql.append(" WHERE e.state = 'PUBLISHED'");
+        appendFilters(query, sql, params);
+
+        List<SortKey> keys = sortKeys(query);
+        if (query.getAfter() != null) {
+            sql.append(" AND ").append(seekPredicate(keys, 0, query.getAfter(), params));
+        }
+
+        sql.append(" ORDER BY ");
+        for (int i = 0; i < keys.size(); i++) {
+            SortKey key = keys.get(i);
+            sql.append(i == 0 ? "" : ", ").append(key.expression()).append(key.descending() ? " DESC" : " ASC");
+            if (key.nullsLast()) {
+                sql.append(" NULLS LAST");
+            }
+        }
+        sql.append(" LIMIT :limit");
+        params.addValue("limit", query.getLimit());
+        if (query.getAfter() == null && query.getOffset() > 0) {
+            sql.append(" OFFSET :offset");
+            params.addValue("offset", query.getOffset());
+        }
+
+        return namedParameterJdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new RankedEvent(
+                rs.getLong("id"),
+                rs.getLong("score"),
+                rs.getLong("views"),
+                rs.getObject("event_date", LocalDateTime.class)));
+    }
+
+    private void appendFilters(EventRankingQuery query, StringBuilder sql, MapSqlParameterSource params) {
+        if (hasText(query.getText())) {
+            sql.append(" AND e.search_vector @@ ").append(TEXT_QUERY);
+            params.addValue("text", query.getText());
+        }
+        if (query.getCategories() != null && !query.getCategories().isEmpty()) {
+            sql.append(" AND e.category_id IN (:categories)");
+            params.addValue("categories", query.getCategories());
+        }
+        if (query.getPaid() != null) {
+            sql.append(" AND e.paid = :paid");
+            params.addValue("paid", query.getPaid());
+        }
+        if (query.getRangeStart() != null) {
+            sql.append(" AND e.event_date >= :rangeStart");
+            params.addValue("rangeStart", query.getRangeStart());
+        }
+        if (query.getRangeEnd() != null) {
+            sql.append(" AND e.event_date <= :rangeEnd");
+            params.addValue("rangeEnd", query.getRangeEnd());
+        }
+        if (query.isOnlyAvailable()) {
+            sql.append(" AND (e.participant_limit = 0 OR e.confirmed_requests < e.participant_limit)");
+        }
+        if (query.getFeedFollowerId() != null) {
+            sql.append(" AND e.id IN (SELECT f.event_id FROM subscription_feed f WHERE f.follower_id = :feedFollowerId)");
+            params.addValue("feedFollowerId", query.getFeedFollowerId());
+        }
+        if (query.getEventIds() != null) {
+            // Массив одним параметром: список кандидатов может превышать лимит параметров запроса
+            sql.append(" AND e.id = ANY(:eventIds)");
+            params.addValue("eventIds", query.getEventIds().toArray(Long[]::new));
+        }
+        if (query.getWithin() != null) {
+            appendCircle(query.getWithin(), sql, params);
+        }
+    }
+
+    /**
+     * Restricts events to the circle: a bounding box served by idx_events_published_location
+     * first, then the exact distance. A box crossing the antimeridian is split in two.
+     */
+    private void appendCircle(EventRankingQuery.Circle circle, StringBuilder sql, MapSqlParameterSource params) {
+        double angularRadius = circle.radiusKm() / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius);
+        params.addValue("centerLat", circle.lat())
+                .addValue("centerLon", circle.lon())
+                .addValue("radiusKm", circle.radiusKm())
+                .addValue("minLat", Math.max(circle.lat() - latDelta, -90.0))
+                .addValue("maxLat", Math.min(circle.lat() + latDelta, 90.0));
+
+        double lonRatio = Math.sin(angularRadius) / Math.cos(Math.toRadians(circle.lat()));
+        if (circle.lat() + latDelta >= 90.0 || circle.lat() - latDelta <= -90.0
+                || angularRadius >= Math.PI / 2 || lonRatio >= 1.0) {
+            // Круг накрывает полюс или все долготы
+            sql.append(" AND ").append(box(0, -180.0, 180.0, params));
+        } else {
+            double lonDelta = Math.toDegrees(Math.asin(lonRatio));
+            double minLon = circle.lon() - lonDelta;
+            double maxLon = circle.lon() + lonDelta;
+            if (minLon < -180.0) {
+                sql.append(" AND (").append(box(0, minLon + 360.0, 180.0, params))
+                        .append(" OR ").append(box(1, -180.0, maxLon, params)).append(")");
+            } else if (maxLon > 180.0) {
+                sql.append(" AND (").append(box(0, minLon, 180.0, params))
+                        .append(" OR ").append(box(1, -180.0, maxLon - 360.0, params)).append(")");
+            } else {
+                sql.append(" AND ").append(box(0, minLon, maxLon, params));
+            }
+        }
+        sql.append(" AND ").append(DISTANCE_EXPRESSION).append(" <= :radiusKm");
+    }
+
+    private String box(int index, double minLon, double maxLon, MapSqlParameterSource params) {
+        params.addValue("minLon" + index, minLon).addValue("maxLon" + index, maxLon);
+        return "point(e.lon, e.lat) <@ box(point(:minLon" + index + ", :minLat), point(:maxLon" + index + ", :maxLat))";
+    }
+
+    private List<SortKey> sortKeys(EventRankingQuery query) {
+        boolean dateDesc = query.isEventDateDescending();
+        List<SortKey> keys = new ArrayList<>();
+        if (query.getOrder() == EventRankingQuery.Order.RATING) {
+            keys.add(new SortKey(SCORE_COLUMN, true, false, "afterScore", RankedEvent::score));
+        }
+        if (query.getOrder() == EventRankingQuery.Order.DISTANCE) {
+            keys.add(new SortKey(DISTANCE_EXPRESSION, false, false, "afterDistance", null));
+        } else if (query.getOrder() == EventRankingQuery.Order.RELEVANCE) {
+            keys.add(new SortKey(RELEVANCE_EXPRESSION, true, false, "afterRelevance", null));
+        } else if (query.getOrder() != EventRankingQuery.Order.EVENT_DATE) {
+            // Matches idx_events_published_views; the column is NOT NULL, so the seek stays exact
+            keys.add(new SortKey("e.views", true, true, "afterViews", RankedEvent::views));
+        }
+        keys.add(new SortKey("e.event_date", dateDesc, false, "afterEventDate", RankedEvent::eventDate));
+        keys.add(new SortKey("e.id", dateDesc, false, "afterId", RankedEvent::id));
+        return keys;
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.isBlank();
+    }
+
+    /**
+     * Builds {@code k1 > v1 OR (k1 = v1 AND (k2 > v2 OR (k2 = v2 AND ...)))} with the
+     * comparison direction of every key, which works for mixed ASC/DESC orderings.
+     */
+    private String seekPredicate(List<SortKey> keys, int index, RankedEvent after, MapSqlParameterSource params) {
+        SortKey key = keys.get(index);
+        params.addValue(key.param(), key.value().apply(after));
+        String comparison = key.expression() + (key.descending() ? " < :" : " > :") + key.param();
+        if (index == keys.size() - 1) {
+            return "(" + comparison + ")";
+        }
+        return "(" + comparison + " OR (" + key.expression() + " = :" + key.param()
+                + " AND " + seekPredicate(keys, index + 1, after, params) + "))";
+    }
+
+    /**
+     * Id of a ranked event with its sort key.
+     */
+    public record RankedEvent(Long id, long score, long views, LocalDateTime eventDate) {
+    }
+
+    private record SortKey(String expression,
+                           boolean descending,
+                           boolean nullsLast,
+                           String param,
+                           Function<RankedEvent, Object> value) {
+    }
+}
@@ -1,26 +1,43 @@
 package ru.practicum.main.event.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.model.EventState;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository for events.
  * <p>
- * Contains methods for user, admin, and public search.
+ * Contains methods for user, admin, and public search. Queries returning lists of events load
+ * the category and initiator in the same statement ({@link Event#WITH_CATEGORY_AND_INITIATOR}),
+ * so mapping a page to DTOs issues no further queries.
  */
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
 
+    /**
+     * Loads events by ids together with their category and initiator.
+     *
+     * @param ids event IDs
+     * @return found events in no particular order
+     */
+    @Override
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
+    List<Event> findAllById(Iterable<Long> ids);
+
     /**
      * Returns a user's events with pagination.
      *
@@ -28,12 +45,29 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      * @param pageable    pagination parameters
      * @return page of the user's events
      */
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     Page<Event> findAllByInitiatorId(Long initiatorId, Pageable pageable);
 
     /**
-     * Returns published events for a list of initiators.
+     * Returns a user's events with id greater than {@code afterId}, ordered by id.
+     *
+     * @param initiatorId initiator user ID
+     * @param afterId     id of the last event of the previous page, 0 for the first page
+     * @param limit       page size
+     * @return keyset page of the user's events
+     */
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
+    List<Event> findByInitiatorIdAndIdGreaterThanOrderByIdAsc(Long initiatorId, Long afterId, Limit limit);
+
+    /**
+     * Returns events in the given state with id greater than {@code afterId}, ordered by id.
+     *
+     * @param state   event state
+     * @param afterId id of the last event of the previous chunk, 0 for the first chunk
+     * @param limit   chunk size
+     * @return keyset chunk of events
      */
-    Page<Event> findAllByInitiatorIdInAndState(List<Long> initiatorIds, EventState state, Pageable pageable);
+    List<Event> findByStateAndIdGreaterThanOrderByIdAsc(EventState state, Long afterId, Limit limit);
 
     /**
      * Finds an event by ID and initiator.
@@ -44,6 +78,24 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      */
     Optional<Event> findByIdAndInitiatorId(Long eventId, Long initiatorId);
 
+    /**
+     * Checks that an event exists and belongs to the user, without loading it.
+     *
+     * @param eventId     event ID
+     * @param initiatorId initiator ID
+     * @return true if the event belongs to the user
+     */
+    boolean existsByIdAndInitiatorId(Long eventId, Long initiatorId);
+
+    /**
+     * Checks that an event exists in the given state, without loading it.
+     *
+     * @param eventId event ID
+     * @param state   expected state
+     * @return true if the event is in the state
+     */
+    boolean existsByIdAndState(Long eventId, EventState state);
+
     /**
      * Checks whether there are events in the specified category.
      *
@@ -71,6 +123,7 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      * @param pageable   pagination parameters
      * @return page of events matching the filters
      */
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     @Query("""
             SELECT e FROM Event e\s
             WHERE (:users IS NULL OR e.initiator.id IN :users)\s
@@ -88,53 +141,31 @@ public interface EventRepository extends JpaRepository<Event, Long> {
             Pageable pageable);
 
     /**
-     * Public search for published events with filters.
+     * Keyset version of {@link #findEventsForAdmin}: events with id greater than {@code afterId}, ordered by id.
      *
-     * @param text          search text (NULL = no text filter)
-     * @param categories    list of category IDs (NULL = all categories)
-     * @param paid          paid filter (NULL = all)
-     * @param rangeStart    start of time range
-     * @param rangeEnd      end of time range
-     * @param onlyAvailable only events with available spots
-     * @param pageable      pagination parameters
-     * @return page of published events
+     * @param afterId id of the last event of the previous page, 0 for the first page
+     * @param limit   page size
+     * @return keyset page of events matching the filters
      */
+    @EntityGraph(Event.WITH_CATEGORY_AND_INITIATOR)
     @Query("""
             SELECT e FROM Event e\s
-            WHERE e.state = 'PUBLISHED'\s
-            AND (CAST(:text AS string) IS NULL OR LOWER(e.annotation) LIKE LOWER(CONCAT('%', CAST(:text AS string), '%'))\s
-            OR LOWER(e.description) LIKE LOWER(CONCAT('%', CAST(:text AS string), '%')))\s
+            WHERE (:users IS NULL OR e.initiator.id IN :users)\s
+            AND (:states IS NULL OR e.state IN :states)\s
             AND (:categories IS NULL OR e.category.id IN :categories)\s
-            AND (:paid IS NULL OR e.paid = :paid)\s
             AND (CAST(:rangeStart AS timestamp) IS NULL OR e.eventDate >= :rangeStart)\s
             AND (CAST(:rangeEnd AS timestamp) IS NULL OR e.eventDate <= :rangeEnd)\s
-            AND (:onlyAvailable = false OR e.participantLimit = 0\s
-            OR e.confirmedRequests < e.participantLimit)
+            AND e.id > :afterId\s
+            ORDER BY e.id
            \s""")
-    Page<Event> findPublicEvents(
-            @Param("text") String text,
+    List<Event> findEventsForAdminAfter(
+            @Param("users") List<Long> users,
+            @Param("states") List<EventState> states,
             @Param("categories") List<Long> categories,
-            @Param("paid") Boolean paid,
             @Param("rangeStart") LocalDateTime rangeStart,
             @Param("rangeEnd") LocalDateTime rangeEnd,
-            @Param("onlyAvailable") Boolean onlyAvailable,
-            Pageable pageable);
-
-    /**
-     * Returns published events located inside a coordinates bounding box.
-     */
-    @Query("""
-            SELECT e FROM Event e\s
-            WHERE e.state = 'PUBLISHED'\s
-            AND e.location.lat BETWEEN :minLat AND :maxLat\s
-            AND e.location.lon BETWEEN :minLon AND :maxLon
-           \s""")
-    Page<Event> findPublishedEventsInBoundingBox(
-            @Param("minLat") Float minLat,
-            @Param("maxLat") Float maxLat,
-            @Param("minLon") Float minLon,
-            @Param("maxLon") Float maxLon,
-            Pageable pageable);
+            @Param("afterId") Long afterId,
+            Limit limit);
 
     /**
      * Finds an event by ID and state.
@@ -146,12 +177,81 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     Optional<Event> findByIdAndState(Long id, EventState state);
 
     /**
-     * Finds all published events with pagination.
+     * Adds {@code count} confirmed participants in one conditional update, unless that would
+     * exceed the participant limit (0 means no limit). Concurrent callers are serialized by the
+     * row lock, so the limit holds without reading the counter first; the event version is not
+     * changed, so this never conflicts with optimistic locking.
+     *
+     * @param eventId event ID
+     * @param count   number of participants to add
+     * @return 1 if the participants were added, 0 if the limit would be exceeded
      */
+    @Modifying
     @Query("""
-            SELECT e FROM Event e\s
-            WHERE e.state = 'PUBLISHED'
-           \s""")
-    Page<Event> findPublishedEventsWithPagination(Pageable pageable);
+            UPDATE Event e SET e.confirmedRequests = e.confirmedRequests + :count
+            WHERE e.id = :eventId
+              AND (e.participantLimit = 0 OR e.confirmedRequests + :count <= e.participantLimit)
+            """)
+    int incrementConfirmedRequests(@Param("eventId") Long eventId, @Param("count") long count);
+
+    /**
+     * Removes {@code count} confirmed participants in one update, never going below zero.
+     *
+     * @param eventId event ID
+     * @param count   number of participants to remove
+     * @return 1 if the participants were removed, 0 if fewer were confirmed
+     */
+    @Modifying
+    @Query("""
+            UPDATE Event e SET e.confirmedRequests = e.confirmedRequests - :count
+            WHERE e.id = :eventId AND e.confirmedRequests >= :count
+            """)
+    int decrementConfirmedRequests(@Param("eventId") Long eventId, @Param("count") long count);
+
+    /**
+     * Reads the current number of confirmed participants from the database, bypassing the
+     * possibly stale value of an already loaded event.
+     *
+     * @param eventId event ID
+     * @return confirmed participants
+     */
+    @Query("SELECT e.confirmedRequests FROM Event e WHERE e.id = :eventId")
+    long findConfirmedRequests(@Param("eventId") Long eventId);
+
+    /**
+     * Sets the confirmed participants of the given events to the number of their confirmed
+     * participation requests, in one statement.
+     *
+     * @param eventIds event IDs
+     * @return number of updated events
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Event e SET e.confirmedRequests = (
+                SELECT COUNT(r) FROM ParticipationRequest r
+                WHERE r.event.id = e.id AND r.status = ru.practicum.main.request.status.RequestStatus.CONFIRMED)
+            WHERE e.id IN :eventIds
+            """)
+    int recalculateConfirmedRequests(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Sets the confirmed participants of every event admitted without pre-moderation and with a
+     * participant limit whose counter differs from the number of its confirmed participation requests.
+     *
+     * @return number of updated events
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Event e SET e.confirmedRequests = (
+                SELECT COUNT(r) FROM ParticipationRequest r
+                WHERE r.event.id = e.id AND r.status = ru.practicum.main.request.status.RequestStatus.CONFIRMED)
+            WHERE e.requestModeration = false AND e.participantLimit > 0
+            AND e.confirmedRequests <> (
+                SELECT COUNT(r) FROM ParticipationRequest r
+                WHERE r.event.id = e.id AND r.status = ru.practicum.main.request.status.RequestStatus.CONFIRMED)
+            """)
+    int recalculateAdmittedConfirmedRequests();
 
 }
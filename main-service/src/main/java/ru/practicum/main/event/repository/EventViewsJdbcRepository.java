@@ -0,0 +1,75 @@
+package ru.practicum.main.event.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk access to the persisted {@code events.views} counters.
+ * <p>
+ * The column is written only here, bypassing the entity and its optimistic lock,
+ * so view synchronization never conflicts with user or admin edits of an event.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventViewsJdbcRepository {
+
+    private static final String UPDATE_VIEWS_SQL =
+            "UPDATE events SET views = ? WHERE id = ? AND views IS DISTINCT FROM ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns published events with id greater than {@code afterId}, ordered by id.
+     */
+    public List<EventCreation> findPublishedAfter(long afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, created_on FROM events WHERE state = 'PUBLISHED' AND id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new EventCreation(rs.getLong("id"), rs.getObject("created_on", LocalDateTime.class)),
+                afterId, limit);
+    }
+
+    /**
+     * Returns creation dates of the given events; unknown ids are skipped.
+     */
+    public List<EventCreation> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(
+                "SELECT id, created_on FROM events WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                (rs, rowNum) -> new EventCreation(rs.getLong("id"), rs.getObject("created_on", LocalDateTime.class)));
+    }
+
+    /**
+     * Writes view counters in one JDBC batch, skipping rows whose value has not changed.
+     *
+     * @param viewsById views per event id
+     * @return number of updated events
+     */
+    public int updateViews(Map<Long, Long> viewsById) {
+        List<Map.Entry<Long, Long>> rows = List.copyOf(viewsById.entrySet());
+        int[][] results = jdbcTemplate.batchUpdate(UPDATE_VIEWS_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getValue());
+            ps.setLong(2, row.getKey());
+            ps.setLong(3, row.getValue());
+        });
+        return Arrays.stream(results).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+
+    /**
+     * Event id with its creation date, the earliest moment it can have views.
+     */
+    public record EventCreation(Long id, LocalDateTime createdOn) {
+    }
+}
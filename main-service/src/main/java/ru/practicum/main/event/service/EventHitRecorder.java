@@ -0,0 +1,52 @@
+package ru.practicum.main.event.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.main.util.HitRecorder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sends hits of public event endpoints to Stats Service.
+ * <p>
+ * Used both by the event service and for requests answered with 304 Not Modified, which never
+ * reach it. Hits are only queued; {@link EventViewsCache} counts a queued view of an event page
+ * until Stats Server has stored it, so the page shows its own view without waiting for delivery.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventHitRecorder implements HitRecorder {
+
+    /** Application name for stats */
+    private static final String APP_NAME = "ewm-main-service";
+
+    private final StatsClient statsClient;
+    private final EventViewsCache eventViewsCache;
+
+    @Override
+    public void record(HttpServletRequest request) {
+        try {
+            EndpointHitDto hit = toHit(request);
+            if (statsClient.hit(hit)) {
+                eventViewsCache.onHitRecorded(hit);
+                log.debug("Статистика поставлена в очередь отправки: uri={}, ip={}", hit.getUri(), hit.getIp());
+            }
+        } catch (Exception e) {
+            log.warn("Ошибка при сохранении статистики: {}", e.getMessage());
+        }
+    }
+
+    private EndpointHitDto toHit(HttpServletRequest request) {
+        return EndpointHitDto.builder()
+                .app(APP_NAME)
+                .uri(request.getRequestURI())
+                .ip(request.getRemoteAddr())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
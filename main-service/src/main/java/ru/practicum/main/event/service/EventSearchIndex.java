@@ -0,0 +1,317 @@
+package ru.practicum.main.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over title, annotation and description of published events.
+ * <p>
+ * An alternative to the database full-text search for databases without {@code tsvector},
+ * such as H2. Enabled by {@code events.search-index.enabled}; when disabled every method is a
+ * no-op and {@link #isEnabled()} is {@code false}.
+ * <p>
+ * Every indexed event occupies a slot. Posting lists are sorted {@code int[]} arrays of slots
+ * per lower-cased token, and category, paid flag and event date are kept in parallel primitive
+ * arrays, so a search intersects the posting lists and applies these filters without touching
+ * the database. The index is built before the application starts serving requests and changes
+ * of events are applied after their transaction commits.
+ */
+@Slf4j
+@Component
+public class EventSearchIndex implements SmartInitializingSingleton {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int[] EMPTY = new int[0];
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, int[]> postings = new HashMap<>();
+    private final Map<Long, Integer> slotByEventId = new HashMap<>();
+    private long[] eventIds = new long[INITIAL_CAPACITY];
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private boolean[] paid = new boolean[INITIAL_CAPACITY];
+    private long[] eventDates = new long[INITIAL_CAPACITY];
+    private String[][] tokens = new String[INITIAL_CAPACITY][];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeSlotCount;
+    private int slotCount;
+
+    public EventSearchIndex(EventRepository eventRepository,
+                            @Value("${events.search-index.enabled:false}") boolean enabled,
+                            @Value("${events.search-index.chunk-size:500}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid events.search-index.chunk-size");
+        }
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long afterId = 0;
+        int indexed = 0;
+        List<Event> chunk;
+        do {
+            chunk = eventRepository.findByStateAndIdGreaterThanOrderByIdAsc(
+                    EventState.PUBLISHED, afterId, Limit.of(chunkSize));
+            for (Event event : chunk) {
+                apply(event.getId(), toDocument(event));
+                afterId = event.getId();
+            }
+            indexed += chunk.size();
+        } while (chunk.size() == chunkSize);
+        log.info("Построен поисковый индекс событий: {} событий, {} слов", indexed, postings.size());
+    }
+
+    /**
+     * Indexes a saved event if it is published and removes it from the index otherwise.
+     * Inside a transaction the change is applied only after a successful commit.
+     */
+    public void update(Event event) {
+        if (!enabled) {
+            return;
+        }
+        Long eventId = event.getId();
+        Document document = event.getState() == EventState.PUBLISHED ? toDocument(event) : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(eventId, document);
+                }
+            });
+        } else {
+            apply(eventId, document);
+        }
+    }
+
+    /**
+     * Returns ids of published events containing every word of {@code text} that pass the
+     * filters, in ascending id order. {@code null} filters are not applied.
+     */
+    public List<Long> search(String text,
+                             Collection<Long> categories,
+                             Boolean paidFilter,
+                             LocalDateTime rangeStart,
+                             LocalDateTime rangeEnd) {
+        Set<String> words = tokenize(text);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> categoryFilter = categories == null || categories.isEmpty() ? null : new HashSet<>(categories);
+        long start = rangeStart == null ? Long.MIN_VALUE : toEpochSecond(rangeStart);
+        long end = rangeEnd == null ? Long.MAX_VALUE : toEpochSecond(rangeEnd);
+
+        lock.readLock().lock();
+        try {
+            int[][] lists = new int[words.size()][];
+            int i = 0;
+            for (String word : words) {
+                int[] list = postings.get(word);
+                if (list == null) {
+                    return List.of();
+                }
+                lists[i++] = list;
+            }
+            // Пересечение начинаем с самого короткого списка
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+            int[] slots = lists[0];
+            for (int j = 1; j < lists.length && slots.length > 0; j++) {
+                slots = intersect(slots, lists[j]);
+            }
+
+            List<Long> result = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                if ((categoryFilter == null || categoryFilter.contains(categoryIds[slot]))
+                        && (paidFilter == null || paid[slot] == paidFilter)
+                        && eventDates[slot] >= start && eventDates[slot] <= end) {
+                    result.add(eventIds[slot]);
+                }
+            }
+            result.sort(Long::compare);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Long eventId, Document document) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByEventId.get(eventId);
+            if (slot != null) {
+                for (String word : tokens[slot]) {
+                    removePosting(word, slot);
+                }
+            }
+            if (document == null) {
+                if (slot != null) {
+                    slotByEventId.remove(eventId);
+                    tokens[slot] = null;
+                    releaseSlot(slot);
+                }
+                return;
+            }
+            if (slot == null) {
+                slot = acquireSlot();
+                slotByEventId.put(eventId, slot);
+            }
+            eventIds[slot] = eventId;
+            categoryIds[slot] = document.categoryId();
+            paid[slot] = document.paid();
+            eventDates[slot] = document.eventDate();
+            tokens[slot] = document.words();
+            for (String word : document.words()) {
+                addPosting(word, slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addPosting(String word, int slot) {
+        int[] list = postings.getOrDefault(word, EMPTY);
+        int position = Arrays.binarySearch(list, slot);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        int[] updated = new int[list.length + 1];
+        System.arraycopy(list, 0, updated, 0, insertAt);
+        updated[insertAt] = slot;
+        System.arraycopy(list, insertAt, updated, insertAt + 1, list.length - insertAt);
+        postings.put(word, updated);
+    }
+
+    private void removePosting(String word, int slot) {
+        int[] list = postings.get(word);
+        int position = list == null ? -1 : Arrays.binarySearch(list, slot);
+        if (position < 0) {
+            return;
+        }
+        if (list.length == 1) {
+            postings.remove(word);
+            return;
+        }
+        int[] updated = new int[list.length - 1];
+        System.arraycopy(list, 0, updated, 0, position);
+        System.arraycopy(list, position + 1, updated, position, list.length - position - 1);
+        postings.put(word, updated);
+    }
+
+    private int acquireSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == eventIds.length) {
+            int capacity = eventIds.length * 2;
+            eventIds = Arrays.copyOf(eventIds, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            paid = Arrays.copyOf(paid, capacity);
+            eventDates = Arrays.copyOf(eventDates, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private static int[] intersect(int[] shorter, int[] longer) {
+        int[] result = new int[shorter.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < shorter.length && j < longer.length) {
+            if (shorter[i] < longer[j]) {
+                i++;
+            } else if (shorter[i] > longer[j]) {
+                j++;
+            } else {
+                result[count++] = shorter[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Document toDocument(Event event) {
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(tokenize(event.getTitle()));
+        words.addAll(tokenize(event.getAnnotation()));
+        words.addAll(tokenize(event.getDescription()));
+        return new Document(
+                event.getCategory() == null ? 0 : event.getCategory().getId(),
+                Boolean.TRUE.equals(event.getPaid()),
+                event.getEventDate() == null ? Long.MIN_VALUE : toEpochSecond(event.getEventDate()),
+                words.toArray(String[]::new));
+    }
+
+    /**
+     * Splits text into lower-cased words of letters and digits; "ё" is folded into "е".
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Indexed fields of a published event, captured when the event is saved.
+     */
+    private record Document(long categoryId, boolean paid, long eventDate, String[] words) {
+    }
+}
@@ -7,6 +7,7 @@ import ru.practicum.main.event.dto.UpdateEventAdminRequest;
 import ru.practicum.main.event.dto.UpdateEventUserRequest;
 import ru.practicum.main.event.model.EventState;
 import ru.practicum.main.moderation.dto.EventModerationLogDto;
+import ru.practicum.main.util.CursorPage;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
@@ -39,6 +40,16 @@ public interface EventService {
          */
     List<EventShortDto> getUserEvents(Long userId, int from, int size);
 
+        /**
+         * Gets events created by a user in id order, starting after the {@code after} cursor.
+         *
+         * @param userId user ID
+         * @param after  cursor from the previous page, {@code null} or blank for the first page
+         * @param size   number of items per page
+         * @return page of short event DTOs with the cursor of the next page
+         */
+    CursorPage<EventShortDto> getUserEvents(Long userId, String after, int size);
+
         /**
          * Creates a new event.
          * <p>
@@ -102,6 +113,22 @@ public interface EventService {
             int from,
             int size);
 
+        /**
+         * Searches events with filters (for admins) in id order, starting after the {@code after} cursor.
+         *
+         * @param after cursor from the previous page, {@code null} or blank for the first page
+         * @param size  number of items per page
+         * @return page of full event DTOs with the cursor of the next page
+         */
+    CursorPage<EventFullDto> searchEventsForAdmin(
+            List<Long> users,
+            List<EventState> states,
+            List<Long> categories,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            String after,
+            int size);
+
         /**
          * Updates an event by an administrator.
          * <p>
@@ -137,13 +164,15 @@ public interface EventService {
          * Returns only published events ({@link EventState#PUBLISHED}).
          * Automatically records view statistics.
          *
-         * @param text          search text in title and description (optional)
+         * @param text          full-text query in web search syntax over title, annotation and
+         *                      description (optional)
          * @param categories    list of category IDs (optional)
          * @param paid          paid filter (optional)
          * @param rangeStart    start of time range (optional)
          * @param rangeEnd      end of time range (optional)
          * @param onlyAvailable only events with available spots
-         * @param sort          sorting: EVENT_DATE, VIEWS or RATING
+         * @param sort          sorting: EVENT_DATE, VIEWS, RATING or RELEVANCE (requires text,
+         *                      falls back to EVENT_DATE without it)
          * @param from          start index for pagination
          * @param size          number of items per page
          * @param request       HTTP request to obtain client IP
@@ -161,6 +190,30 @@ public interface EventService {
             int size,
             HttpServletRequest request);
 
+        /**
+         * Public search for events with keyset pagination.
+         * <p>
+         * Same filters and sorting as the offset version, but the page starts right after the
+         * event the {@code after} cursor points to, so deep pages cost the same as the first one.
+         *
+         * @param after cursor from the previous page, {@code null} or blank for the first page
+         * @param size  number of items per page
+         * @return page of short event DTOs with the cursor of the next page
+         * @throws ru.practicum.main.exception.ValidationException if the cursor is malformed or
+         *                                                          RELEVANCE sorting is requested
+         */
+    CursorPage<EventShortDto> searchPublicEvents(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            String sort,
+            String after,
+            int size,
+            HttpServletRequest request);
+
         /**
          * Gets a published event by ID.
          * <p>
@@ -187,23 +240,37 @@ public interface EventService {
     EventFullDto getEventById(Long eventId);
 
     /**
-     * Returns published events created by the provided initiators.
-     * Used for subscription feeds.
+     * Returns the subscription feed of a user: published events of the users they follow.
+     * <p>
+     * The feed is materialized on write, so a page costs the same for any number of followed users.
      *
-     * @param initiatorIds initiator ids
-     * @param sort         sorting: EVENT_DATE, VIEWS, RATING
-     * @param from         start index for pagination
-     * @param size         number of items per page
+     * @param followerId follower ID
+     * @param sort       sorting: EVENT_DATE (default, latest event date first), VIEWS, RATING
+     * @param from       start index for pagination
+     * @param size       number of items per page
      * @return list of short event DTOs
      */
-    List<EventShortDto> getPublishedEventsByInitiators(List<Long> initiatorIds, String sort, int from, int size);
+    List<EventShortDto> getSubscriptionFeed(Long followerId, String sort, int from, int size);
+
+    /**
+     * Returns the subscription feed of a user with keyset pagination.
+     *
+     * @param followerId follower ID
+     * @param sort       sorting: EVENT_DATE (default, latest event date first), VIEWS, RATING
+     * @param after      cursor from the previous page, {@code null} or blank for the first page
+     * @param size       number of items per page
+     * @return page of short event DTOs with the cursor of the next page
+     */
+    CursorPage<EventShortDto> getSubscriptionFeed(Long followerId, String sort, String after, int size);
 
     /**
      * Returns published events near managed location center using radius in kilometers.
+     * <p>
+     * The radius is applied to the whole data set in the database, so pages are exact at any depth.
      *
      * @param locationId managed location id
      * @param radiusKm   search radius in km (null = managed location default radius)
-     * @param sort       sorting: EVENT_DATE, VIEWS, RATING
+     * @param sort       sorting: DISTANCE (default, nearest first), EVENT_DATE, VIEWS, RATING
      * @param from       start index for pagination
      * @param size       number of items per page
      * @param request    HTTP request for stats hit collection
@@ -3,15 +3,13 @@ package ru.practicum.main.event.service;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.client.StatsClient;
-import ru.practicum.dto.EndpointHitDto;
-import ru.practicum.dto.StatsRequestDto;
-import ru.practicum.dto.ViewStatsDto;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
 import ru.practicum.main.event.dto.EventFullDto;
@@ -22,6 +20,9 @@ import ru.practicum.main.event.dto.UpdateEventUserRequest;
 import ru.practicum.main.event.mapper.EventMapper;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.repository.EventRankingQuery;
+import ru.practicum.main.event.repository.EventRankingRepository;
+import ru.practicum.main.event.repository.EventRankingRepository.RankedEvent;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
@@ -33,16 +34,19 @@ import ru.practicum.main.moderation.mapper.EventModerationLogMapper;
 import ru.practicum.main.moderation.model.EventModerationLog;
 import ru.practicum.main.moderation.repository.EventModerationLogRepository;
 import ru.practicum.main.moderation.status.EventModerationAction;
-import ru.practicum.main.rating.repository.EventRatingRepository;
-import ru.practicum.main.rating.status.VoteType;
+import ru.practicum.main.subscription.repository.SubscriptionFeedRepository;
+import ru.practicum.main.subscription.repository.SubscriptionFeedRepository.FeedItem;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.PageCursor;
 import ru.practicum.main.util.PaginationValidator;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -82,9 +86,6 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class EventServiceImpl implements EventService {
 
-    /** Application name for stats */
-    private static final String APP_NAME = "ewm-main-service";
-
     /** Minimum time before the event for a user (hours) */
     private static final int HOURS_BEFORE_EVENT_USER = 2;
 
@@ -94,18 +95,22 @@ public class EventServiceImpl implements EventService {
     private static final String DEFAULT_REJECT_REASON = "Отклонено администратором";
     private static final String SORT_VIEWS = "VIEWS";
     private static final String SORT_RATING = "RATING";
-    private static final double KM_PER_LATITUDE_DEGREE = 111.32d;
-    private static final double EARTH_RADIUS_KM = 6371.0088d;
+    private static final String SORT_DISTANCE = "DISTANCE";
+    private static final String SORT_RELEVANCE = "RELEVANCE";
 
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final EventMapper eventMapper;
-    private final StatsClient statsClient;
+    private final EventHitRecorder eventHitRecorder;
+    private final EventViewsCache eventViewsCache;
+    private final EventSearchIndex eventSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventRankingRepository eventRankingRepository;
     private final EventModerationLogRepository eventModerationLogRepository;
     private final EventModerationLogMapper eventModerationLogMapper;
-    private final EventRatingRepository eventRatingRepository;
     private final ManagedLocationRepository managedLocationRepository;
+    private final SubscriptionFeedRepository subscriptionFeedRepository;
 
     // Private API — operations for authorized users
 
@@ -122,6 +127,21 @@ public class EventServiceImpl implements EventService {
         return eventMapper.toEventShortDtoList(events);
     }
 
+    @Override
+    public CursorPage<EventShortDto> getUserEvents(Long userId, String after, int size) {
+        log.info("Получение событий пользователя по курсору userId={}, size={}", userId, size);
+        PaginationValidator.validatePagination(0, size);
+        long afterId = PageCursor.decodeAfterId(after);
+        validateUserExists(userId);
+
+        List<Event> events = eventRepository.findByInitiatorIdAndIdGreaterThanOrderByIdAsc(
+                userId, afterId, Limit.of(size));
+        enrichEventsWithViews(events);
+
+        return CursorPage.of(events, size, event -> PageCursor.encode(event.getId()))
+                .map(eventMapper::toEventShortDtoList);
+    }
+
     @Override
     @Transactional
     public EventFullDto createEvent(Long userId, NewEventDto newEventDto) {
@@ -143,6 +163,7 @@ public class EventServiceImpl implements EventService {
         event.setLocation(eventMapper.toLocation(newEventDto.getLocation()));
 
         Event savedEvent = eventRepository.save(event);
+        eventSearchIndex.update(savedEvent);
         log.info("Создано событие: id={}", savedEvent.getId());
 
         return eventMapper.toEventFullDto(savedEvent);
@@ -194,6 +215,8 @@ public class EventServiceImpl implements EventService {
         }
 
         Event updatedEvent = eventRepository.save(event);
+        eventSearchIndex.update(updatedEvent);
+        eventPublisher.publishEvent(new EventUpdatedEvent(updatedEvent.getId()));
         log.info("Событие обновлено: id={}", updatedEvent.getId());
 
         return eventMapper.toEventFullDto(updatedEvent);
@@ -222,6 +245,27 @@ public class EventServiceImpl implements EventService {
         return eventMapper.toEventFullDtoList(events);
     }
 
+    @Override
+    public CursorPage<EventFullDto> searchEventsForAdmin(
+            List<Long> users,
+            List<EventState> states,
+            List<Long> categories,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            String after,
+            int size) {
+        log.info("Админ-поиск событий по курсору: users={}, states={}, categories={}", users, states, categories);
+        PaginationValidator.validatePagination(0, size);
+        long afterId = PageCursor.decodeAfterId(after);
+
+        List<Event> events = eventRepository.findEventsForAdminAfter(
+                users, states, categories, rangeStart, rangeEnd, afterId, Limit.of(size));
+        enrichEventsWithViews(events);
+
+        return CursorPage.of(events, size, event -> PageCursor.encode(event.getId()))
+                .map(eventMapper::toEventFullDtoList);
+    }
+
     @Override
     @Transactional
     public EventFullDto updateEventByAdmin(Long eventId, UpdateEventAdminRequest updateRequest) {
@@ -277,6 +321,10 @@ public class EventServiceImpl implements EventService {
         }
 
         Event updatedEvent = eventRepository.save(event);
+        // Публикация добавляет событие в поисковый индекс, отклонение убирает
+        eventSearchIndex.update(updatedEvent);
+        updateSubscriptionFeeds(updatedEvent, updateRequest);
+        eventPublisher.publishEvent(new EventUpdatedEvent(updatedEvent.getId()));
         log.info("Событие обновлено администратором: id={}", updatedEvent.getId());
 
         return eventMapper.toEventFullDto(updatedEvent);
@@ -320,13 +368,6 @@ public class EventServiceImpl implements EventService {
         log.info("Публичный поиск событий: text={}, categories={}, paid={}", text, categories, paid);
         PaginationValidator.validatePagination(from, size);
 
-        // Если from большой, можно сразу вернуть пустой результат
-        int maxAllowedFrom = 10000; // Максимальный допустимый from
-        if (from > maxAllowedFrom) {
-            log.warn("Запрошен слишком большой from={}, возвращаем пустой результат", from);
-            return List.of();
-        }
-
         LocalDateTime start = rangeStart != null ? rangeStart : LocalDateTime.now();
         LocalDateTime end = rangeEnd;
 
@@ -334,40 +375,50 @@ public class EventServiceImpl implements EventService {
             throw new ValidationException("Дата начала не может быть после даты окончания");
         }
 
-        boolean sortByViews = isSortByViews(sort);
-        boolean sortByRating = isSortByRating(sort);
-
-        // Для сортировки по просмотрам/рейтингу используем ограниченную выборку + пагинацию в БД
-        if (sortByViews || sortByRating) {
-            // Увеличиваем лимит для возможности сортировки в памяти, но не бесконечно
-            int fetchSize = Math.min(size * 3, 500); // Максимум 500 записей для сортировки
-            Pageable fetchPageable = PageRequest.of(0, fetchSize);
-
-            List<Event> events = eventRepository.findPublicEvents(
-                    text, categories, paid, start, end,
-                    onlyAvailable != null && onlyAvailable, fetchPageable).getContent();
-
-            enrichEventsWithViews(events);
-
-            // Сортировка с учетом views/rating
-            events = sortEvents(events, sort, Comparator.comparing(Event::getEventDate));
+        // Фильтры, полнотекстовый поиск, сортировка и пагинация целиком в БД
+        EventRankingQuery query = publicSearchQuery(text, categories, paid, start, end, onlyAvailable, sort)
+                .offset(from)
+                .limit(size)
+                .build();
 
-            // Ручная пагинация
-            events = applyManualPagination(events, from, size);
+        eventHitRecorder.record(request);
+        return eventMapper.toEventShortDtoList(loadRankedEvents(query).getItems());
+    }
 
-            return eventMapper.toEventShortDtoList(events);
-        } else {
-            // Обычная пагинация в БД
-            Pageable pageable = PageRequest.of(from / size, size, Sort.by("eventDate").ascending());
-            List<Event> events = eventRepository.findPublicEvents(
-                    text, categories, paid, start, end,
-                    onlyAvailable != null && onlyAvailable, pageable).getContent();
+    @Override
+    public CursorPage<EventShortDto> searchPublicEvents(
+            String text,
+            List<Long> categories,
+            Boolean paid,
+            LocalDateTime rangeStart,
+            LocalDateTime rangeEnd,
+            Boolean onlyAvailable,
+            String sort,
+            String after,
+            int size,
+            HttpServletRequest request) {
 
-            saveHit(request);
-            enrichEventsWithViews(events);
+        log.info("Публичный поиск событий по курсору: text={}, categories={}, paid={}", text, categories, paid);
+        PaginationValidator.validatePagination(0, size);
 
-            return eventMapper.toEventShortDtoList(events);
+        LocalDateTime start = rangeStart != null ? rangeStart : LocalDateTime.now();
+        if (rangeEnd != null && start.isAfter(rangeEnd)) {
+            throw new ValidationException("Дата начала не может быть после даты окончания");
+        }
+        RankedEvent afterEvent = decodeRankingCursor(after);
+        EventRankingQuery.EventRankingQueryBuilder builder =
+                publicSearchQuery(text, categories, paid, start, rangeEnd, onlyAvailable, sort);
+        if (builder.build().getOrder() == EventRankingQuery.Order.RELEVANCE) {
+            throw new ValidationException("Сортировка RELEVANCE поддерживает только пагинацию через from");
         }
+        EventRankingQuery query = builder
+                .after(afterEvent)
+                .limit(size)
+                .build();
+
+        eventHitRecorder.record(request);
+        CursorPage<Event> page = loadRankedEvents(query);
+        return new CursorPage<>(eventMapper.toEventShortDtoList(page.getItems()), page.getNextCursor());
     }
 
     @Override
@@ -377,8 +428,8 @@ public class EventServiceImpl implements EventService {
         Event event = eventRepository.findByIdAndState(eventId, EventState.PUBLISHED)
                 .orElseThrow(() -> new NotFoundException("Событие не найдено: id=" + eventId));
 
-        // Record the request in stats
-        saveHit(request);
+        // Record the request in stats; the views below count it before it is delivered
+        eventHitRecorder.record(request);
 
         // Update event views from stats
         enrichEventWithViews(event);
@@ -395,62 +446,53 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    public List<EventShortDto> getPublishedEventsByInitiators(List<Long> initiatorIds,
-                                                              String sort,
-                                                              int from,
-                                                              int size) {
+    public List<EventShortDto> getSubscriptionFeed(Long followerId, String sort, int from, int size) {
         PaginationValidator.validatePagination(from, size);
 
-        if (initiatorIds == null || initiatorIds.isEmpty()) {
-            return List.of();
+        if (isSortByViews(sort) || isSortByRating(sort)) {
+            // Сортировка по просмотрам/рейтингу целиком в БД среди событий ленты
+            EventRankingQuery query = EventRankingQuery.builder()
+                    .feedFollowerId(followerId)
+                    .order(toRankingOrder(sort))
+                    .eventDateDescending(true)
+                    .offset(from)
+                    .limit(size)
+                    .build();
+            return eventMapper.toEventShortDtoList(loadRankedEvents(query).getItems());
         }
 
-        // Ограничиваем количество initiators для предотвращения слишком больших выборок
-        List<Long> uniqueInitiatorIds = initiatorIds.stream()
-                .distinct()
-                .limit(100) // Максимум 100 авторов за раз
-                .toList();
-
-        boolean sortByViews = isSortByViews(sort);
-        boolean sortByRating = isSortByRating(sort);
-
-        if (sortByViews || sortByRating) {
-            // Для сортировки по просмотрам/рейтингу используем ограниченную выборку
-            int fetchSize = Math.min(size * 3, 300);
-            Pageable fetchPageable = PageRequest.of(0, fetchSize,
-                    Sort.by("eventDate").descending().and(Sort.by("id").descending()));
-
-            List<Event> events = eventRepository.findAllByInitiatorIdInAndState(
-                            uniqueInitiatorIds,
-                            EventState.PUBLISHED,
-                            fetchPageable
-                    )
-                    .getContent();
-
-            enrichEventsWithViews(events);
-
-            events = sortEvents(events, sort, Comparator.comparing(Event::getEventDate).reversed());
-            events = applyManualPagination(events, from, size);
-
-            return eventMapper.toEventShortDtoList(events);
-        } else {
-            Pageable pageable = PageRequest.of(
-                    from / size,
-                    size,
-                    Sort.by("eventDate").descending().and(Sort.by("id").descending())
-            );
-
-            List<Event> events = eventRepository.findAllByInitiatorIdInAndState(
-                            uniqueInitiatorIds,
-                            EventState.PUBLISHED,
-                            pageable
-                    )
-                    .getContent();
+        List<FeedItem> feed = subscriptionFeedRepository.findPage(followerId, from, size);
+        return eventMapper.toEventShortDtoList(loadFeedEvents(feed));
+    }
 
-            enrichEventsWithViews(events);
+    @Override
+    public CursorPage<EventShortDto> getSubscriptionFeed(Long followerId, String sort, String after, int size) {
+        PaginationValidator.validatePagination(0, size);
+        RankedEvent afterEvent = decodeRankingCursor(after);
+
+        if (isSortByViews(sort) || isSortByRating(sort)) {
+            EventRankingQuery query = EventRankingQuery.builder()
+                    .feedFollowerId(followerId)
+                    .order(toRankingOrder(sort))
+                    .eventDateDescending(true)
+                    .after(afterEvent)
+                    .limit(size)
+                    .build();
+            CursorPage<Event> page = loadRankedEvents(query);
+            return new CursorPage<>(eventMapper.toEventShortDtoList(page.getItems()), page.getNextCursor());
+        }
 
-            return eventMapper.toEventShortDtoList(events);
+        List<FeedItem> feed = afterEvent == null
+                ? subscriptionFeedRepository.findPage(followerId, 0, size)
+                : subscriptionFeedRepository.findPageAfter(
+                        followerId, new FeedItem(afterEvent.id(), afterEvent.eventDate()), size);
+        String nextCursor = null;
+        if (feed.size() == size) {
+            // Формат курсора общий с сортировками в БД; для даты значимы только дата и id
+            FeedItem last = feed.get(feed.size() - 1);
+            nextCursor = PageCursor.encode(0L, 0L, last.eventDate(), last.eventId());
         }
+        return new CursorPage<>(eventMapper.toEventShortDtoList(loadFeedEvents(feed)), nextCursor);
     }
 
     @Override
@@ -470,42 +512,18 @@ public class EventServiceImpl implements EventService {
             throw new ValidationException("Радиус поиска должен быть больше 0");
         }
 
-        double centerLat = location.getLat();
-        double centerLon = location.getLon();
-
-        // Сначала получаем события с пагинацией
-        int pageSize = size * 2; // Запрашиваем немного больше для фильтрации
-        Pageable pageable = PageRequest.of(from / size, pageSize);
-
-        List<Event> pagedEvents = eventRepository.findPublishedEventsWithPagination(pageable).getContent();
-
-        // Фильтруем по расстоянию
-        List<Event> nearbyEvents = pagedEvents.stream()
-                .filter(event -> event.getLocation() != null
-                        && event.getLocation().getLat() != null
-                        && event.getLocation().getLon() != null)
-                .filter(event -> calculateDistanceKm(
-                        centerLat,
-                        centerLon,
-                        event.getLocation().getLat(),
-                        event.getLocation().getLon()
-                ) <= effectiveRadiusKm)
-                .limit(size) // Ограничиваем результат
-                .toList();
-
-        saveHit(request);
-        enrichEventsWithViews(nearbyEvents);
-
-        // Если нужно больше событий и мы не набрали достаточно
-        if (nearbyEvents.size() < size && pagedEvents.size() == pageSize) {
-            // Можно добавить логику для получения следующих страниц
-            log.debug("Получено только {} событий из {}, требуется дополнительная загрузка",
-                    nearbyEvents.size(), size);
-        }
-
-        List<Event> sorted = sortEvents(nearbyEvents, sort, Comparator.comparing(Event::getEventDate));
+        // Отбор по радиусу, сортировка и пагинация целиком в БД
+        EventRankingQuery query = EventRankingQuery.builder()
+                .within(new EventRankingQuery.Circle(location.getLat(), location.getLon(), effectiveRadiusKm))
+                .order(sort == null || SORT_DISTANCE.equalsIgnoreCase(sort)
+                        ? EventRankingQuery.Order.DISTANCE
+                        : toRankingOrder(sort))
+                .offset(from)
+                .limit(size)
+                .build();
 
-        return eventMapper.toEventShortDtoList(sorted);
+        eventHitRecorder.record(request);
+        return eventMapper.toEventShortDtoList(loadRankedEvents(query).getItems());
     }
 
     // Private methods — helper operations
@@ -525,126 +543,128 @@ public class EventServiceImpl implements EventService {
     }
 
 
-    private void saveHit(HttpServletRequest request) {
-        try {
-            EndpointHitDto hit = EndpointHitDto.builder()
-                    .app(APP_NAME)
-                    .uri(request.getRequestURI())
-                    .ip(request.getRemoteAddr())
-                    .timestamp(LocalDateTime.now())
-                    .build();
-            statsClient.hit(hit);
-            log.debug("Статистика сохранена: uri={}, ip={}", hit.getUri(), hit.getIp());
-        } catch (Exception e) {
-            log.warn("Ошибка при сохранении статистики: {}", e.getMessage());
+    private void enrichEventsWithViews(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
         }
+        Map<Long, Long> viewsMap = eventViewsCache.getViews(events);
+        events.forEach(event -> event.setViews(viewsMap.getOrDefault(event.getId(), 0L)));
     }
 
-    private Map<Long, Long> getViewsForEvents(List<Event> events) {
-        if (events.isEmpty()) {
-            return Map.of();
+    private void enrichEventWithViews(Event event) {
+        enrichEventsWithViews(List.of(event));
+    }
+
+    /**
+     * Loads events ranked by the database in ranking order. Views of a views ranking are the
+     * persisted ones the events were ordered by; other rankings get fresh views from the cache.
+     */
+    private CursorPage<Event> loadRankedEvents(EventRankingQuery query) {
+        List<RankedEvent> ranked = eventRankingRepository.findRanked(query);
+        List<Event> events = loadInOrder(ranked.stream().map(RankedEvent::id).toList());
+
+        if (query.getOrder() != EventRankingQuery.Order.VIEWS) {
+            enrichEventsWithViews(events);
         }
 
-        try {
-            List<String> uris = events.stream()
-                    .map(e -> "/events/" + e.getId())
-                    .collect(Collectors.toList());
-
-            LocalDateTime start = events.stream()
-                    .map(Event::getCreatedOn)
-                    .min(LocalDateTime::compareTo)
-                    .orElse(LocalDateTime.now().minusYears(1));
-
-            StatsRequestDto requestDto = new StatsRequestDto();
-            requestDto.setStart(start);
-            requestDto.setEnd(LocalDateTime.now());
-            requestDto.setUris(uris);
-            requestDto.setUnique(true);
-
-            List<ViewStatsDto> stats = statsClient.getStats(requestDto);
-
-            return stats.stream()
-                    .collect(Collectors.toMap(
-                            s -> extractEventIdFromUri(s.getUri()),
-                            ViewStatsDto::getHits,
-                            (a, b) -> a));
-        } catch (Exception e) {
-            log.warn("Ошибка при получении статистики: {}", e.getMessage());
-            return Map.of();
+        String nextCursor = null;
+        if (ranked.size() == query.getLimit()) {
+            RankedEvent last = ranked.get(ranked.size() - 1);
+            nextCursor = PageCursor.encode(last.score(), last.views(), last.eventDate(), last.id());
         }
+        return new CursorPage<>(events, nextCursor);
     }
 
-    private Long extractEventIdFromUri(String uri) {
-        String[] parts = uri.split("/");
-        return Long.parseLong(parts[parts.length - 1]);
+    /**
+     * Loads the events of a feed page in feed order with fresh views.
+     */
+    private List<Event> loadFeedEvents(List<FeedItem> feed) {
+        List<Event> events = loadInOrder(feed.stream().map(FeedItem::eventId).toList());
+        enrichEventsWithViews(events);
+        return events;
     }
 
-    private void enrichEventsWithViews(List<Event> events) {
-        if (events.isEmpty()) {
-            return;
-        }
-        Map<Long, Long> viewsMap = getViewsForEvents(events);
-        events.forEach(event -> event.setViews(viewsMap.getOrDefault(event.getId(), 0L)));
+    private List<Event> loadInOrder(List<Long> ids) {
+        Map<Long, Event> eventsById = eventRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        return ids.stream()
+                .map(eventsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
-    private void enrichEventWithViews(Event event) {
-        enrichEventsWithViews(List.of(event));
+    /**
+     * Keeps the materialized subscription feeds in step with a moderated event: a published event
+     * is fanned out to the followers of its initiator, a rescheduled one is moved in their feeds.
+     */
+    private void updateSubscriptionFeeds(Event event, UpdateEventAdminRequest updateRequest) {
+        if (event.getState() != EventState.PUBLISHED) {
+            return;
+        }
+        if (updateRequest.getStateAction() == UpdateEventAdminRequest.StateAction.PUBLISH_EVENT) {
+            int feeds = subscriptionFeedRepository.fanOut(
+                    event.getId(), event.getInitiator().getId(), event.getEventDate());
+            log.info("Событие id={} добавлено в ленты подписчиков: {}", event.getId(), feeds);
+        } else if (updateRequest.getEventDate() != null) {
+            subscriptionFeedRepository.moveEvent(event.getId(), event.getEventDate());
+        }
     }
 
-    private List<Event> sortEvents(List<Event> events, String sort, Comparator<Event> defaultComparator) {
-        if (events.isEmpty()) {
-            return events;
+    private RankedEvent decodeRankingCursor(String after) {
+        if (!PageCursor.isPresent(after)) {
+            return null;
         }
+        PageCursor cursor = PageCursor.decode(after, 4);
+        return new RankedEvent(cursor.getLong(3), cursor.getLong(0), cursor.getLong(1), cursor.getDateTime(2));
+    }
 
+    private EventRankingQuery.Order toRankingOrder(String sort) {
         if (isSortByViews(sort)) {
-            return events.stream()
-                    .sorted(Comparator.comparing(
-                                    Event::getViews,
-                                    Comparator.nullsLast(Comparator.reverseOrder())
-                            )
-                            .thenComparing(Event::getEventDate, Comparator.nullsLast(Comparator.naturalOrder())))
-                    .toList();
+            return EventRankingQuery.Order.VIEWS;
         }
-
         if (isSortByRating(sort)) {
-            Map<Long, Long> scoreMap = getRatingScoresForEvents(events);
-            return events.stream()
-                    .sorted(Comparator
-                            .comparing(
-                                    (Event event) -> scoreMap.getOrDefault(event.getId(), 0L),
-                                    Comparator.reverseOrder()
-                            )
-                            .thenComparing(
-                                    Event::getViews,
-                                    Comparator.nullsLast(Comparator.reverseOrder())
-                            )
-                            .thenComparing(
-                                    Event::getEventDate,
-                                    Comparator.nullsLast(Comparator.naturalOrder())
-                            ))
-                    .toList();
+            return EventRankingQuery.Order.RATING;
         }
-
-        return events.stream()
-                .sorted(defaultComparator)
-                .toList();
+        return EventRankingQuery.Order.EVENT_DATE;
     }
 
-    private Map<Long, Long> getRatingScoresForEvents(List<Event> events) {
-        if (events.isEmpty()) {
-            return Map.of();
+    /**
+     * Filters and ordering of a public search. With the in-process index enabled the text is
+     * resolved to candidate ids by {@link EventSearchIndex} and the database only ranks them.
+     */
+    private EventRankingQuery.EventRankingQueryBuilder publicSearchQuery(String text,
+                                                                         List<Long> categories,
+                                                                         Boolean paid,
+                                                                         LocalDateTime start,
+                                                                         LocalDateTime end,
+                                                                         Boolean onlyAvailable,
+                                                                         String sort) {
+        EventRankingQuery.EventRankingQueryBuilder builder = EventRankingQuery.builder()
+                .categories(categories)
+                .paid(paid)
+                .rangeStart(start)
+                .rangeEnd(end)
+                .onlyAvailable(onlyAvailable != null && onlyAvailable);
+        if (eventSearchIndex.isEnabled() && hasText(text)) {
+            // Ранжирование ts_rank недоступно без текста в запросе, поэтому RELEVANCE → EVENT_DATE
+            return builder
+                    .eventIds(eventSearchIndex.search(text, categories, paid, start, end))
+                    .order(toSearchOrder(sort, null));
         }
+        return builder.text(text).order(toSearchOrder(sort, text));
+    }
 
-        List<Long> eventIds = events.stream()
-                .map(Event::getId)
-                .toList();
-
-        return eventRatingRepository.findScoresByEventIds(eventIds, VoteType.LIKE, VoteType.DISLIKE)
-                .stream()
-                .collect(Collectors.toMap(
-                        EventRatingRepository.EventScoreProjection::getEventId,
-                        score -> score.getScore() == null ? 0L : score.getScore().longValue()
-                ));
+    /**
+     * Relevance ranking needs a text query; without one the search falls back to event date order.
+     */
+    private EventRankingQuery.Order toSearchOrder(String sort, String text) {
+        if (SORT_RELEVANCE.equalsIgnoreCase(sort)) {
+            return hasText(text)
+                    ? EventRankingQuery.Order.RELEVANCE
+                    : EventRankingQuery.Order.EVENT_DATE;
+        }
+        return toRankingOrder(sort);
     }
 
     private boolean isSortByViews(String sort) {
@@ -655,28 +675,6 @@ public class EventServiceImpl implements EventService {
         return SORT_RATING.equalsIgnoreCase(sort);
     }
 
-    private List<Event> applyManualPagination(List<Event> events, int from, int size) {
-        int startIdx = Math.min(from, events.size());
-        int endIdx = Math.min(startIdx + size, events.size());
-        return events.subList(startIdx, endIdx);
-    }
-
-    private double calculateDistanceKm(double lat1, double lon1, double lat2, double lon2) {
-        double lat1Rad = Math.toRadians(lat1);
-        double lon1Rad = Math.toRadians(lon1);
-        double lat2Rad = Math.toRadians(lat2);
-        double lon2Rad = Math.toRadians(lon2);
-
-        double dLat = lat2Rad - lat1Rad;
-        double dLon = lon2Rad - lon1Rad;
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(lat1Rad) * Math.cos(lat2Rad)
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return EARTH_RADIUS_KM * c;
-    }
-
     private void saveModerationLog(Event event, EventModerationAction action, String note) {
         EventModerationLog logEntry = EventModerationLog.builder()
                 .event(event)
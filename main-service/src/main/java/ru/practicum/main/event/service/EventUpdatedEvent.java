@@ -0,0 +1,12 @@
+package ru.practicum.main.event.service;
+
+/**
+ * Application event published when a saved event changes in a way visible in event DTOs:
+ * edits, moderation or its number of confirmed participants.
+ * <p>
+ * Listeners holding derived data, such as serialized responses, use it to drop that data.
+ *
+ * @param eventId id of the changed event
+ */
+public record EventUpdatedEvent(Long eventId) {
+}
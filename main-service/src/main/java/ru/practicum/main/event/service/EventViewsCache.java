@@ -0,0 +1,253 @@
+package ru.practicum.main.event.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.StatsRequestDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.main.event.model.Event;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Local cache of unique event views fetched from Stats Server.
+ * <p>
+ * Entries are keyed by event id, bounded by {@code events.views-cache.maximum-size} and expire
+ * {@code events.views-cache.ttl-ms} after loading. Missing ids of one request are loaded with
+ * a single stats call; concurrent requests for an event that is already being loaded wait for
+ * that call instead of issuing their own. Hit, miss and eviction counters are published to
+ * Micrometer under the {@code eventViews} cache name.
+ * <p>
+ * Hits reach Stats Server in batches, so a loaded count can miss views this instance has just
+ * recorded. Event page viewers passed to {@link #onHitRecorded(EndpointHitDto)} are remembered
+ * per IP for {@code events.views-cache.ttl-ms} after their last view, up to
+ * {@code events.views-cache.maximum-viewers}; the views of an event include its new viewers
+ * that Stats Server had not stored when the count was loaded. A viewer returning after being
+ * forgotten is counted once more until the event's count is reloaded.
+ * <p>
+ * Once Stats Server has stored a batch of hits, the counts of the event pages in it are
+ * dropped so the next read also picks up views recorded elsewhere, but at most once per
+ * {@code events.views-cache.min-refresh-on-hit-ms}: a popular event is reloaded at that pace,
+ * not on every batch, and its reads are served from memory in between.
+ */
+@Slf4j
+@Component
+public class EventViewsCache {
+
+    static final String CACHE_NAME = "eventViews";
+
+    /** URI of a single event page, whose hits are counted as the event's views */
+    private static final Pattern EVENT_URI_PATTERN = Pattern.compile("/events/(\\d+)");
+
+    private final StatsClient statsClient;
+    private final AsyncCache<Long, CachedViews> cache;
+    private final Cache<Long, RecordedViewers> recordedViewers;
+    private final Cache<Viewer, ViewerState> viewers;
+    private final long minRefreshOnHitNanos;
+
+    public EventViewsCache(StatsClient statsClient,
+                           MeterRegistry meterRegistry,
+                           @Value("${events.views-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${events.views-cache.ttl-ms:60000}") long ttlMs,
+                           @Value("${events.views-cache.maximum-viewers:100000}") long maximumViewers,
+                           @Value("${events.views-cache.min-refresh-on-hit-ms:5000}") long minRefreshOnHitMs) {
+        this.statsClient = statsClient;
+        this.minRefreshOnHitNanos = Duration.ofMillis(minRefreshOnHitMs).toNanos();
+        // Loads run on the requesting thread; other threads wait for the same future
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+        // A count loaded against dropped counters would no longer see the event's new viewers;
+        // evictions run on the calling thread, so the counts are adjusted before it goes on
+        this.recordedViewers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(ttlMs))
+                .executor(Runnable::run)
+                .evictionListener((Long eventId, RecordedViewers counters, RemovalCause cause) ->
+                        cache.synchronous().invalidate(eventId))
+                .build();
+        // A forgotten viewer whose view was never stored must not be counted any longer
+        this.viewers = Caffeine.newBuilder()
+                .maximumSize(maximumViewers)
+                .expireAfterAccess(Duration.ofMillis(ttlMs))
+                .executor(Runnable::run)
+                .evictionListener((Viewer viewer, ViewerState state, RemovalCause cause) -> {
+                    if (state.delivered().compareAndSet(false, true)) {
+                        state.counters().recorded().decrementAndGet();
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        statsClient.addDeliveryListener(this::onHitsDelivered);
+    }
+
+    /**
+     * Returns unique views per event id. Events without views are mapped to 0; if Stats Server
+     * is unavailable an empty map is returned and nothing is cached.
+     */
+    public Map<Long, Long> getViews(List<Event> events) {
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, LocalDateTime> createdOnById = new HashMap<>();
+        events.forEach(event -> createdOnById.putIfAbsent(event.getId(), event.getCreatedOn()));
+
+        try {
+            Map<Long, CachedViews> cached = cache
+                    .getAll(createdOnById.keySet(), ids -> loadViews(ids, createdOnById))
+                    .join();
+            return cached.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().currentViews()));
+        } catch (Exception e) {
+            log.warn("Ошибка при получении статистики: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Called once a hit has been queued for Stats Server. A view of an event page by an IP
+     * not seen recently is added to the event's views until Stats Server has stored it.
+     */
+    public void onHitRecorded(EndpointHitDto hit) {
+        Long eventId = extractEventPageId(hit.getUri());
+        if (eventId == null) {
+            return;
+        }
+        RecordedViewers counters = recordedViewers.get(eventId, id -> new RecordedViewers());
+        ViewerState state = new ViewerState(counters, new AtomicBoolean());
+        if (viewers.asMap().putIfAbsent(new Viewer(eventId, hit.getIp()), state) == null) {
+            counters.recorded().incrementAndGet();
+        }
+    }
+
+    /**
+     * Called with every batch of hits stored by Stats Server. Marks the recorded viewers as
+     * stored and drops the cached counts of the viewed events loaded at least
+     * {@code events.views-cache.min-refresh-on-hit-ms} ago. Fresher counts and loads in progress
+     * are kept: the stored viewers are still added to them.
+     */
+    void onHitsDelivered(List<EndpointHitDto> hits) {
+        Set<Long> eventIds = new HashSet<>();
+        for (EndpointHitDto hit : hits) {
+            Long eventId = extractEventPageId(hit.getUri());
+            if (eventId == null) {
+                continue;
+            }
+            eventIds.add(eventId);
+            ViewerState state = viewers.getIfPresent(new Viewer(eventId, hit.getIp()));
+            if (state != null && state.delivered().compareAndSet(false, true)) {
+                state.counters().delivered().incrementAndGet();
+            }
+        }
+        long now = System.nanoTime();
+        for (Long eventId : eventIds) {
+            CompletableFuture<CachedViews> future = cache.getIfPresent(eventId);
+            if (future != null && future.isDone() && !future.isCompletedExceptionally()
+                    && now - future.join().loadedAt() >= minRefreshOnHitNanos) {
+                cache.asMap().remove(eventId, future);
+            }
+        }
+    }
+
+    private Map<Long, CachedViews> loadViews(Set<? extends Long> ids, Map<Long, LocalDateTime> createdOnById) {
+        // Viewers stored before the stats call are in the loaded count, later ones are added to it
+        long loadedAt = System.nanoTime();
+        Map<Long, RecordedViewers> countersById = new HashMap<>();
+        Map<Long, Long> deliveredBeforeById = new HashMap<>();
+        for (Long id : ids) {
+            RecordedViewers counters = recordedViewers.get(id, eventId -> new RecordedViewers());
+            countersById.put(id, counters);
+            deliveredBeforeById.put(id, counters.delivered().get());
+        }
+
+        // Views of an event can only be recorded after its creation, so the earliest creation
+        // date of the batch covers every event in it
+        LocalDateTime start = ids.stream()
+                .map(createdOnById::get)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .orElse(LocalDateTime.now().minusYears(1));
+
+        StatsRequestDto requestDto = new StatsRequestDto();
+        requestDto.setStart(start);
+        requestDto.setEnd(LocalDateTime.now());
+        requestDto.setUris(ids.stream().map(id -> "/events/" + id).collect(Collectors.toList()));
+        requestDto.setUnique(true);
+
+        List<ViewStatsDto> stats = statsClient.getStats(requestDto);
+        Map<Long, Long> viewsById = stats.stream()
+                .collect(Collectors.toMap(
+                        s -> extractEventIdFromUri(s.getUri()),
+                        ViewStatsDto::getHits,
+                        (a, b) -> a));
+
+        Map<Long, CachedViews> result = new HashMap<>();
+        for (Long id : ids) {
+            result.put(id, new CachedViews(viewsById.getOrDefault(id, 0L),
+                    countersById.get(id), deliveredBeforeById.get(id), loadedAt));
+        }
+        log.debug("Загружены просмотры событий из статистики: {}", result.size());
+        return result;
+    }
+
+    private Long extractEventIdFromUri(String uri) {
+        String[] parts = uri.split("/");
+        return Long.parseLong(parts[parts.length - 1]);
+    }
+
+    private Long extractEventPageId(String uri) {
+        Matcher matcher = EVENT_URI_PATTERN.matcher(uri);
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : null;
+    }
+
+    /**
+     * Views loaded from Stats Server, the number of the event's recorded viewers it had stored
+     * before the load and when the load started, in {@link System#nanoTime()} units.
+     */
+    private record CachedViews(long views, RecordedViewers viewers, long deliveredBefore, long loadedAt) {
+
+        long currentViews() {
+            return views + Math.max(0, viewers.recorded().get() - deliveredBefore);
+        }
+    }
+
+    /**
+     * New viewers of an event recorded by this instance and how many of them Stats Server has stored.
+     */
+    private record RecordedViewers(AtomicLong recorded, AtomicLong delivered) {
+
+        RecordedViewers() {
+            this(new AtomicLong(), new AtomicLong());
+        }
+    }
+
+    private record Viewer(long eventId, String ip) {
+    }
+
+    private record ViewerState(RecordedViewers counters, AtomicBoolean delivered) {
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.main.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.StatsRequestDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.main.event.repository.EventViewsJdbcRepository;
+import ru.practicum.main.event.repository.EventViewsJdbcRepository.EventCreation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@code events.views} in sync with Stats Service.
+ * <p>
+ * The first run after startup refreshes every published event. Later runs ask Stats Service
+ * which event pages were viewed since the previous run and refresh only those events, so the
+ * cost of a run depends on recent traffic rather than on the number of events. The window is
+ * widened by {@code events.views-sync.overlap-ms} to pick up hits that reach Stats Service late.
+ */
+@Slf4j
+@Component
+public class EventViewsSynchronizer {
+
+    private static final Pattern EVENT_URI_PATTERN = Pattern.compile("/events/(\\d+)");
+
+    private final StatsClient statsClient;
+    private final EventViewsJdbcRepository eventViewsJdbcRepository;
+    private final int chunkSize;
+    private final Duration overlap;
+
+    private LocalDateTime lastSyncedAt;
+
+    public EventViewsSynchronizer(StatsClient statsClient,
+                                  EventViewsJdbcRepository eventViewsJdbcRepository,
+                                  @Value("${events.views-sync.chunk-size:100}") int chunkSize,
+                                  @Value("${events.views-sync.overlap-ms:60000}") long overlapMs) {
+        if (chunkSize <= 0 || overlapMs < 0) {
+            throw new IllegalArgumentException("Invalid events.views-sync.* configuration");
+        }
+        this.statsClient = statsClient;
+        this.eventViewsJdbcRepository = eventViewsJdbcRepository;
+        this.chunkSize = chunkSize;
+        this.overlap = Duration.ofMillis(overlapMs);
+    }
+
+    @Scheduled(fixedDelayString = "${events.views-sync.interval-ms:60000}",
+            initialDelayString = "${events.views-sync.initial-delay-ms:10000}")
+    public synchronized void synchronize() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int updated = lastSyncedAt == null
+                    ? synchronizeAll(now)
+                    : synchronizeViewedSince(lastSyncedAt.minus(overlap), now);
+            lastSyncedAt = now;
+            if (updated > 0) {
+                log.info("Обновлены просмотры событий: {}", updated);
+            }
+        } catch (Exception e) {
+            log.warn("Ошибка синхронизации просмотров событий: {}", e.getMessage());
+        }
+    }
+
+    private int synchronizeAll(LocalDateTime now) {
+        int updated = 0;
+        long afterId = 0;
+        List<EventCreation> chunk;
+        do {
+            chunk = eventViewsJdbcRepository.findPublishedAfter(afterId, chunkSize);
+            if (!chunk.isEmpty()) {
+                updated += refresh(chunk, now);
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == chunkSize);
+        return updated;
+    }
+
+    private int synchronizeViewedSince(LocalDateTime since, LocalDateTime now) {
+        StatsRequestDto requestDto = new StatsRequestDto();
+        requestDto.setStart(since);
+        requestDto.setEnd(now);
+        requestDto.setUnique(false);
+
+        Set<Long> viewedIds = new TreeSet<>();
+        for (ViewStatsDto stats : statsClient.getStats(requestDto)) {
+            Matcher matcher = EVENT_URI_PATTERN.matcher(stats.getUri());
+            if (matcher.matches()) {
+                viewedIds.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+
+        int updated = 0;
+        List<Long> ids = List.copyOf(viewedIds);
+        for (int i = 0; i < ids.size(); i += chunkSize) {
+            List<Long> chunkIds = ids.subList(i, Math.min(i + chunkSize, ids.size()));
+            updated += refresh(eventViewsJdbcRepository.findByIds(chunkIds), now);
+        }
+        return updated;
+    }
+
+    /**
+     * Loads total unique views of the events with one stats call and stores them.
+     */
+    private int refresh(List<EventCreation> events, LocalDateTime now) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime start = events.stream()
+                .map(EventCreation::createdOn)
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .orElse(now.minusYears(1));
+
+        StatsRequestDto requestDto = new StatsRequestDto();
+        requestDto.setStart(start);
+        requestDto.setEnd(now);
+        requestDto.setUris(events.stream().map(event -> "/events/" + event.id()).collect(Collectors.toList()));
+        requestDto.setUnique(true);
+
+        Map<Long, Long> viewsById = new HashMap<>();
+        events.forEach(event -> viewsById.put(event.id(), 0L));
+        for (ViewStatsDto stats : statsClient.getStats(requestDto)) {
+            Matcher matcher = EVENT_URI_PATTERN.matcher(stats.getUri());
+            if (matcher.matches()) {
+                viewsById.computeIfPresent(Long.parseLong(matcher.group(1)), (id, views) -> stats.getHits());
+            }
+        }
+        return eventViewsJdbcRepository.updateViews(viewsById);
+    }
+}
@@ -17,6 +17,8 @@ import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.service.EventService;
 import ru.practicum.main.location.dto.ManagedLocationDto;
 import ru.practicum.main.location.service.ManagedLocationService;
+import ru.practicum.main.util.ConditionalGet;
+import ru.practicum.main.util.VersionedResource;
 
 import java.util.List;
 
@@ -37,6 +39,7 @@ public class PublicLocationController {
      * Returns active locations.
      */
     @GetMapping
+    @ConditionalGet(VersionedResource.LOCATIONS)
     @ResponseStatus(HttpStatus.OK)
     public List<ManagedLocationDto> getLocations(
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
@@ -49,6 +52,7 @@ public class PublicLocationController {
      * Returns active location by id.
      */
     @GetMapping("/{locationId}")
+    @ConditionalGet(VersionedResource.LOCATIONS)
     @ResponseStatus(HttpStatus.OK)
     public ManagedLocationDto getLocationById(@PathVariable @Positive Long locationId) {
         log.info("GET /locations/{} - Получение активной локации", locationId);
@@ -59,6 +63,7 @@ public class PublicLocationController {
      * Returns published events near active managed location center.
      */
     @GetMapping("/{locationId}/events")
+    @ConditionalGet(value = {VersionedResource.LOCATIONS, VersionedResource.EVENTS}, recordsHit = true)
     @ResponseStatus(HttpStatus.OK)
     public List<EventShortDto> getEventsNearLocation(
             @PathVariable @Positive Long locationId,
@@ -16,6 +16,8 @@ import ru.practicum.main.location.mapper.ManagedLocationMapper;
 import ru.practicum.main.location.model.ManagedLocation;
 import ru.practicum.main.location.repository.ManagedLocationRepository;
 import ru.practicum.main.util.PaginationValidator;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.VersionedResource;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -32,6 +34,7 @@ public class ManagedLocationServiceImpl implements ManagedLocationService {
 
     private final ManagedLocationRepository managedLocationRepository;
     private final ManagedLocationMapper managedLocationMapper;
+    private final ResourceVersions resourceVersions;
 
     @Override
     @Transactional
@@ -51,6 +54,7 @@ public class ManagedLocationServiceImpl implements ManagedLocationService {
                 .build();
 
         ManagedLocation saved = managedLocationRepository.save(location);
+        resourceVersions.bump(VersionedResource.LOCATIONS);
         return managedLocationMapper.toDto(saved);
     }
 
@@ -84,6 +88,7 @@ public class ManagedLocationServiceImpl implements ManagedLocationService {
         location.setUpdatedOn(nowTruncatedToMillis());
 
         ManagedLocation updated = managedLocationRepository.save(location);
+        resourceVersions.bump(VersionedResource.LOCATIONS);
         return managedLocationMapper.toDto(updated);
     }
 
@@ -101,6 +106,7 @@ public class ManagedLocationServiceImpl implements ManagedLocationService {
         location.setActive(false);
         location.setUpdatedOn(nowTruncatedToMillis());
         managedLocationRepository.save(location);
+        resourceVersions.bump(VersionedResource.LOCATIONS);
     }
 
     @Override
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.main.rating.dto.EventVoteDto;
 import ru.practicum.main.rating.dto.EventVoteRequest;
 import ru.practicum.main.rating.service.EventRatingService;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -61,14 +63,18 @@ public class PrivateEventRatingController {
 
     /**
      * Returns votes created by user.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping("/ratings")
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventVoteDto> getUserVotes(
+    public ResponseEntity<List<EventVoteDto>> getUserVotes(
             @PathVariable @Positive Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /users/{}/ratings - Получение голосов пользователя", userId);
-        return eventRatingService.getUserVotes(userId, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(eventRatingService.getUserVotes(userId, from, size));
+        }
+        return CursorPage.toResponse(eventRatingService.getUserVotes(userId, after, size));
     }
 }
@@ -0,0 +1,74 @@
+package ru.practicum.main.rating.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Access to the denormalized vote counters {@code events.likes} and {@code events.dislikes}.
+ * <p>
+ * Like the views counter, the columns are written bypassing the entity and its optimistic lock.
+ * Votes change them by deltas in the voting transaction; {@link #recount} rebuilds them from
+ * {@code event_ratings} to correct drift, e.g. after votes were removed by a cascading delete.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventRatingCountersRepository {
+
+    private static final String ADD_VOTES_SQL =
+            "UPDATE events SET likes = likes + ?, dislikes = dislikes + ? WHERE id = ?";
+
+    private static final String LOCK_CHUNK_SQL =
+            "SELECT id FROM events WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String LIKES_COUNT =
+            "(SELECT COUNT(*) FROM event_ratings r WHERE r.event_id = e.id AND r.vote = 'LIKE')";
+
+    private static final String DISLIKES_COUNT =
+            "(SELECT COUNT(*) FROM event_ratings r WHERE r.event_id = e.id AND r.vote = 'DISLIKE')";
+
+    private static final String RECOUNT_SQL = "UPDATE events e SET likes = " + LIKES_COUNT
+            + ", dislikes = " + DISLIKES_COUNT
+            + " WHERE e.id > ? AND e.id <= ?"
+            + " AND (e.likes <> " + LIKES_COUNT + " OR e.dislikes <> " + DISLIKES_COUNT + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds vote deltas to the counters of an event; must run in the transaction that changes the vote.
+     */
+    public void addVotes(long eventId, long likes, long dislikes) {
+        jdbcTemplate.update(ADD_VOTES_SQL, likes, dislikes, eventId);
+    }
+
+    /**
+     * Recounts the counters of up to {@code limit} events with id greater than {@code afterId}.
+     * <p>
+     * The event rows are locked first. A vote changes its counters in the same transaction as the
+     * vote row, so while the lock is held every vote is either committed and counted, or will
+     * apply its delta after the recount; the recount then reads the votes with a fresh snapshot.
+     *
+     * @return recount result; an empty chunk means there are no more events
+     */
+    @Transactional
+    public RecountChunk recount(long afterId, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(LOCK_CHUNK_SQL, Long.class, afterId, limit);
+        if (ids.isEmpty()) {
+            return new RecountChunk(0, afterId, 0);
+        }
+        long lastId = ids.get(ids.size() - 1);
+        int updated = jdbcTemplate.update(RECOUNT_SQL, afterId, lastId);
+        return new RecountChunk(ids.size(), lastId, updated);
+    }
+
+    /**
+     * @param size    number of events in the chunk
+     * @param lastId  id of the last event of the chunk
+     * @param updated number of events whose counters were corrected
+     */
+    public record RecountChunk(int size, long lastId, int updated) {
+    }
+}
@@ -1,14 +1,18 @@
 package ru.practicum.main.rating.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.main.event.model.EventState;
 import ru.practicum.main.rating.model.EventRating;
-import ru.practicum.main.rating.status.VoteType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,37 +23,51 @@ import java.util.Optional;
 public interface EventRatingRepository extends JpaRepository<EventRating, Long> {
 
     /**
-     * Finds vote by user and event.
+     * Finds vote by user and event and locks it until the end of the transaction, so concurrent
+     * changes of the same vote apply their counter deltas one after another.
      */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<EventRating> findByUserIdAndEventId(Long userId, Long eventId);
 
     /**
-     * Returns paginated user votes.
+     * Reads what a vote needs to be validated in one query: the event's state and initiator and
+     * whether the voter exists. Empty if the event does not exist.
      */
-    Page<EventRating> findAllByUserId(Long userId, Pageable pageable);
+    @Query("""
+            SELECT e.state AS state, e.initiator.id AS initiatorId,
+                   (SELECT COUNT(u) FROM User u WHERE u.id = :userId) AS voterCount
+            FROM Event e
+            WHERE e.id = :eventId
+            """)
+    Optional<VoteTarget> findVoteTarget(@Param("eventId") Long eventId, @Param("userId") Long userId);
 
     /**
-     * Counts votes for event by type.
+     * Returns paginated user votes.
      */
-    Long countByEventIdAndVote(Long eventId, VoteType vote);
+    Page<EventRating> findAllByUserId(Long userId, Pageable pageable);
 
     /**
-     * Aggregated rating score (likes - dislikes) for a list of events.
+     * Keyset page of user votes in {@code updatedOn DESC, id DESC} order,
+     * starting after {@code (afterUpdatedOn, afterId)}; {@code null} cursor means the first page.
      */
-    @Query("SELECT r.event.id AS eventId, " +
-            "SUM(CASE WHEN r.vote = :likeVote THEN 1 WHEN r.vote = :dislikeVote THEN -1 ELSE 0 END) AS score " +
-            "FROM EventRating r " +
-            "WHERE r.event.id IN :eventIds " +
-            "GROUP BY r.event.id")
-    List<EventScoreProjection> findScoresByEventIds(
-            @Param("eventIds") List<Long> eventIds,
-            @Param("likeVote") VoteType likeVote,
-            @Param("dislikeVote") VoteType dislikeVote
-    );
-
-    interface EventScoreProjection {
-        Long getEventId();
-
-        Number getScore();
+    @Query("""
+            SELECT r FROM EventRating r
+            WHERE r.user.id = :userId
+            AND (:afterId IS NULL OR r.updatedOn < :afterUpdatedOn
+                 OR (r.updatedOn = :afterUpdatedOn AND r.id < :afterId))
+            ORDER BY r.updatedOn DESC, r.id DESC
+            """)
+    List<EventRating> findUserVotesAfter(
+            @Param("userId") Long userId,
+            @Param("afterUpdatedOn") LocalDateTime afterUpdatedOn,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    interface VoteTarget {
+        EventState getState();
+
+        Long getInitiatorId();
+
+        Long getVoterCount();
     }
 }
@@ -0,0 +1,71 @@
+package ru.practicum.main.rating.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.main.rating.status.VoteType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes votes with single native statements instead of a find-then-save round trip.
+ * <p>
+ * Requires PostgreSQL: the vote is stored with {@code INSERT ... ON CONFLICT DO UPDATE}, which is
+ * atomic under concurrent votes of the same user, so they never fail on the unique constraint.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventVoteJdbcRepository {
+
+    /**
+     * The conflicting row is updated only if the vote changes; it is locked either way. The
+     * system column {@code xmax} is 0 for a freshly inserted row.
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO event_ratings (event_id, user_id, vote, created_on, updated_on)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, event_id) DO UPDATE
+                SET vote = EXCLUDED.vote, updated_on = EXCLUDED.updated_on
+                WHERE event_ratings.vote <> EXCLUDED.vote
+            RETURNING id, created_on, xmax = 0 AS inserted""";
+
+    private static final String TOUCH_SQL = """
+            UPDATE event_ratings SET updated_on = ?
+            WHERE user_id = ? AND event_id = ?
+            RETURNING id, created_on""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores the user's vote for an event, creating or replacing it.
+     *
+     * @return the stored vote with the vote it replaced
+     */
+    public UpsertedVote upsert(long userId, long eventId, VoteType vote, LocalDateTime now) {
+        List<UpsertedVote> upserted = jdbcTemplate.query(UPSERT_SQL,
+                (rs, rowNum) -> new UpsertedVote(
+                        rs.getLong("id"),
+                        rs.getObject("created_on", LocalDateTime.class),
+                        rs.getBoolean("inserted") ? null : vote.opposite()),
+                eventId, userId, vote.name(), now, now);
+        if (!upserted.isEmpty()) {
+            return upserted.get(0);
+        }
+        // Тот же голос: строка уже заблокирована upsert, обновляем только время
+        return jdbcTemplate.queryForObject(TOUCH_SQL,
+                (rs, rowNum) -> new UpsertedVote(
+                        rs.getLong("id"),
+                        rs.getObject("created_on", LocalDateTime.class),
+                        vote),
+                now, userId, eventId);
+    }
+
+    /**
+     * @param id           vote ID
+     * @param createdOn    time the user first voted for the event
+     * @param previousVote the replaced vote, {@code null} if the user had not voted
+     */
+    public record UpsertedVote(long id, LocalDateTime createdOn, VoteType previousVote) {
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.main.rating.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.main.rating.repository.EventRatingCountersRepository;
+import ru.practicum.main.rating.repository.EventRatingCountersRepository.RecountChunk;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.VersionedResource;
+
+/**
+ * Periodically recounts the vote counters of all events from {@code event_ratings}.
+ * <p>
+ * Votes keep the counters exact by themselves; the recount catches what bypasses them, such as
+ * votes deleted together with their user, and fills the counters of databases created before
+ * the columns existed. Events are processed in chunks of {@code ratings.reconcile.chunk-size},
+ * each in its own short transaction.
+ */
+@Slf4j
+@Component
+public class EventRatingReconciler {
+
+    private final EventRatingCountersRepository eventRatingCountersRepository;
+    private final ResourceVersions resourceVersions;
+    private final int chunkSize;
+
+    public EventRatingReconciler(EventRatingCountersRepository eventRatingCountersRepository,
+                                 ResourceVersions resourceVersions,
+                                 @Value("${ratings.reconcile.chunk-size:500}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("ratings.reconcile.chunk-size must be positive");
+        }
+        this.eventRatingCountersRepository = eventRatingCountersRepository;
+        this.resourceVersions = resourceVersions;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.reconcile.interval-ms:600000}",
+            initialDelayString = "${ratings.reconcile.initial-delay-ms:10000}")
+    public synchronized void reconcile() {
+        try {
+            int corrected = 0;
+            long afterId = 0;
+            RecountChunk chunk;
+            do {
+                chunk = eventRatingCountersRepository.recount(afterId, chunkSize);
+                corrected += chunk.updated();
+                afterId = chunk.lastId();
+            } while (chunk.size() == chunkSize);
+            if (corrected > 0) {
+                // Исправленные счётчики меняют порядок событий при сортировке RATING
+                resourceVersions.bump(VersionedResource.EVENTS);
+                log.info("Исправлены счётчики голосов событий: {}", corrected);
+            }
+        } catch (Exception e) {
+            log.warn("Ошибка сверки счётчиков голосов: {}", e.getMessage());
+        }
+    }
+}
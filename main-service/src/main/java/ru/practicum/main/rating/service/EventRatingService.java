@@ -3,6 +3,7 @@ package ru.practicum.main.rating.service;
 import ru.practicum.main.rating.dto.EventRatingSummaryDto;
 import ru.practicum.main.rating.dto.EventVoteDto;
 import ru.practicum.main.rating.dto.EventVoteRequest;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -30,4 +31,9 @@ public interface EventRatingService {
      * Returns votes created by user.
      */
     List<EventVoteDto> getUserVotes(Long userId, int from, int size);
+
+    /**
+     * Returns votes created by user, starting after the {@code after} cursor.
+     */
+    CursorPage<EventVoteDto> getUserVotes(Long userId, String after, int size);
 }
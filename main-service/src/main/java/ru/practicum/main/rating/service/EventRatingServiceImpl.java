@@ -2,6 +2,7 @@ package ru.practicum.main.rating.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -17,11 +18,18 @@ import ru.practicum.main.rating.dto.EventVoteDto;
 import ru.practicum.main.rating.dto.EventVoteRequest;
 import ru.practicum.main.rating.mapper.EventRatingMapper;
 import ru.practicum.main.rating.model.EventRating;
+import ru.practicum.main.rating.repository.EventRatingCountersRepository;
 import ru.practicum.main.rating.repository.EventRatingRepository;
+import ru.practicum.main.rating.repository.EventRatingRepository.VoteTarget;
+import ru.practicum.main.rating.repository.EventVoteJdbcRepository;
+import ru.practicum.main.rating.repository.EventVoteJdbcRepository.UpsertedVote;
 import ru.practicum.main.rating.status.VoteType;
-import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
 import ru.practicum.main.util.PaginationValidator;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.TimeIdCursor;
+import ru.practicum.main.util.VersionedResource;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -37,39 +45,46 @@ import java.util.List;
 public class EventRatingServiceImpl implements EventRatingService {
 
     private final EventRatingRepository eventRatingRepository;
+    private final EventRatingCountersRepository eventRatingCountersRepository;
+    private final EventVoteJdbcRepository eventVoteJdbcRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final EventRatingMapper eventRatingMapper;
+    private final ResourceVersions resourceVersions;
 
     @Override
     @Transactional
     public EventVoteDto upsertVote(Long userId, Long eventId, EventVoteRequest request) {
         log.info("Пользователь userId={} голосует за событие eventId={} голосом={}",
                 userId, eventId, request.getVote());
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден: id=" + userId));
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new NotFoundException("Событие не найдено: id=" + eventId));
-
-        if (event.getState() != EventState.PUBLISHED) {
+        VoteTarget target = eventRatingRepository.findVoteTarget(eventId, userId)
+                .orElseThrow(() -> {
+                    validateUserExists(userId);
+                    return new NotFoundException("Событие не найдено: id=" + eventId);
+                });
+        if (target.getVoterCount() == 0) {
+            throw new NotFoundException("Пользователь не найден: id=" + userId);
+        }
+        if (target.getState() != EventState.PUBLISHED) {
             throw new ConflictException("Оценивать можно только опубликованные события");
         }
-        if (event.getInitiator().getId().equals(userId)) {
+        if (target.getInitiatorId().equals(userId)) {
             throw new ConflictException("Инициатор события не может оценивать своё событие");
         }
 
-        EventRating rating = eventRatingRepository.findByUserIdAndEventId(userId, eventId)
-                .orElseGet(() -> EventRating.builder()
-                        .event(event)
-                        .user(user)
-                        .createdOn(nowTruncatedToMillis())
-                        .build());
-
-        rating.setVote(request.getVote());
-        rating.setUpdatedOn(nowTruncatedToMillis());
-
-        EventRating saved = eventRatingRepository.save(rating);
-        return eventRatingMapper.toDto(saved);
+        LocalDateTime now = nowTruncatedToMillis();
+        UpsertedVote upserted = eventVoteJdbcRepository.upsert(userId, eventId, request.getVote(), now);
+        moveVote(eventId, upserted.previousVote(), request.getVote());
+        // Голоса меняют порядок событий при сортировке RATING
+        resourceVersions.bump(VersionedResource.EVENTS);
+        return EventVoteDto.builder()
+                .id(upserted.id())
+                .eventId(eventId)
+                .userId(userId)
+                .vote(request.getVote())
+                .createdOn(upserted.createdOn())
+                .updatedOn(now)
+                .build();
     }
 
     @Override
@@ -82,6 +97,8 @@ public class EventRatingServiceImpl implements EventRatingService {
         EventRating rating = eventRatingRepository.findByUserIdAndEventId(userId, eventId)
                 .orElseThrow(() -> new NotFoundException("Голос пользователя для события не найден"));
         eventRatingRepository.delete(rating);
+        moveVote(eventId, rating.getVote(), null);
+        resourceVersions.bump(VersionedResource.EVENTS);
     }
 
     @Override
@@ -90,8 +107,9 @@ public class EventRatingServiceImpl implements EventRatingService {
         Event event = eventRepository.findByIdAndState(eventId, EventState.PUBLISHED)
                 .orElseThrow(() -> new NotFoundException("Опубликованное событие не найдено: id=" + eventId));
 
-        Long likes = normalizeCount(eventRatingRepository.countByEventIdAndVote(eventId, VoteType.LIKE));
-        Long dislikes = normalizeCount(eventRatingRepository.countByEventIdAndVote(eventId, VoteType.DISLIKE));
+        // Счётчики голосов хранятся в строке события
+        Long likes = normalizeCount(event.getLikes());
+        Long dislikes = normalizeCount(event.getDislikes());
 
         return EventRatingSummaryDto.builder()
                 .eventId(event.getId())
@@ -117,6 +135,34 @@ public class EventRatingServiceImpl implements EventRatingService {
         return eventRatingMapper.toDtoList(votes);
     }
 
+    @Override
+    public CursorPage<EventVoteDto> getUserVotes(Long userId, String after, int size) {
+        log.info("Получение голосов пользователя по курсору userId={}, size={}", userId, size);
+        PaginationValidator.validatePagination(0, size);
+        TimeIdCursor cursor = TimeIdCursor.decode(after);
+        validateUserExists(userId);
+
+        List<EventRating> votes = eventRatingRepository.findUserVotesAfter(
+                userId, cursor.time(), cursor.id(), Limit.of(size));
+        return CursorPage.of(votes, size, vote -> TimeIdCursor.encode(vote.getUpdatedOn(), vote.getId()))
+                .map(eventRatingMapper::toDtoList);
+    }
+
+    /**
+     * Applies a vote change to the event counters: {@code from} is {@code null} for a new vote,
+     * {@code to} is {@code null} for a deleted one.
+     */
+    private void moveVote(Long eventId, VoteType from, VoteType to) {
+        if (from == to) {
+            return;
+        }
+        eventRatingCountersRepository.addVotes(eventId, delta(VoteType.LIKE, from, to), delta(VoteType.DISLIKE, from, to));
+    }
+
+    private static long delta(VoteType type, VoteType from, VoteType to) {
+        return (to == type ? 1 : 0) - (from == type ? 1 : 0);
+    }
+
     private void validateUserExists(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь не найден: id=" + userId);
@@ -5,5 +5,12 @@ package ru.practicum.main.rating.status;
  */
 public enum VoteType {
     LIKE,
-    DISLIKE
+    DISLIKE;
+
+    /**
+     * Returns the other vote type; a changed vote was always the opposite one.
+     */
+    public VoteType opposite() {
+        return this == LIKE ? DISLIKE : LIKE;
+    }
 }
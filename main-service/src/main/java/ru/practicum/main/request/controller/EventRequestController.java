@@ -1,14 +1,23 @@
 package ru.practicum.main.request.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.main.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.main.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
 import ru.practicum.main.request.service.RequestService;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -19,20 +28,59 @@ import java.util.List;
 @Validated
 public class EventRequestController {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final RequestService requestService;
 
+    @Value("${requests.export.timeout-ms:600000}")
+    private long exportTimeoutMs = 600_000;
+
     /**
      * GET /users/{userId}/events/{eventId}/requests
-     * Получить заявки на своё событие
+     * Получить заявки на своё событие.
+     * Без параметров возвращает все заявки; с {@code from}/{@code size} - страницу,
+     * с {@code after} - страницу по {@link CursorPage курсору}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<ParticipationRequestDto> getEventRequests(
+    public ResponseEntity<List<ParticipationRequestDto>> getEventRequests(
             @PathVariable  Long userId,
-            @PathVariable  Long eventId) {
+            @PathVariable  Long eventId,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @Positive Integer size) {
         log.info("GET /users/{}/events/{}/requests - Получение заявок на событие",
                 userId, eventId);
-        return requestService.getEventRequests(userId, eventId);
+        if (after != null) {
+            return CursorPage.toResponse(requestService.getEventRequests(userId, eventId, after,
+                    size == null ? DEFAULT_PAGE_SIZE : size));
+        }
+        if (from == null && size == null) {
+            return ResponseEntity.ok(requestService.getEventRequests(userId, eventId));
+        }
+        return ResponseEntity.ok(requestService.getEventRequests(userId, eventId,
+                from == null ? 0 : from, size == null ? DEFAULT_PAGE_SIZE : size));
+    }
+
+    /**
+     * GET /users/{userId}/events/{eventId}/requests/export
+     * Выгрузить все заявки на своё событие в формате NDJSON, по одной заявке в строке.
+     * Выгрузка пишется после возврата из метода со своим таймаутом
+     * {@code requests.export.timeout-ms}, остальные запросы сохраняют таймаут по умолчанию.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportEventRequests(
+            @PathVariable  Long userId,
+            @PathVariable  Long eventId,
+            HttpServletResponse response) {
+        log.info("GET /users/{}/events/{}/requests/export - Выгрузка заявок на событие",
+                userId, eventId);
+        StreamingResponseBody body = requestService.exportEventRequests(userId, eventId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 
     /**
@@ -1,13 +1,17 @@
 package ru.practicum.main.request.controller;
 
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
 import ru.practicum.main.request.service.RequestService;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -18,18 +22,32 @@ import java.util.List;
 @Validated
 public class PrivateRequestController {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final RequestService requestService;
 
     /**
      * GET /users/{userId}/requests
-     * Получить свои заявки на участие в чужих событиях
+     * Получить свои заявки на участие в чужих событиях.
+     * Без параметров возвращает все заявки; с {@code from}/{@code size} - страницу,
+     * с {@code after} - страницу по {@link CursorPage курсору}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<ParticipationRequestDto> getUserRequests(
-            @PathVariable  Long userId) {
+    public ResponseEntity<List<ParticipationRequestDto>> getUserRequests(
+            @PathVariable  Long userId,
+            @RequestParam(required = false) @PositiveOrZero Integer from,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) @Positive Integer size) {
         log.info("GET /users/{}/requests - Получение заявок пользователя", userId);
-        return requestService.getUserRequests(userId);
+        if (after != null) {
+            return CursorPage.toResponse(requestService.getUserRequests(userId, after,
+                    size == null ? DEFAULT_PAGE_SIZE : size));
+        }
+        if (from == null && size == null) {
+            return ResponseEntity.ok(requestService.getUserRequests(userId));
+        }
+        return ResponseEntity.ok(requestService.getUserRequests(userId,
+                from == null ? 0 : from, size == null ? DEFAULT_PAGE_SIZE : size));
     }
 
     /**
@@ -1,24 +1,154 @@
 package ru.practicum.main.request.repository;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
 import ru.practicum.main.request.model.ParticipationRequest;
+import ru.practicum.main.request.status.RequestStatus;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RequestRepository extends JpaRepository<ParticipationRequest, Long> {
 
-    // Найти все заявки пользователя
-    List<ParticipationRequest> findAllByRequesterId(Long requesterId);
+    int EXPORT_FETCH_SIZE = 500;
+
+    // DTO заявок пользователя по возрастанию id, страницей или целиком (Pageable.unpaged())
+    @Query("""
+            SELECT new ru.practicum.main.request.dto.ParticipationRequestDto(
+                r.id, r.event.id, r.requester.id, r.created, r.status)
+            FROM ParticipationRequest r
+            WHERE r.requester.id = :requesterId
+            ORDER BY r.id
+            """)
+    List<ParticipationRequestDto> findDtosByRequesterId(@Param("requesterId") Long requesterId, Pageable pageable);
+
+    /**
+     * Returns DTOs of a user's requests with id greater than {@code afterId}, ordered by id.
+     *
+     * @param afterId id of the last request of the previous page, 0 for the first page
+     */
+    @Query("""
+            SELECT new ru.practicum.main.request.dto.ParticipationRequestDto(
+                r.id, r.event.id, r.requester.id, r.created, r.status)
+            FROM ParticipationRequest r
+            WHERE r.requester.id = :requesterId AND r.id > :afterId
+            ORDER BY r.id
+            """)
+    List<ParticipationRequestDto> findDtosByRequesterIdAfter(@Param("requesterId") Long requesterId,
+                                                             @Param("afterId") Long afterId,
+                                                             Limit limit);
+
+    // DTO заявок на событие по возрастанию id, страницей или целиком (Pageable.unpaged())
+    @Query("""
+            SELECT new ru.practicum.main.request.dto.ParticipationRequestDto(
+                r.id, r.event.id, r.requester.id, r.created, r.status)
+            FROM ParticipationRequest r
+            WHERE r.event.id = :eventId
+            ORDER BY r.id
+            """)
+    List<ParticipationRequestDto> findDtosByEventId(@Param("eventId") Long eventId, Pageable pageable);
 
-    // Найти все заявки на событие
-    List<ParticipationRequest> findAllByEventId(Long eventId);
+    /**
+     * Returns DTOs of an event's requests with id greater than {@code afterId}, ordered by id.
+     *
+     * @param afterId id of the last request of the previous page, 0 for the first page
+     */
+    @Query("""
+            SELECT new ru.practicum.main.request.dto.ParticipationRequestDto(
+                r.id, r.event.id, r.requester.id, r.created, r.status)
+            FROM ParticipationRequest r
+            WHERE r.event.id = :eventId AND r.id > :afterId
+            ORDER BY r.id
+            """)
+    List<ParticipationRequestDto> findDtosByEventIdAfter(@Param("eventId") Long eventId,
+                                                         @Param("afterId") Long afterId,
+                                                         Limit limit);
+
+    /**
+     * Streams DTOs of all requests of an event ordered by id through a forward-only cursor that
+     * fetches {@value #EXPORT_FETCH_SIZE} rows at a time. Must be consumed and closed inside a
+     * transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("""
+            SELECT new ru.practicum.main.request.dto.ParticipationRequestDto(
+                r.id, r.event.id, r.requester.id, r.created, r.status)
+            FROM ParticipationRequest r
+            WHERE r.event.id = :eventId
+            ORDER BY r.id
+            """)
+    Stream<ParticipationRequestDto> streamDtosByEventId(@Param("eventId") Long eventId);
 
     // Проверить существование заявки пользователя на событие
     boolean existsByEventIdAndRequesterId(Long eventId, Long requesterId);
 
-    // Найти заявки по списку ID
-    List<ParticipationRequest> findAllByIdIn(List<Long> ids);
+    // Событие и статус заявок по списку ID без загрузки сущностей, в порядке подачи
+    @Query("""
+            SELECT r.id AS id, r.event.id AS eventId, r.status AS status
+            FROM ParticipationRequest r
+            WHERE r.id IN :ids
+            ORDER BY r.created, r.id
+            """)
+    List<RequestState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves requests from {@code expected} to {@code status} in one statement.
+     *
+     * @return number of updated requests; less than {@code ids.size()} if some were no longer in
+     *         {@code expected} status
+     */
+    @Modifying
+    @Query("""
+            UPDATE ParticipationRequest r SET r.status = :status
+            WHERE r.id IN :ids AND r.status = :expected
+            """)
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("expected") RequestStatus expected,
+                     @Param("status") RequestStatus status);
+
+    // DTO заявок по списку ID одним запросом, в порядке подачи
+    @Query("""
+            SELECT new ru.practicum.main.request.dto.ParticipationRequestDto(
+                r.id, r.event.id, r.requester.id, r.created, r.status)
+            FROM ParticipationRequest r
+            WHERE r.id IN :ids
+            ORDER BY r.created, r.id
+            """)
+    List<ParticipationRequestDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Посчитать заявки события в статусе
+    long countByEventIdAndStatus(Long eventId, RequestStatus status);
+
+    // Посчитать заявки в статусе по каждому из событий одним запросом
+    @Query("SELECT r.event.id AS eventId, COUNT(r) AS count FROM ParticipationRequest r " +
+            "WHERE r.event.id IN :eventIds AND r.status = :status GROUP BY r.event.id")
+    List<EventRequestCount> countPerEvent(@Param("eventIds") Collection<Long> eventIds,
+                                          @Param("status") RequestStatus status);
+
+    interface RequestState {
+        Long getId();
+
+        Long getEventId();
+
+        RequestStatus getStatus();
+    }
+
+    interface EventRequestCount {
+        Long getEventId();
+
+        Long getCount();
+    }
 
 }
\ No newline at end of file
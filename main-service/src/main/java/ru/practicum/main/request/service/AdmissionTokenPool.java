@@ -0,0 +1,177 @@
+package ru.practicum.main.request.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory participant slots of events, handed out as tokens.
+ * <p>
+ * The free slots of an event are split across several stripes, each an {@link AtomicInteger}, so
+ * concurrent callers take a token with a compare-and-set on a random stripe instead of contending
+ * on one counter or on the event row. A token is "in flight" from {@link #tryAcquire} until the
+ * request holding it is either persisted ({@link #complete}) or abandoned ({@link #release}).
+ * <p>
+ * {@link #reconcile} recomputes the free slots from the number of persisted confirmed requests.
+ * Acquire increments the in-flight count before taking a slot, and reconcile reads free slots,
+ * then in-flight tokens, then the persisted count; every interleaving therefore counts a taken
+ * slot at least once, and a correction can only be too small, never hand out an extra slot.
+ */
+public final class AdmissionTokenPool {
+
+    private final int stripeCount;
+    private final Map<Long, Tokens> tokensByEvent = new ConcurrentHashMap<>();
+
+    public AdmissionTokenPool(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        this.stripeCount = stripeCount;
+    }
+
+    /**
+     * Takes one slot of an event. The pool of an event is created on first use with
+     * {@code limit - persistedConfirmed} free slots, and follows later changes of {@code limit}.
+     *
+     * @return {@code true} if a slot was taken, {@code false} if none are left
+     */
+    public boolean tryAcquire(long eventId, int limit, LongSupplier persistedConfirmed) {
+        Tokens tokens = tokensByEvent.computeIfAbsent(eventId,
+                id -> new Tokens(limit, limit - persistedConfirmed.getAsLong()));
+        if (tokens.limit != limit) {
+            tokens.resize(limit);
+        }
+        return tokens.tryAcquire();
+    }
+
+    /**
+     * Marks a token of a persisted request as no longer in flight.
+     */
+    public void complete(long eventId) {
+        Tokens tokens = tokensByEvent.get(eventId);
+        if (tokens != null) {
+            tokens.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the token of a request that was not persisted.
+     */
+    public void release(long eventId) {
+        Tokens tokens = tokensByEvent.get(eventId);
+        if (tokens != null) {
+            // Сначала возвращаем место, потом снимаем "в полёте": сверка не выдаст лишний токен
+            tokens.add(1);
+            tokens.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Corrects the free slots of all pools; slots freed by cancellations come back here.
+     * The state of every pool is read first, then {@code loadConfirmed} is called once with the
+     * pooled event ids and returns their persisted confirmed requests.
+     */
+    public void reconcile(Function<Set<Long>, Map<Long, Long>> loadConfirmed) {
+        Map<Long, Long> balances = new HashMap<>();
+        tokensByEvent.forEach((eventId, tokens) -> balances.put(eventId, tokens.balance()));
+        if (balances.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> confirmed = loadConfirmed.apply(balances.keySet());
+        balances.forEach((eventId, balance) ->
+                tokensByEvent.get(eventId).add((int) (balance - confirmed.getOrDefault(eventId, 0L))));
+    }
+
+    /**
+     * Returns the number of free slots of an event, 0 if it has no pool.
+     */
+    public long freeSlots(long eventId) {
+        Tokens tokens = tokensByEvent.get(eventId);
+        return tokens == null ? 0 : Math.max(0, tokens.free());
+    }
+
+    private final class Tokens {
+
+        private final AtomicInteger[] stripes = new AtomicInteger[stripeCount];
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile int limit;
+
+        private Tokens(int limit, long free) {
+            this.limit = limit;
+            long available = Math.max(0, free);
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new AtomicInteger((int) (available / stripeCount + (i < available % stripeCount ? 1 : 0)));
+            }
+        }
+
+        private boolean tryAcquire() {
+            inFlight.incrementAndGet();
+            int start = ThreadLocalRandom.current().nextInt(stripeCount);
+            for (int i = 0; i < stripeCount; i++) {
+                if (take(stripes[(start + i) % stripeCount])) {
+                    return true;
+                }
+            }
+            inFlight.decrementAndGet();
+            return false;
+        }
+
+        private synchronized void resize(int newLimit) {
+            add(newLimit - limit);
+            limit = newLimit;
+        }
+
+        /**
+         * Returns {@code limit - inFlight - free}; minus the persisted confirmed requests it is the
+         * correction of free slots. Acquires and releases after this call change free slots and
+         * in-flight tokens together, so the correction is still valid when applied later.
+         */
+        private synchronized long balance() {
+            long free = free();
+            long pending = inFlight.get();
+            return limit - pending - free;
+        }
+
+        /**
+         * Adds slots to the first stripe, or removes slots from any stripes that have them;
+         * what cannot be removed stays as a negative balance of the first stripe.
+         */
+        private void add(int delta) {
+            if (delta >= 0) {
+                stripes[0].addAndGet(delta);
+                return;
+            }
+            int debt = -delta;
+            for (int i = 0; i < stripeCount && debt > 0; i++) {
+                while (debt > 0 && take(stripes[i])) {
+                    debt--;
+                }
+            }
+            stripes[0].addAndGet(-debt);
+        }
+
+        private long free() {
+            long free = 0;
+            for (AtomicInteger stripe : stripes) {
+                free += stripe.get();
+            }
+            return free;
+        }
+
+        private boolean take(AtomicInteger stripe) {
+            int free = stripe.get();
+            while (free > 0) {
+                if (stripe.compareAndSet(free, free - 1)) {
+                    return true;
+                }
+                free = stripe.get();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.main.request.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.service.EventUpdatedEvent;
+import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.request.status.RequestStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission of participants to events without pre-moderation and with a participant limit,
+ * for flash events with many simultaneous sign-ups.
+ * <p>
+ * Enabled by {@code requests.admission.enabled}. Instead of updating the event row for every
+ * confirmed request, a request takes a slot from an {@link AdmissionTokenPool} and only inserts
+ * its own row; the slot is kept after the transaction commits and returned if it rolls back.
+ * The authoritative {@code events.confirmed_requests} of admitted events is recalculated from
+ * {@code participation_requests} every {@code requests.admission.reconcile-interval-ms} in one
+ * statement, which also brings slots freed by cancellations back into the pools.
+ * <p>
+ * Nothing is acknowledged before it is committed, so a crash loses no confirmed request. On
+ * startup the counters of events admitted this way are recalculated from
+ * {@code participation_requests}, and pools are rebuilt lazily from the same table on the first
+ * sign-up of each event.
+ * <p>
+ * The pools live in the JVM and are not shared: with several instances of the service each
+ * would hand out the free slots of an event on its own and the limit could be exceeded. Enable
+ * admission only when the service runs as a single instance.
+ */
+@Slf4j
+@Component
+public class ParticipationAdmission implements SmartInitializingSingleton {
+
+    private final RequestRepository requestRepository;
+    private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final AdmissionTokenPool tokenPool;
+    /** Events with admitted requests whose counter has not been recalculated yet. */
+    private final Set<Long> dirtyEventIds = ConcurrentHashMap.newKeySet();
+
+    public ParticipationAdmission(RequestRepository requestRepository,
+                                  EventRepository eventRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${requests.admission.enabled:false}") boolean enabled,
+                                  @Value("${requests.admission.stripes:8}") int stripes) {
+        this.requestRepository = requestRepository;
+        this.eventRepository = eventRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.tokenPool = new AdmissionTokenPool(stripes);
+    }
+
+    /**
+     * Returns whether requests to the event are admitted through the token pool.
+     */
+    public boolean appliesTo(Event event) {
+        return enabled && !event.getRequestModeration() && event.getParticipantLimit() > 0;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        int updated = eventRepository.recalculateAdmittedConfirmedRequests();
+        log.info("Восстановлены счётчики участников по заявкам: обновлено событий {}", updated);
+    }
+
+    /**
+     * Takes {@code count} slots of the event, all or none. Must be called inside the transaction
+     * that persists the confirmed requests.
+     *
+     * @return {@code false} if the event has fewer free slots
+     */
+    public boolean tryAdmit(Event event, int count) {
+        long eventId = event.getId();
+        int acquired = 0;
+        while (acquired < count && tokenPool.tryAcquire(eventId, event.getParticipantLimit(),
+                () -> requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED))) {
+            acquired++;
+        }
+        if (acquired < count) {
+            for (int i = 0; i < acquired; i++) {
+                tokenPool.release(eventId);
+            }
+            return false;
+        }
+        int admitted = acquired;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = 0; i < admitted; i++) {
+                    if (status == STATUS_COMMITTED) {
+                        tokenPool.complete(eventId);
+                    } else {
+                        tokenPool.release(eventId);
+                    }
+                }
+                if (status == STATUS_COMMITTED) {
+                    dirtyEventIds.add(eventId);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Recalculates counters of events with admitted requests and corrects the free slots of
+     * all pools, so cancelled participations become available again.
+     */
+    @Scheduled(fixedDelayString = "${requests.admission.reconcile-interval-ms:1000}")
+    public synchronized void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Long> dirty = new ArrayList<>(dirtyEventIds);
+            dirtyEventIds.removeAll(dirty);
+            if (!dirty.isEmpty()) {
+                eventRepository.recalculateConfirmedRequests(dirty);
+                dirty.forEach(eventId -> eventPublisher.publishEvent(new EventUpdatedEvent(eventId)));
+            }
+            reconcilePools();
+        } catch (Exception e) {
+            log.warn("Ошибка сверки участников событий: {}", e.getMessage());
+        }
+    }
+
+    private void reconcilePools() {
+        tokenPool.reconcile(eventIds -> {
+            Map<Long, Long> confirmed = new HashMap<>();
+            requestRepository.countPerEvent(eventIds, RequestStatus.CONFIRMED)
+                    .forEach(count -> confirmed.put(count.getEventId(), count.getCount()));
+            return confirmed;
+        });
+    }
+}
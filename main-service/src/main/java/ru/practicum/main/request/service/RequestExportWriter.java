@@ -0,0 +1,50 @@
+package ru.practicum.main.request.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.request.repository.RequestRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes all participation requests of an event as NDJSON, one {@link ParticipationRequestDto}
+ * per line, reading them through a database cursor so memory use does not depend on the number
+ * of requests.
+ * <p>
+ * The export is written after the controller has returned, so it runs in its own read-only
+ * transaction that stays open while the cursor is consumed.
+ */
+@Slf4j
+@Component
+public class RequestExportWriter {
+
+    private final RequestRepository requestRepository;
+    private final ObjectWriter dtoWriter;
+
+    public RequestExportWriter(RequestRepository requestRepository, ObjectMapper objectMapper) {
+        this.requestRepository = requestRepository;
+        this.dtoWriter = objectMapper.writerFor(ParticipationRequestDto.class);
+    }
+
+    @Transactional(readOnly = true)
+    public void write(Long eventId, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<ParticipationRequestDto> requests = requestRepository.streamDtosByEventId(eventId)) {
+            Iterator<ParticipationRequestDto> iterator = requests.iterator();
+            while (iterator.hasNext()) {
+                out.write(dtoWriter.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                written++;
+            }
+        }
+        out.flush();
+        log.info("Выгружены заявки на событие eventId={}: {}", eventId, written);
+    }
+}
@@ -3,7 +3,9 @@ package ru.practicum.main.request.service;
 
 import ru.practicum.main.request.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.main.request.dto.EventRequestStatusUpdateResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -16,6 +18,16 @@ public interface RequestService {
      */
     List<ParticipationRequestDto> getUserRequests(Long userId);
 
+    /**
+     * Получить страницу своих заявок по возрастанию id, начиная с {@code from}
+     */
+    List<ParticipationRequestDto> getUserRequests(Long userId, int from, int size);
+
+    /**
+     * Получить страницу своих заявок после курсора {@code after}
+     */
+    CursorPage<ParticipationRequestDto> getUserRequests(Long userId, String after, int size);
+
     /**
      * Подать заявку на участие в событии
      */
@@ -33,6 +45,22 @@ public interface RequestService {
      */
     List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId);
 
+    /**
+     * Получить страницу заявок на своё событие по возрастанию id, начиная с {@code from}
+     */
+    List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId, int from, int size);
+
+    /**
+     * Получить страницу заявок на своё событие после курсора {@code after}
+     */
+    CursorPage<ParticipationRequestDto> getEventRequests(Long userId, Long eventId, String after, int size);
+
+    /**
+     * Выгрузить все заявки на своё событие потоком NDJSON.
+     * Права проверяются сразу, заявки читаются курсором при записи ответа.
+     */
+    StreamingResponseBody exportEventRequests(Long userId, Long eventId);
+
     /**
      * Подтвердить/отклонить заявки на своё событие
      */
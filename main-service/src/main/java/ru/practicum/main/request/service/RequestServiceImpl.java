@@ -3,11 +3,17 @@ package ru.practicum.main.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.model.EventState;
 import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.service.EventUpdatedEvent;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.exception.ValidationException;
@@ -18,14 +24,18 @@ import ru.practicum.main.request.mapper.RequestMapper;
 import ru.practicum.main.request.model.ParticipationRequest;
 import ru.practicum.main.request.status.RequestStatus;
 import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.request.repository.RequestRepository.RequestState;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.PageCursor;
+import ru.practicum.main.util.PaginationValidator;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -40,6 +50,9 @@ public class RequestServiceImpl implements RequestService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final RequestMapper requestMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ParticipationAdmission participationAdmission;
+    private final RequestExportWriter requestExportWriter;
 
     // ========== Методы пользователя ==========
 
@@ -47,18 +60,41 @@ public class RequestServiceImpl implements RequestService {
     public List<ParticipationRequestDto> getUserRequests(Long userId) {
 
         log.info("Получение заявок пользователя userId={}", userId);
-        if (userId <= 0) {
-            throw new ValidationException("userId must be greater than 0");
+        validateId(userId, "userId");
+        List<ParticipationRequestDto> requests = requestRepository.findDtosByRequesterId(userId, Pageable.unpaged());
+        if (requests.isEmpty()) {
+            validateUserExists(userId);
         }
-        List<ParticipationRequest> requests = requestRepository
-                .findAllByRequesterId(userId);
+        return requests;
+    }
+
+    @Override
+    public List<ParticipationRequestDto> getUserRequests(Long userId, int from, int size) {
+
+        log.info("Получение заявок пользователя userId={}, from={}, size={}", userId, from, size);
+        validateId(userId, "userId");
+        PaginationValidator.validatePagination(from, size);
+        List<ParticipationRequestDto> requests = requestRepository
+                .findDtosByRequesterId(userId, PageRequest.of(from / size, size));
         if (requests.isEmpty()) {
             validateUserExists(userId);
         }
+        return requests;
+    }
 
-        return requests.stream()
-                .map(requestMapper::toDto)
-                .collect(Collectors.toList());
+    @Override
+    public CursorPage<ParticipationRequestDto> getUserRequests(Long userId, String after, int size) {
+
+        log.info("Получение заявок пользователя по курсору userId={}, size={}", userId, size);
+        validateId(userId, "userId");
+        PaginationValidator.validatePagination(0, size);
+        long afterId = PageCursor.decodeAfterId(after);
+        List<ParticipationRequestDto> requests = requestRepository
+                .findDtosByRequesterIdAfter(userId, afterId, Limit.of(size));
+        if (requests.isEmpty()) {
+            validateUserExists(userId);
+        }
+        return CursorPage.of(requests, size, request -> PageCursor.encode(request.getId()));
     }
 
     @Override
@@ -95,7 +131,7 @@ public class RequestServiceImpl implements RequestService {
             throw new ConflictException("Заявка на участие уже существует");
         }
 
-        // Проверка 4: проверка лимита участников
+        // Проверка 4: проверка лимита участников (окончательно лимит проверяет атомарный UPDATE ниже)
         if (event.getParticipantLimit() != 0 &&
                 event.getConfirmedRequests() >= event.getParticipantLimit()) {
             throw new ConflictException("Достигнут лимит участников");
@@ -111,9 +147,8 @@ public class RequestServiceImpl implements RequestService {
 
         // Если у события отключена пре-модерация, сразу подтверждаем
         if (!event.getRequestModeration() || event.getParticipantLimit() == 0) {
+            confirmParticipants(event, 1);
             request.setStatus(RequestStatus.CONFIRMED);
-            event.setConfirmedRequests(event.getConfirmedRequests() + 1);
-            eventRepository.save(event);
         }
 
         ParticipationRequest savedRequest = requestRepository.save(request);
@@ -143,10 +178,9 @@ public class RequestServiceImpl implements RequestService {
 
         if (request.getStatus() != RequestStatus.CANCELED) {
             if (request.getStatus() == RequestStatus.CONFIRMED) {
-                Event event = request.getEvent();
-                if (event != null && event.getConfirmedRequests() != null && event.getConfirmedRequests() > 0) {
-                    event.setConfirmedRequests(event.getConfirmedRequests() - 1);
-                    eventRepository.save(event);
+                Long eventId = request.getEvent().getId();
+                if (eventRepository.decrementConfirmedRequests(eventId, 1) > 0) {
+                    eventPublisher.publishEvent(new EventUpdatedEvent(eventId));
                 }
             }
             request.setStatus(RequestStatus.CANCELED);
@@ -163,22 +197,38 @@ public class RequestServiceImpl implements RequestService {
     public List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId) {
 
         log.info("Получение заявок на событие: userId={}, eventId={}", userId, eventId);
-        if (userId <= 0) {
-            throw new ValidationException("userId must be greater than 0");
-        }
-        if (eventId <= 0) {
-            throw new ValidationException("eventId must be greater than 0");
-        }
-        // Проверяем, что событие принадлежит пользователю
-        Event event = eventRepository.findByIdAndInitiatorId(eventId, userId)
-                .orElseThrow(() -> new NotFoundException("Событие не найдено или не принадлежит пользователю"));
+        validateEventOwner(userId, eventId);
+        return requestRepository.findDtosByEventId(eventId, Pageable.unpaged());
+    }
 
-        List<ParticipationRequest> requests = requestRepository
-                .findAllByEventId(eventId);
+    @Override
+    public List<ParticipationRequestDto> getEventRequests(Long userId, Long eventId, int from, int size) {
 
-        return requests.stream()
-                .map(requestMapper::toDto)
-                .collect(Collectors.toList());
+        log.info("Получение заявок на событие: userId={}, eventId={}, from={}, size={}", userId, eventId, from, size);
+        PaginationValidator.validatePagination(from, size);
+        validateEventOwner(userId, eventId);
+        return requestRepository.findDtosByEventId(eventId, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public CursorPage<ParticipationRequestDto> getEventRequests(Long userId, Long eventId, String after, int size) {
+
+        log.info("Получение заявок на событие по курсору: userId={}, eventId={}, size={}", userId, eventId, size);
+        PaginationValidator.validatePagination(0, size);
+        long afterId = PageCursor.decodeAfterId(after);
+        validateEventOwner(userId, eventId);
+        List<ParticipationRequestDto> requests = requestRepository
+                .findDtosByEventIdAfter(eventId, afterId, Limit.of(size));
+        return CursorPage.of(requests, size, request -> PageCursor.encode(request.getId()));
+    }
+
+    @Override
+    public StreamingResponseBody exportEventRequests(Long userId, Long eventId) {
+
+        log.info("Выгрузка заявок на событие: userId={}, eventId={}", userId, eventId);
+        // Проверка до начала ответа: ошибка ещё может вернуться обычным статусом
+        validateEventOwner(userId, eventId);
+        return out -> requestExportWriter.write(eventId, out);
     }
 
     @Override
@@ -215,13 +265,13 @@ public class RequestServiceImpl implements RequestService {
             throw new NotFoundException("Только инициатор события может изменять статус заявок");
         }
 
+        // Заявки проверяются по лёгкой проекции, статусы меняются пакетными UPDATE
         Set<Long> uniqueRequestIds = new HashSet<>(updateRequest.getRequestIds());
-        List<ParticipationRequest> requests = requestRepository
-                .findAllByIdIn(uniqueRequestIds.stream().toList());
+        List<RequestState> requests = requestRepository.findStatesByIdIn(uniqueRequestIds);
 
         if (requests.size() != uniqueRequestIds.size()) {
             Set<Long> foundIds = requests.stream()
-                    .map(ParticipationRequest::getId)
+                    .map(RequestState::getId)
                     .collect(Collectors.toSet());
             List<Long> missingIds = uniqueRequestIds.stream()
                     .filter(id -> !foundIds.contains(id))
@@ -231,82 +281,135 @@ public class RequestServiceImpl implements RequestService {
         }
 
         // Проверяем, что все заявки принадлежат этому событию
-        for (ParticipationRequest request : requests) {
-            if (!request.getEvent().getId().equals(eventId)) {
+        for (RequestState request : requests) {
+            if (!request.getEventId().equals(eventId)) {
                 throw new ConflictException("Заявка не принадлежит данному событию");
             }
         }
 
+        // Заявки упорядочены по времени подачи: при нехватке мест подтверждаются самые ранние
+        List<Long> orderedIds = requests.stream()
+                .map(RequestState::getId)
+                .toList();
+
         // Если лимит участников равен 0 или отключена пре-модерация
         if (event.getParticipantLimit() == 0 || !event.getRequestModeration()) {
             // Все заявки автоматически подтверждаются
-            long confirmedCount = event.getConfirmedRequests();
-            for (ParticipationRequest request : requests) {
-                if (request.getStatus() != RequestStatus.PENDING) {
-                    throw new ConflictException("Можно изменить статус только у заявок в ожидании");
-                }
-                request.setStatus(RequestStatus.CONFIRMED);
-                confirmedCount++;
-            }
-            event.setConfirmedRequests(confirmedCount);
-            eventRepository.save(event);
-            requestRepository.saveAll(requests);
-
-            return EventRequestStatusUpdateResult.builder()
-                    .confirmedRequests(requests.stream()
-                            .map(requestMapper::toDto)
-                            .collect(Collectors.toList()))
-                    .rejectedRequests(new ArrayList<>())
-                    .build();
+            requirePending(requests);
+            confirmParticipants(event, orderedIds.size());
+            changePendingStatus(orderedIds, RequestStatus.CONFIRMED);
+            return loadStatusUpdateResult(orderedIds);
         }
 
         // Проверяем лимит участников
-        long confirmedCount = event.getConfirmedRequests();
-        long limit = event.getParticipantLimit();
+        if (event.getConfirmedRequests() >= event.getParticipantLimit()) {
+            throw new ConflictException("Достигнут лимит участников");
+        }
 
-        if (confirmedCount >= limit) {
+        requirePending(requests);
+
+        // Места занимаются атомарно до изменения заявок, чтобы параллельные подтверждения не превысили лимит
+        int slots = updateStatus == RequestStatus.CONFIRMED
+                ? (int) reserveSlots(eventId, event.getParticipantLimit(), orderedIds.size())
+                : 0;
+        if (updateStatus == RequestStatus.CONFIRMED && slots == 0) {
             throw new ConflictException("Достигнут лимит участников");
         }
 
-        List<ParticipationRequestDto> confirmed = new ArrayList<>();
-        List<ParticipationRequestDto> rejected = new ArrayList<>();
+        // Сверх лимита заявки отклоняются
+        changePendingStatus(orderedIds.subList(0, slots), RequestStatus.CONFIRMED);
+        changePendingStatus(orderedIds.subList(slots, orderedIds.size()), RequestStatus.REJECTED);
 
-        for (ParticipationRequest request : requests) {
-            if (request.getStatus() != RequestStatus.PENDING) {
-                throw new ConflictException("Можно изменить статус только у заявок в ожидании");
-            }
+        if (slots > 0) {
+            eventPublisher.publishEvent(new EventUpdatedEvent(eventId));
+        }
 
-            if (updateStatus == RequestStatus.CONFIRMED) {
-                if (confirmedCount < limit) {
-                    request.setStatus(RequestStatus.CONFIRMED);
-                    confirmedCount++;
-                    confirmed.add(requestMapper.toDto(request));
-                } else {
-                    // Лимит достигнут, остальные отклоняем
-                    request.setStatus(RequestStatus.REJECTED);
-                    rejected.add(requestMapper.toDto(request));
-                }
-            } else if (updateStatus == RequestStatus.REJECTED) {
-                request.setStatus(RequestStatus.REJECTED);
-                rejected.add(requestMapper.toDto(request));
+        log.info("Обновлены статусы заявок: подтверждено={}, отклонено={}",
+                slots, orderedIds.size() - slots);
+
+        return loadStatusUpdateResult(orderedIds);
+    }
+
+    // ========== Вспомогательные методы ==========
+
+    /**
+     * Takes {@code count} participant slots of an event without pre-moderation, all or none.
+     * Under high-contention admission the slots come from the in-memory pool and the event
+     * counter is recalculated later; otherwise the counter is incremented atomically.
+     */
+    private void confirmParticipants(Event event, int count) {
+        if (participationAdmission.appliesTo(event)) {
+            if (!participationAdmission.tryAdmit(event, count)) {
+                throw new ConflictException("Достигнут лимит участников");
             }
+            return;
+        }
+        if (eventRepository.incrementConfirmedRequests(event.getId(), count) == 0) {
+            throw new ConflictException("Достигнут лимит участников");
         }
+        eventPublisher.publishEvent(new EventUpdatedEvent(event.getId()));
+    }
 
-        // Обновляем количество подтверждённых заявок в событии
-        event.setConfirmedRequests(confirmedCount);
-        eventRepository.save(event);
-        requestRepository.saveAll(requests);
+    private void requirePending(List<RequestState> requests) {
+        for (RequestState request : requests) {
+            if (request.getStatus() != RequestStatus.PENDING) {
+                throw new ConflictException("Можно изменить статус только у заявок в ожидании");
+            }
+        }
+    }
 
-        log.info("Обновлены статусы заявок: подтверждено={}, отклонено={}",
-                confirmed.size(), rejected.size());
+    /**
+     * Moves pending requests to {@code status} with one UPDATE. If another transaction changed any
+     * of them since they were checked, the whole status update is rolled back with a conflict.
+     */
+    private void changePendingStatus(List<Long> requestIds, RequestStatus status) {
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        if (requestRepository.updateStatus(requestIds, RequestStatus.PENDING, status) != requestIds.size()) {
+            throw new ConflictException("Можно изменить статус только у заявок в ожидании");
+        }
+    }
 
+    private EventRequestStatusUpdateResult loadStatusUpdateResult(List<Long> requestIds) {
+        Map<Boolean, List<ParticipationRequestDto>> byConfirmed = requestRepository.findDtosByIdIn(requestIds)
+                .stream()
+                .collect(Collectors.partitioningBy(dto -> dto.getStatus() == RequestStatus.CONFIRMED));
         return EventRequestStatusUpdateResult.builder()
-                .confirmedRequests(confirmed)
-                .rejectedRequests(rejected)
+                .confirmedRequests(byConfirmed.get(true))
+                .rejectedRequests(byConfirmed.get(false))
                 .build();
     }
 
-    // ========== Вспомогательные методы ==========
+    /**
+     * Atomically takes up to {@code wanted} free participant slots of an event and returns how many
+     * were taken. When all of them do not fit, the counter is re-read and the remaining free slots
+     * are requested, until they are taken or none are left.
+     */
+    private long reserveSlots(Long eventId, long limit, long wanted) {
+        long slots = wanted;
+        while (slots > 0) {
+            if (eventRepository.incrementConfirmedRequests(eventId, slots) > 0) {
+                return slots;
+            }
+            slots = Math.min(slots, limit - eventRepository.findConfirmedRequests(eventId));
+        }
+        return 0;
+    }
+
+    private void validateId(Long id, String name) {
+        if (id <= 0) {
+            throw new ValidationException(name + " must be greater than 0");
+        }
+    }
+
+    private void validateEventOwner(Long userId, Long eventId) {
+        validateId(userId, "userId");
+        validateId(eventId, "eventId");
+        if (!eventRepository.existsByIdAndInitiatorId(eventId, userId)) {
+            throw new NotFoundException("Событие не найдено или не принадлежит пользователю");
+        }
+    }
 
     private void validateUserExists(Long userId) {
         if (!userRepository.existsById(userId)) {
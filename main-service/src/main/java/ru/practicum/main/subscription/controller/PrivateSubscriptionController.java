@@ -5,6 +5,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,8 +16,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.subscription.dto.SubscriptionCountsDto;
 import ru.practicum.main.subscription.dto.SubscriptionDto;
 import ru.practicum.main.subscription.service.SubscriptionService;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -58,41 +61,62 @@ public class PrivateSubscriptionController {
 
     /**
      * Returns users followed by current user.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<SubscriptionDto> getFollowing(
+    public ResponseEntity<List<SubscriptionDto>> getFollowing(
             @PathVariable @Positive Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /users/{}/subscriptions - Получение списка подписок", userId);
-        return subscriptionService.getFollowing(userId, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(subscriptionService.getFollowing(userId, from, size));
+        }
+        return CursorPage.toResponse(subscriptionService.getFollowing(userId, after, size));
     }
 
     /**
      * Returns followers of current user.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping("/followers")
-    @ResponseStatus(HttpStatus.OK)
-    public List<SubscriptionDto> getFollowers(
+    public ResponseEntity<List<SubscriptionDto>> getFollowers(
             @PathVariable @Positive Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /users/{}/subscriptions/followers - Получение списка подписчиков", userId);
-        return subscriptionService.getFollowers(userId, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(subscriptionService.getFollowers(userId, from, size));
+        }
+        return CursorPage.toResponse(subscriptionService.getFollowers(userId, after, size));
+    }
+
+    /**
+     * Returns the numbers of followers and followed users of current user.
+     */
+    @GetMapping("/counts")
+    public SubscriptionCountsDto getCounts(@PathVariable @Positive Long userId) {
+        log.info("GET /users/{}/subscriptions/counts - Получение счётчиков подписок", userId);
+        return subscriptionService.getCounts(userId);
     }
 
     /**
      * Returns feed of published events from followed users.
+     * Pages by {@code from} or, if {@code after} is passed, by {@link CursorPage cursor}.
      */
     @GetMapping("/events")
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventShortDto> getFollowingEvents(
+    public ResponseEntity<List<EventShortDto>> getFollowingEvents(
             @PathVariable @Positive Long userId,
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") @Positive int size) {
         log.info("GET /users/{}/subscriptions/events - Лента событий подписок", userId);
-        return subscriptionService.getFollowingEvents(userId, sort, from, size);
+        if (after == null) {
+            return ResponseEntity.ok(subscriptionService.getFollowingEvents(userId, sort, from, size));
+        }
+        return CursorPage.toResponse(subscriptionService.getFollowingEvents(userId, sort, after, size));
     }
 }
@@ -0,0 +1,33 @@
+package ru.practicum.main.subscription.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Subscription counters of a user.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubscriptionCountsDto {
+
+    /**
+     * User id.
+     */
+    private Long userId;
+
+    /**
+     * Number of users following the user.
+     */
+    private Long followers;
+
+    /**
+     * Number of users the user follows.
+     */
+    private Long following;
+}
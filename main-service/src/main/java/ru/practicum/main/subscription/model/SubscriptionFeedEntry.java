@@ -0,0 +1,72 @@
+package ru.practicum.main.subscription.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Published event in the materialized subscription feed of a follower.
+ * <p>
+ * Rows are written in bulk by {@link ru.practicum.main.subscription.repository.SubscriptionFeedRepository}
+ * when an event is published and when subscriptions change; the event date is copied from the
+ * event so that a feed page is read from the feed index alone.
+ */
+@Entity
+@Table(name = "subscription_feed",
+        indexes = @Index(name = "idx_subscription_feed_follower_date",
+                columnList = "follower_id, event_date DESC, event_id DESC"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class SubscriptionFeedEntry {
+
+    @EmbeddedId
+    private Key id;
+
+    /**
+     * Initiator of the event, the followed user it reached the feed through.
+     */
+    @Column(name = "initiator_id", nullable = false)
+    private Long initiatorId;
+
+    /**
+     * Event date, the feed ordering key.
+     */
+    @Column(name = "event_date", nullable = false)
+    private LocalDateTime eventDate;
+
+    /**
+     * Feed entry key: one row per follower and event.
+     */
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Key implements Serializable {
+
+        @Column(name = "follower_id", nullable = false)
+        private Long followerId;
+
+        @Column(name = "event_id", nullable = false)
+        private Long eventId;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.main.subscription.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Materialized subscription feeds: published events of followed users, one row per follower.
+ * <p>
+ * The feed is filled on write with set-based statements, so reading a feed page does not depend
+ * on how many users are followed. Every write must run in the transaction that publishes the
+ * event or changes the subscription.
+ * <p>
+ * Publication and subscription changes for the same author are ordered by a lock on the
+ * author's user row: publication takes it exclusively, subscription changes take a key-share
+ * lock, which the foreign key of a new subscription takes anyway. Whichever transaction waits
+ * reads the other's committed rows, so an event published while a user subscribes is not lost.
+ * The key-share lock requires PostgreSQL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubscriptionFeedRepository {
+
+    private static final String LOCK_AUTHOR_SQL = "SELECT id FROM users WHERE id = ? FOR UPDATE";
+
+    private static final String LOCK_AUTHOR_SHARED_SQL = "SELECT id FROM users WHERE id = ? FOR KEY SHARE";
+
+    /** Writers of one author are serialized by the author lock, so the existence check is race-free. */
+    private static final String FAN_OUT_SQL = """
+            INSERT INTO subscription_feed (follower_id, event_id, initiator_id, event_date)
+            SELECT s.follower_id, ?, ?, ? FROM subscriptions s
+            WHERE s.following_id = ?
+            AND NOT EXISTS (SELECT 1 FROM subscription_feed f WHERE f.follower_id = s.follower_id AND f.event_id = ?)""";
+
+    private static final String BACKFILL_SQL = """
+            INSERT INTO subscription_feed (follower_id, event_id, initiator_id, event_date)
+            SELECT ?, e.id, e.initiator_id, e.event_date FROM events e
+            WHERE e.initiator_id = ? AND e.state = 'PUBLISHED'
+            AND NOT EXISTS (SELECT 1 FROM subscription_feed f WHERE f.follower_id = ? AND f.event_id = e.id)""";
+
+    private static final String REMOVE_AUTHOR_SQL =
+            "DELETE FROM subscription_feed WHERE follower_id = ? AND initiator_id = ?";
+
+    private static final String MOVE_EVENT_SQL =
+            "UPDATE subscription_feed SET event_date = ? WHERE event_id = ? AND event_date <> ?";
+
+    private static final String OFFSET_PAGE_SQL = """
+            SELECT event_id, event_date FROM subscription_feed
+            WHERE follower_id = ?
+            ORDER BY event_date DESC, event_id DESC
+            LIMIT ? OFFSET ?""";
+
+    private static final String PAGE_AFTER_SQL = """
+            SELECT event_id, event_date FROM subscription_feed
+            WHERE follower_id = ?
+            AND (event_date < ? OR (event_date = ? AND event_id < ?))
+            ORDER BY event_date DESC, event_id DESC
+            LIMIT ?""";
+
+    private static final RowMapper<FeedItem> FEED_ITEM_MAPPER = (rs, rowNum) -> new FeedItem(
+            rs.getLong("event_id"), rs.getObject("event_date", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds a just published event to the feeds of all followers of its initiator.
+     * The values are passed explicitly because the event row may not be flushed yet.
+     *
+     * @return number of feeds the event was added to
+     */
+    public int fanOut(long eventId, long initiatorId, LocalDateTime eventDate) {
+        jdbcTemplate.queryForList(LOCK_AUTHOR_SQL, Long.class, initiatorId);
+        return jdbcTemplate.update(FAN_OUT_SQL, eventId, initiatorId, eventDate, initiatorId, eventId);
+    }
+
+    /**
+     * Adds the published events of a newly followed user to the follower's feed.
+     *
+     * @return number of added events
+     */
+    public int addAuthor(long followerId, long followingId) {
+        jdbcTemplate.queryForList(LOCK_AUTHOR_SHARED_SQL, Long.class, followingId);
+        return jdbcTemplate.update(BACKFILL_SQL, followerId, followingId, followerId);
+    }
+
+    /**
+     * Removes the events of an unfollowed user from the follower's feed.
+     *
+     * @return number of removed events
+     */
+    public int removeAuthor(long followerId, long followingId) {
+        jdbcTemplate.queryForList(LOCK_AUTHOR_SHARED_SQL, Long.class, followingId);
+        return jdbcTemplate.update(REMOVE_AUTHOR_SQL, followerId, followingId);
+    }
+
+    /**
+     * Moves a rescheduled published event within all feeds.
+     */
+    public void moveEvent(long eventId, LocalDateTime eventDate) {
+        jdbcTemplate.update(MOVE_EVENT_SQL, eventDate, eventId, eventDate);
+    }
+
+    /**
+     * Returns a feed page in {@code event_date DESC, event_id DESC} order starting at {@code offset}.
+     */
+    public List<FeedItem> findPage(long followerId, long offset, int limit) {
+        return jdbcTemplate.query(OFFSET_PAGE_SQL, FEED_ITEM_MAPPER, followerId, limit, offset);
+    }
+
+    /**
+     * Returns a keyset feed page in {@code event_date DESC, event_id DESC} order starting after {@code after}.
+     */
+    public List<FeedItem> findPageAfter(long followerId, FeedItem after, int limit) {
+        return jdbcTemplate.query(PAGE_AFTER_SQL, FEED_ITEM_MAPPER,
+                followerId, after.eventDate(), after.eventDate(), after.eventId(), limit);
+    }
+
+    /**
+     * Event of a feed with its sort key.
+     */
+    public record FeedItem(long eventId, LocalDateTime eventDate) {
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.main.subscription.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.main.subscription.model.Subscription;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,8 +40,69 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     Page<Subscription> findAllByFollowingId(Long followingId, Pageable pageable);
 
     /**
-     * Returns followed user ids for a follower.
+     * Returns the number of users followed by the follower.
      */
-    @Query("SELECT s.following.id FROM Subscription s WHERE s.follower.id = :followerId")
-    List<Long> findFollowingIdsByFollowerId(@Param("followerId") Long followerId);
+    long countByFollowerId(Long followerId);
+
+    /**
+     * Returns the number of followers of a user.
+     */
+    long countByFollowingId(Long followingId);
+
+    /**
+     * Returns follower and followed user ids of subscriptions with id greater than {@code afterId},
+     * ordered by id, without loading the users.
+     */
+    @Query("""
+            SELECT s.id AS id, s.follower.id AS followerId, s.following.id AS followingId
+            FROM Subscription s
+            WHERE s.id > :afterId
+            ORDER BY s.id
+            """)
+    List<SubscriptionEdge> findEdgesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Keyset page of users followed by the follower in {@code createdOn DESC, id DESC} order,
+     * starting after {@code (afterCreatedOn, afterId)}; {@code null} cursor means the first page.
+     */
+    @Query("""
+            SELECT s FROM Subscription s
+            WHERE s.follower.id = :followerId
+            AND (:afterId IS NULL OR s.createdOn < :afterCreatedOn
+                 OR (s.createdOn = :afterCreatedOn AND s.id < :afterId))
+            ORDER BY s.createdOn DESC, s.id DESC
+            """)
+    List<Subscription> findFollowingAfter(
+            @Param("followerId") Long followerId,
+            @Param("afterCreatedOn") LocalDateTime afterCreatedOn,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    /**
+     * Keyset page of followers of a user in {@code createdOn DESC, id DESC} order.
+     */
+    @Query("""
+            SELECT s FROM Subscription s
+            WHERE s.following.id = :followingId
+            AND (:afterId IS NULL OR s.createdOn < :afterCreatedOn
+                 OR (s.createdOn = :afterCreatedOn AND s.id < :afterId))
+            ORDER BY s.createdOn DESC, s.id DESC
+            """)
+    List<Subscription> findFollowersAfter(
+            @Param("followingId") Long followingId,
+            @Param("afterCreatedOn") LocalDateTime afterCreatedOn,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    /**
+     * Follower and followed user of a subscription.
+     */
+    interface SubscriptionEdge {
+
+        Long getId();
+
+        Long getFollowerId();
+
+        Long getFollowingId();
+    }
 }
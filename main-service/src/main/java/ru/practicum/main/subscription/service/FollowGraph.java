@@ -0,0 +1,319 @@
+package ru.practicum.main.subscription.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.subscription.repository.SubscriptionRepository;
+import ru.practicum.main.subscription.repository.SubscriptionRepository.SubscriptionEdge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process copy of the subscription graph for existence checks and follower counts.
+ * <p>
+ * Enabled by {@code subscriptions.follow-graph.enabled}; when disabled every method is a no-op
+ * and {@link #isEnabled()} is {@code false}, so callers query the database instead.
+ * <p>
+ * Both directions are kept as sorted {@code long[]} adjacency lists per user, so a lookup is a
+ * binary search and a count is an array length. The graph is loaded before the application
+ * starts serving requests; subscription changes are applied after their transaction commits.
+ * A periodic check rebuilds the graph from {@code subscriptions} and replaces it, replaying the
+ * changes committed during the rebuild, to correct drift such as subscriptions deleted together
+ * with their user.
+ */
+@Slf4j
+@Component
+public class FollowGraph implements SmartInitializingSingleton {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Adjacency adjacency = new Adjacency();
+    /** Changes applied while a rebuild is running; {@code null} otherwise. */
+    private List<Change> journal;
+
+    public FollowGraph(SubscriptionRepository subscriptionRepository,
+                       @Value("${subscriptions.follow-graph.enabled:false}") boolean enabled,
+                       @Value("${subscriptions.follow-graph.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid subscriptions.follow-graph.chunk-size");
+        }
+        this.subscriptionRepository = subscriptionRepository;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        Adjacency loaded = load();
+        lock.writeLock().lock();
+        try {
+            adjacency = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Загружен граф подписок: {} подписок", loaded.edges);
+    }
+
+    /**
+     * Records a new subscription; inside a transaction only after a successful commit.
+     */
+    public void follow(long followerId, long followingId) {
+        apply(new Change(followerId, followingId, true));
+    }
+
+    /**
+     * Records a removed subscription; inside a transaction only after a successful commit.
+     */
+    public void unfollow(long followerId, long followingId) {
+        apply(new Change(followerId, followingId, false));
+    }
+
+    public boolean isFollowing(long followerId, long followingId) {
+        lock.readLock().lock();
+        try {
+            return Arrays.binarySearch(adjacency.following.getOrDefault(followerId, EMPTY), followingId) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countFollowing(long followerId) {
+        lock.readLock().lock();
+        try {
+            return adjacency.following.getOrDefault(followerId, EMPTY).length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countFollowers(long userId) {
+        lock.readLock().lock();
+        try {
+            return adjacency.followers.getOrDefault(userId, EMPTY).length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the graph from the database and replaces the current one.
+     *
+     * @return number of users whose followed users differed from the database
+     */
+    @Scheduled(fixedDelayString = "${subscriptions.follow-graph.reconcile-interval-ms:600000}",
+            initialDelayString = "${subscriptions.follow-graph.reconcile-interval-ms:600000}")
+    public synchronized int reconcile() {
+        if (!enabled) {
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Adjacency rebuilt;
+        try {
+            rebuilt = load();
+        } catch (RuntimeException e) {
+            stopJournal();
+            log.warn("Ошибка сверки графа подписок: {}", e.getMessage());
+            return 0;
+        }
+        lock.writeLock().lock();
+        try {
+            // Изменения, закоммиченные во время чтения, применяются повторно: add и remove идемпотентны
+            journal.forEach(rebuilt::apply);
+            journal = null;
+            int corrected = adjacency.countDifferentUsers(rebuilt);
+            adjacency = rebuilt;
+            if (corrected > 0) {
+                log.info("Исправлен граф подписок: расхождения у {} пользователей", corrected);
+            }
+            return corrected;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void stopJournal() {
+        lock.writeLock().lock();
+        try {
+            journal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(change);
+                }
+            });
+        } else {
+            applyNow(change);
+        }
+    }
+
+    private void applyNow(Change change) {
+        lock.writeLock().lock();
+        try {
+            adjacency.apply(change);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Adjacency load() {
+        long[] followerIds = new long[chunkSize];
+        long[] followingIds = new long[chunkSize];
+        int count = 0;
+        long afterId = 0;
+        List<SubscriptionEdge> chunk;
+        do {
+            chunk = subscriptionRepository.findEdgesAfter(afterId, Limit.of(chunkSize));
+            if (count + chunk.size() > followerIds.length) {
+                followerIds = Arrays.copyOf(followerIds, Math.max(followerIds.length * 2, count + chunk.size()));
+                followingIds = Arrays.copyOf(followingIds, followerIds.length);
+            }
+            for (SubscriptionEdge edge : chunk) {
+                followerIds[count] = edge.getFollowerId();
+                followingIds[count] = edge.getFollowingId();
+                count++;
+                afterId = edge.getId();
+            }
+        } while (chunk.size() == chunkSize);
+        return Adjacency.of(followerIds, followingIds, count);
+    }
+
+    /**
+     * Sorted adjacency lists of both directions.
+     */
+    private static final class Adjacency {
+
+        private final Map<Long, long[]> following = new HashMap<>();
+        private final Map<Long, long[]> followers = new HashMap<>();
+        private long edges;
+
+        /**
+         * Builds the lists from unique edges, sorting every list once instead of inserting edge by edge.
+         */
+        static Adjacency of(long[] followerIds, long[] followingIds, int count) {
+            Adjacency adjacency = new Adjacency();
+            group(adjacency.following, followerIds, followingIds, count);
+            group(adjacency.followers, followingIds, followerIds, count);
+            adjacency.edges = count;
+            return adjacency;
+        }
+
+        void apply(Change change) {
+            if (change.added()) {
+                if (insert(following, change.followerId(), change.followingId())) {
+                    insert(followers, change.followingId(), change.followerId());
+                    edges++;
+                }
+            } else if (delete(following, change.followerId(), change.followingId())) {
+                delete(followers, change.followingId(), change.followerId());
+                edges--;
+            }
+        }
+
+        int countDifferentUsers(Adjacency other) {
+            Set<Long> users = new HashSet<>(following.keySet());
+            users.addAll(other.following.keySet());
+            int different = 0;
+            for (Long user : users) {
+                if (!Arrays.equals(following.get(user), other.following.get(user))) {
+                    different++;
+                }
+            }
+            return different;
+        }
+
+        private static void group(Map<Long, long[]> lists, long[] owners, long[] ids, int count) {
+            Map<Long, Integer> sizes = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                sizes.merge(owners[i], 1, Integer::sum);
+            }
+            sizes.forEach((owner, size) -> lists.put(owner, new long[size]));
+            for (int i = 0; i < count; i++) {
+                // Список заполняется с конца по оставшемуся счётчику
+                int remaining = sizes.merge(owners[i], -1, Integer::sum);
+                lists.get(owners[i])[remaining] = ids[i];
+            }
+            lists.values().forEach(Arrays::sort);
+        }
+
+        private static boolean insert(Map<Long, long[]> lists, long owner, long id) {
+            long[] list = lists.getOrDefault(owner, EMPTY);
+            int position = Arrays.binarySearch(list, id);
+            if (position >= 0) {
+                return false;
+            }
+            int insertAt = -position - 1;
+            long[] updated = new long[list.length + 1];
+            System.arraycopy(list, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(list, insertAt, updated, insertAt + 1, list.length - insertAt);
+            lists.put(owner, updated);
+            return true;
+        }
+
+        private static boolean delete(Map<Long, long[]> lists, long owner, long id) {
+            long[] list = lists.get(owner);
+            int position = list == null ? -1 : Arrays.binarySearch(list, id);
+            if (position < 0) {
+                return false;
+            }
+            if (list.length == 1) {
+                lists.remove(owner);
+                return true;
+            }
+            long[] updated = new long[list.length - 1];
+            System.arraycopy(list, 0, updated, 0, position);
+            System.arraycopy(list, position + 1, updated, position, list.length - position - 1);
+            lists.put(owner, updated);
+            return true;
+        }
+    }
+
+    /**
+     * Subscription added or removed by a committed transaction.
+     */
+    private record Change(long followerId, long followingId, boolean added) {
+    }
+}
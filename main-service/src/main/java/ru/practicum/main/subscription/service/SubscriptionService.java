@@ -1,7 +1,9 @@
 package ru.practicum.main.subscription.service;
 
 import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.subscription.dto.SubscriptionCountsDto;
 import ru.practicum.main.subscription.dto.SubscriptionDto;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 
@@ -25,13 +27,33 @@ public interface SubscriptionService {
      */
     List<SubscriptionDto> getFollowing(Long followerId, int from, int size);
 
+    /**
+     * Returns users followed by a user, starting after the {@code after} cursor.
+     */
+    CursorPage<SubscriptionDto> getFollowing(Long followerId, String after, int size);
+
     /**
      * Returns followers of a user.
      */
     List<SubscriptionDto> getFollowers(Long userId, int from, int size);
 
+    /**
+     * Returns followers of a user, starting after the {@code after} cursor.
+     */
+    CursorPage<SubscriptionDto> getFollowers(Long userId, String after, int size);
+
+    /**
+     * Returns the numbers of followers and followed users of a user.
+     */
+    SubscriptionCountsDto getCounts(Long userId);
+
     /**
      * Returns published events of users the current user follows.
      */
     List<EventShortDto> getFollowingEvents(Long followerId, String sort, int from, int size);
+
+    /**
+     * Returns published events of users the current user follows, starting after the {@code after} cursor.
+     */
+    CursorPage<EventShortDto> getFollowingEvents(Long followerId, String sort, String after, int size);
 }
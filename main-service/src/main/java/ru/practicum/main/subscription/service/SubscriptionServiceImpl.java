@@ -2,6 +2,7 @@ package ru.practicum.main.subscription.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -11,13 +12,17 @@ import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.service.EventService;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
+import ru.practicum.main.subscription.dto.SubscriptionCountsDto;
 import ru.practicum.main.subscription.dto.SubscriptionDto;
 import ru.practicum.main.subscription.mapper.SubscriptionMapper;
 import ru.practicum.main.subscription.model.Subscription;
+import ru.practicum.main.subscription.repository.SubscriptionFeedRepository;
 import ru.practicum.main.subscription.repository.SubscriptionRepository;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
 import ru.practicum.main.util.PaginationValidator;
+import ru.practicum.main.util.TimeIdCursor;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -33,9 +38,11 @@ import java.util.List;
 public class SubscriptionServiceImpl implements SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionFeedRepository subscriptionFeedRepository;
     private final UserRepository userRepository;
     private final SubscriptionMapper subscriptionMapper;
     private final EventService eventService;
+    private final FollowGraph followGraph;
 
     @Override
     @Transactional
@@ -50,7 +57,11 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         User following = userRepository.findById(followingId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден: id=" + followingId));
 
-        if (subscriptionRepository.existsByFollowerIdAndFollowingId(followerId, followingId)) {
+        // Граф в памяти может отставать на время коммита; повтор всё равно отсекает уникальный ключ подписки
+        boolean exists = followGraph.isEnabled()
+                ? followGraph.isFollowing(followerId, followingId)
+                : subscriptionRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
+        if (exists) {
             throw new ConflictException("Подписка уже существует");
         }
 
@@ -61,6 +72,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 .build();
 
         Subscription saved = subscriptionRepository.save(subscription);
+        int added = subscriptionFeedRepository.addAuthor(followerId, followingId);
+        followGraph.follow(followerId, followingId);
+        log.info("В ленту подписок followerId={} добавлено событий: {}", followerId, added);
         return subscriptionMapper.toDto(saved);
     }
 
@@ -75,6 +89,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 .orElseThrow(() -> new NotFoundException("Подписка не найдена"));
 
         subscriptionRepository.delete(subscription);
+        subscriptionFeedRepository.removeAuthor(followerId, followingId);
+        followGraph.unfollow(followerId, followingId);
     }
 
     @Override
@@ -111,18 +127,63 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         return subscriptionMapper.toDtoList(subscriptions);
     }
 
+    @Override
+    public CursorPage<SubscriptionDto> getFollowing(Long followerId, String after, int size) {
+        log.info("Получение подписок пользователя по курсору followerId={}, size={}", followerId, size);
+        PaginationValidator.validatePagination(0, size);
+        TimeIdCursor cursor = TimeIdCursor.decode(after);
+        validateUserExists(followerId);
+
+        return toCursorPage(subscriptionRepository.findFollowingAfter(
+                followerId, cursor.time(), cursor.id(), Limit.of(size)), size);
+    }
+
+    @Override
+    public CursorPage<SubscriptionDto> getFollowers(Long userId, String after, int size) {
+        log.info("Получение подписчиков пользователя по курсору userId={}, size={}", userId, size);
+        PaginationValidator.validatePagination(0, size);
+        TimeIdCursor cursor = TimeIdCursor.decode(after);
+        validateUserExists(userId);
+
+        return toCursorPage(subscriptionRepository.findFollowersAfter(
+                userId, cursor.time(), cursor.id(), Limit.of(size)), size);
+    }
+
+    @Override
+    public SubscriptionCountsDto getCounts(Long userId) {
+        log.info("Получение счётчиков подписок пользователя userId={}", userId);
+        validateUserExists(userId);
+
+        if (followGraph.isEnabled()) {
+            return new SubscriptionCountsDto(userId, followGraph.countFollowers(userId), followGraph.countFollowing(userId));
+        }
+        return new SubscriptionCountsDto(userId,
+                subscriptionRepository.countByFollowingId(userId),
+                subscriptionRepository.countByFollowerId(userId));
+    }
+
     @Override
     public List<EventShortDto> getFollowingEvents(Long followerId, String sort, int from, int size) {
         log.info("Получение ленты подписок followerId={}, from={}, size={}", followerId, from, size);
         PaginationValidator.validatePagination(from, size);
         validateUserExists(followerId);
 
-        List<Long> followingIds = subscriptionRepository.findFollowingIdsByFollowerId(followerId);
-        if (followingIds.isEmpty()) {
-            return List.of();
-        }
+        return eventService.getSubscriptionFeed(followerId, sort, from, size);
+    }
+
+    @Override
+    public CursorPage<EventShortDto> getFollowingEvents(Long followerId, String sort, String after, int size) {
+        log.info("Получение ленты подписок по курсору followerId={}, size={}", followerId, size);
+        PaginationValidator.validatePagination(0, size);
+        validateUserExists(followerId);
+
+        return eventService.getSubscriptionFeed(followerId, sort, after, size);
+    }
 
-        return eventService.getPublishedEventsByInitiators(followingIds, sort, from, size);
+    private CursorPage<SubscriptionDto> toCursorPage(List<Subscription> subscriptions, int size) {
+        return CursorPage.of(subscriptions, size,
+                        subscription -> TimeIdCursor.encode(subscription.getCreatedOn(), subscription.getId()))
+                .map(subscriptionMapper::toDtoList);
     }
 
     private void validateUserExists(Long userId) {
@@ -8,6 +8,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import ru.practicum.main.comment.service.PublishedCommentsCache;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
@@ -17,6 +18,8 @@ import ru.practicum.main.user.dto.UserDto;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
 import ru.practicum.main.util.PaginationValidator;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.VersionedResource;
 
 import java.util.List;
 import java.util.Objects;
@@ -30,6 +33,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final ResourceVersions resourceVersions;
+    private final PublishedCommentsCache publishedCommentsCache;
 
     @Override
     @Transactional
@@ -77,6 +82,10 @@ public class UserServiceImpl implements UserService {
             throw new ConflictException("Нельзя удалить пользователя с опубликованными или созданными событиями");
         }
         userRepository.deleteById(userId);
+        // Вместе с пользователем каскадно удаляются его комментарии и голоса
+        resourceVersions.bump(VersionedResource.COMMENTS, VersionedResource.EVENTS);
+        // События с комментариями пользователя неизвестны без лишнего запроса, поэтому сбрасываются все
+        publishedCommentsCache.invalidateAll();
     }
 
     private UserDto toDto(User user) {
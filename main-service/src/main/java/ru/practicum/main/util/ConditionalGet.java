@@ -0,0 +1,29 @@
+package ru.practicum.main.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response depends only on the listed resource collections.
+ * <p>
+ * {@link ConditionalGetInterceptor} sends an ETag built from their {@link ResourceVersions versions}
+ * and answers a matching {@code If-None-Match} with 304 Not Modified without calling the handler.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * Collections the response is built from.
+     */
+    VersionedResource[] value();
+
+    /**
+     * Whether the endpoint is counted in statistics, so a 304 answer must still record the hit.
+     */
+    boolean recordsHit() default false;
+}
@@ -0,0 +1,49 @@
+package ru.practicum.main.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Handles conditional GET requests to handlers marked with {@link ConditionalGet}.
+ * <p>
+ * The ETag is computed from {@link ResourceVersions} before the handler runs, so a request whose
+ * {@code If-None-Match} matches is answered with 304 without querying the database or serializing
+ * the body. Other requests get the same ETag and proceed to the handler.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final ResourceVersions resourceVersions;
+    private final ObjectProvider<HitRecorder> hitRecorder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        String etag = resourceVersions.etag(conditionalGet.value());
+        if (!new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return true;
+        }
+        log.debug("Ресурс не изменился: uri={}, etag={}", request.getRequestURI(), etag);
+        if (conditionalGet.recordsHit()) {
+            hitRecorder.ifAvailable(recorder -> recorder.record(request));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.main.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of items read with keyset pagination.
+ * <p>
+ * List endpoints accept an optional {@code after} parameter next to {@code from}: an empty value
+ * requests the first page, and the cursor of the next page is returned in the
+ * {@value #NEXT_CURSOR_HEADER} header, which is absent on the last page.
+ *
+ * @param <T> item type
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /** HTTP header carrying the cursor of the next page. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+
+    /** Cursor of the next page, {@code null} if this page is the last one. */
+    private String nextCursor;
+
+    /**
+     * Builds a page from items read with {@code LIMIT size}; a full page gets the cursor of its last item.
+     */
+    public static <T> CursorPage<T> of(List<T> items, int size, Function<T, String> cursorOf) {
+        String nextCursor = items.size() == size ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Converts the items keeping the next cursor.
+     */
+    public <R> CursorPage<R> map(Function<List<T>, List<R>> mapper) {
+        return new CursorPage<>(mapper.apply(items), nextCursor);
+    }
+
+    /**
+     * Wraps the page into a 200 response with the next cursor header, if any.
+     */
+    public static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
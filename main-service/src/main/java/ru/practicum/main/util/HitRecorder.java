@@ -0,0 +1,11 @@
+package ru.practicum.main.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Records a request to a public endpoint in statistics.
+ */
+public interface HitRecorder {
+
+    void record(HttpServletRequest request);
+}
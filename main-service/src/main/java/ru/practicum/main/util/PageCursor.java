@@ -0,0 +1,85 @@
+package ru.practicum.main.util;
+
+import ru.practicum.main.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque cursor for keyset pagination.
+ * <p>
+ * A cursor holds the sort key of the last item of a page, so the next page is read with a
+ * seek predicate instead of an OFFSET and costs the same at any depth. The key is encoded
+ * as URL-safe Base64; clients must treat it as an opaque token.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final List<String> values;
+
+    private PageCursor(List<String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Builds a cursor from sort key values; {@code null} values are not allowed.
+     */
+    public static String encode(Object... values) {
+        String joined = String.join(SEPARATOR, Arrays.stream(values).map(String::valueOf).toList());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor that must contain exactly {@code size} values.
+     *
+     * @throws ValidationException if the cursor is malformed
+     */
+    public static PageCursor decode(String cursor, int size) {
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> values = List.of(joined.split("\\" + SEPARATOR, -1));
+            if (values.size() != size) {
+                throw new ValidationException("Некорректный курсор пагинации");
+            }
+            return new PageCursor(values);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор пагинации");
+        }
+    }
+
+    /**
+     * Returns {@code true} if a cursor was passed, an empty {@code after} means the first page.
+     */
+    public static boolean isPresent(String cursor) {
+        return cursor != null && !cursor.isBlank();
+    }
+
+    /**
+     * Decodes a cursor over an ascending id ordering; 0 (before any id) for the first page.
+     *
+     * @throws ValidationException if the cursor is malformed
+     */
+    public static long decodeAfterId(String cursor) {
+        return isPresent(cursor) ? decode(cursor, 1).getLong(0) : 0L;
+    }
+
+    public long getLong(int index) {
+        try {
+            return Long.parseLong(values.get(index));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Некорректный курсор пагинации");
+        }
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        try {
+            return LocalDateTime.parse(values.get(index));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Некорректный курсор пагинации");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.main.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.event.service.EventUpdatedEvent;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Change counters of public resource collections, used as strong ETags of public responses.
+ * <p>
+ * Write services call {@link #bump} for every collection whose public representation they change;
+ * event changes are also counted from {@link EventUpdatedEvent}. A counter moves only after the
+ * transaction commits and the ETag is computed before the response is read, so an ETag is never
+ * paired with data older than its version. The ETag also carries the start time of this instance,
+ * because counters start from zero after a restart. Event responses include views, which change
+ * without writes here, so their ETag additionally rolls over every {@code events.views-cache.ttl-ms}.
+ */
+@Slf4j
+@Component
+public class ResourceVersions {
+
+    private final Map<VersionedResource, AtomicLong> versions = new EnumMap<>(VersionedResource.class);
+    private final String instance;
+    private final long viewsTtlMs;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ResourceVersions(@Value("${events.views-cache.ttl-ms:60000}") long viewsTtlMs) {
+        this(viewsTtlMs, System::currentTimeMillis);
+    }
+
+    ResourceVersions(long viewsTtlMs, LongSupplier clock) {
+        if (viewsTtlMs <= 0) {
+            throw new IllegalArgumentException("events.views-cache.ttl-ms must be positive");
+        }
+        for (VersionedResource resource : VersionedResource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+        this.instance = Long.toString(clock.getAsLong(), Character.MAX_RADIX);
+        this.viewsTtlMs = viewsTtlMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Counts a change of the given collections once the current transaction, if any, commits.
+     */
+    public void bump(VersionedResource... resources) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpNow(resources);
+                }
+            });
+        } else {
+            bumpNow(resources);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventUpdated(EventUpdatedEvent event) {
+        bumpNow(VersionedResource.EVENTS);
+    }
+
+    /**
+     * Returns a quoted strong ETag that changes whenever any of the given collections changes.
+     */
+    public String etag(VersionedResource... resources) {
+        StringBuilder etag = new StringBuilder("\"").append(instance);
+        for (VersionedResource resource : resources) {
+            etag.append('-').append(resource.ordinal()).append('.').append(versions.get(resource).get());
+        }
+        if (Arrays.asList(resources).contains(VersionedResource.EVENTS)) {
+            etag.append("-v").append(clock.getAsLong() / viewsTtlMs);
+        }
+        return etag.append('"').toString();
+    }
+
+    private void bumpNow(VersionedResource... resources) {
+        for (VersionedResource resource : resources) {
+            long version = versions.get(resource).incrementAndGet();
+            log.debug("Новая версия {}: {}", resource, version);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.main.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset cursor over a {@code (timestamp, id)} ordering such as {@code created_on DESC, id DESC}.
+ * <p>
+ * Both components are {@code null} for the first page, which repository seek queries
+ * treat as "no lower bound".
+ *
+ * @param time timestamp of the last item of the previous page
+ * @param id   id of the last item of the previous page
+ */
+public record TimeIdCursor(LocalDateTime time, Long id) {
+
+    /** Cursor of the first page. */
+    public static final TimeIdCursor FIRST = new TimeIdCursor(null, null);
+
+    /**
+     * Decodes an {@code after} request parameter; a missing or blank value means the first page.
+     *
+     * @throws ru.practicum.main.exception.ValidationException if the cursor is malformed
+     */
+    public static TimeIdCursor decode(String after) {
+        if (!PageCursor.isPresent(after)) {
+            return FIRST;
+        }
+        PageCursor cursor = PageCursor.decode(after, 2);
+        return new TimeIdCursor(cursor.getDateTime(0), cursor.getLong(1));
+    }
+
+    public static String encode(LocalDateTime time, Long id) {
+        return PageCursor.encode(time, id);
+    }
+}
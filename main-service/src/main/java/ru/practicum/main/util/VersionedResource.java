@@ -0,0 +1,12 @@
+package ru.practicum.main.util;
+
+/**
+ * Public resource collection whose changes are counted by {@link ResourceVersions}.
+ */
+public enum VersionedResource {
+    EVENTS,
+    CATEGORIES,
+    COMPILATIONS,
+    LOCATIONS,
+    COMMENTS
+}
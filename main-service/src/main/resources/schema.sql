@@ -29,7 +29,9 @@ CREATE TABLE IF NOT EXISTS events (
     request_moderation BOOLEAN DEFAULT TRUE,
     state VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     title VARCHAR(120) NOT NULL,
-    views BIGINT DEFAULT 0,
+    views BIGINT NOT NULL DEFAULT 0,
+    likes BIGINT NOT NULL DEFAULT 0,
+    dislikes BIGINT NOT NULL DEFAULT 0,
     version BIGINT NOT NULL DEFAULT 0,
     moderation_note VARCHAR(1000)
 );
@@ -37,6 +39,18 @@ CREATE TABLE IF NOT EXISTS events (
 -- Совместимость со старыми БД: добавляем колонку модерации, если она отсутствует
 ALTER TABLE events ADD COLUMN IF NOT EXISTS moderation_note VARCHAR(1000);
 ALTER TABLE events ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+-- Просмотры участвуют в ключе курсорной пагинации, поэтому NULL недопустим
+UPDATE events SET views = 0 WHERE views IS NULL;
+ALTER TABLE events ALTER COLUMN views SET NOT NULL;
+-- Счётчики голосов; у старых БД заполняются первой сверкой EventRatingReconciler
+ALTER TABLE events ADD COLUMN IF NOT EXISTS likes BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN IF NOT EXISTS dislikes BIGINT NOT NULL DEFAULT 0;
+-- Полнотекстовый поиск: вектор поддерживается самой БД при вставке и обновлении события
+ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', title), 'A')
+        || setweight(to_tsvector('russian', annotation), 'B')
+        || setweight(to_tsvector('russian', description), 'C')
+) STORED;
 
 -- Таблица заявок на участие
 CREATE TABLE IF NOT EXISTS participation_requests (
@@ -68,6 +82,22 @@ CREATE TABLE IF NOT EXISTS subscriptions (
     CONSTRAINT uq_subscription_follower_following UNIQUE (follower_id, following_id)
 );
 
+-- Материализованная лента подписок: опубликованные события авторов, по строке на подписчика
+CREATE TABLE IF NOT EXISTS subscription_feed (
+    follower_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    event_id BIGINT NOT NULL REFERENCES events(id) ON DELETE CASCADE,
+    initiator_id BIGINT NOT NULL,
+    event_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (follower_id, event_id)
+);
+
+-- Заполнение ленты для подписок, созданных до её появления
+INSERT INTO subscription_feed (follower_id, event_id, initiator_id, event_date)
+SELECT s.follower_id, e.id, e.initiator_id, e.event_date
+FROM subscriptions s
+JOIN events e ON e.initiator_id = s.following_id AND e.state = 'PUBLISHED'
+WHERE NOT EXISTS (SELECT 1 FROM subscription_feed);
+
 -- Рейтинг событий (лайки/дизлайки)
 CREATE TABLE IF NOT EXISTS event_ratings (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -78,6 +108,8 @@ CREATE TABLE IF NOT EXISTS event_ratings (
     updated_on TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT uq_event_rating_user_event UNIQUE (user_id, event_id)
 );
+-- updated_on входит в ключ курсорной пагинации голосов пользователя
+UPDATE event_ratings SET updated_on = created_on WHERE updated_on IS NULL;
 
 -- Управляемые локации (администрирование)
 CREATE TABLE IF NOT EXISTS managed_locations (
@@ -121,6 +153,19 @@ CREATE INDEX IF NOT EXISTS idx_events_category ON events(category_id);
 CREATE INDEX IF NOT EXISTS idx_events_initiator ON events(initiator_id);
 CREATE INDEX IF NOT EXISTS idx_events_event_date ON events(event_date);
 CREATE INDEX IF NOT EXISTS idx_events_state ON events(state);
+-- Поиск опубликованных событий по тексту (text=...)
+CREATE INDEX IF NOT EXISTS idx_events_published_search ON events USING gin (search_vector)
+    WHERE state = 'PUBLISHED';
+-- Поиск опубликованных событий в радиусе: GiST по точке (lon, lat) для отбора по ограничивающему прямоугольнику
+CREATE INDEX IF NOT EXISTS idx_events_published_location ON events USING gist (point(lon, lat))
+    WHERE state = 'PUBLISHED';
+-- Сортировка опубликованных событий по просмотрам (sort=VIEWS) и курсорная пагинация по ней
+CREATE INDEX IF NOT EXISTS idx_events_published_views ON events(views DESC NULLS LAST, event_date, id)
+    WHERE state = 'PUBLISHED';
+-- Сортировка опубликованных событий по рейтингу (sort=RATING) по счётчикам голосов
+CREATE INDEX IF NOT EXISTS idx_events_published_rating
+    ON events((likes - dislikes) DESC, views DESC NULLS LAST, event_date, id)
+    WHERE state = 'PUBLISHED';
 CREATE UNIQUE INDEX IF NOT EXISTS uq_participation_event_requester
     ON participation_requests(event_id, requester_id);
 CREATE INDEX IF NOT EXISTS idx_participation_event ON participation_requests(event_id);
@@ -133,6 +178,10 @@ CREATE INDEX IF NOT EXISTS idx_subscriptions_follower_created
     ON subscriptions(follower_id, created_on DESC);
 CREATE INDEX IF NOT EXISTS idx_subscriptions_following_created
     ON subscriptions(following_id, created_on DESC);
+-- Страница ленты подписок (event_date DESC, event_id DESC) только по индексу ленты
+CREATE INDEX IF NOT EXISTS idx_subscription_feed_follower_date
+    ON subscription_feed(follower_id, event_date DESC, event_id DESC);
+CREATE INDEX IF NOT EXISTS idx_subscription_feed_event ON subscription_feed(event_id);
 CREATE INDEX IF NOT EXISTS idx_event_ratings_event_vote
     ON event_ratings(event_id, vote);
 CREATE INDEX IF NOT EXISTS idx_event_ratings_user_updated
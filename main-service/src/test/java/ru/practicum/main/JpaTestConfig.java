@@ -0,0 +1,15 @@
+package ru.practicum.main;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * JPA-only context for {@code @DataJpaTest} slices, used instead of the application class,
+ * which scans every component. Tests add the beans they need with {@code @Import}.
+ */
+@Configuration(proxyBeanMethods = false)
+@EntityScan("ru.practicum.main")
+@EnableJpaRepositories("ru.practicum.main")
+public class JpaTestConfig {
+}
@@ -8,11 +8,19 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.main.category.dto.CategoryDto;
+import ru.practicum.main.category.mapper.CategoryMapper;
+import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.compilation.service.CompilationFeedCache;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.exception.ValidationException;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.VersionedResource;
+
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.never;
@@ -29,6 +37,15 @@ class CategoryServiceImplTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @Mock
+    private CompilationFeedCache compilationFeedCache;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -75,4 +92,20 @@ class CategoryServiceImplTest {
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("from must be");
     }
+
+    @Test
+    @DisplayName("Должен сбросить кэш подборок при переименовании категории")
+    void update_Renamed_InvalidatesCompilationFeed() {
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Концерты");
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.existsByName("Выставки")).thenReturn(false);
+        when(categoryRepository.save(category)).thenReturn(category);
+
+        categoryService.update(1L, CategoryDto.builder().name("Выставки").build());
+
+        verify(resourceVersions).bump(VersionedResource.CATEGORIES, VersionedResource.EVENTS);
+        verify(compilationFeedCache).invalidate();
+    }
 }
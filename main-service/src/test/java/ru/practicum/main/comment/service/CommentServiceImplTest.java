@@ -1,5 +1,6 @@
 package ru.practicum.main.comment.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,7 +9,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.main.comment.dto.AdminUpdateCommentRequest;
@@ -27,6 +30,9 @@ import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.exception.ValidationException;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.VersionedResource;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -36,8 +42,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -59,6 +68,13 @@ class CommentServiceImplTest {
     @Mock
     private CommentMapper commentMapper;
 
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @Spy
+    private PublishedCommentsCache publishedCommentsCache =
+            new PublishedCommentsCache(new SimpleMeterRegistry(), 2, 100, 60_000);
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -213,6 +229,7 @@ class CommentServiceImplTest {
             assertThat(saved.getStatus()).isEqualTo(CommentStatus.PENDING);
             assertThat(saved.getModerationNote()).isNull();
             assertThat(saved.getUpdatedOn()).isNotNull();
+            verify(publishedCommentsCache).invalidate(10L);
         }
 
         @Test
@@ -261,6 +278,7 @@ class CommentServiceImplTest {
             assertThat(saved.getStatus()).isEqualTo(CommentStatus.DELETED);
             assertThat(saved.getText()).isEqualTo("[удалено автором]");
             assertThat(saved.getUpdatedOn()).isNotNull();
+            verify(publishedCommentsCache).invalidate(10L);
         }
 
         @Test
@@ -282,7 +300,7 @@ class CommentServiceImplTest {
         @Test
         @DisplayName("Должен вернуть опубликованные комментарии события")
         void getPublishedComments_success() {
-            when(eventRepository.findByIdAndState(10L, EventState.PUBLISHED)).thenReturn(Optional.of(publishedEvent));
+            when(eventRepository.existsByIdAndState(10L, EventState.PUBLISHED)).thenReturn(true);
             when(commentRepository.findAllByEventIdAndStatus(anyLong(), any(CommentStatus.class), any(Pageable.class)))
                     .thenReturn(new PageImpl<>(List.of(comment)));
             when(commentMapper.toDtoList(any())).thenReturn(List.of(commentDto));
@@ -301,10 +319,75 @@ class CommentServiceImplTest {
                     .hasMessageContaining("size must be");
         }
 
+        @Test
+        @DisplayName("Должен вернуть курсор полной страницы и продолжить чтение после него")
+        void getPublishedComments_cursor_seeksAfterLastComment() {
+            commentDto.setCreatedOn(comment.getCreatedOn());
+            when(eventRepository.existsByIdAndState(10L, EventState.PUBLISHED)).thenReturn(true);
+            when(commentRepository.findEventCommentsAfter(eq(10L), eq(CommentStatus.PUBLISHED), any(), any(), any()))
+                    .thenReturn(List.of(comment))
+                    .thenReturn(List.of());
+            when(commentMapper.toDtoList(any())).thenReturn(List.of(commentDto)).thenReturn(List.of());
+
+            CursorPage<CommentDto> first = commentService.getPublishedComments(10L, "", 1);
+            CursorPage<CommentDto> second = commentService.getPublishedComments(10L, first.getNextCursor(), 1);
+
+            assertThat(first.getItems()).hasSize(1);
+            assertThat(first.getNextCursor()).isNotNull();
+            assertThat(second.getNextCursor()).isNull();
+            // Первая страница читается из кэша, загруженного на весь размер кэшируемого префикса
+            verify(commentRepository).findEventCommentsAfter(10L, CommentStatus.PUBLISHED, null, null, Limit.of(2));
+            verify(commentRepository).findEventCommentsAfter(
+                    10L, CommentStatus.PUBLISHED, comment.getCreatedOn(), 100L, Limit.of(1));
+        }
+
+        @Test
+        @DisplayName("Должен отдавать первую страницу из кэша без повторной проверки события")
+        void getPublishedComments_firstPage_servedFromCache() {
+            when(eventRepository.existsByIdAndState(10L, EventState.PUBLISHED)).thenReturn(true);
+            when(commentRepository.findEventCommentsAfter(10L, CommentStatus.PUBLISHED, null, null, Limit.of(2)))
+                    .thenReturn(List.of(comment));
+            when(commentMapper.toDtoList(List.of(comment))).thenReturn(List.of(commentDto));
+
+            List<CommentDto> first = commentService.getPublishedComments(10L, 0, 1);
+            List<CommentDto> second = commentService.getPublishedComments(10L, 1, 1);
+            List<CommentDto> repeated = commentService.getPublishedComments(10L, 0, 2);
+
+            assertThat(first).containsExactly(commentDto);
+            assertThat(second).isEmpty();
+            assertThat(repeated).containsExactly(commentDto);
+            verify(eventRepository, times(1)).existsByIdAndState(10L, EventState.PUBLISHED);
+            verify(commentRepository, never())
+                    .findAllByEventIdAndStatus(anyLong(), any(CommentStatus.class), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Должен выбросить NotFoundException для неопубликованного события и ничего не кэшировать")
+        void getPublishedComments_eventNotPublished_throwsNotFound() {
+            when(eventRepository.existsByIdAndState(10L, EventState.PUBLISHED)).thenReturn(false);
+
+            assertThatThrownBy(() -> commentService.getPublishedComments(10L, 0, 1))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Опубликованное событие не найдено");
+            assertThatThrownBy(() -> commentService.getPublishedComments(10L, "", 1))
+                    .isInstanceOf(NotFoundException.class);
+            verify(eventRepository, times(2)).existsByIdAndState(10L, EventState.PUBLISHED);
+            verifyNoInteractions(commentRepository);
+        }
+
+        @Test
+        @DisplayName("Должен выбросить ValidationException для некорректного курсора")
+        void getCommentsForAdmin_malformedCursor_throwsValidation() {
+            assertThatThrownBy(() -> commentService.getCommentsForAdmin(null, null, null, "bm9wZQ", 10))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("курсор");
+            verify(commentRepository, never()).searchForAdminAfter(any(), any(), any(), any(), any(), any());
+        }
+
         @Test
         @DisplayName("Должен выбросить NotFoundException если опубликованный комментарий не найден")
         void getPublishedCommentById_notFound_throwsNotFound() {
-            when(eventRepository.findByIdAndState(10L, EventState.PUBLISHED)).thenReturn(Optional.of(publishedEvent));
+            when(eventRepository.existsByIdAndState(10L, EventState.PUBLISHED)).thenReturn(true);
             when(commentRepository.findByIdAndEventIdAndStatus(100L, 10L, CommentStatus.PUBLISHED))
                     .thenReturn(Optional.empty());
 
@@ -334,6 +417,8 @@ class CommentServiceImplTest {
             ArgumentCaptor<Comment> captor = ArgumentCaptor.forClass(Comment.class);
             verify(commentRepository).save(captor.capture());
             assertThat(captor.getValue().getStatus()).isEqualTo(CommentStatus.PUBLISHED);
+            verify(resourceVersions).bump(VersionedResource.COMMENTS);
+            verify(publishedCommentsCache).invalidate(10L);
         }
 
         @Test
@@ -371,26 +456,30 @@ class CommentServiceImplTest {
             assertThatThrownBy(() -> commentService.moderateComment(100L, request))
                     .isInstanceOf(ConflictException.class)
                     .hasMessageContaining("Удалённый комментарий");
+            verifyNoInteractions(resourceVersions);
         }
 
         @Test
         @DisplayName("Должен удалить комментарий администратором")
         void deleteCommentByAdmin_success() {
-            when(commentRepository.existsById(100L)).thenReturn(true);
+            when(commentRepository.findById(100L)).thenReturn(Optional.of(comment));
 
             commentService.deleteCommentByAdmin(100L);
 
-            verify(commentRepository).deleteById(100L);
+            verify(commentRepository).delete(comment);
+            verify(resourceVersions).bump(VersionedResource.COMMENTS);
+            verify(publishedCommentsCache).invalidate(10L);
         }
 
         @Test
         @DisplayName("Должен выбросить NotFoundException если комментарий не существует")
         void deleteCommentByAdmin_notFound_throwsNotFound() {
-            when(commentRepository.existsById(100L)).thenReturn(false);
+            when(commentRepository.findById(100L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> commentService.deleteCommentByAdmin(100L))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessageContaining("Комментарий не найден");
+            verify(publishedCommentsCache, never()).invalidate(anyLong());
         }
     }
 }
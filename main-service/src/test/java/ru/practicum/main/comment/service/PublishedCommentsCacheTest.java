@@ -0,0 +1,128 @@
+package ru.practicum.main.comment.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.comment.dto.CommentDto;
+import ru.practicum.main.exception.NotFoundException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link PublishedCommentsCache}.
+ */
+@DisplayName("PublishedCommentsCache Unit Tests")
+class PublishedCommentsCacheTest {
+
+    private PublishedCommentsCache publishedCommentsCache;
+    private AtomicInteger loads;
+    private Supplier<List<CommentDto>> loader;
+
+    @BeforeEach
+    void setUp() {
+        publishedCommentsCache = new PublishedCommentsCache(new SimpleMeterRegistry(), 3, 100, 60_000);
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return LongStream.rangeClosed(1, 3)
+                    .mapToObj(id -> CommentDto.builder().id(id).eventId(10L).build())
+                    .toList();
+        };
+    }
+
+    @Test
+    @DisplayName("Должен загрузить комментарии события один раз и нарезать из них страницы")
+    void getPage_CutsPagesFromCachedComments() {
+        // Action
+        List<CommentDto> first = publishedCommentsCache.getPage(10L, 0, 2, loader);
+        List<CommentDto> second = publishedCommentsCache.getPage(10L, 2, 2, loader);
+        List<CommentDto> beyond = publishedCommentsCache.getPage(10L, 5, 2, loader);
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(first).extracting(CommentDto::getId).containsExactly(1L, 2L);
+        assertThat(second).extracting(CommentDto::getId).containsExactly(3L);
+        assertThat(beyond).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен перечитать комментарии только сброшенного события")
+    void invalidate_DropsOnlyThatEvent() {
+        // Setup
+        publishedCommentsCache.getFirstPage(10L, loader);
+        publishedCommentsCache.getFirstPage(20L, loader);
+
+        // Action
+        publishedCommentsCache.invalidate(10L);
+        publishedCommentsCache.getFirstPage(10L, loader);
+        publishedCommentsCache.getFirstPage(20L, loader);
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Должен перечитать комментарии всех событий после полного сброса")
+    void invalidateAll_DropsEveryEvent() {
+        // Setup
+        publishedCommentsCache.getFirstPage(10L, loader);
+        publishedCommentsCache.getFirstPage(20L, loader);
+
+        // Action
+        publishedCommentsCache.invalidateAll();
+        publishedCommentsCache.getFirstPage(10L, loader);
+        publishedCommentsCache.getFirstPage(20L, loader);
+
+        // Assert
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Должен сбросить кэш только после фиксации транзакции")
+    void invalidateAll_InTransaction_DeferredUntilCommit() {
+        // Setup
+        publishedCommentsCache.getFirstPage(10L, loader);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Action
+            publishedCommentsCache.invalidateAll();
+            publishedCommentsCache.getFirstPage(10L, loader);
+            int loadsBeforeCommit = loads.get();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+            publishedCommentsCache.getFirstPage(10L, loader);
+
+            // Assert
+            assertThat(loadsBeforeCommit).isEqualTo(1);
+            assertThat(loads).hasValue(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Не должен кэшировать результат неудачной загрузки")
+    void getFirstPage_FailedLoadIsNotCached() {
+        // Setup
+        Supplier<List<CommentDto>> failing = () -> {
+            throw new NotFoundException("Опубликованное событие не найдено: id=10");
+        };
+
+        // Action
+        assertThatThrownBy(() -> publishedCommentsCache.getFirstPage(10L, failing))
+                .isInstanceOf(NotFoundException.class);
+        publishedCommentsCache.getFirstPage(10L, loader);
+
+        // Assert
+        assertThat(loads).hasValue(1);
+    }
+}
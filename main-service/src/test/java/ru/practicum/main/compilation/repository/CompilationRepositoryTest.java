@@ -0,0 +1,139 @@
+package ru.practicum.main.compilation.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.main.JpaTestConfig;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.compilation.dto.CompilationDto;
+import ru.practicum.main.compilation.dto.NewCompilationDto;
+import ru.practicum.main.compilation.model.Compilation;
+import ru.practicum.main.compilation.service.CompilationFeedCache;
+import ru.practicum.main.compilation.service.CompilationServiceImpl;
+import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.mapper.EventMapper;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.model.Location;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.service.EventViewsCache;
+import ru.practicum.main.user.model.User;
+import ru.practicum.main.util.ResourceVersions;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a page of compilations with their events is read with a fixed number of SQL statements.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("test")
+@DisplayName("Compilation reads statement count")
+class CompilationRepositoryTest {
+
+    private static final int COMPILATION_COUNT = 4;
+    private static final int EVENTS_PER_COMPILATION = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CompilationRepository compilationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final EventViewsCache eventViewsCache = mock(EventViewsCache.class);
+    private CompilationServiceImpl compilationService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        compilationService = new CompilationServiceImpl(compilationRepository, eventRepository,
+                Mappers.getMapper(EventMapper.class), eventViewsCache, mock(CompilationFeedCache.class),
+                mock(ResourceVersions.class));
+        when(eventViewsCache.getViews(any())).thenReturn(Map.of());
+
+        int number = 0;
+        for (int c = 0; c < COMPILATION_COUNT; c++) {
+            Set<Event> events = new HashSet<>();
+            for (int e = 0; e < EVENTS_PER_COMPILATION; e++, number++) {
+                // Своя категория и инициатор у каждого события, чтобы ленивая загрузка была заметна
+                Category category = entityManager.persist(Category.builder().name("Категория " + number).build());
+                User initiator = entityManager.persist(
+                        User.builder().name("Пользователь " + number).email("user" + number + "@test.com").build());
+                events.add(entityManager.persist(Event.builder()
+                        .title("Событие " + number)
+                        .annotation("Аннотация события " + number)
+                        .description("Описание события " + number)
+                        .category(category)
+                        .initiator(initiator)
+                        .location(new Location(55.75f, 37.62f))
+                        .eventDate(LocalDateTime.now().plusDays(number + 1))
+                        .createdOn(LocalDateTime.now())
+                        .state(EventState.PUBLISHED)
+                        .build()));
+            }
+            entityManager.persist(Compilation.builder().title("Подборка " + c).pinned(true).events(events).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("getAll: подборки, их события, категории и инициаторы за фиксированное число запросов")
+    void getAll_ReadsPageWithFixedStatementCount() {
+        // Action
+        List<CompilationDto> result = compilationService.getAll(true, 0, 10);
+
+        // Assert
+        assertThat(result).hasSize(COMPILATION_COUNT).allSatisfy(compilation -> {
+            assertThat(compilation.getEvents()).hasSize(EVENTS_PER_COMPILATION);
+            assertThat(compilation.getEvents()).allSatisfy(event -> {
+                assertThat(event.getCategory().getName()).isNotNull();
+                assertThat(event.getInitiator().getName()).isNotNull();
+            });
+        });
+        // Страница подборок, идентификаторы событий, события с категориями и инициаторами
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        verify(eventViewsCache, times(1)).getViews(any());
+    }
+
+    @Test
+    @DisplayName("create: возвращает события новой подборки, ещё не сброшенной в БД")
+    void create_ReturnsEventsOfUnflushedCompilation() {
+        // Setup
+        List<Long> eventIds = eventRepository.findAll().stream().map(Event::getId).limit(2).toList();
+
+        // Action
+        CompilationDto result = compilationService.create(
+                NewCompilationDto.builder().title("Новая").events(eventIds).build());
+
+        // Assert
+        assertThat(result.getEvents()).extracting(EventShortDto::getId)
+                .containsExactlyInAnyOrderElementsOf(eventIds);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.main.compilation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.main.compilation.dto.CompilationDto;
+import ru.practicum.main.compilation.service.CompilationFeedCache.CompilationFeed;
+import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.service.EventUpdatedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CompilationFeedCache}.
+ */
+@DisplayName("CompilationFeedCache Unit Tests")
+class CompilationFeedCacheTest {
+
+    private CompilationFeedCache compilationFeedCache;
+    private AtomicInteger loads;
+    private Supplier<List<CompilationDto>> loader;
+
+    @BeforeEach
+    void setUp() {
+        compilationFeedCache = new CompilationFeedCache(new ObjectMapper(), new SimpleMeterRegistry(), 100, 60_000);
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return List.of(CompilationDto.builder()
+                    .id(1L)
+                    .title("Подборка")
+                    .pinned(true)
+                    .events(List.of(EventShortDto.builder().id(10L).build()))
+                    .build());
+        };
+    }
+
+    @Test
+    @DisplayName("Должен сериализовать страницу один раз и отдавать те же байты с тем же ETag")
+    void get_ServesSerializedPageFromCache() {
+        // Action
+        CompilationFeed first = compilationFeedCache.get(true, 0, 10, loader);
+        CompilationFeed second = compilationFeedCache.get(true, 0, 10, loader);
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.json(), StandardCharsets.UTF_8)).contains("\"title\":\"Подборка\"");
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("Должен хранить страницы отдельно по pinned, from и size")
+    void get_KeysPagesByParameters() {
+        // Action
+        compilationFeedCache.get(true, 0, 10, loader);
+        compilationFeedCache.get(null, 0, 10, loader);
+        compilationFeedCache.get(true, 10, 10, loader);
+
+        // Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Должен сбросить страницы при изменении подборки")
+    void invalidate_DropsPages() {
+        // Setup
+        compilationFeedCache.get(true, 0, 10, loader);
+
+        // Action
+        compilationFeedCache.invalidate();
+        compilationFeedCache.get(true, 0, 10, loader);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Должен сбросить страницы только при изменении события из подборок")
+    void onEventUpdated_DropsPagesOfMemberEventsOnly() {
+        // Setup
+        compilationFeedCache.get(true, 0, 10, loader);
+
+        // Action
+        compilationFeedCache.onEventUpdated(new EventUpdatedEvent(99L));
+        compilationFeedCache.get(true, 0, 10, loader);
+        compilationFeedCache.onEventUpdated(new EventUpdatedEvent(10L));
+        compilationFeedCache.get(true, 0, 10, loader);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Не должен отдавать страницу, событие которой изменилось во время её загрузки")
+    void get_EventUpdatedDuringLoad_PageNotServedAgain() {
+        // Setup
+        Supplier<List<CompilationDto>> racingLoader = () -> {
+            List<CompilationDto> page = loader.get();
+            // Событие изменяется после чтения, но до регистрации его id в кэше
+            compilationFeedCache.onEventUpdated(new EventUpdatedEvent(10L));
+            return page;
+        };
+
+        // Action
+        compilationFeedCache.get(true, 0, 10, racingLoader);
+        compilationFeedCache.get(true, 0, 10, loader);
+        compilationFeedCache.get(true, 0, 10, loader);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+}
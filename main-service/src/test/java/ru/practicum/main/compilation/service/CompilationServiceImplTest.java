@@ -8,23 +8,34 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.main.compilation.dto.CompilationDto;
 import ru.practicum.main.compilation.dto.NewCompilationDto;
 import ru.practicum.main.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.main.compilation.model.Compilation;
 import ru.practicum.main.compilation.repository.CompilationRepository;
+import ru.practicum.main.compilation.repository.CompilationRepository.CompilationEventProjection;
+import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.mapper.EventMapper;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.service.EventViewsCache;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.exception.ValidationException;
+import ru.practicum.main.util.ResourceVersions;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -41,6 +52,15 @@ class CompilationServiceImplTest {
     @Mock
     private EventMapper eventMapper;
 
+    @Mock
+    private EventViewsCache eventViewsCache;
+
+    @Mock
+    private CompilationFeedCache compilationFeedCache;
+
+    @Mock
+    private ResourceVersions resourceVersions;
+
     @InjectMocks
     private CompilationServiceImpl compilationService;
 
@@ -115,4 +135,49 @@ class CompilationServiceImplTest {
                 .isInstanceOf(ValidationException.class)
                 .hasMessageContaining("from must be");
     }
+
+    @Test
+    @DisplayName("Должен загрузить события всех подборок страницы и их просмотры одним пакетом")
+    void getAll_LoadsEventsAndViewsInOneBatch() {
+        // Setup
+        Compilation first = Compilation.builder().id(1L).title("Первая").pinned(true).build();
+        Compilation second = Compilation.builder().id(2L).title("Вторая").pinned(true).build();
+        Compilation empty = Compilation.builder().id(3L).title("Пустая").pinned(true).build();
+        when(compilationRepository.findAllByPinned(any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(first, second, empty)));
+        when(compilationRepository.findEventIds(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(link(1L, 10L), link(1L, 20L), link(2L, 20L)));
+        Event event10 = Event.builder().id(10L).build();
+        Event event20 = Event.builder().id(20L).build();
+        when(eventRepository.findAllById(Set.of(10L, 20L))).thenReturn(List.of(event10, event20));
+        when(eventViewsCache.getViews(List.of(event10, event20))).thenReturn(Map.of(10L, 7L));
+        when(eventMapper.toEventShortDto(any(Event.class)))
+                .thenAnswer(inv -> EventShortDto.builder().id(inv.<Event>getArgument(0).getId()).build());
+
+        // Action
+        List<CompilationDto> result = compilationService.getAll(true, 0, 10);
+
+        // Assert
+        assertThat(result).extracting(CompilationDto::getId).containsExactly(1L, 2L, 3L);
+        assertThat(result.get(0).getEvents()).extracting(EventShortDto::getId).containsExactly(10L, 20L);
+        assertThat(result.get(0).getEvents()).extracting(EventShortDto::getViews).containsExactly(7L, 0L);
+        assertThat(result.get(1).getEvents()).extracting(EventShortDto::getId).containsExactly(20L);
+        assertThat(result.get(2).getEvents()).isEmpty();
+        verify(eventRepository, times(1)).findAllById(any());
+        verify(eventViewsCache, times(1)).getViews(any());
+    }
+
+    private CompilationEventProjection link(Long compilationId, Long eventId) {
+        return new CompilationEventProjection() {
+            @Override
+            public Long getCompilationId() {
+                return compilationId;
+            }
+
+            @Override
+            public Long getEventId() {
+                return eventId;
+            }
+        };
+    }
 }
@@ -0,0 +1,135 @@
+package ru.practicum.main.event.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.main.JpaTestConfig;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.dto.EventFullDto;
+import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.mapper.EventMapper;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.model.Location;
+import ru.practicum.main.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that event list queries load a page with a bounded number of SQL statements,
+ * including the mapping of the page to DTOs.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("test")
+@DisplayName("EventRepository statement count")
+class EventRepositoryTest {
+
+    private static final int EVENT_COUNT = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final EventMapper eventMapper = Mappers.getMapper(EventMapper.class);
+    private final List<Long> eventIds = new ArrayList<>();
+    private Statistics statistics;
+    private User initiator;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(Category.builder().name("Концерты").build());
+        initiator = entityManager.persist(User.builder().name("Организатор").email("host@test.com").build());
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            // Каждое событие со своим пользователем, чтобы ленивая загрузка дала отдельный запрос на строку
+            User owner = i == 0 ? initiator : entityManager.persist(
+                    User.builder().name("Пользователь " + i).email("user" + i + "@test.com").build());
+            Event event = entityManager.persist(Event.builder()
+                    .title("Событие " + i)
+                    .annotation("Аннотация события " + i)
+                    .description("Описание события " + i)
+                    .category(i % 2 == 0 ? category : entityManager.persist(
+                            Category.builder().name("Категория " + i).build()))
+                    .initiator(owner)
+                    .location(new Location(55.75f, 37.62f))
+                    .eventDate(LocalDateTime.now().plusDays(i + 1))
+                    .createdOn(LocalDateTime.now())
+                    .state(EventState.PUBLISHED)
+                    .build());
+            eventIds.add(event.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findAllById: один запрос на загрузку и маппинг событий")
+    void findAllById_MapsPageWithOneStatement() {
+        // Action
+        List<EventShortDto> result = eventMapper.toEventShortDtoList(eventRepository.findAllById(eventIds));
+
+        // Assert
+        assertThat(result).hasSize(EVENT_COUNT).allSatisfy(dto -> {
+            assertThat(dto.getCategory().getName()).isNotNull();
+            assertThat(dto.getInitiator().getName()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findEventsForAdmin: страница и подсчёт без запросов на каждую строку")
+    void findEventsForAdmin_MapsPageWithoutPerRowStatements() {
+        // Action
+        List<EventFullDto> result = eventMapper.toEventFullDtoList(eventRepository.findEventsForAdmin(
+                null, null, null, null, null, PageRequest.of(0, EVENT_COUNT - 1)).getContent());
+
+        // Assert
+        assertThat(result).hasSize(EVENT_COUNT - 1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findEventsForAdminAfter: один запрос на страницу по курсору")
+    void findEventsForAdminAfter_MapsPageWithOneStatement() {
+        // Action
+        List<EventFullDto> result = eventMapper.toEventFullDtoList(eventRepository.findEventsForAdminAfter(
+                null, null, null, null, null, 0L, Limit.of(EVENT_COUNT)));
+
+        // Assert
+        assertThat(result).hasSize(EVENT_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findAllByInitiatorId и курсорный вариант: без запросов на каждую строку")
+    void initiatorQueries_MapPageWithoutPerRowStatements() {
+        // Action
+        eventMapper.toEventShortDtoList(eventRepository.findAllByInitiatorId(
+                initiator.getId(), PageRequest.of(0, 10)).getContent());
+        eventMapper.toEventShortDtoList(eventRepository.findByInitiatorIdAndIdGreaterThanOrderByIdAsc(
+                initiator.getId(), 0L, Limit.of(10)));
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+}
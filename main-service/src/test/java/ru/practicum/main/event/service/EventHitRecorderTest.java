@@ -0,0 +1,129 @@
+package ru.practicum.main.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.main.event.model.Event;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the event page sees its own view: {@link EventHitRecorder} and {@link EventViewsCache}
+ * over a real {@link StatsClient} whose {@link RestTemplate} stands in for Stats Server.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventHitRecorder Unit Tests")
+class EventHitRecorderTest {
+
+    /** Longer than the test, so hits are only delivered when the client shuts down */
+    private static final long FLUSH_INTERVAL_MS = 60_000;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private final Set<String> storedIps = ConcurrentHashMap.newKeySet();
+    private StatsClient statsClient;
+    private EventHitRecorder eventHitRecorder;
+    private EventViewsCache eventViewsCache;
+    private Event event;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class)))
+                .thenAnswer(invocation -> {
+                    HttpEntity<List<EndpointHitDto>> body = invocation.getArgument(2);
+                    body.getBody().forEach(hit -> storedIps.add(hit.getIp()));
+                    return ResponseEntity.ok().build();
+                });
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok(storedIps.isEmpty()
+                        ? List.of()
+                        : List.of(new ViewStatsDto("ewm-main-service", "/events/1", (long) storedIps.size()))));
+
+        statsClient = new StatsClient("http://stats", restTemplate, 100, 100, FLUSH_INTERVAL_MS, 0);
+        statsClient.afterPropertiesSet();
+        eventViewsCache = new EventViewsCache(statsClient, new SimpleMeterRegistry(), 100, 60_000, 1_000, 5_000);
+        eventHitRecorder = new EventHitRecorder(statsClient, eventViewsCache);
+        event = new Event();
+        event.setId(1L);
+        event.setCreatedOn(LocalDateTime.now().minusDays(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        statsClient.destroy();
+    }
+
+    @Test
+    @DisplayName("Повторный GET должен показать новый уникальный просмотр, а повтор с того же IP — нет")
+    void getAfterGet_ShowsNewUniqueView() {
+        // Action
+        Map<Long, Long> first = view("10.0.0.1");
+        Map<Long, Long> second = view("10.0.0.2");
+        Map<Long, Long> repeated = view("10.0.0.1");
+
+        // Assert
+        assertThat(first).containsEntry(1L, 1L);
+        assertThat(second).containsEntry(1L, 2L);
+        assertThat(repeated).containsEntry(1L, 2L);
+        assertThat(statsClient.getSentHits()).isZero();
+    }
+
+    @Test
+    @DisplayName("Не должен считать просмотр дважды после его доставки в статистику")
+    void deliveredViews_CountedOnce() throws InterruptedException {
+        // Setup
+        view("10.0.0.1");
+        view("10.0.0.2");
+
+        // Action
+        statsClient.destroy();
+        Map<Long, Long> afterDelivery = eventViewsCache.getViews(List.of(event));
+        Map<Long, Long> repeated = view("10.0.0.1");
+
+        // Assert
+        assertThat(storedIps).containsExactlyInAnyOrder("10.0.0.1", "10.0.0.2");
+        assertThat(afterDelivery).containsEntry(1L, 2L);
+        assertThat(repeated).containsEntry(1L, 2L);
+        verify(restTemplate).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(Void.class));
+    }
+
+    /**
+     * What {@code GET /events/1} does: record the hit, then read the event's views.
+     */
+    private Map<Long, Long> view(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events/1");
+        request.setRemoteAddr(ip);
+        eventHitRecorder.record(request);
+        return eventViewsCache.getViews(List.of(event));
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.main.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EventSearchIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventSearchIndex Unit Tests")
+class EventSearchIndexTest {
+
+    private static final LocalDateTime EVENT_DATE = LocalDateTime.of(2030, 6, 1, 19, 0);
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventSearchIndex eventSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        eventSearchIndex = new EventSearchIndex(eventRepository, true, 2);
+    }
+
+    @Nested
+    @DisplayName("search")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Должен найти события, содержащие все слова запроса, без учёта регистра")
+        void search_MatchesAllWords() {
+            // Setup
+            eventSearchIndex.update(event(1L, "Джазовый вечер", "Живой джаз", 1L, false));
+            eventSearchIndex.update(event(2L, "Рок-концерт", "Живой звук", 1L, false));
+            eventSearchIndex.update(event(3L, "Живой джаз у реки", "Ёлки и концерт", 1L, false));
+
+            // Action and assert
+            assertThat(eventSearchIndex.search("ЖИВОЙ джаз", null, null, null, null)).containsExactly(1L, 3L);
+            assertThat(eventSearchIndex.search("елки", null, null, null, null)).containsExactly(3L);
+            assertThat(eventSearchIndex.search("джаз опера", null, null, null, null)).isEmpty();
+            assertThat(eventSearchIndex.search("  ", null, null, null, null)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Должен применить фильтры категории, платности и дат")
+        void search_AppliesFilters() {
+            // Setup
+            eventSearchIndex.update(event(1L, "Концерт", "джаз", 1L, false));
+            eventSearchIndex.update(event(2L, "Концерт", "рок", 2L, true));
+
+            // Action and assert
+            assertThat(eventSearchIndex.search("концерт", List.of(2L), null, null, null)).containsExactly(2L);
+            assertThat(eventSearchIndex.search("концерт", null, false, null, null)).containsExactly(1L);
+            assertThat(eventSearchIndex.search("концерт", null, null, EVENT_DATE.plusDays(1), null)).isEmpty();
+            assertThat(eventSearchIndex.search("концерт", null, null, EVENT_DATE, EVENT_DATE))
+                    .containsExactly(1L, 2L);
+        }
+    }
+
+    @Nested
+    @DisplayName("update")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Должен заменить слова изменённого события и убрать снятое с публикации")
+        void update_ReplacesAndRemovesEvent() {
+            // Setup
+            eventSearchIndex.update(event(1L, "Лекция", "история", 1L, false));
+            eventSearchIndex.update(event(2L, "Лекция", "физика", 1L, false));
+
+            // Action
+            eventSearchIndex.update(event(1L, "Лекция", "астрономия", 1L, false));
+            Event canceled = event(2L, "Лекция", "физика", 1L, false);
+            canceled.setState(EventState.CANCELED);
+            eventSearchIndex.update(canceled);
+            eventSearchIndex.update(event(3L, "Семинар", "физика", 1L, false));
+
+            // Assert
+            assertThat(eventSearchIndex.search("история", null, null, null, null)).isEmpty();
+            assertThat(eventSearchIndex.search("лекция", null, null, null, null)).containsExactly(1L);
+            assertThat(eventSearchIndex.search("физика", null, null, null, null)).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Не должен ничего делать, если индекс выключен")
+        void update_Disabled_IsNoOp() {
+            // Setup
+            eventSearchIndex = new EventSearchIndex(eventRepository, false, 2);
+
+            // Action
+            eventSearchIndex.update(event(1L, "Лекция", "история", 1L, false));
+            eventSearchIndex.afterSingletonsInstantiated();
+
+            // Assert
+            assertThat(eventSearchIndex.isEnabled()).isFalse();
+            assertThat(eventSearchIndex.search("лекция", null, null, null, null)).isEmpty();
+            verifyNoInteractions(eventRepository);
+        }
+    }
+
+    @Test
+    @DisplayName("Должен построить индекс по опубликованным событиям порциями по id")
+    void afterSingletonsInstantiated_BuildsIndexInChunks() {
+        // Setup
+        when(eventRepository.findByStateAndIdGreaterThanOrderByIdAsc(EventState.PUBLISHED, 0L, Limit.of(2)))
+                .thenReturn(List.of(event(1L, "Выставка", "графика", 1L, false),
+                        event(4L, "Выставка", "скульптура", 1L, false)));
+        when(eventRepository.findByStateAndIdGreaterThanOrderByIdAsc(EventState.PUBLISHED, 4L, Limit.of(2)))
+                .thenReturn(List.of(event(7L, "Выставка", "фото", 1L, false)));
+
+        // Action
+        eventSearchIndex.afterSingletonsInstantiated();
+
+        // Assert
+        assertThat(eventSearchIndex.search("выставка", null, null, null, null)).containsExactly(1L, 4L, 7L);
+        verify(eventRepository, times(2)).findByStateAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any());
+    }
+
+    private Event event(Long id, String title, String annotation, Long categoryId, boolean paid) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle(title);
+        event.setAnnotation(annotation);
+        event.setDescription("");
+        event.setCategory(category);
+        event.setPaid(paid);
+        event.setEventDate(EVENT_DATE);
+        event.setState(EventState.PUBLISHED);
+        return event;
+    }
+}
@@ -7,13 +7,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import ru.practicum.client.StatsClient;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
 import ru.practicum.main.event.dto.*;
@@ -21,6 +24,9 @@ import ru.practicum.main.event.mapper.EventMapper;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.model.EventState;
 import ru.practicum.main.event.model.Location;
+import ru.practicum.main.event.repository.EventRankingQuery;
+import ru.practicum.main.event.repository.EventRankingRepository;
+import ru.practicum.main.event.repository.EventRankingRepository.RankedEvent;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
@@ -33,8 +39,12 @@ import ru.practicum.main.moderation.model.EventModerationLog;
 import ru.practicum.main.moderation.repository.EventModerationLogRepository;
 import ru.practicum.main.moderation.status.EventModerationAction;
 import ru.practicum.main.rating.repository.EventRatingRepository;
+import ru.practicum.main.subscription.repository.SubscriptionFeedRepository;
+import ru.practicum.main.subscription.repository.SubscriptionFeedRepository.FeedItem;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -66,7 +76,16 @@ class EventServiceImplTest {
     private EventMapper eventMapper;
 
     @Mock
-    private StatsClient statsClient;
+    private EventHitRecorder eventHitRecorder;
+
+    @Mock
+    private EventViewsCache eventViewsCache;
+
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private EventModerationLogRepository eventModerationLogRepository;
@@ -80,6 +99,12 @@ class EventServiceImplTest {
     @Mock
     private ManagedLocationRepository managedLocationRepository;
 
+    @Mock
+    private EventRankingRepository eventRankingRepository;
+
+    @Mock
+    private SubscriptionFeedRepository subscriptionFeedRepository;
+
     @InjectMocks
     private EventServiceImpl eventService;
 
@@ -422,6 +447,9 @@ class EventServiceImplTest {
 
             // Assert
             verify(eventRepository).save(any(Event.class));
+            verify(eventSearchIndex).update(testEvent);
+            verify(eventPublisher).publishEvent(new EventUpdatedEvent(1L));
+            verify(subscriptionFeedRepository).fanOut(1L, testUser.getId(), testEvent.getEventDate());
         }
 
         @Test
@@ -607,12 +635,18 @@ class EventServiceImplTest {
                     .thenReturn(Optional.of(testEvent));
             when(eventMapper.toEventFullDto(any(Event.class))).thenReturn(testEventFullDto);
 
+            jakarta.servlet.http.HttpServletRequest request = mock(jakarta.servlet.http.HttpServletRequest.class);
+
             // Action
-            EventFullDto result = eventService.getPublishedEventById(1L, mock(jakarta.servlet.http.HttpServletRequest.class));
+            EventFullDto result = eventService.getPublishedEventById(1L, request);
 
             // Assert
             assertThat(result).isNotNull();
             assertThat(result.getId()).isEqualTo(1L);
+            // Просмотры читаются после постановки собственного просмотра в очередь
+            InOrder order = inOrder(eventHitRecorder, eventViewsCache);
+            order.verify(eventHitRecorder).record(request);
+            order.verify(eventViewsCache).getViews(List.of(testEvent));
         }
 
         @Test
@@ -727,17 +761,290 @@ class EventServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("Public API: sort by views and rating")
+    class RankedListingTests {
+
+        @Test
+        @DisplayName("Должен сортировать по сохранённым просмотрам в БД без запроса статистики")
+        void searchPublicEvents_SortByViews_UsesDatabaseOrder() {
+            // Setup
+            when(eventRankingRepository.findRanked(any())).thenReturn(List.of(ranked(1L, 0L, 5L)));
+            when(eventRepository.findAllById(List.of(1L))).thenReturn(List.of(testEvent));
+            when(eventMapper.toEventShortDtoList(List.of(testEvent))).thenReturn(List.of(testEventShortDto));
+
+            // Action
+            List<EventShortDto> result = eventService.searchPublicEvents(
+                    null, null, null, null, null, false, "VIEWS", 20, 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class));
+
+            // Assert
+            assertThat(result).hasSize(1);
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getOrder()).isEqualTo(EventRankingQuery.Order.VIEWS);
+            assertThat(captor.getValue().getOffset()).isEqualTo(20);
+            assertThat(captor.getValue().getLimit()).isEqualTo(10);
+            verifyNoInteractions(eventViewsCache);
+        }
+
+        @Test
+        @DisplayName("Должен искать события и при большом from, а не возвращать пустой список")
+        void searchPublicEvents_LargeFrom_QueriesDatabase() {
+            // Setup
+            when(eventRankingRepository.findRanked(any())).thenReturn(List.of(ranked(1L, 0L, 5L)));
+            when(eventRepository.findAllById(List.of(1L))).thenReturn(List.of(testEvent));
+            when(eventMapper.toEventShortDtoList(List.of(testEvent))).thenReturn(List.of(testEventShortDto));
+
+            // Action
+            List<EventShortDto> result = eventService.searchPublicEvents(
+                    null, null, null, null, null, false, "VIEWS", 20_000, 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class));
+
+            // Assert
+            assertThat(result).containsExactly(testEventShortDto);
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getOffset()).isEqualTo(20_000);
+        }
+
+        @Test
+        @DisplayName("Должен передать точный offset для рейтинга и сохранить порядок из БД")
+        void searchPublicEvents_SortByRating_KeepsDatabaseOrder() {
+            // Setup
+            Event second = Event.builder().id(2L).build();
+            when(eventRankingRepository.findRanked(any()))
+                    .thenReturn(List.of(ranked(2L, 7L, 1L), ranked(1L, 3L, 9L)));
+            when(eventRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testEvent, second));
+            when(eventMapper.toEventShortDtoList(any())).thenReturn(List.of());
+
+            // Action
+            eventService.searchPublicEvents(null, null, null, null, null, false, "RATING", 3, 2,
+                    mock(jakarta.servlet.http.HttpServletRequest.class));
+
+            // Assert
+            ArgumentCaptor<EventRankingQuery> queryCaptor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(queryCaptor.capture());
+            assertThat(queryCaptor.getValue().getOrder()).isEqualTo(EventRankingQuery.Order.RATING);
+            assertThat(queryCaptor.getValue().getOffset()).isEqualTo(3);
+            assertThat(queryCaptor.getValue().getRangeStart()).isNotNull();
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Event>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+            verify(eventMapper).toEventShortDtoList(eventsCaptor.capture());
+            assertThat(eventsCaptor.getValue()).extracting(Event::getId).containsExactly(2L, 1L);
+            verify(eventViewsCache).getViews(any());
+        }
+
+        @Test
+        @DisplayName("Должен вернуть курсор следующей страницы и продолжить с него")
+        void searchPublicEvents_Cursor_ReturnsAndAcceptsNextCursor() {
+            // Setup
+            LocalDateTime eventDate = LocalDateTime.of(2030, 1, 1, 12, 0);
+            when(eventRankingRepository.findRanked(any()))
+                    .thenReturn(List.of(new RankedEvent(1L, 4L, 8L, eventDate)))
+                    .thenReturn(List.of());
+            when(eventRepository.findAllById(any())).thenReturn(List.of(testEvent));
+            when(eventMapper.toEventShortDtoList(any()))
+                    .thenReturn(List.of(testEventShortDto))
+                    .thenReturn(List.of());
+            jakarta.servlet.http.HttpServletRequest request = mock(jakarta.servlet.http.HttpServletRequest.class);
+
+            // Action
+            CursorPage<EventShortDto> first = eventService.searchPublicEvents(
+                    null, null, null, null, null, false, "RATING", null, 1, request);
+            CursorPage<EventShortDto> second = eventService.searchPublicEvents(
+                    null, null, null, null, null, false, "RATING", first.getNextCursor(), 1, request);
+
+            // Assert
+            assertThat(first.getNextCursor()).isNotNull();
+            assertThat(second.getItems()).isEmpty();
+            assertThat(second.getNextCursor()).isNull();
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository, times(2)).findRanked(captor.capture());
+            assertThat(captor.getAllValues().get(0).getAfter()).isNull();
+            assertThat(captor.getAllValues().get(1).getAfter())
+                    .isEqualTo(new RankedEvent(1L, 4L, 8L, eventDate));
+        }
+
+        @Test
+        @DisplayName("Должен выбросить ValidationException для некорректного курсора")
+        void searchPublicEvents_MalformedCursor_ThrowsException() {
+            assertThatThrownBy(() -> eventService.searchPublicEvents(
+                    null, null, null, null, null, false, "VIEWS", "not-a-cursor", 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class)))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("курсор");
+            verifyNoInteractions(eventRankingRepository);
+        }
+
+        @Test
+        @DisplayName("Должен искать текст полнотекстовым индексом и сортировать по релевантности")
+        void searchPublicEvents_SortByRelevance_RanksByText() {
+            // Setup
+            when(eventRankingRepository.findRanked(any())).thenReturn(List.of());
+            when(eventRepository.findAllById(List.of())).thenReturn(List.of());
+            when(eventMapper.toEventShortDtoList(any())).thenReturn(List.of());
+
+            // Action
+            eventService.searchPublicEvents("джаз концерт", null, null, null, null, false, "RELEVANCE", 0, 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class));
+
+            // Assert
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getText()).isEqualTo("джаз концерт");
+            assertThat(captor.getValue().getOrder()).isEqualTo(EventRankingQuery.Order.RELEVANCE);
+        }
+
+        @Test
+        @DisplayName("Должен отобрать события по тексту во внутреннем индексе и ранжировать только их в БД")
+        void searchPublicEvents_InMemoryIndex_PassesCandidateIds() {
+            // Setup
+            when(eventSearchIndex.isEnabled()).thenReturn(true);
+            when(eventSearchIndex.search(eq("джаз"), eq(List.of(3L)), eq(true), any(), isNull()))
+                    .thenReturn(List.of(1L, 4L));
+            when(eventRankingRepository.findRanked(any())).thenReturn(List.of());
+            when(eventRepository.findAllById(List.of())).thenReturn(List.of());
+            when(eventMapper.toEventShortDtoList(any())).thenReturn(List.of());
+
+            // Action
+            eventService.searchPublicEvents("джаз", List.of(3L), true, null, null, false, "RELEVANCE", 0, 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class));
+
+            // Assert
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getText()).isNull();
+            assertThat(captor.getValue().getEventIds()).containsExactly(1L, 4L);
+            assertThat(captor.getValue().getOrder()).isEqualTo(EventRankingQuery.Order.EVENT_DATE);
+        }
+
+        @Test
+        @DisplayName("Должен сортировать по дате события при RELEVANCE без текста")
+        void searchPublicEvents_SortByRelevanceWithoutText_FallsBackToEventDate() {
+            // Setup
+            when(eventRankingRepository.findRanked(any())).thenReturn(List.of());
+            when(eventRepository.findAllById(List.of())).thenReturn(List.of());
+            when(eventMapper.toEventShortDtoList(any())).thenReturn(List.of());
+
+            // Action
+            eventService.searchPublicEvents(" ", null, null, null, null, false, "RELEVANCE", 0, 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class));
+
+            // Assert
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getOrder()).isEqualTo(EventRankingQuery.Order.EVENT_DATE);
+        }
+
+        @Test
+        @DisplayName("Должен выбросить ValidationException для курсора при сортировке по релевантности")
+        void searchPublicEvents_RelevanceCursor_ThrowsException() {
+            assertThatThrownBy(() -> eventService.searchPublicEvents(
+                    "джаз", null, null, null, null, false, "RELEVANCE", null, 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class)))
+                    .isInstanceOf(ValidationException.class);
+            verifyNoInteractions(eventRankingRepository);
+        }
+
+        @Test
+        @DisplayName("Должен сортировать ленту подписок по сохранённым просмотрам в БД")
+        void getSubscriptionFeed_SortByViews_UsesDatabaseOrder() {
+            // Setup
+            when(eventRankingRepository.findRanked(any())).thenReturn(List.of(ranked(1L, 0L, 5L)));
+            when(eventRepository.findAllById(List.of(1L))).thenReturn(List.of(testEvent));
+            when(eventMapper.toEventShortDtoList(any())).thenReturn(List.of(testEventShortDto));
+
+            // Action
+            eventService.getSubscriptionFeed(7L, "VIEWS", 0, 10);
+
+            // Assert
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getFeedFollowerId()).isEqualTo(7L);
+            assertThat(captor.getValue().isEventDateDescending()).isTrue();
+            verifyNoInteractions(subscriptionFeedRepository, eventViewsCache);
+        }
+
+        @Test
+        @DisplayName("Должен читать ленту подписок по дате из материализованной ленты по курсору")
+        void getSubscriptionFeed_EventDateCursor_SeeksInFeed() {
+            // Setup
+            LocalDateTime afterDate = LocalDateTime.of(2030, 1, 2, 12, 0);
+            String after = PageCursor.encode(0L, 0L, afterDate, 9L);
+            when(subscriptionFeedRepository.findPageAfter(7L, new FeedItem(9L, afterDate), 1))
+                    .thenReturn(List.of(new FeedItem(1L, testEvent.getEventDate())));
+            when(eventRepository.findAllById(List.of(1L))).thenReturn(List.of(testEvent));
+            when(eventMapper.toEventShortDtoList(List.of(testEvent))).thenReturn(List.of(testEventShortDto));
+
+            // Action
+            CursorPage<EventShortDto> result = eventService.getSubscriptionFeed(7L, null, after, 1);
+
+            // Assert
+            assertThat(result.getItems()).containsExactly(testEventShortDto);
+            assertThat(result.getNextCursor()).isEqualTo(PageCursor.encode(0L, 0L, testEvent.getEventDate(), 1L));
+            verify(eventViewsCache).getViews(List.of(testEvent));
+            verifyNoInteractions(eventRankingRepository);
+        }
+
+        private RankedEvent ranked(Long id, long score, long views) {
+            return new RankedEvent(id, score, views, LocalDateTime.of(2030, 1, 1, 12, 0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset pagination by id")
+    class IdCursorTests {
+
+        @Test
+        @DisplayName("Должен читать события пользователя после id из курсора")
+        void getUserEvents_Cursor_SeeksAfterId() {
+            // Setup
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(eventRepository.findByInitiatorIdAndIdGreaterThanOrderByIdAsc(1L, 7L, Limit.of(1)))
+                    .thenReturn(List.of(testEvent));
+            when(eventMapper.toEventShortDtoList(List.of(testEvent))).thenReturn(List.of(testEventShortDto));
+
+            // Action
+            CursorPage<EventShortDto> result = eventService.getUserEvents(1L, PageCursor.encode(7L), 1);
+
+            // Assert
+            assertThat(result.getItems()).hasSize(1);
+            assertThat(PageCursor.decodeAfterId(result.getNextCursor())).isEqualTo(testEvent.getId());
+        }
+
+        @Test
+        @DisplayName("Должен начинать админ-поиск с первого id без курсора")
+        void searchEventsForAdmin_NoCursor_StartsFromFirstId() {
+            // Setup
+            when(eventRepository.findEventsForAdminAfter(null, null, null, null, null, 0L, Limit.of(10)))
+                    .thenReturn(List.of(testEvent));
+            when(eventMapper.toEventFullDtoList(any())).thenReturn(List.of());
+
+            // Action
+            CursorPage<EventFullDto> result = eventService.searchEventsForAdmin(
+                    null, null, null, null, null, "", 10);
+
+            // Assert
+            assertThat(result.getNextCursor()).isNull();
+            verify(eventRepository, never()).findEventsForAdmin(any(), any(), any(), any(), any(), any());
+        }
+    }
+
     @Nested
     @DisplayName("Additional Stage 3 methods")
     class AdditionalMethodsTests {
 
         @Test
-        @DisplayName("Должен вернуть пустой список для ленты подписок без initiatorIds")
-        void getPublishedEventsByInitiators_emptyInput_returnsEmpty() {
-            List<EventShortDto> result = eventService.getPublishedEventsByInitiators(List.of(), "RATING", 0, 10);
+        @DisplayName("Должен вернуть пустую ленту подписок без событий в ленте")
+        void getSubscriptionFeed_emptyFeed_returnsEmpty() {
+            when(subscriptionFeedRepository.findPage(7L, 0, 10)).thenReturn(List.of());
+            when(eventRepository.findAllById(List.of())).thenReturn(List.of());
+
+            List<EventShortDto> result = eventService.getSubscriptionFeed(7L, "EVENT_DATE", 0, 10);
 
             assertThat(result).isEmpty();
-            verify(eventRepository, never()).findAllByInitiatorIdInAndState(any(), any(), any(Pageable.class));
+            verifyNoInteractions(eventRankingRepository);
         }
 
         @Test
@@ -757,7 +1064,7 @@ class EventServiceImplTest {
         }
 
         @Test
-        @DisplayName("Должен вернуть события в радиусе managed location")
+        @DisplayName("Должен искать события в радиусе managed location в БД по расстоянию")
         void searchPublicEventsByLocation_success() {
             ManagedLocation location = ManagedLocation.builder()
                     .id(1L)
@@ -768,27 +1075,45 @@ class EventServiceImplTest {
                     .active(true)
                     .build();
 
-            testEvent.setState(EventState.PUBLISHED);
-
-            // ИСПРАВЛЕНИЕ: создаем Page с данными, а не null
-            Page<Event> eventPage = new PageImpl<>(List.of(testEvent)); // Вот это важно!
-
             when(managedLocationRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(location));
-            when(eventRepository.findPublishedEventsWithPagination(any(Pageable.class)))
-                    .thenReturn(eventPage); // Вместо null возвращаем страницу с данными
+            when(eventRankingRepository.findRanked(any()))
+                    .thenReturn(List.of(new RankedEvent(1L, 0L, 0L, LocalDateTime.now())));
+            when(eventRepository.findAllById(List.of(1L))).thenReturn(List.of(testEvent));
             when(eventMapper.toEventShortDtoList(any())).thenReturn(List.of(testEventShortDto));
 
             List<EventShortDto> result = eventService.searchPublicEventsByLocation(
                     1L,
                     null,
-                    "EVENT_DATE",
-                    0,
+                    null,
+                    30,
                     10,
                     mock(jakarta.servlet.http.HttpServletRequest.class)
             );
 
             assertThat(result).hasSize(1);
             assertThat(result.getFirst().getId()).isEqualTo(1L);
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getOrder()).isEqualTo(EventRankingQuery.Order.DISTANCE);
+            assertThat(captor.getValue().getWithin()).isEqualTo(new EventRankingQuery.Circle(55.75, 37.62, 5.0));
+            assertThat(captor.getValue().getOffset()).isEqualTo(30);
+        }
+
+        @Test
+        @DisplayName("Должен применить явную сортировку к событиям в радиусе")
+        void searchPublicEventsByLocation_sortByViews_keepsRadius() {
+            ManagedLocation location = ManagedLocation.builder().id(1L).lat(0.0).lon(179.9).radiusKm(5.0).build();
+            when(managedLocationRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(location));
+            when(eventRankingRepository.findRanked(any())).thenReturn(List.of());
+            when(eventMapper.toEventShortDtoList(any())).thenReturn(List.of());
+
+            eventService.searchPublicEventsByLocation(1L, 20.0, "VIEWS", 0, 10,
+                    mock(jakarta.servlet.http.HttpServletRequest.class));
+
+            ArgumentCaptor<EventRankingQuery> captor = ArgumentCaptor.forClass(EventRankingQuery.class);
+            verify(eventRankingRepository).findRanked(captor.capture());
+            assertThat(captor.getValue().getOrder()).isEqualTo(EventRankingQuery.Order.VIEWS);
+            assertThat(captor.getValue().getWithin().radiusKm()).isEqualTo(20.0);
         }
     }
 }
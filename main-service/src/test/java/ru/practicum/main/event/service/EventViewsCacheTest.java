@@ -0,0 +1,278 @@
+package ru.practicum.main.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.StatsRequestDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.main.event.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EventViewsCache}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventViewsCache Unit Tests")
+class EventViewsCacheTest {
+
+    @Mock
+    private StatsClient statsClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventViewsCache eventViewsCache;
+    private Event firstEvent;
+    private Event secondEvent;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventViewsCache = new EventViewsCache(statsClient, meterRegistry, 100, 60_000, 100, 5_000);
+        firstEvent = event(1L);
+        secondEvent = event(2L);
+    }
+
+    @Nested
+    @DisplayName("getViews")
+    class GetViewsTests {
+
+        @Test
+        @DisplayName("Должен загрузить просмотры одним запросом и вернуть 0 для событий без просмотров")
+        void getViews_LoadsMissingEventsInOneCall() {
+            // Setup
+            when(statsClient.getStats(any())).thenReturn(List.of(stats(1L, 5L)));
+
+            // Action
+            Map<Long, Long> views = eventViewsCache.getViews(List.of(firstEvent, secondEvent));
+
+            // Assert
+            assertThat(views).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 5L, 2L, 0L));
+            ArgumentCaptor<StatsRequestDto> captor = ArgumentCaptor.forClass(StatsRequestDto.class);
+            verify(statsClient).getStats(captor.capture());
+            assertThat(captor.getValue().getUris()).containsExactlyInAnyOrder("/events/1", "/events/2");
+            assertThat(captor.getValue().getUnique()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Должен отдавать закэшированные просмотры и запрашивать только отсутствующие")
+        void getViews_ServesCachedEvents() {
+            // Setup
+            when(statsClient.getStats(any()))
+                    .thenReturn(List.of(stats(1L, 5L)))
+                    .thenReturn(List.of(stats(2L, 7L)));
+
+            // Action
+            eventViewsCache.getViews(List.of(firstEvent));
+            Map<Long, Long> views = eventViewsCache.getViews(List.of(firstEvent, secondEvent));
+
+            // Assert
+            assertThat(views).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 5L, 2L, 7L));
+            ArgumentCaptor<StatsRequestDto> captor = ArgumentCaptor.forClass(StatsRequestDto.class);
+            verify(statsClient, times(2)).getStats(captor.capture());
+            assertThat(captor.getAllValues().get(1).getUris()).containsExactly("/events/2");
+            assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Должен выполнить один запрос для одновременных обращений к одному событию")
+        void getViews_ConcurrentRequestsShareOneLoad() throws Exception {
+            // Setup
+            CountDownLatch loadStarted = new CountDownLatch(1);
+            CountDownLatch releaseLoad = new CountDownLatch(1);
+            when(statsClient.getStats(any())).thenAnswer(invocation -> {
+                loadStarted.countDown();
+                releaseLoad.await(5, TimeUnit.SECONDS);
+                return List.of(stats(1L, 3L));
+            });
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+
+            try {
+                // Action
+                Future<Map<Long, Long>> first = executor.submit(() -> eventViewsCache.getViews(List.of(firstEvent)));
+                assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+                Future<Map<Long, Long>> second = executor.submit(() -> eventViewsCache.getViews(List.of(firstEvent)));
+                releaseLoad.countDown();
+
+                // Assert
+                assertThat(first.get(5, TimeUnit.SECONDS)).containsEntry(1L, 3L);
+                assertThat(second.get(5, TimeUnit.SECONDS)).containsEntry(1L, 3L);
+                verify(statsClient, times(1)).getStats(any());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Должен вернуть пустую карту и не кэшировать результат при ошибке статистики")
+        void getViews_StatsError_ReturnsEmptyMap() {
+            // Setup
+            when(statsClient.getStats(any()))
+                    .thenThrow(new RuntimeException("Stats server unavailable"))
+                    .thenReturn(List.of(stats(1L, 4L)));
+
+            // Action
+            Map<Long, Long> failed = eventViewsCache.getViews(List.of(firstEvent));
+            Map<Long, Long> recovered = eventViewsCache.getViews(List.of(firstEvent));
+
+            // Assert
+            assertThat(failed).isEmpty();
+            assertThat(recovered).containsEntry(1L, 4L);
+        }
+    }
+
+    @Nested
+    @DisplayName("onHitRecorded")
+    class OnHitRecordedTests {
+
+        @Test
+        @DisplayName("Должен добавить нового зрителя к просмотрам, пока статистика не сохранила его просмотр")
+        void onHitRecorded_CountsNewViewerUntilDelivered() {
+            // Setup
+            when(statsClient.getStats(any()))
+                    .thenReturn(List.of(stats(1L, 5L)))
+                    .thenReturn(List.of(stats(1L, 6L)));
+            eventViewsCache.getViews(List.of(firstEvent));
+
+            // Action
+            eventViewsCache.onHitRecorded(hit("/events/1", "10.0.0.1"));
+            eventViewsCache.onHitRecorded(hit("/events/1", "10.0.0.1"));
+            eventViewsCache.onHitRecorded(hit("/events", "10.0.0.2"));
+            Map<Long, Long> recorded = eventViewsCache.getViews(List.of(firstEvent));
+            eventViewsCache.onHitsDelivered(List.of(hit("/events/1", "10.0.0.1")));
+            Map<Long, Long> delivered = eventViewsCache.getViews(List.of(firstEvent));
+
+            // Assert
+            assertThat(recorded).containsEntry(1L, 6L);
+            assertThat(delivered).containsEntry(1L, 6L);
+        }
+
+        @Test
+        @DisplayName("Должен перестать считать забытого зрителя, просмотр которого не был доставлен")
+        void onHitRecorded_ForgottenUndeliveredViewer_NotCounted() {
+            // Setup
+            EventViewsCache smallCache = new EventViewsCache(statsClient, meterRegistry, 100, 60_000, 1, 5_000);
+            when(statsClient.getStats(any())).thenReturn(List.of(stats(1L, 5L)));
+
+            // Action
+            smallCache.onHitRecorded(hit("/events/1", "10.0.0.1"));
+            smallCache.onHitRecorded(hit("/events/1", "10.0.0.2"));
+            Map<Long, Long> views = smallCache.getViews(List.of(firstEvent));
+
+            // Assert
+            assertThat(views).containsEntry(1L, 6L);
+        }
+    }
+
+    @Nested
+    @DisplayName("onHitsDelivered")
+    class OnHitsDeliveredTests {
+
+        @Test
+        @DisplayName("Должен подписаться на доставку просмотров в статистику")
+        void constructor_RegistersDeliveryListener() {
+            // Assert
+            verify(statsClient).addDeliveryListener(any());
+        }
+
+        @Test
+        @DisplayName("Должен сбросить просмотры только событий, страницы которых попали в доставленную пачку")
+        void onHitsDelivered_InvalidatesViewedEvents() {
+            // Setup
+            EventViewsCache eagerCache = new EventViewsCache(statsClient, meterRegistry, 100, 60_000, 100, 0);
+            when(statsClient.getStats(any()))
+                    .thenReturn(List.of(stats(1L, 1L), stats(2L, 5L)))
+                    .thenReturn(List.of(stats(1L, 2L)));
+            eagerCache.getViews(List.of(firstEvent, secondEvent));
+
+            // Action
+            eagerCache.onHitsDelivered(List.of(hit("/events/1"), hit("/events"), hit("/compilations")));
+            Map<Long, Long> views = eagerCache.getViews(List.of(firstEvent, secondEvent));
+
+            // Assert
+            assertThat(views).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 2L, 2L, 5L));
+            ArgumentCaptor<StatsRequestDto> captor = ArgumentCaptor.forClass(StatsRequestDto.class);
+            verify(statsClient, times(2)).getStats(captor.capture());
+            assertThat(captor.getAllValues().get(1).getUris()).containsExactly("/events/1");
+        }
+
+        @Test
+        @DisplayName("Не должен перезагружать свежие просмотры популярного события на каждую пачку")
+        void onHitsDelivered_FreshCount_KeptAndServedFromMemory() {
+            // Setup
+            when(statsClient.getStats(any())).thenReturn(List.of(stats(1L, 5L)));
+            eventViewsCache.getViews(List.of(firstEvent));
+
+            // Action
+            Map<Long, Long> views = Map.of();
+            for (int i = 1; i <= 10; i++) {
+                EndpointHitDto view = hit("/events/1", "10.0.0." + i);
+                eventViewsCache.onHitRecorded(view);
+                eventViewsCache.onHitsDelivered(List.of(view));
+                views = eventViewsCache.getViews(List.of(firstEvent));
+            }
+
+            // Assert
+            assertThat(views).containsEntry(1L, 15L);
+            verify(statsClient, times(1)).getStats(any());
+        }
+
+        @Test
+        @DisplayName("Не должен обращаться к статистике, если в пачке нет страниц событий")
+        void onHitsDelivered_NoEventPages_KeepsCache() {
+            // Setup
+            when(statsClient.getStats(any())).thenReturn(List.of(stats(1L, 1L)));
+            eventViewsCache.getViews(List.of(firstEvent));
+
+            // Action
+            eventViewsCache.onHitsDelivered(List.of(hit("/events"), hit("/events/1/comments")));
+            eventViewsCache.getViews(List.of(firstEvent));
+
+            // Assert
+            verify(statsClient, times(1)).getStats(any());
+        }
+    }
+
+    private Event event(Long id) {
+        Event event = new Event();
+        event.setId(id);
+        event.setCreatedOn(LocalDateTime.now().minusDays(id));
+        return event;
+    }
+
+    private EndpointHitDto hit(String uri) {
+        return hit(uri, "192.168.0.1");
+    }
+
+    private EndpointHitDto hit(String uri, String ip) {
+        return EndpointHitDto.builder()
+                .app("ewm-main-service")
+                .uri(uri)
+                .ip(ip)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private ViewStatsDto stats(Long eventId, Long hits) {
+        return new ViewStatsDto("ewm-main-service", "/events/" + eventId, hits);
+    }
+}
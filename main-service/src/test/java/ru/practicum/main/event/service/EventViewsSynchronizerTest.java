@@ -0,0 +1,111 @@
+package ru.practicum.main.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.client.StatsClient;
+import ru.practicum.dto.StatsRequestDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.main.event.repository.EventViewsJdbcRepository;
+import ru.practicum.main.event.repository.EventViewsJdbcRepository.EventCreation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EventViewsSynchronizer}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventViewsSynchronizer Unit Tests")
+class EventViewsSynchronizerTest {
+
+    @Mock
+    private StatsClient statsClient;
+
+    @Mock
+    private EventViewsJdbcRepository eventViewsJdbcRepository;
+
+    private EventViewsSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        synchronizer = new EventViewsSynchronizer(statsClient, eventViewsJdbcRepository, 2, 60_000);
+    }
+
+    @Test
+    @DisplayName("Первый запуск должен обновить просмотры всех опубликованных событий порциями")
+    void synchronize_FirstRun_RefreshesAllPublishedEvents() {
+        // Setup
+        LocalDateTime created = LocalDateTime.now().minusDays(3);
+        when(eventViewsJdbcRepository.findPublishedAfter(0L, 2))
+                .thenReturn(List.of(new EventCreation(1L, created), new EventCreation(2L, created)));
+        when(eventViewsJdbcRepository.findPublishedAfter(2L, 2))
+                .thenReturn(List.of(new EventCreation(5L, created)));
+        when(statsClient.getStats(any()))
+                .thenReturn(List.of(stats(1L, 10L)))
+                .thenReturn(List.of(stats(5L, 3L)));
+
+        // Action
+        synchronizer.synchronize();
+
+        // Assert
+        verify(eventViewsJdbcRepository).updateViews(Map.of(1L, 10L, 2L, 0L));
+        verify(eventViewsJdbcRepository).updateViews(Map.of(5L, 3L));
+    }
+
+    @Test
+    @DisplayName("Следующие запуски должны обновлять только события с новыми просмотрами")
+    void synchronize_NextRun_RefreshesOnlyViewedEvents() {
+        // Setup
+        when(eventViewsJdbcRepository.findPublishedAfter(anyLong(), anyInt())).thenReturn(List.of());
+        synchronizer.synchronize();
+
+        when(statsClient.getStats(any()))
+                .thenReturn(List.of(stats(7L, 4L), new ViewStatsDto("ewm-main-service", "/events", 9L)))
+                .thenReturn(List.of(stats(7L, 2L)));
+        when(eventViewsJdbcRepository.findByIds(List.of(7L)))
+                .thenReturn(List.of(new EventCreation(7L, LocalDateTime.now().minusDays(1))));
+
+        // Action
+        synchronizer.synchronize();
+
+        // Assert
+        ArgumentCaptor<StatsRequestDto> captor = ArgumentCaptor.forClass(StatsRequestDto.class);
+        verify(statsClient, times(2)).getStats(captor.capture());
+        assertThat(captor.getAllValues().get(0).getUris()).isNull();
+        assertThat(captor.getAllValues().get(1).getUris()).containsExactly("/events/7");
+        assertThat(captor.getAllValues().get(1).getUnique()).isTrue();
+        verify(eventViewsJdbcRepository).updateViews(eq(Map.of(7L, 2L)));
+    }
+
+    @Test
+    @DisplayName("Ошибка статистики не должна прерывать планировщик")
+    void synchronize_StatsError_IsSwallowed() {
+        // Setup
+        when(eventViewsJdbcRepository.findPublishedAfter(anyLong(), anyInt()))
+                .thenReturn(List.of(new EventCreation(1L, LocalDateTime.now())));
+        when(statsClient.getStats(any())).thenThrow(new RuntimeException("Stats server unavailable"));
+
+        // Action
+        synchronizer.synchronize();
+
+        // Assert
+        verify(eventViewsJdbcRepository, never()).updateViews(any());
+    }
+
+    private ViewStatsDto stats(Long eventId, Long hits) {
+        return new ViewStatsDto("ewm-main-service", "/events/" + eventId, hits);
+    }
+}
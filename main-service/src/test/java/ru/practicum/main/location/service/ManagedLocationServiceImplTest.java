@@ -19,6 +19,7 @@ import ru.practicum.main.location.dto.UpdateManagedLocationDto;
 import ru.practicum.main.location.mapper.ManagedLocationMapper;
 import ru.practicum.main.location.model.ManagedLocation;
 import ru.practicum.main.location.repository.ManagedLocationRepository;
+import ru.practicum.main.util.ResourceVersions;
 
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +45,9 @@ class ManagedLocationServiceImplTest {
     @Mock
     private ManagedLocationMapper managedLocationMapper;
 
+    @Mock
+    private ResourceVersions resourceVersions;
+
     @InjectMocks
     private ManagedLocationServiceImpl managedLocationService;
 
@@ -0,0 +1,132 @@
+package ru.practicum.main.rating.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.main.JpaTestConfig;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.model.Location;
+import ru.practicum.main.rating.model.EventRating;
+import ru.practicum.main.rating.repository.EventRatingCountersRepository.RecountChunk;
+import ru.practicum.main.rating.status.VoteType;
+import ru.practicum.main.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks vote deltas and the recount of the denormalized vote counters.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("test")
+@Import(EventRatingCountersRepository.class)
+@DisplayName("EventRatingCountersRepository")
+class EventRatingCountersRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EventRatingCountersRepository eventRatingCountersRepository;
+
+    private Category category;
+    private User initiator;
+
+    @BeforeEach
+    void setUp() {
+        category = entityManager.persist(Category.builder().name("Концерты").build());
+        initiator = entityManager.persist(User.builder().name("Организатор").email("host@test.com").build());
+    }
+
+    @Test
+    @DisplayName("Должен прибавить изменения голосов к счётчикам события")
+    void addVotes_AppliesDeltas() {
+        // Setup
+        Event event = createEvent();
+
+        // Action
+        eventRatingCountersRepository.addVotes(event.getId(), 1, 0);
+        eventRatingCountersRepository.addVotes(event.getId(), -1, 1);
+        eventRatingCountersRepository.addVotes(event.getId(), 1, 0);
+
+        // Assert
+        Event reloaded = reload(event);
+        assertThat(reloaded.getLikes()).isEqualTo(1L);
+        assertThat(reloaded.getDislikes()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Должен пересчитать разошедшиеся счётчики по голосам, порциями")
+    void recount_CorrectsDriftedCounters() {
+        // Setup
+        Event drifted = createEvent();
+        Event exact = createEvent();
+        Event withoutVotes = createEvent();
+        for (int i = 0; i < 3; i++) {
+            vote(drifted, VoteType.LIKE, i);
+        }
+        vote(drifted, VoteType.DISLIKE, 3);
+        vote(exact, VoteType.LIKE, 4);
+        eventRatingCountersRepository.addVotes(drifted.getId(), 10, 0);
+        eventRatingCountersRepository.addVotes(exact.getId(), 1, 0);
+        eventRatingCountersRepository.addVotes(withoutVotes.getId(), 0, 2);
+
+        // Action
+        RecountChunk first = eventRatingCountersRepository.recount(0, 2);
+        RecountChunk second = eventRatingCountersRepository.recount(first.lastId(), 2);
+
+        // Assert
+        assertThat(first.size()).isEqualTo(2);
+        assertThat(first.updated()).isEqualTo(1);
+        assertThat(second.size()).isEqualTo(1);
+        assertThat(second.updated()).isEqualTo(1);
+        assertThat(reload(drifted).getLikes()).isEqualTo(3L);
+        assertThat(reload(drifted).getDislikes()).isEqualTo(1L);
+        assertThat(reload(exact).getLikes()).isEqualTo(1L);
+        assertThat(reload(withoutVotes).getDislikes()).isZero();
+    }
+
+    private Event createEvent() {
+        Event event = entityManager.persist(Event.builder()
+                .title("Концерт")
+                .annotation("Аннотация популярного концерта")
+                .description("Описание популярного концерта")
+                .category(category)
+                .initiator(initiator)
+                .location(new Location(55.75f, 37.62f))
+                .eventDate(LocalDateTime.now().plusDays(10))
+                .createdOn(LocalDateTime.now())
+                .state(EventState.PUBLISHED)
+                .build());
+        entityManager.flush();
+        return event;
+    }
+
+    private void vote(Event event, VoteType vote, int voter) {
+        User user = entityManager.persist(User.builder()
+                .name("Участник " + voter).email("voter" + voter + "@test.com").build());
+        entityManager.persist(EventRating.builder()
+                .event(event)
+                .user(user)
+                .vote(vote)
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+    }
+
+    private Event reload(Event event) {
+        entityManager.clear();
+        return entityManager.find(Event.class, event.getId());
+    }
+}
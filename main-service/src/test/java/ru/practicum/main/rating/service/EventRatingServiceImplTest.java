@@ -4,10 +4,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.main.event.model.Event;
@@ -21,11 +21,18 @@ import ru.practicum.main.rating.dto.EventVoteDto;
 import ru.practicum.main.rating.dto.EventVoteRequest;
 import ru.practicum.main.rating.mapper.EventRatingMapper;
 import ru.practicum.main.rating.model.EventRating;
+import ru.practicum.main.rating.repository.EventRatingCountersRepository;
 import ru.practicum.main.rating.repository.EventRatingRepository;
+import ru.practicum.main.rating.repository.EventRatingRepository.VoteTarget;
+import ru.practicum.main.rating.repository.EventVoteJdbcRepository;
+import ru.practicum.main.rating.repository.EventVoteJdbcRepository.UpsertedVote;
 import ru.practicum.main.rating.status.VoteType;
-import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.ResourceVersions;
+import ru.practicum.main.util.TimeIdCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,8 +40,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -47,6 +56,12 @@ class EventRatingServiceImplTest {
     @Mock
     private EventRatingRepository eventRatingRepository;
 
+    @Mock
+    private EventRatingCountersRepository eventRatingCountersRepository;
+
+    @Mock
+    private EventVoteJdbcRepository eventVoteJdbcRepository;
+
     @Mock
     private EventRepository eventRepository;
 
@@ -56,6 +71,9 @@ class EventRatingServiceImplTest {
     @Mock
     private EventRatingMapper eventRatingMapper;
 
+    @Mock
+    private ResourceVersions resourceVersions;
+
     @InjectMocks
     private EventRatingServiceImpl eventRatingService;
 
@@ -64,60 +82,77 @@ class EventRatingServiceImplTest {
     class UpsertVoteTests {
 
         @Test
-        @DisplayName("Должен создать новый лайк")
+        @DisplayName("Должен создать новый лайк одним upsert и прибавить его к счётчикам")
         void upsertVote_createLike_success() {
-            User voter = User.builder().id(1L).name("Voter").email("voter@test.com").build();
-            User initiator = User.builder().id(2L).name("Initiator").email("init@test.com").build();
-            Event event = Event.builder().id(10L).state(EventState.PUBLISHED).initiator(initiator).build();
+            LocalDateTime createdOn = LocalDateTime.of(2026, 5, 1, 12, 0);
+            when(eventRatingRepository.findVoteTarget(10L, 1L)).thenReturn(Optional.of(target(EventState.PUBLISHED, 2L, 1L)));
+            when(eventVoteJdbcRepository.upsert(eq(1L), eq(10L), eq(VoteType.LIKE), any(LocalDateTime.class)))
+                    .thenReturn(new UpsertedVote(100L, createdOn, null));
 
-            EventVoteRequest request = EventVoteRequest.builder().vote(VoteType.LIKE).build();
-            EventRating saved = EventRating.builder().id(100L).event(event).user(voter).vote(VoteType.LIKE).build();
-            EventVoteDto dto = EventVoteDto.builder().id(100L).eventId(10L).userId(1L).vote(VoteType.LIKE).build();
+            EventVoteDto result = eventRatingService.upsertVote(1L, 10L, EventVoteRequest.builder().vote(VoteType.LIKE).build());
 
-            when(userRepository.findById(1L)).thenReturn(Optional.of(voter));
-            when(eventRepository.findById(10L)).thenReturn(Optional.of(event));
-            when(eventRatingRepository.findByUserIdAndEventId(1L, 10L)).thenReturn(Optional.empty());
-            when(eventRatingRepository.save(any(EventRating.class))).thenReturn(saved);
-            when(eventRatingMapper.toDto(saved)).thenReturn(dto);
-
-            EventVoteDto result = eventRatingService.upsertVote(1L, 10L, request);
-
-            assertThat(result).isNotNull();
+            assertThat(result.getId()).isEqualTo(100L);
+            assertThat(result.getEventId()).isEqualTo(10L);
+            assertThat(result.getUserId()).isEqualTo(1L);
             assertThat(result.getVote()).isEqualTo(VoteType.LIKE);
-            verify(eventRatingRepository).save(any(EventRating.class));
+            assertThat(result.getCreatedOn()).isEqualTo(createdOn);
+            verify(eventRatingCountersRepository).addVotes(10L, 1, 0);
+            verify(eventRatingRepository, never()).save(any(EventRating.class));
         }
 
         @Test
-        @DisplayName("Должен обновить существующий голос")
+        @DisplayName("Должен заменить существующий голос и перенести его в счётчиках")
         void upsertVote_updateExisting_success() {
-            User voter = User.builder().id(1L).name("Voter").email("voter@test.com").build();
-            User initiator = User.builder().id(2L).name("Initiator").email("init@test.com").build();
-            Event event = Event.builder().id(10L).state(EventState.PUBLISHED).initiator(initiator).build();
-            EventRating existing = EventRating.builder().id(100L).event(event).user(voter).vote(VoteType.LIKE).build();
-
-            when(userRepository.findById(1L)).thenReturn(Optional.of(voter));
-            when(eventRepository.findById(10L)).thenReturn(Optional.of(event));
-            when(eventRatingRepository.findByUserIdAndEventId(1L, 10L)).thenReturn(Optional.of(existing));
-            when(eventRatingRepository.save(any(EventRating.class))).thenAnswer(invocation -> invocation.getArgument(0));
-            when(eventRatingMapper.toDto(any(EventRating.class)))
-                    .thenReturn(EventVoteDto.builder().id(100L).eventId(10L).userId(1L).vote(VoteType.DISLIKE).build());
-
-            eventRatingService.upsertVote(1L, 10L, EventVoteRequest.builder().vote(VoteType.DISLIKE).build());
-
-            ArgumentCaptor<EventRating> captor = ArgumentCaptor.forClass(EventRating.class);
-            verify(eventRatingRepository).save(captor.capture());
-            assertThat(captor.getValue().getVote()).isEqualTo(VoteType.DISLIKE);
+            when(eventRatingRepository.findVoteTarget(10L, 1L)).thenReturn(Optional.of(target(EventState.PUBLISHED, 2L, 1L)));
+            when(eventVoteJdbcRepository.upsert(eq(1L), eq(10L), eq(VoteType.DISLIKE), any(LocalDateTime.class)))
+                    .thenReturn(new UpsertedVote(100L, LocalDateTime.now(), VoteType.LIKE));
+
+            EventVoteDto result = eventRatingService.upsertVote(1L, 10L, EventVoteRequest.builder().vote(VoteType.DISLIKE).build());
+
+            assertThat(result.getVote()).isEqualTo(VoteType.DISLIKE);
+            verify(eventRatingCountersRepository).addVotes(10L, -1, 1);
+        }
+
+        @Test
+        @DisplayName("Не должен менять счётчики при повторе того же голоса")
+        void upsertVote_sameVote_keepsCounters() {
+            when(eventRatingRepository.findVoteTarget(10L, 1L)).thenReturn(Optional.of(target(EventState.PUBLISHED, 2L, 1L)));
+            when(eventVoteJdbcRepository.upsert(eq(1L), eq(10L), eq(VoteType.LIKE), any(LocalDateTime.class)))
+                    .thenReturn(new UpsertedVote(100L, LocalDateTime.now(), VoteType.LIKE));
+
+            eventRatingService.upsertVote(1L, 10L, EventVoteRequest.builder().vote(VoteType.LIKE).build());
+
+            verify(eventRatingCountersRepository, never()).addVotes(anyLong(), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Должен выбросить NotFoundException если голосующий пользователь не найден")
+        void upsertVote_userNotFound_throwsNotFound() {
+            when(eventRatingRepository.findVoteTarget(10L, 1L)).thenReturn(Optional.of(target(EventState.PUBLISHED, 2L, 0L)));
+
+            assertThatThrownBy(() -> eventRatingService.upsertVote(1L, 10L,
+                    EventVoteRequest.builder().vote(VoteType.LIKE).build()))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Пользователь не найден");
+            verifyNoInteractions(eventVoteJdbcRepository);
+        }
+
+        @Test
+        @DisplayName("Должен выбросить NotFoundException если событие не найдено")
+        void upsertVote_eventNotFound_throwsNotFound() {
+            when(eventRatingRepository.findVoteTarget(10L, 1L)).thenReturn(Optional.empty());
+            when(userRepository.existsById(1L)).thenReturn(true);
+
+            assertThatThrownBy(() -> eventRatingService.upsertVote(1L, 10L,
+                    EventVoteRequest.builder().vote(VoteType.LIKE).build()))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Событие не найдено");
         }
 
         @Test
         @DisplayName("Должен выбросить ConflictException для неопубликованного события")
         void upsertVote_eventNotPublished_throwsConflict() {
-            User voter = User.builder().id(1L).name("Voter").email("voter@test.com").build();
-            User initiator = User.builder().id(2L).name("Initiator").email("init@test.com").build();
-            Event event = Event.builder().id(10L).state(EventState.PENDING).initiator(initiator).build();
-
-            when(userRepository.findById(1L)).thenReturn(Optional.of(voter));
-            when(eventRepository.findById(10L)).thenReturn(Optional.of(event));
+            when(eventRatingRepository.findVoteTarget(10L, 1L)).thenReturn(Optional.of(target(EventState.PENDING, 2L, 1L)));
 
             assertThatThrownBy(() -> eventRatingService.upsertVote(1L, 10L,
                     EventVoteRequest.builder().vote(VoteType.LIKE).build()))
@@ -128,17 +163,32 @@ class EventRatingServiceImplTest {
         @Test
         @DisplayName("Должен выбросить ConflictException при оценке своего события")
         void upsertVote_ownEvent_throwsConflict() {
-            User user = User.builder().id(1L).name("User").email("user@test.com").build();
-            Event event = Event.builder().id(10L).state(EventState.PUBLISHED).initiator(user).build();
-
-            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-            when(eventRepository.findById(10L)).thenReturn(Optional.of(event));
+            when(eventRatingRepository.findVoteTarget(10L, 1L)).thenReturn(Optional.of(target(EventState.PUBLISHED, 1L, 1L)));
 
             assertThatThrownBy(() -> eventRatingService.upsertVote(1L, 10L,
                     EventVoteRequest.builder().vote(VoteType.LIKE).build()))
                     .isInstanceOf(ConflictException.class)
                     .hasMessageContaining("своё событие");
-            verify(eventRatingRepository, never()).save(any(EventRating.class));
+            verifyNoInteractions(eventVoteJdbcRepository);
+        }
+
+        private VoteTarget target(EventState state, Long initiatorId, Long voterCount) {
+            return new VoteTarget() {
+                @Override
+                public EventState getState() {
+                    return state;
+                }
+
+                @Override
+                public Long getInitiatorId() {
+                    return initiatorId;
+                }
+
+                @Override
+                public Long getVoterCount() {
+                    return voterCount;
+                }
+            };
         }
     }
 
@@ -149,7 +199,7 @@ class EventRatingServiceImplTest {
         @Test
         @DisplayName("Должен удалить голос")
         void deleteVote_success() {
-            EventRating rating = EventRating.builder().id(100L).build();
+            EventRating rating = EventRating.builder().id(100L).vote(VoteType.DISLIKE).build();
             when(userRepository.existsById(1L)).thenReturn(true);
             when(eventRepository.existsById(10L)).thenReturn(true);
             when(eventRatingRepository.findByUserIdAndEventId(1L, 10L)).thenReturn(Optional.of(rating));
@@ -157,6 +207,7 @@ class EventRatingServiceImplTest {
             eventRatingService.deleteVote(1L, 10L);
 
             verify(eventRatingRepository).delete(rating);
+            verify(eventRatingCountersRepository).addVotes(10L, 0, -1);
         }
 
         @Test
@@ -172,12 +223,10 @@ class EventRatingServiceImplTest {
         }
 
         @Test
-        @DisplayName("Должен вернуть агрегированный рейтинг события")
+        @DisplayName("Должен вернуть рейтинг события из счётчиков голосов")
         void getEventRating_success() {
-            Event event = Event.builder().id(10L).state(EventState.PUBLISHED).build();
+            Event event = Event.builder().id(10L).state(EventState.PUBLISHED).likes(8L).dislikes(3L).build();
             when(eventRepository.findByIdAndState(10L, EventState.PUBLISHED)).thenReturn(Optional.of(event));
-            when(eventRatingRepository.countByEventIdAndVote(10L, VoteType.LIKE)).thenReturn(8L);
-            when(eventRatingRepository.countByEventIdAndVote(10L, VoteType.DISLIKE)).thenReturn(3L);
 
             EventRatingSummaryDto result = eventRatingService.getEventRating(10L);
 
@@ -201,6 +250,22 @@ class EventRatingServiceImplTest {
             assertThat(result.getFirst().getUserId()).isEqualTo(1L);
         }
 
+        @Test
+        @DisplayName("Должен вернуть голоса пользователя по курсору без курсора следующей страницы")
+        void getUserVotes_cursor_lastPage() {
+            LocalDateTime updatedOn = LocalDateTime.of(2030, 1, 1, 10, 0);
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(eventRatingRepository.findUserVotesAfter(1L, updatedOn, 5L, Limit.of(10)))
+                    .thenReturn(List.of(EventRating.builder().id(4L).updatedOn(updatedOn).build()));
+            when(eventRatingMapper.toDtoList(any())).thenReturn(List.of(EventVoteDto.builder().id(4L).build()));
+
+            CursorPage<EventVoteDto> result = eventRatingService.getUserVotes(
+                    1L, TimeIdCursor.encode(updatedOn, 5L), 10);
+
+            assertThat(result.getItems()).hasSize(1);
+            assertThat(result.getNextCursor()).isNull();
+        }
+
         @Test
         @DisplayName("Должен выбросить ValidationException при невалидной пагинации")
         void getUserVotes_invalidPagination_throwsValidation() {
@@ -0,0 +1,67 @@
+package ru.practicum.main.request.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.main.request.service.RequestService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MockMvc tests for the NDJSON export of {@link EventRequestController}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventRequestController export")
+class EventRequestControllerTest {
+
+    private static final long EXPORT_TIMEOUT_MS = 1_234;
+
+    @Mock
+    private RequestService requestService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        EventRequestController controller = new EventRequestController(requestService);
+        ReflectionTestUtils.setField(controller, "exportTimeoutMs", EXPORT_TIMEOUT_MS);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @DisplayName("Должен писать выгрузку асинхронно со своим таймаутом")
+    void exportEventRequests_WritesNdjsonWithOwnTimeout() throws Exception {
+        // Setup
+        StreamingResponseBody body = out -> out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+        when(requestService.exportEventRequests(1L, 2L)).thenReturn(body);
+
+        // Action
+        MvcResult result = mockMvc.perform(get("/users/1/events/2/requests/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(EXPORT_TIMEOUT_MS);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.main.request.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.main.JpaTestConfig;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.model.Location;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.request.model.ParticipationRequest;
+import ru.practicum.main.request.status.RequestStatus;
+import ru.practicum.main.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the DTO projections used by paged, cursor and streamed request listings.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("test")
+@DisplayName("RequestRepository listing projections")
+class RequestRepositoryTest {
+
+    private static final int EVENT_REQUESTS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    private Event event;
+    private User requester;
+    private final List<Long> eventRequestIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(Category.builder().name("Концерты").build());
+        User initiator = entityManager.persist(User.builder().name("Организатор").email("host@test.com").build());
+        event = entityManager.persist(event(category, initiator));
+        Event otherEvent = entityManager.persist(event(category, initiator));
+
+        for (int i = 0; i < EVENT_REQUESTS; i++) {
+            User user = entityManager.persist(User.builder().name("Участник " + i).email("user" + i + "@test.com").build());
+            eventRequestIds.add(entityManager.persist(request(event, user)).getId());
+            if (i == 0) {
+                requester = user;
+                entityManager.persist(request(otherEvent, user));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Должен читать заявки события страницами по курсору в порядке id")
+    void findDtosByEventIdAfter_PagesByCursor() {
+        // Action
+        List<ParticipationRequestDto> first = requestRepository.findDtosByEventIdAfter(event.getId(), 0L, Limit.of(3));
+        List<ParticipationRequestDto> second = requestRepository.findDtosByEventIdAfter(event.getId(),
+                first.get(first.size() - 1).getId(), Limit.of(3));
+
+        // Assert
+        assertThat(first).extracting(ParticipationRequestDto::getId).containsExactlyElementsOf(eventRequestIds.subList(0, 3));
+        assertThat(second).extracting(ParticipationRequestDto::getId).containsExactlyElementsOf(eventRequestIds.subList(3, 5));
+        assertThat(first.get(0).getEvent()).isEqualTo(event.getId());
+        assertThat(first.get(0).getStatus()).isEqualTo(RequestStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Должен читать заявки события страницей по смещению или целиком")
+    void findDtosByEventId_PagesByOffsetOrUnpaged() {
+        // Action
+        List<ParticipationRequestDto> page = requestRepository.findDtosByEventId(event.getId(), PageRequest.of(1, 2));
+        List<ParticipationRequestDto> all = requestRepository.findDtosByEventId(event.getId(), Pageable.unpaged());
+
+        // Assert
+        assertThat(page).extracting(ParticipationRequestDto::getId).containsExactlyElementsOf(eventRequestIds.subList(2, 4));
+        assertThat(all).extracting(ParticipationRequestDto::getId).containsExactlyElementsOf(eventRequestIds);
+    }
+
+    @Test
+    @DisplayName("Должен отдавать заявки пользователя по всем событиям")
+    void findDtosByRequesterIdAfter_ReturnsOwnRequests() {
+        // Action
+        List<ParticipationRequestDto> requests = requestRepository.findDtosByRequesterIdAfter(requester.getId(), 0L,
+                Limit.of(10));
+
+        // Assert
+        assertThat(requests).hasSize(2).allMatch(request -> request.getRequester().equals(requester.getId()));
+    }
+
+    @Test
+    @DisplayName("Должен выдавать заявки события потоком в порядке id")
+    void streamDtosByEventId_StreamsAllRequests() {
+        // Action
+        List<Long> streamedIds;
+        try (Stream<ParticipationRequestDto> requests = requestRepository.streamDtosByEventId(event.getId())) {
+            streamedIds = requests.map(ParticipationRequestDto::getId).toList();
+        }
+
+        // Assert
+        assertThat(streamedIds).containsExactlyElementsOf(eventRequestIds);
+    }
+
+    private Event event(Category category, User initiator) {
+        return Event.builder()
+                .title("Концерт")
+                .annotation("Аннотация популярного концерта")
+                .description("Описание популярного концерта")
+                .category(category)
+                .initiator(initiator)
+                .location(new Location(55.75f, 37.62f))
+                .eventDate(LocalDateTime.now().plusDays(10))
+                .createdOn(LocalDateTime.now())
+                .state(EventState.PUBLISHED)
+                .build();
+    }
+
+    private ParticipationRequest request(Event event, User requester) {
+        return ParticipationRequest.builder()
+                .event(event)
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .status(RequestStatus.PENDING)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.main.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdmissionTokenPool}.
+ */
+@DisplayName("AdmissionTokenPool Unit Tests")
+class AdmissionTokenPoolTest {
+
+    private static final long EVENT_ID = 1L;
+
+    private AdmissionTokenPool tokenPool;
+
+    @BeforeEach
+    void setUp() {
+        tokenPool = new AdmissionTokenPool(4);
+    }
+
+    @Test
+    @DisplayName("Должен выдать ровно свободные места с учётом уже подтверждённых заявок")
+    void tryAcquire_HandsOutFreeSlotsOnly() {
+        // Action
+        int acquired = 0;
+        while (tokenPool.tryAcquire(EVENT_ID, 10, () -> 3)) {
+            acquired++;
+        }
+
+        // Assert
+        assertThat(acquired).isEqualTo(7);
+        assertThat(tokenPool.freeSlots(EVENT_ID)).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен выдать не больше лимита при параллельных запросах")
+    void tryAcquire_Parallel_NeverExceedsLimit() throws InterruptedException {
+        // Setup
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger acquired = new AtomicInteger();
+
+        // Action
+        for (int i = 0; i < 2_000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (tokenPool.tryAcquire(EVENT_ID, 500, () -> 0)) {
+                    acquired.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        // Assert
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(acquired).hasValue(500);
+    }
+
+    @Test
+    @DisplayName("Должен вернуть место заявки, которая не сохранилась")
+    void release_ReturnsSlot() {
+        // Setup
+        tokenPool.tryAcquire(EVENT_ID, 1, () -> 0);
+
+        // Action
+        tokenPool.release(EVENT_ID);
+
+        // Assert
+        assertThat(tokenPool.tryAcquire(EVENT_ID, 1, () -> 0)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Должен учесть изменение лимита события")
+    void tryAcquire_LimitChanged_ResizesPool() {
+        // Setup
+        tokenPool.tryAcquire(EVENT_ID, 2, () -> 0);
+        tokenPool.tryAcquire(EVENT_ID, 2, () -> 0);
+
+        // Action
+        boolean acquired = tokenPool.tryAcquire(EVENT_ID, 3, () -> 0);
+
+        // Assert
+        assertThat(acquired).isTrue();
+        assertThat(tokenPool.tryAcquire(EVENT_ID, 3, () -> 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Сверка должна вернуть места отменённых заявок и не трогать места в полёте")
+    void reconcile_RestoresCancelledSlots() {
+        // Setup: 3 подтверждены и сохранены, 1 ещё в полёте
+        for (int i = 0; i < 4; i++) {
+            tokenPool.tryAcquire(EVENT_ID, 5, () -> 0);
+        }
+        for (int i = 0; i < 3; i++) {
+            tokenPool.complete(EVENT_ID);
+        }
+
+        // Action: одна из сохранённых заявок отменена
+        tokenPool.reconcile(eventIds -> Map.of(EVENT_ID, 2L));
+
+        // Assert
+        assertThat(tokenPool.freeSlots(EVENT_ID)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Сверка должна забрать места, подтверждённые в обход пула")
+    void reconcile_RemovesSlotsConfirmedElsewhere() {
+        // Setup
+        tokenPool.tryAcquire(EVENT_ID, 5, () -> 0);
+        tokenPool.complete(EVENT_ID);
+
+        // Action
+        tokenPool.reconcile(eventIds -> Map.of(EVENT_ID, 3L));
+
+        // Assert
+        assertThat(tokenPool.freeSlots(EVENT_ID)).isEqualTo(2);
+    }
+}
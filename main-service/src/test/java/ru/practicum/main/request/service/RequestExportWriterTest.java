@@ -0,0 +1,54 @@
+package ru.practicum.main.request.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.request.status.RequestStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RequestExportWriter}.
+ */
+@DisplayName("RequestExportWriter Unit Tests")
+class RequestExportWriterTest {
+
+    @Test
+    @DisplayName("Должен записать по одной заявке в строке и закрыть курсор")
+    void write_WritesOneRequestPerLineAndClosesStream() throws IOException {
+        // Setup
+        RequestRepository requestRepository = mock(RequestRepository.class);
+        AtomicBoolean closed = new AtomicBoolean();
+        LocalDateTime created = LocalDateTime.of(2026, 5, 1, 12, 30, 15, 123_000_000);
+        when(requestRepository.streamDtosByEventId(7L)).thenReturn(Stream.of(
+                        new ParticipationRequestDto(1L, 7L, 10L, created, RequestStatus.CONFIRMED),
+                        new ParticipationRequestDto(2L, 7L, 11L, created, RequestStatus.PENDING))
+                .onClose(() -> closed.set(true)));
+        RequestExportWriter writer = new RequestExportWriter(requestRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Action
+        writer.write(7L, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"id\":1,").contains("\"created\":\"2026-05-01T12:30:15.123\"");
+        assertThat(lines[1]).startsWith("{\"id\":2,").contains("\"status\":\"PENDING\"");
+        assertThat(lines[2]).isEmpty();
+        assertThat(closed).isTrue();
+    }
+}
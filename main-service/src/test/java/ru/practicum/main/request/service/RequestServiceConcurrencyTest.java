@@ -0,0 +1,288 @@
+package ru.practicum.main.request.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main.JpaTestConfig;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.category.repository.CategoryRepository;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.model.Location;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.exception.ConflictException;
+import ru.practicum.main.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.main.request.dto.EventRequestStatusUpdateResult;
+import ru.practicum.main.request.dto.ParticipationRequestDto;
+import ru.practicum.main.request.mapper.RequestMapper;
+import ru.practicum.main.request.repository.RequestRepository;
+import ru.practicum.main.request.status.RequestStatus;
+import ru.practicum.main.user.model.User;
+import ru.practicum.main.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs participation requests for one event in parallel transactions and checks that the
+ * participant limit is never exceeded and no request fails on optimistic locking.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("RequestService concurrent participant counter")
+class RequestServiceConcurrencyTest {
+
+    private static final int REQUESTERS = 200;
+    private static final int THREADS = 32;
+    private static final int PARTICIPANT_LIMIT = 50;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private RequestServiceImpl requestService;
+    private ParticipationAdmission participationAdmission;
+    private User initiator;
+    private Category category;
+    private final List<Long> requesterIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        requestService = newRequestService(false);
+
+        category = categoryRepository.save(Category.builder().name("Концерты").build());
+        initiator = userRepository.save(User.builder().name("Организатор").email("host@test.com").build());
+        List<User> requesters = new ArrayList<>();
+        for (int i = 0; i < REQUESTERS; i++) {
+            requesters.add(User.builder().name("Участник " + i).email("user" + i + "@test.com").build());
+        }
+        userRepository.saveAll(requesters).forEach(user -> requesterIds.add(user.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAll();
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("createRequest: 200 параллельных заявок подтверждают ровно лимит участников")
+    void createRequest_ParallelRequesters_NeverOversell() throws InterruptedException {
+        // Setup
+        Long eventId = createEvent(false).getId();
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger limitReached = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        // Action
+        runInParallel(requesterIds.size(), i -> {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        requestService.createRequest(requesterIds.get(i), eventId));
+                confirmed.incrementAndGet();
+            } catch (ConflictException e) {
+                limitReached.incrementAndGet();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+
+        // Assert
+        assertThat(failures).isEmpty();
+        assertThat(confirmed).hasValue(PARTICIPANT_LIMIT);
+        assertThat(limitReached).hasValue(REQUESTERS - PARTICIPANT_LIMIT);
+        assertThat(eventRepository.findConfirmedRequests(eventId)).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(requestRepository.findDtosByEventId(eventId, PageRequest.of(0, REQUESTERS)))
+                .extracting(ParticipationRequestDto::getStatus)
+                .containsOnly(RequestStatus.CONFIRMED)
+                .hasSize(PARTICIPANT_LIMIT);
+    }
+
+    @Test
+    @DisplayName("updateRequestStatus: параллельные подтверждения пачками не превышают лимит")
+    void updateRequestStatus_ParallelBatches_NeverOversell() throws InterruptedException {
+        // Setup
+        Event event = createEvent(true);
+        List<Long> requestIds = new ArrayList<>();
+        for (Long requesterId : requesterIds) {
+            requestIds.add(requestService.createRequest(requesterId, event.getId()).getId());
+        }
+        int batchSize = 10;
+        AtomicInteger confirmed = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        // Action
+        runInParallel(requestIds.size() / batchSize, batch -> {
+            EventRequestStatusUpdateRequest update = new EventRequestStatusUpdateRequest();
+            update.setRequestIds(requestIds.subList(batch * batchSize, (batch + 1) * batchSize));
+            update.setStatus(RequestStatus.CONFIRMED);
+            try {
+                EventRequestStatusUpdateResult result = transactionTemplate.execute(status ->
+                        requestService.updateRequestStatus(initiator.getId(), event.getId(), update));
+                confirmed.addAndGet(result.getConfirmedRequests().size());
+            } catch (ConflictException e) {
+                // Лимит исчерпан до начала пачки
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+
+        // Assert
+        assertThat(failures).isEmpty();
+        assertThat(confirmed).hasValue(PARTICIPANT_LIMIT);
+        assertThat(eventRepository.findConfirmedRequests(event.getId())).isEqualTo(PARTICIPANT_LIMIT);
+        assertThat(requestRepository.countByEventIdAndStatus(event.getId(), RequestStatus.CONFIRMED))
+                .isEqualTo(PARTICIPANT_LIMIT);
+    }
+
+    @Test
+    @DisplayName("createRequest: в режиме допуска 200 параллельных заявок подтверждают ровно лимит участников")
+    void createRequest_AdmissionMode_NeverOversell() throws InterruptedException {
+        // Setup
+        requestService = newRequestService(true);
+        Long eventId = createEvent(false).getId();
+        AtomicInteger confirmed = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        // Action
+        runInParallel(requesterIds.size(), i -> {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        requestService.createRequest(requesterIds.get(i), eventId));
+                confirmed.incrementAndGet();
+            } catch (ConflictException e) {
+                // Места закончились
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        long counterBeforeReconcile = eventRepository.findConfirmedRequests(eventId);
+        participationAdmission.reconcile();
+
+        // Assert
+        assertThat(failures).isEmpty();
+        assertThat(confirmed).hasValue(PARTICIPANT_LIMIT);
+        assertThat(requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED))
+                .isEqualTo(PARTICIPANT_LIMIT);
+        // Строка события не обновлялась на каждую заявку, счётчик выставила сверка
+        assertThat(counterBeforeReconcile).isZero();
+        assertThat(eventRepository.findConfirmedRequests(eventId)).isEqualTo(PARTICIPANT_LIMIT);
+    }
+
+    @Test
+    @DisplayName("afterSingletonsInstantiated: при старте пересчитываются только счётчики событий режима допуска")
+    void afterSingletonsInstantiated_RecalculatesAdmittedEventsOnly() {
+        // Setup
+        newRequestService(true);
+        // Счётчики расходятся с заявками, которых у событий нет
+        Event admitted = createEvent(false, 7L);
+        Event moderated = createEvent(true, 7L);
+
+        // Action
+        participationAdmission.afterSingletonsInstantiated();
+
+        // Assert
+        assertThat(eventRepository.findConfirmedRequests(admitted.getId())).isZero();
+        assertThat(eventRepository.findConfirmedRequests(moderated.getId())).isEqualTo(7L);
+    }
+
+    private RequestServiceImpl newRequestService(boolean admissionEnabled) {
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        participationAdmission = new ParticipationAdmission(requestRepository, eventRepository, eventPublisher,
+                admissionEnabled, 8);
+        return new RequestServiceImpl(requestRepository, eventRepository, userRepository,
+                Mappers.getMapper(RequestMapper.class), eventPublisher, participationAdmission,
+                mock(RequestExportWriter.class));
+    }
+
+    private Event createEvent(boolean requestModeration) {
+        return createEvent(requestModeration, 0L);
+    }
+
+    private Event createEvent(boolean requestModeration, long confirmedRequests) {
+        return eventRepository.save(Event.builder()
+                .title("Концерт")
+                .annotation("Аннотация популярного концерта")
+                .description("Описание популярного концерта")
+                .category(category)
+                .initiator(initiator)
+                .location(new Location(55.75f, 37.62f))
+                .eventDate(LocalDateTime.now().plusDays(10))
+                .createdOn(LocalDateTime.now())
+                .state(EventState.PUBLISHED)
+                .participantLimit(PARTICIPANT_LIMIT)
+                .requestModeration(requestModeration)
+                .confirmedRequests(confirmedRequests)
+                .build());
+    }
+
+    /**
+     * Runs {@code task} for indexes {@code 0..count-1} on a thread pool, starting them together.
+     */
+    private void runInParallel(int count, IndexedTask task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        task.run(index);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
@@ -6,18 +6,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.exception.ValidationException;
 import ru.practicum.main.request.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.main.request.dto.EventRequestStatusUpdateResult;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
 import ru.practicum.main.request.mapper.RequestMapper;
-import ru.practicum.main.request.model.ParticipationRequest;
 import ru.practicum.main.request.repository.RequestRepository;
 import ru.practicum.main.request.status.RequestStatus;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
+import ru.practicum.main.util.PageCursor;
 
 import java.util.Arrays;
 import java.util.List;
@@ -30,6 +36,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("RequestService Validation Tests")
@@ -44,20 +51,26 @@ class RequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private RequestMapper requestMapper;
 
+    @Mock
+    private ParticipationAdmission participationAdmission;
+
+    @Mock
+    private RequestExportWriter requestExportWriter;
+
     @InjectMocks
     private RequestServiceImpl requestService;
 
     @Test
     @DisplayName("Должен вернуть заявки без дополнительной проверки пользователя, если заявки найдены")
     void getUserRequests_WithExistingRequests_DoesNotCheckUserExistence() {
-        ParticipationRequest request = new ParticipationRequest();
-        request.setId(1L);
-
-        when(requestRepository.findAllByRequesterId(1L)).thenReturn(List.of(request));
-        when(requestMapper.toDto(request)).thenReturn(ParticipationRequestDto.builder().id(1L).build());
+        when(requestRepository.findDtosByRequesterId(1L, Pageable.unpaged()))
+                .thenReturn(List.of(ParticipationRequestDto.builder().id(1L).build()));
 
         List<ParticipationRequestDto> result = requestService.getUserRequests(1L);
 
@@ -68,7 +81,7 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Должен выбросить NotFoundException если заявок нет и пользователь не найден")
     void getUserRequests_NoRequestsAndUserNotFound_ThrowsNotFound() {
-        when(requestRepository.findAllByRequesterId(1L)).thenReturn(List.of());
+        when(requestRepository.findDtosByRequesterId(1L, Pageable.unpaged())).thenReturn(List.of());
         when(userRepository.existsById(1L)).thenReturn(false);
 
         assertThatThrownBy(() -> requestService.getUserRequests(1L))
@@ -79,7 +92,7 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Должен вернуть пустой список если заявок нет, но пользователь существует")
     void getUserRequests_NoRequestsAndUserExists_ReturnsEmptyList() {
-        when(requestRepository.findAllByRequesterId(1L)).thenReturn(List.of());
+        when(requestRepository.findDtosByRequesterId(1L, Pageable.unpaged())).thenReturn(List.of());
         when(userRepository.existsById(1L)).thenReturn(true);
 
         List<ParticipationRequestDto> result = requestService.getUserRequests(1L);
@@ -160,16 +173,122 @@ class RequestServiceImplTest {
         event.setId(1L);
         event.setInitiator(initiator);
 
-        ParticipationRequest request = new ParticipationRequest();
-        request.setId(1L);
-        request.setEvent(event);
-        request.setStatus(RequestStatus.PENDING);
-
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(requestRepository.findAllByIdIn(any())).thenReturn(List.of(request));
+        when(requestRepository.findStatesByIdIn(any())).thenReturn(List.of(state(1L, 1L, RequestStatus.PENDING)));
 
         assertThatThrownBy(() -> requestService.updateRequestStatus(1L, 1L, updateRequest))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Заявки не найдены");
     }
+
+    @Test
+    @DisplayName("Должен подтвердить самые ранние заявки в пределах лимита и отклонить остальные пакетными UPDATE")
+    void updateRequestStatus_OverLimit_ConfirmsEarliestAndRejectsRest() {
+        EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest();
+        updateRequest.setRequestIds(List.of(3L, 1L, 2L));
+        updateRequest.setStatus(RequestStatus.CONFIRMED);
+        Event event = moderatedEvent(2, 1L);
+        // Проекция уже упорядочена по времени подачи
+        List<RequestRepository.RequestState> states = List.of(
+                state(2L, 1L, RequestStatus.PENDING),
+                state(1L, 1L, RequestStatus.PENDING),
+                state(3L, 1L, RequestStatus.PENDING));
+        List<ParticipationRequestDto> dtos = List.of(
+                ParticipationRequestDto.builder().id(2L).status(RequestStatus.CONFIRMED).build(),
+                ParticipationRequestDto.builder().id(1L).status(RequestStatus.CONFIRMED).build(),
+                ParticipationRequestDto.builder().id(3L).status(RequestStatus.REJECTED).build());
+
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(requestRepository.findStatesByIdIn(any())).thenReturn(states);
+        when(eventRepository.incrementConfirmedRequests(1L, 3)).thenReturn(0);
+        when(eventRepository.findConfirmedRequests(1L)).thenReturn(0L);
+        when(eventRepository.incrementConfirmedRequests(1L, 2)).thenReturn(1);
+        when(requestRepository.updateStatus(List.of(2L, 1L), RequestStatus.PENDING, RequestStatus.CONFIRMED))
+                .thenReturn(2);
+        when(requestRepository.updateStatus(List.of(3L), RequestStatus.PENDING, RequestStatus.REJECTED))
+                .thenReturn(1);
+        when(requestRepository.findDtosByIdIn(List.of(2L, 1L, 3L))).thenReturn(dtos);
+
+        EventRequestStatusUpdateResult result = requestService.updateRequestStatus(1L, 1L, updateRequest);
+
+        assertThat(result.getConfirmedRequests()).extracting(ParticipationRequestDto::getId).containsExactly(2L, 1L);
+        assertThat(result.getRejectedRequests()).extracting(ParticipationRequestDto::getId).containsExactly(3L);
+        verify(requestMapper, never()).toDto(any());
+    }
+
+    @Test
+    @DisplayName("Должен выбросить ConflictException, если статус заявки изменился параллельно")
+    void updateRequestStatus_ConcurrentlyChanged_ThrowsConflict() {
+        EventRequestStatusUpdateRequest updateRequest = new EventRequestStatusUpdateRequest();
+        updateRequest.setRequestIds(List.of(1L, 2L));
+        updateRequest.setStatus(RequestStatus.REJECTED);
+
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(moderatedEvent(10, 1L)));
+        when(requestRepository.findStatesByIdIn(any())).thenReturn(List.of(
+                state(1L, 1L, RequestStatus.PENDING),
+                state(2L, 1L, RequestStatus.PENDING)));
+        when(requestRepository.updateStatus(List.of(1L, 2L), RequestStatus.PENDING, RequestStatus.REJECTED))
+                .thenReturn(1);
+
+        assertThatThrownBy(() -> requestService.updateRequestStatus(1L, 1L, updateRequest))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("только у заявок в ожидании");
+        verify(requestRepository, never()).findDtosByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Должен вернуть курсор следующей страницы заявок на событие, если страница заполнена")
+    void getEventRequests_FullCursorPage_ReturnsNextCursor() {
+        when(eventRepository.existsByIdAndInitiatorId(1L, 1L)).thenReturn(true);
+        when(requestRepository.findDtosByEventIdAfter(1L, 0L, Limit.of(2))).thenReturn(List.of(
+                ParticipationRequestDto.builder().id(4L).build(),
+                ParticipationRequestDto.builder().id(9L).build()));
+
+        CursorPage<ParticipationRequestDto> page = requestService.getEventRequests(1L, 1L, "", 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isEqualTo(PageCursor.encode(9L));
+    }
+
+    @Test
+    @DisplayName("Должен проверить владельца события до начала выгрузки заявок")
+    void exportEventRequests_NotOwner_ThrowsNotFound() {
+        when(eventRepository.existsByIdAndInitiatorId(1L, 2L)).thenReturn(false);
+
+        assertThatThrownBy(() -> requestService.exportEventRequests(2L, 1L))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(requestExportWriter);
+    }
+
+    private Event moderatedEvent(int participantLimit, Long initiatorId) {
+        User initiator = new User();
+        initiator.setId(initiatorId);
+
+        Event event = new Event();
+        event.setId(1L);
+        event.setInitiator(initiator);
+        event.setParticipantLimit(participantLimit);
+        event.setRequestModeration(true);
+        event.setConfirmedRequests(0L);
+        return event;
+    }
+
+    private RequestRepository.RequestState state(Long id, Long eventId, RequestStatus status) {
+        return new RequestRepository.RequestState() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getEventId() {
+                return eventId;
+            }
+
+            @Override
+            public RequestStatus getStatus() {
+                return status;
+            }
+        };
+    }
 }
@@ -0,0 +1,140 @@
+package ru.practicum.main.subscription.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.main.JpaTestConfig;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventState;
+import ru.practicum.main.event.model.Location;
+import ru.practicum.main.subscription.model.Subscription;
+import ru.practicum.main.subscription.repository.SubscriptionFeedRepository.FeedItem;
+import ru.practicum.main.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks fan-out and keyset reads of the materialized subscription feed.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = JpaTestConfig.class)
+@ActiveProfiles("test")
+@Import(SubscriptionFeedRepository.class)
+@DisplayName("SubscriptionFeedRepository")
+class SubscriptionFeedRepositoryTest {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SubscriptionFeedRepository subscriptionFeedRepository;
+
+    private Category category;
+    private User author;
+    private User follower;
+    private User otherFollower;
+
+    @BeforeEach
+    void setUp() {
+        category = entityManager.persist(Category.builder().name("Концерты").build());
+        author = entityManager.persist(User.builder().name("Организатор").email("host@test.com").build());
+        follower = entityManager.persist(User.builder().name("Подписчик").email("fan@test.com").build());
+        otherFollower = entityManager.persist(User.builder().name("Второй").email("fan2@test.com").build());
+        follow(follower);
+        follow(otherFollower);
+    }
+
+    @Test
+    @DisplayName("Должен разослать событие всем подписчикам автора один раз")
+    void fanOut_AddsEventToEveryFollowerOnce() {
+        // Setup
+        Event event = createEvent(BASE_DATE);
+
+        // Action
+        int first = subscriptionFeedRepository.fanOut(event.getId(), author.getId(), BASE_DATE);
+        int repeated = subscriptionFeedRepository.fanOut(event.getId(), author.getId(), BASE_DATE);
+
+        // Assert
+        assertThat(first).isEqualTo(2);
+        assertThat(repeated).isZero();
+        assertThat(subscriptionFeedRepository.findPage(follower.getId(), 0, 10))
+                .containsExactly(new FeedItem(event.getId(), BASE_DATE));
+        assertThat(subscriptionFeedRepository.findPage(otherFollower.getId(), 0, 10)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Должен листать ленту по убыванию даты события по курсору и по смещению")
+    void findPage_PagesByEventDateDescending() {
+        // Setup
+        Event early = createEvent(BASE_DATE);
+        Event late = createEvent(BASE_DATE.plusDays(1));
+        Event sameDate = createEvent(BASE_DATE);
+        for (Event event : List.of(early, late, sameDate)) {
+            subscriptionFeedRepository.fanOut(event.getId(), author.getId(), event.getEventDate());
+        }
+
+        // Action
+        List<FeedItem> first = subscriptionFeedRepository.findPage(follower.getId(), 0, 2);
+        List<FeedItem> second = subscriptionFeedRepository.findPageAfter(follower.getId(), first.get(1), 2);
+        List<FeedItem> byOffset = subscriptionFeedRepository.findPage(follower.getId(), 2, 2);
+
+        // Assert
+        assertThat(first).extracting(FeedItem::eventId).containsExactly(late.getId(), sameDate.getId());
+        assertThat(second).extracting(FeedItem::eventId).containsExactly(early.getId());
+        assertThat(byOffset).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("Должен переставить перенесённое событие во всех лентах")
+    void moveEvent_UpdatesEventDateInAllFeeds() {
+        // Setup
+        Event moved = createEvent(BASE_DATE);
+        Event other = createEvent(BASE_DATE.plusDays(1));
+        subscriptionFeedRepository.fanOut(moved.getId(), author.getId(), BASE_DATE);
+        subscriptionFeedRepository.fanOut(other.getId(), author.getId(), BASE_DATE.plusDays(1));
+
+        // Action
+        subscriptionFeedRepository.moveEvent(moved.getId(), BASE_DATE.plusDays(2));
+
+        // Assert
+        assertThat(subscriptionFeedRepository.findPage(otherFollower.getId(), 0, 1))
+                .containsExactly(new FeedItem(moved.getId(), BASE_DATE.plusDays(2)));
+    }
+
+    private void follow(User user) {
+        entityManager.persist(Subscription.builder()
+                .follower(user)
+                .following(author)
+                .createdOn(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+    }
+
+    private Event createEvent(LocalDateTime eventDate) {
+        Event event = entityManager.persist(Event.builder()
+                .title("Концерт")
+                .annotation("Аннотация популярного концерта")
+                .description("Описание популярного концерта")
+                .category(category)
+                .initiator(author)
+                .location(new Location(55.75f, 37.62f))
+                .eventDate(eventDate)
+                .createdOn(LocalDateTime.now())
+                .state(EventState.PUBLISHED)
+                .build());
+        entityManager.flush();
+        return event;
+    }
+}
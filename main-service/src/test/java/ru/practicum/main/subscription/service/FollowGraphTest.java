@@ -0,0 +1,132 @@
+package ru.practicum.main.subscription.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.main.subscription.repository.SubscriptionRepository;
+import ru.practicum.main.subscription.repository.SubscriptionRepository.SubscriptionEdge;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link FollowGraph}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FollowGraph Unit Tests")
+class FollowGraphTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    private FollowGraph followGraph;
+
+    @BeforeEach
+    void setUp() {
+        followGraph = new FollowGraph(subscriptionRepository, true, 2);
+    }
+
+    @Test
+    @DisplayName("Должен загрузить подписки порциями и отвечать на проверки и счётчики")
+    void afterSingletonsInstantiated_LoadsGraphInChunks() {
+        // Setup
+        when(subscriptionRepository.findEdgesAfter(0L, Limit.of(2)))
+                .thenReturn(List.of(edge(1L, 10L, 30L), edge(2L, 11L, 30L)));
+        when(subscriptionRepository.findEdgesAfter(2L, Limit.of(2)))
+                .thenReturn(List.of(edge(3L, 10L, 20L)));
+
+        // Action
+        followGraph.afterSingletonsInstantiated();
+
+        // Assert
+        assertThat(followGraph.isFollowing(10L, 30L)).isTrue();
+        assertThat(followGraph.isFollowing(10L, 20L)).isTrue();
+        assertThat(followGraph.isFollowing(30L, 10L)).isFalse();
+        assertThat(followGraph.countFollowing(10L)).isEqualTo(2);
+        assertThat(followGraph.countFollowers(30L)).isEqualTo(2);
+        assertThat(followGraph.countFollowers(99L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен учитывать подписку и отписку без повторного счёта")
+    void followAndUnfollow_UpdateBothDirections() {
+        // Action
+        followGraph.follow(1L, 2L);
+        followGraph.follow(1L, 2L);
+        followGraph.follow(3L, 2L);
+        followGraph.unfollow(1L, 2L);
+        followGraph.unfollow(1L, 2L);
+
+        // Assert
+        assertThat(followGraph.isFollowing(1L, 2L)).isFalse();
+        assertThat(followGraph.isFollowing(3L, 2L)).isTrue();
+        assertThat(followGraph.countFollowers(2L)).isEqualTo(1);
+        assertThat(followGraph.countFollowing(1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен исправить расхождения с таблицей и сохранить изменения, пришедшие во время сверки")
+    void reconcile_ReplacesDriftedGraphAndReplaysConcurrentChanges() {
+        // Setup
+        followGraph.follow(1L, 2L);
+        followGraph.follow(5L, 6L);
+        when(subscriptionRepository.findEdgesAfter(0L, Limit.of(2))).thenAnswer(invocation -> {
+            // Подписка закоммичена после чтения таблицы
+            followGraph.follow(7L, 8L);
+            return List.of(edge(1L, 1L, 2L));
+        });
+
+        // Action
+        int corrected = followGraph.reconcile();
+
+        // Assert
+        assertThat(corrected).isEqualTo(1);
+        assertThat(followGraph.isFollowing(1L, 2L)).isTrue();
+        assertThat(followGraph.isFollowing(5L, 6L)).isFalse();
+        assertThat(followGraph.isFollowing(7L, 8L)).isTrue();
+        assertThat(followGraph.reconcile()).isZero();
+    }
+
+    @Test
+    @DisplayName("Выключенный граф не обращается к БД и не хранит подписки")
+    void disabled_IsNoOp() {
+        // Setup
+        FollowGraph disabled = new FollowGraph(subscriptionRepository, false, 2);
+
+        // Action
+        disabled.afterSingletonsInstantiated();
+        disabled.follow(1L, 2L);
+
+        // Assert
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.isFollowing(1L, 2L)).isFalse();
+        assertThat(disabled.reconcile()).isZero();
+        verifyNoInteractions(subscriptionRepository);
+    }
+
+    private SubscriptionEdge edge(Long id, Long followerId, Long followingId) {
+        return new SubscriptionEdge() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getFollowerId() {
+                return followerId;
+            }
+
+            @Override
+            public Long getFollowingId() {
+                return followingId;
+            }
+        };
+    }
+}
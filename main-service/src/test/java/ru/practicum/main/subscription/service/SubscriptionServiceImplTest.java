@@ -15,12 +15,15 @@ import ru.practicum.main.event.service.EventService;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
 import ru.practicum.main.exception.ValidationException;
+import ru.practicum.main.subscription.dto.SubscriptionCountsDto;
 import ru.practicum.main.subscription.dto.SubscriptionDto;
 import ru.practicum.main.subscription.mapper.SubscriptionMapper;
 import ru.practicum.main.subscription.model.Subscription;
+import ru.practicum.main.subscription.repository.SubscriptionFeedRepository;
 import ru.practicum.main.subscription.repository.SubscriptionRepository;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.CursorPage;
 
 import java.util.List;
 import java.util.Optional;
@@ -44,6 +47,9 @@ class SubscriptionServiceImplTest {
     @Mock
     private SubscriptionRepository subscriptionRepository;
 
+    @Mock
+    private SubscriptionFeedRepository subscriptionFeedRepository;
+
     @Mock
     private UserRepository userRepository;
 
@@ -53,6 +59,9 @@ class SubscriptionServiceImplTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private FollowGraph followGraph;
+
     @InjectMocks
     private SubscriptionServiceImpl subscriptionService;
 
@@ -85,6 +94,25 @@ class SubscriptionServiceImplTest {
             assertThat(result.getFollowerId()).isEqualTo(1L);
             assertThat(result.getFollowingId()).isEqualTo(2L);
             verify(subscriptionRepository).save(any(Subscription.class));
+            verify(subscriptionFeedRepository).addAuthor(1L, 2L);
+            verify(followGraph).follow(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("Должен проверить дубликат подписки по графу в памяти, если он включён")
+        void subscribe_followGraphEnabled_checksGraph() {
+            User follower = User.builder().id(1L).name("Follower").email("follower@test.com").build();
+            User following = User.builder().id(2L).name("Following").email("following@test.com").build();
+
+            when(userRepository.findById(1L)).thenReturn(Optional.of(follower));
+            when(userRepository.findById(2L)).thenReturn(Optional.of(following));
+            when(followGraph.isEnabled()).thenReturn(true);
+            when(followGraph.isFollowing(1L, 2L)).thenReturn(true);
+
+            assertThatThrownBy(() -> subscriptionService.subscribe(1L, 2L))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("уже существует");
+            verify(subscriptionRepository, never()).existsByFollowerIdAndFollowingId(anyLong(), anyLong());
         }
 
         @Test
@@ -95,6 +123,7 @@ class SubscriptionServiceImplTest {
                     .hasMessageContaining("самого себя");
 
             verify(subscriptionRepository, never()).save(any(Subscription.class));
+            verify(subscriptionFeedRepository, never()).addAuthor(anyLong(), anyLong());
         }
 
         @Test
@@ -138,6 +167,8 @@ class SubscriptionServiceImplTest {
             ArgumentCaptor<Subscription> captor = ArgumentCaptor.forClass(Subscription.class);
             verify(subscriptionRepository).delete(captor.capture());
             assertThat(captor.getValue().getId()).isEqualTo(100L);
+            verify(subscriptionFeedRepository).removeAuthor(1L, 2L);
+            verify(followGraph).unfollow(1L, 2L);
         }
 
         @Test
@@ -203,8 +234,7 @@ class SubscriptionServiceImplTest {
             EventShortDto event = EventShortDto.builder().id(10L).title("From following").build();
 
             when(userRepository.existsById(1L)).thenReturn(true);
-            when(subscriptionRepository.findFollowingIdsByFollowerId(1L)).thenReturn(List.of(2L, 3L));
-            when(eventService.getPublishedEventsByInitiators(List.of(2L, 3L), "RATING", 0, 10))
+            when(eventService.getSubscriptionFeed(1L, "RATING", 0, 10))
                     .thenReturn(List.of(event));
 
             List<EventShortDto> result = subscriptionService.getFollowingEvents(1L, "RATING", 0, 10);
@@ -214,15 +244,62 @@ class SubscriptionServiceImplTest {
         }
 
         @Test
-        @DisplayName("Должен вернуть пустую ленту, если подписок нет")
-        void getFollowingEvents_noSubscriptions_returnsEmpty() {
+        @DisplayName("Должен вернуть страницу ленты подписок по курсору")
+        void getFollowingEvents_cursor_success() {
+            EventShortDto event = EventShortDto.builder().id(10L).title("From following").build();
+
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(eventService.getSubscriptionFeed(1L, "VIEWS", "cursor", 1))
+                    .thenReturn(new CursorPage<>(List.of(event), "next"));
+
+            CursorPage<EventShortDto> result = subscriptionService.getFollowingEvents(1L, "VIEWS", "cursor", 1);
+
+            assertThat(result.getItems()).hasSize(1);
+            assertThat(result.getNextCursor()).isEqualTo("next");
+        }
+
+        @Test
+        @DisplayName("Должен выбросить NotFoundException для ленты несуществующего пользователя")
+        void getFollowingEvents_userNotFound_throwsNotFound() {
+            when(userRepository.existsById(1L)).thenReturn(false);
+
+            assertThatThrownBy(() -> subscriptionService.getFollowingEvents(1L, null, 0, 10))
+                    .isInstanceOf(NotFoundException.class);
+            verify(eventService, never()).getSubscriptionFeed(any(), any(), anyInt(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("getCounts")
+    class CountsTests {
+
+        @Test
+        @DisplayName("Должен вернуть счётчики подписок из графа в памяти")
+        void getCounts_followGraphEnabled_readsGraph() {
+            when(userRepository.existsById(1L)).thenReturn(true);
+            when(followGraph.isEnabled()).thenReturn(true);
+            when(followGraph.countFollowers(1L)).thenReturn(5L);
+            when(followGraph.countFollowing(1L)).thenReturn(2L);
+
+            SubscriptionCountsDto result = subscriptionService.getCounts(1L);
+
+            assertThat(result.getFollowers()).isEqualTo(5L);
+            assertThat(result.getFollowing()).isEqualTo(2L);
+            verify(subscriptionRepository, never()).countByFollowingId(anyLong());
+        }
+
+        @Test
+        @DisplayName("Должен посчитать подписки в БД при выключенном графе")
+        void getCounts_followGraphDisabled_countsInDatabase() {
             when(userRepository.existsById(1L)).thenReturn(true);
-            when(subscriptionRepository.findFollowingIdsByFollowerId(1L)).thenReturn(List.of());
+            when(subscriptionRepository.countByFollowingId(1L)).thenReturn(3L);
+            when(subscriptionRepository.countByFollowerId(1L)).thenReturn(4L);
 
-            List<EventShortDto> result = subscriptionService.getFollowingEvents(1L, null, 0, 10);
+            SubscriptionCountsDto result = subscriptionService.getCounts(1L);
 
-            assertThat(result).isEmpty();
-            verify(eventService, never()).getPublishedEventsByInitiators(any(), any(), anyInt(), anyInt());
+            assertThat(result.getUserId()).isEqualTo(1L);
+            assertThat(result.getFollowers()).isEqualTo(3L);
+            assertThat(result.getFollowing()).isEqualTo(4L);
         }
     }
 }
@@ -5,15 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.main.comment.service.PublishedCommentsCache;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.ValidationException;
 import ru.practicum.main.user.repository.UserRepository;
+import ru.practicum.main.util.ResourceVersions;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +31,12 @@ class UserServiceImplTest {
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    @Mock
+    private PublishedCommentsCache publishedCommentsCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -64,5 +75,19 @@ class UserServiceImplTest {
         assertThatThrownBy(() -> userService.delete(1L))
                 .isInstanceOf(ConflictException.class)
                 .hasMessageContaining("Нельзя удалить пользователя");
+        verifyNoInteractions(publishedCommentsCache);
+    }
+
+    @Test
+    @DisplayName("Должен сбросить кэш опубликованных комментариев после удаления пользователя")
+    void delete_UserDeleted_InvalidatesPublishedComments() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(eventRepository.existsByInitiatorId(1L)).thenReturn(false);
+
+        userService.delete(1L);
+
+        InOrder order = inOrder(userRepository, publishedCommentsCache);
+        order.verify(userRepository).deleteById(1L);
+        order.verify(publishedCommentsCache).invalidateAll();
     }
 }
@@ -0,0 +1,148 @@
+package ru.practicum.main.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link ConditionalGetInterceptor}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConditionalGetInterceptor Unit Tests")
+class ConditionalGetInterceptorTest {
+
+    @Mock
+    private HitRecorder hitRecorder;
+
+    @Mock
+    private ObjectProvider<HitRecorder> hitRecorderProvider;
+
+    private ResourceVersions resourceVersions;
+    private ConditionalGetInterceptor interceptor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        resourceVersions = new ResourceVersions(60_000);
+        interceptor = new ConditionalGetInterceptor(resourceVersions, hitRecorderProvider);
+        response = new MockHttpServletResponse();
+        lenient().doAnswer(invocation -> {
+            Consumer<HitRecorder> consumer = invocation.getArgument(0);
+            consumer.accept(hitRecorder);
+            return null;
+        }).when(hitRecorderProvider).ifAvailable(any());
+    }
+
+    @Test
+    @DisplayName("Должен передать запрос обработчику и выставить ETag, если If-None-Match не передан")
+    void preHandle_NoIfNoneMatch_ProceedsWithEtag() throws Exception {
+        // Setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/categories");
+
+        // Action
+        boolean proceed = interceptor.preHandle(request, response, handler("categories"));
+
+        // Assert
+        assertThat(proceed).isTrue();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getHeader(HttpHeaders.ETAG))
+                .isEqualTo(resourceVersions.etag(VersionedResource.CATEGORIES));
+    }
+
+    @Test
+    @DisplayName("Должен ответить 304 без вызова обработчика, если ETag совпал")
+    void preHandle_MatchingEtag_ReturnsNotModified() throws Exception {
+        // Setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/categories");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, resourceVersions.etag(VersionedResource.CATEGORIES));
+
+        // Action
+        boolean proceed = interceptor.preHandle(request, response, handler("categories"));
+
+        // Assert
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        verify(hitRecorder, never()).record(any());
+    }
+
+    @Test
+    @DisplayName("Должен передать запрос обработчику после изменения коллекции")
+    void preHandle_ResourceChanged_Proceeds() throws Exception {
+        // Setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/categories");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, resourceVersions.etag(VersionedResource.CATEGORIES));
+        resourceVersions.bump(VersionedResource.CATEGORIES);
+
+        // Action
+        boolean proceed = interceptor.preHandle(request, response, handler("categories"));
+
+        // Assert
+        assertThat(proceed).isTrue();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    @DisplayName("Должен записать просмотр при ответе 304 для эндпоинта со статистикой")
+    void preHandle_NotModifiedWithHit_RecordsHit() throws Exception {
+        // Setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/events/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, resourceVersions.etag(VersionedResource.EVENTS));
+
+        // Action
+        boolean proceed = interceptor.preHandle(request, response, handler("event"));
+
+        // Assert
+        assertThat(proceed).isFalse();
+        verify(hitRecorder).record(request);
+    }
+
+    @Test
+    @DisplayName("Не должен обрабатывать обработчики без @ConditionalGet")
+    void preHandle_NotAnnotated_Proceeds() throws Exception {
+        // Setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/compilations");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+
+        // Action
+        boolean proceed = interceptor.preHandle(request, response, handler("plain"));
+
+        // Assert
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), method);
+    }
+
+    static class Handlers {
+
+        @ConditionalGet(VersionedResource.CATEGORIES)
+        public void categories() {
+        }
+
+        @ConditionalGet(value = VersionedResource.EVENTS, recordsHit = true)
+        public void event() {
+        }
+
+        public void plain() {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.main.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.main.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link PageCursor}.
+ */
+@DisplayName("PageCursor Unit Tests")
+class PageCursorTest {
+
+    @Test
+    @DisplayName("Должен декодировать значения, закодированные в курсор")
+    void encodeDecode_RoundTrip() {
+        // Setup
+        LocalDateTime dateTime = LocalDateTime.of(2030, 5, 1, 10, 15, 30);
+
+        // Action
+        PageCursor cursor = PageCursor.decode(PageCursor.encode(-3L, dateTime, 42L), 3);
+
+        // Assert
+        assertThat(cursor.getLong(0)).isEqualTo(-3L);
+        assertThat(cursor.getDateTime(1)).isEqualTo(dateTime);
+        assertThat(cursor.getLong(2)).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Должен выбросить ValidationException для курсора с другим числом значений")
+    void decode_WrongSize_ThrowsException() {
+        String cursor = PageCursor.encode(1L, 2L);
+
+        assertThatThrownBy(() -> PageCursor.decode(cursor, 3))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("курсор");
+    }
+
+    @Test
+    @DisplayName("Должен выбросить ValidationException для курсора не в Base64")
+    void decode_NotBase64_ThrowsException() {
+        assertThatThrownBy(() -> PageCursor.decode("%%%", 1))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    @DisplayName("Должен выбросить ValidationException для нечислового значения")
+    void getLong_NotNumber_ThrowsException() {
+        PageCursor cursor = PageCursor.decode(PageCursor.encode("abc"), 1);
+
+        assertThatThrownBy(() -> cursor.getLong(0))
+                .isInstanceOf(ValidationException.class);
+    }
+}
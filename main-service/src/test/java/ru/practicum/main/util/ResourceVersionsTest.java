@@ -0,0 +1,87 @@
+package ru.practicum.main.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.main.event.service.EventUpdatedEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ResourceVersions}.
+ */
+@DisplayName("ResourceVersions Unit Tests")
+class ResourceVersionsTest {
+
+    private static final long VIEWS_TTL_MS = 60_000;
+
+    private AtomicLong now;
+    private ResourceVersions resourceVersions;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000);
+        resourceVersions = new ResourceVersions(VIEWS_TTL_MS, now::get);
+    }
+
+    @Test
+    @DisplayName("Должен менять ETag только при изменении перечисленных коллекций")
+    void etag_ChangesWithListedResourcesOnly() {
+        // Setup
+        String categories = resourceVersions.etag(VersionedResource.CATEGORIES);
+        String comments = resourceVersions.etag(VersionedResource.COMMENTS);
+
+        // Action
+        resourceVersions.bump(VersionedResource.CATEGORIES);
+
+        // Assert
+        assertThat(resourceVersions.etag(VersionedResource.CATEGORIES)).isNotEqualTo(categories);
+        assertThat(resourceVersions.etag(VersionedResource.COMMENTS)).isEqualTo(comments);
+        assertThat(categories).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("Должен учитывать изменение событий из EventUpdatedEvent")
+    void onEventUpdated_ChangesEventsEtag() {
+        // Setup
+        String etag = resourceVersions.etag(VersionedResource.COMPILATIONS, VersionedResource.EVENTS);
+
+        // Action
+        resourceVersions.onEventUpdated(new EventUpdatedEvent(1L));
+
+        // Assert
+        assertThat(resourceVersions.etag(VersionedResource.COMPILATIONS, VersionedResource.EVENTS))
+                .isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("Должен обновлять ETag событий по истечении срока кэша просмотров")
+    void etag_EventsRollOverWithViewsTtl() {
+        // Setup
+        String events = resourceVersions.etag(VersionedResource.EVENTS);
+        String categories = resourceVersions.etag(VersionedResource.CATEGORIES);
+
+        // Action
+        now.addAndGet(VIEWS_TTL_MS);
+
+        // Assert
+        assertThat(resourceVersions.etag(VersionedResource.EVENTS)).isNotEqualTo(events);
+        assertThat(resourceVersions.etag(VersionedResource.CATEGORIES)).isEqualTo(categories);
+    }
+
+    @Test
+    @DisplayName("Должен выдавать разные ETag после перезапуска при тех же счётчиках")
+    void etag_DiffersBetweenInstances() {
+        // Setup
+        String etag = resourceVersions.etag(VersionedResource.CATEGORIES);
+
+        // Action
+        now.incrementAndGet();
+        ResourceVersions restarted = new ResourceVersions(VIEWS_TTL_MS, now::get);
+
+        // Assert
+        assertThat(restarted.etag(VersionedResource.CATEGORIES)).isNotEqualTo(etag);
+    }
+}
@@ -1,5 +1,8 @@
 package ru.practicum.client;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -17,55 +20,153 @@ import ru.practicum.dto.ViewStatsDto;
 
 import java.net.URI;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * REST client for interacting with Stats Service.
  * <p>
  * Provides operations to record views and retrieve statistics.
  * The Stats Server URL is configured via {@code stats-server.url}.
+ * <p>
+ * Hits are not sent on the caller thread: {@link #hit(EndpointHitDto)} puts them
+ * into a bounded in-memory queue that is drained by a background flusher.
+ * A batch is shipped as soon as {@code stats-server.hits.batch-size} hits are collected
+ * or {@code stats-server.hits.flush-interval-ms} elapses, whichever comes first.
+ * Batches are delivered with a single {@code POST /hit/batch} request.
+ * When the queue is full the caller waits up to {@code stats-server.hits.offer-timeout-ms}
+ * (0 = no waiting) and the hit is dropped and counted afterwards.
+ * Remaining hits are flushed when the application context shuts down.
+ * <p>
+ * Because of the buffering, statistics read right after {@link #hit(EndpointHitDto)} may not
+ * include that hit yet. Listeners registered with {@link #addDeliveryListener(Consumer)} are
+ * notified of every batch Stats Server has stored, so callers can tell when it does.
  */
+@Slf4j
 @Component
-public class StatsClient {
+public class StatsClient implements InitializingBean, DisposableBean {
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER =
             DateTimeFormatter.ofPattern(DateTimeFormatConstants.DATE_TIME_PATTERN);
 
+    /** Maximum time to wait for the flusher to drain the queue on shutdown. */
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000L;
+
     private final String serverUrl;
     private final RestTemplate restTemplate;
 
+    private final BlockingQueue<EndpointHitDto> hitQueue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final List<Consumer<List<EndpointHitDto>>> deliveryListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong acceptedHits = new AtomicLong();
+    private final AtomicLong droppedHits = new AtomicLong();
+    private final AtomicLong sentHits = new AtomicLong();
+    private final AtomicLong failedHits = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread flusherThread;
+
         /**
          * Constructor with Spring dependency injection.
          *
-         * @param serverUrl    Stats Server URL from configuration (stats-server.url)
-         * @param restTemplate Spring-managed RestTemplate bean
+         * @param serverUrl       Stats Server URL from configuration (stats-server.url)
+         * @param restTemplate    Spring-managed RestTemplate bean
+         * @param queueCapacity   maximum number of buffered hits (stats-server.hits.queue-capacity)
+         * @param batchSize       maximum number of hits in one shipment (stats-server.hits.batch-size)
+         * @param flushIntervalMs maximum delay before a non-full batch is shipped
+         *                        (stats-server.hits.flush-interval-ms)
+         * @param offerTimeoutMs  how long a caller may wait for free space in a full queue
+         *                        (stats-server.hits.offer-timeout-ms)
          */
     public StatsClient(
             @Value("${stats-server.url}") String serverUrl,
-            RestTemplate restTemplate
+            RestTemplate restTemplate,
+            @Value("${stats-server.hits.queue-capacity:10000}") int queueCapacity,
+            @Value("${stats-server.hits.batch-size:200}") int batchSize,
+            @Value("${stats-server.hits.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${stats-server.hits.offer-timeout-ms:0}") long offerTimeoutMs
     ) {
+        if (queueCapacity <= 0 || batchSize <= 0 || flushIntervalMs <= 0 || offerTimeoutMs < 0) {
+            throw new IllegalArgumentException("Invalid stats-server.hits.* configuration");
+        }
         this.serverUrl = serverUrl;
         this.restTemplate = restTemplate;
+        this.hitQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        flusherThread = new Thread(this::runFlusher, "stats-hit-flusher");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (flusherThread == null) {
+            return;
+        }
+        // Wakes the flusher from waiting for hits, it then ships what is left in the queue
+        flusherThread.interrupt();
+        flusherThread.join(SHUTDOWN_TIMEOUT_MS);
+        if (flusherThread.isAlive()) {
+            log.warn("Stats hit flusher did not finish in {} ms, {} hits left unsent",
+                    SHUTDOWN_TIMEOUT_MS, hitQueue.size());
+        }
     }
 
         /**
          * Records an endpoint view.
+         * <p>
+         * The hit is buffered and shipped asynchronously; the method never
+         * performs network I/O on the calling thread.
          *
          * @param endpointHitDto view data (app, uri, ip, timestamp)
+         * @return {@code true} if the hit was accepted, {@code false} if it was dropped
          */
-    public void hit(EndpointHitDto endpointHitDto) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+    public boolean hit(EndpointHitDto endpointHitDto) {
+        boolean accepted;
+        try {
+            accepted = offerTimeoutMs == 0
+                    ? hitQueue.offer(endpointHitDto)
+                    : hitQueue.offer(endpointHitDto, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
 
-        HttpEntity<EndpointHitDto> request =
-                new HttpEntity<>(endpointHitDto, headers);
+        if (accepted) {
+            acceptedHits.incrementAndGet();
+        } else {
+            long dropped = droppedHits.incrementAndGet();
+            log.warn("Stats hit queue is full, hit dropped: uri={}, total dropped={}",
+                    endpointHitDto.getUri(), dropped);
+        }
+        return accepted;
+    }
 
-        restTemplate.exchange(
-                serverUrl + "/hit",
-                HttpMethod.POST,
-                request,
-                Void.class
-        );
+        /**
+         * Registers a listener called on the flusher thread with every batch delivered to Stats Server.
+         * Listener failures are logged and do not affect delivery.
+         *
+         * @param listener consumer of delivered hits
+         */
+    public void addDeliveryListener(Consumer<List<EndpointHitDto>> listener) {
+        deliveryListeners.add(listener);
     }
 
         /**
@@ -101,4 +202,106 @@ public class StatsClient {
 
         return response.getBody();
     }
+
+    /** Number of hits accepted into the queue. */
+    public long getAcceptedHits() {
+        return acceptedHits.get();
+    }
+
+    /** Number of hits dropped because the queue was full. */
+    public long getDroppedHits() {
+        return droppedHits.get();
+    }
+
+    /** Number of hits successfully delivered to Stats Server. */
+    public long getSentHits() {
+        return sentHits.get();
+    }
+
+    /** Number of hits that could not be delivered to Stats Server. */
+    public long getFailedHits() {
+        return failedHits.get();
+    }
+
+    /** Number of hits currently waiting in the queue. */
+    public int getPendingHits() {
+        return hitQueue.size();
+    }
+
+    private void runFlusher() {
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+        while (running || !hitQueue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Interruption only signals shutdown; the flag stays cleared so the remaining batches can be sent
+                running = false;
+                hitQueue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for the first hit, then keeps collecting until the batch is full
+     * or the flush interval since the first hit has elapsed.
+     */
+    private void collectBatch(List<EndpointHitDto> batch) throws InterruptedException {
+        EndpointHitDto first = hitQueue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize && running) {
+            hitQueue.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            EndpointHitDto next = hitQueue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+        hitQueue.drainTo(batch, batchSize - batch.size());
+    }
+
+    private void sendBatch(List<EndpointHitDto> batch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            restTemplate.exchange(
+                    serverUrl + "/hit/batch",
+                    HttpMethod.POST,
+                    new HttpEntity<>(batch, headers),
+                    Void.class
+            );
+            sentHits.addAndGet(batch.size());
+        } catch (Exception e) {
+            failedHits.addAndGet(batch.size());
+            log.warn("Failed to send {} stats hits: {}", batch.size(), e.getMessage());
+            return;
+        }
+        notifyDeliveryListeners(List.copyOf(batch));
+    }
+
+    private void notifyDeliveryListeners(List<EndpointHitDto> hits) {
+        for (Consumer<List<EndpointHitDto>> listener : deliveryListeners) {
+            try {
+                listener.accept(hits);
+            } catch (Exception e) {
+                log.warn("Stats delivery listener failed: {}", e.getMessage());
+            }
+        }
+    }
 }
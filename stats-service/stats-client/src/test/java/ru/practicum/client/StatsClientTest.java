@@ -0,0 +1,156 @@
+package ru.practicum.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.dto.EndpointHitDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link StatsClient} hit buffering against a stubbed {@link RestTemplate}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatsClient Unit Tests")
+class StatsClientTest {
+
+    private static final String SERVER_URL = "http://stats";
+    private static final long LONG_INTERVAL_MS = 60_000;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private StatsClient statsClient;
+    private final BlockingQueue<List<EndpointHitDto>> deliveredBatches = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (statsClient != null) {
+            statsClient.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Должен отправить полную пачку, не дожидаясь интервала отправки")
+    void hit_FullBatch_SentImmediately() throws InterruptedException {
+        // Setup
+        start(10, 2, LONG_INTERVAL_MS);
+
+        // Action
+        statsClient.hit(hit("/events/1"));
+        statsClient.hit(hit("/events/2"));
+
+        // Assert
+        List<EndpointHitDto> batch = deliveredBatches.poll(5, TimeUnit.SECONDS);
+        assertThat(batch).extracting(EndpointHitDto::getUri).containsExactly("/events/1", "/events/2");
+        assertThat(statsClient.getSentHits()).isEqualTo(2);
+        verify(restTemplate).exchange(eq(SERVER_URL + "/hit/batch"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(Void.class));
+    }
+
+    @Test
+    @DisplayName("Должен отправить неполную пачку по истечении интервала отправки")
+    void hit_PartialBatch_SentAfterFlushInterval() throws InterruptedException {
+        // Setup
+        start(10, 100, 100);
+        long startedAt = System.nanoTime();
+
+        // Action
+        statsClient.hit(hit("/events/1"));
+
+        // Assert
+        List<EndpointHitDto> batch = deliveredBatches.poll(5, TimeUnit.SECONDS);
+        assertThat(batch).hasSize(1);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("Должен отбросить и посчитать просмотр при переполненной очереди")
+    void hit_QueueFull_DropsHit() {
+        // Setup
+        statsClient = new StatsClient(SERVER_URL, restTemplate, 1, 10, LONG_INTERVAL_MS, 0);
+
+        // Action
+        boolean first = statsClient.hit(hit("/events/1"));
+        boolean second = statsClient.hit(hit("/events/2"));
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(statsClient.getAcceptedHits()).isEqualTo(1);
+        assertThat(statsClient.getDroppedHits()).isEqualTo(1);
+        assertThat(statsClient.getPendingHits()).isEqualTo(1);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    @DisplayName("Должен отправить оставшиеся просмотры при остановке, не дожидаясь интервала")
+    void destroy_FlushesPendingHits() throws InterruptedException {
+        // Setup
+        start(10, 100, LONG_INTERVAL_MS);
+        statsClient.hit(hit("/events/1"));
+        statsClient.hit(hit("/events/2"));
+        statsClient.hit(hit("/events/3"));
+        long startedAt = System.nanoTime();
+
+        // Action
+        statsClient.destroy();
+
+        // Assert
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isLessThan(5_000);
+        assertThat(statsClient.getSentHits()).isEqualTo(3);
+        assertThat(statsClient.getPendingHits()).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен посчитать недоставленные просмотры и не уведомлять слушателей при ошибке отправки")
+    void sendFailure_CountsFailedHits() throws InterruptedException {
+        // Setup
+        when(restTemplate.exchange(eq(SERVER_URL + "/hit/batch"), eq(HttpMethod.POST),
+                any(HttpEntity.class), eq(Void.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+        start(10, 1, LONG_INTERVAL_MS);
+
+        // Action
+        statsClient.hit(hit("/events/1"));
+        statsClient.destroy();
+
+        // Assert
+        assertThat(statsClient.getFailedHits()).isEqualTo(1);
+        assertThat(statsClient.getSentHits()).isZero();
+        assertThat(deliveredBatches).isEmpty();
+    }
+
+    private void start(int queueCapacity, int batchSize, long flushIntervalMs) {
+        statsClient = new StatsClient(SERVER_URL, restTemplate, queueCapacity, batchSize, flushIntervalMs, 0);
+        statsClient.addDeliveryListener(deliveredBatches::add);
+        statsClient.afterPropertiesSet();
+    }
+
+    private EndpointHitDto hit(String uri) {
+        return EndpointHitDto.builder()
+                .app("ewm-main-service")
+                .uri(uri)
+                .ip("192.168.0.1")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
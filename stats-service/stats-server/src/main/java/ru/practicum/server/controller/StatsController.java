@@ -1,20 +1,32 @@
 package ru.practicum.server.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.dto.DateTimeFormatConstants;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.server.model.ApproximateStats;
 import ru.practicum.server.service.StatsService;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Validated
@@ -22,7 +34,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class StatsController {
 
+    private static final String STANDARD_ERROR_HEADER = "X-Stats-Standard-Error";
+
     private final StatsService statsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @PostMapping("/hit")
     @ResponseStatus(HttpStatus.CREATED)
@@ -33,21 +49,87 @@ public class StatsController {
         statsService.saveHit(endpointHitDto);
     }
 
+    @PostMapping(value = "/hit/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveHits(@RequestBody List<@Valid @NotNull EndpointHitDto> hits) {
+        log.info("POST /hit/batch: hits={}", hits.size());
+        statsService.saveHits(hits);
+    }
+
+    @PostMapping(value = "/hit/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public void saveHitStream(HttpServletRequest request) throws IOException {
+        try (MappingIterator<EndpointHitDto> lines = objectMapper
+                .readerFor(EndpointHitDto.class)
+                .readValues(request.getInputStream())) {
+            long saved = statsService.saveHits(validating(lines));
+            log.info("POST /hit/batch (ndjson): hits={}", saved);
+        }
+    }
+
+    /**
+     * Unique counts over ranges that cover whole hours are HyperLogLog estimates. With
+     * {@code approximate=true} the response carries the relative standard error of every count
+     * in the {@code X-Stats-Standard-Error} header, {@code 0} for exact counts.
+     */
     @GetMapping("/stats")
-    public List<ViewStatsDto> getStats(
+    public ResponseEntity<List<ViewStatsDto>> getStats(
             @RequestParam("start") @NotNull
             @DateTimeFormat(pattern = DateTimeFormatConstants.DATE_TIME_PATTERN) LocalDateTime start,
             @RequestParam("end") @NotNull
             @DateTimeFormat(pattern = DateTimeFormatConstants.DATE_TIME_PATTERN) LocalDateTime end,
             @RequestParam(value = "uris", required = false) List<String> uris,
-            @RequestParam(value = "unique", defaultValue = "false") Boolean unique) {
+            @RequestParam(value = "unique", defaultValue = "false") Boolean unique,
+            @RequestParam(value = "approximate", defaultValue = "false") Boolean approximate) {
 
-        log.info("GET /stats: start={}, end={}, uris={}, unique={}", start, end, uris, unique);
+        log.info("GET /stats: start={}, end={}, uris={}, unique={}, approximate={}",
+                start, end, uris, unique, approximate);
 
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("Start date must be before end date");
         }
 
-        return statsService.getStats(start, end, uris, unique);
+        if (Boolean.TRUE.equals(approximate)) {
+            ApproximateStats stats = statsService.getApproximateStats(start, end, uris, unique);
+            return ResponseEntity.ok()
+                    .header(STANDARD_ERROR_HEADER, String.valueOf(stats.getStandardError()))
+                    .body(stats.getStats());
+        }
+        return ResponseEntity.ok(statsService.getStats(start, end, uris, unique));
+    }
+
+    /**
+     * Wraps NDJSON lines so that every hit is parsed and validated lazily, while the
+     * service is already writing previous batches.
+     */
+    private Iterator<EndpointHitDto> validating(MappingIterator<EndpointHitDto> lines) {
+        return new Iterator<>() {
+            private long lineNumber;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return lines.hasNextValue();
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Malformed NDJSON after line " + lineNumber, e);
+                }
+            }
+
+            @Override
+            public EndpointHitDto next() {
+                EndpointHitDto hit;
+                try {
+                    hit = lines.nextValue();
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Malformed NDJSON at line " + (lineNumber + 1), e);
+                }
+                lineNumber++;
+                Set<ConstraintViolation<EndpointHitDto>> violations = validator.validate(hit);
+                if (!violations.isEmpty()) {
+                    throw new ConstraintViolationException("Invalid hit at line " + lineNumber, violations);
+                }
+                return hit;
+            }
+        };
     }
-}
\ No newline at end of file
+}
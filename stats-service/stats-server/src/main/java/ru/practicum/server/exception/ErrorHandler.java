@@ -1,7 +1,9 @@
 package ru.practicum.server.exception;
 
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -49,6 +51,23 @@ public class ErrorHandler {
                 .build();
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleConstraintViolationException(ConstraintViolationException e) {
+        String errors = e.getConstraintViolations().stream()
+                .map(violation -> String.format("Field: %s. Error: %s. Value: %s",
+                        violation.getPropertyPath(), violation.getMessage(), violation.getInvalidValue()))
+                .collect(Collectors.joining("; "));
+        log.warn("Нарушение ограничений валидации: {}", errors);
+        return ApiError.builder()
+                .errors(List.of(errors))
+                .message(e.getMessage())
+                .reason("Incorrectly made request.")
+                .status("BAD_REQUEST")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleMissingServletRequestParameterException(MissingServletRequestParameterException e) {
@@ -62,6 +81,19 @@ public class ErrorHandler {
                 .build();
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
+        log.warn("Некорректное тело запроса: {}", e.getMessage());
+        return ApiError.builder()
+                .errors(List.of(e.getMessage()))
+                .message("Request body is missing or malformed")
+                .reason("Incorrectly made request.")
+                .status("BAD_REQUEST")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ApiError handleException(Exception e) {
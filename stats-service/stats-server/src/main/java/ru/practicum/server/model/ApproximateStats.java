@@ -0,0 +1,18 @@
+package ru.practicum.server.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.dto.ViewStatsDto;
+
+import java.util.List;
+
+/**
+ * Stats whose unique counts are HyperLogLog estimates.
+ */
+@Getter
+@AllArgsConstructor
+public class ApproximateStats {
+    private List<ViewStatsDto> stats;
+    /** Relative standard error of every unique count, {@code 0} if the counts are exact. */
+    private double standardError;
+}
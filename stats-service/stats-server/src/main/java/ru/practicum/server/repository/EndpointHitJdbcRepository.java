@@ -0,0 +1,42 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.EndpointHitDto;
+
+import java.util.List;
+
+/**
+ * JDBC access for bulk hit ingestion.
+ * <p>
+ * {@code endpoint_hits} uses an identity key, so Hibernate cannot batch its inserts.
+ * This repository sends the rows as one JDBC batch; with {@code reWriteBatchedInserts=true}
+ * the PostgreSQL driver turns it into multi-row {@code INSERT ... VALUES} statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EndpointHitJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO endpoint_hits (app, uri, ip, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts hits as a single JDBC batch.
+     *
+     * @param hits hits to insert
+     */
+    public void batchInsert(List<EndpointHitDto> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, hits, hits.size(), (ps, hit) -> {
+            ps.setString(1, hit.getApp());
+            ps.setString(2, hit.getUri());
+            ps.setString(3, hit.getIp());
+            ps.setObject(4, hit.getTimestamp());
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for range partitions of {@code endpoint_hits} by {@code timestamp}.
+ * <p>
+ * Partition bounds are read back from the catalog, so partitions created with another
+ * granularity or by hand are respected. Rows that fall outside every range land in
+ * {@code endpoint_hits_default} and are moved out when a matching partition is created.
+ * Methods that change several objects must be called inside a transaction.
+ * <p>
+ * Several stats-server instances may maintain the same table; they serialize through
+ * {@link #lockMaintenance()} and must read the partition state only after taking it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+
+    public static final String PARENT_TABLE = "endpoint_hits";
+    public static final String DEFAULT_PARTITION = "endpoint_hits_default";
+    public static final String LEGACY_PARTITION = "endpoint_hits_legacy";
+
+    private static final DateTimeFormatter BOUND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private static final String FIND_PARTITIONS_SQL = """
+            SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass('endpoint_hits')
+            """;
+
+    private static final String MAINTENANCE_LOCK_SQL =
+            "SELECT pg_advisory_xact_lock(hashtext('endpoint_hits_partitions'))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Waits for the partition maintenance lock, which is held until the current transaction ends.
+     */
+    public void lockMaintenance() {
+        jdbcTemplate.execute(MAINTENANCE_LOCK_SQL);
+    }
+
+    /**
+     * Returns {@code true} if {@code endpoint_hits} is a partitioned table.
+     */
+    public boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass('endpoint_hits')", String.class);
+        return "p".equals(kind);
+    }
+
+    /**
+     * Turns an unpartitioned {@code endpoint_hits} into a partitioned one. The old table becomes
+     * the {@code endpoint_hits_legacy} partition covering everything before {@code legacyUpperBound},
+     * keeping its rows, indexes and id sequence. Takes an exclusive lock on the old table and
+     * validates its rows against the new bound once.
+     */
+    public void convertToPartitioned(LocalDateTime legacyUpperBound) {
+        String sequence = jdbcTemplate.queryForObject(
+                "SELECT pg_get_serial_sequence('endpoint_hits', 'id')", String.class);
+
+        jdbcTemplate.execute("ALTER TABLE endpoint_hits RENAME TO " + LEGACY_PARTITION);
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS endpoint_hits_pkey RENAME TO endpoint_hits_legacy_pkey");
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_endpoint_hits_timestamp"
+                + " RENAME TO idx_endpoint_hits_legacy_timestamp");
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_endpoint_hits_uri_timestamp"
+                + " RENAME TO idx_endpoint_hits_legacy_uri_timestamp");
+
+        String idDefault = sequence != null ? " DEFAULT nextval('" + sequence + "')" : "";
+        jdbcTemplate.execute("CREATE TABLE endpoint_hits ("
+                + " id BIGINT NOT NULL" + idDefault + ","
+                + " app VARCHAR(255) NOT NULL,"
+                + " uri VARCHAR(512) NOT NULL,"
+                + " ip VARCHAR(45) NOT NULL,"
+                + " timestamp TIMESTAMP NOT NULL,"
+                + " PRIMARY KEY (id, timestamp)"
+                + ") PARTITION BY RANGE (timestamp)");
+        if (sequence != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY endpoint_hits.id");
+        }
+        // Existing partition indexes with the same definition are attached instead of rebuilt
+        jdbcTemplate.execute("CREATE INDEX idx_endpoint_hits_timestamp ON endpoint_hits (timestamp)");
+        jdbcTemplate.execute("CREATE INDEX idx_endpoint_hits_uri_timestamp ON endpoint_hits (uri, timestamp)");
+        jdbcTemplate.execute("ALTER TABLE endpoint_hits ATTACH PARTITION " + LEGACY_PARTITION
+                + " FOR VALUES FROM (MINVALUE) TO (" + literal(legacyUpperBound) + ")");
+    }
+
+    /**
+     * Locks the unpartitioned table against writes and returns its latest hit time.
+     */
+    public LocalDateTime lockAndFindLatestHit() {
+        jdbcTemplate.execute("LOCK TABLE endpoint_hits IN ACCESS EXCLUSIVE MODE");
+        return jdbcTemplate.queryForObject("SELECT max(timestamp) FROM endpoint_hits", LocalDateTime.class);
+    }
+
+    public void createDefaultPartition() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION
+                + " PARTITION OF endpoint_hits DEFAULT");
+    }
+
+    public List<Partition> findPartitions() {
+        return jdbcTemplate.query(FIND_PARTITIONS_SQL, (rs, rowNum) ->
+                toPartition(rs.getString("name"), rs.getString("bound")));
+    }
+
+    /**
+     * Creates a partition for {@code [from, to)} and moves rows of that range out of the
+     * default partition. The default partition is locked for the rest of the transaction,
+     * so no row of the range can slip into it before the partition is attached.
+     */
+    public void createPartition(String name, LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE endpoint_hits INCLUDING DEFAULTS)");
+        jdbcTemplate.update("WITH moved AS ("
+                + " DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ? AND timestamp < ? RETURNING *"
+                + ") INSERT INTO " + name + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE endpoint_hits ATTACH PARTITION " + name
+                + " FOR VALUES FROM (" + literal(from) + ") TO (" + literal(to) + ")");
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE " + name);
+    }
+
+    /**
+     * Detaches a partition and keeps it as a standalone table for archiving.
+     */
+    public void detachPartition(String name, String archiveName) {
+        jdbcTemplate.execute("ALTER TABLE endpoint_hits DETACH PARTITION " + name);
+        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + archiveName);
+    }
+
+    private static Partition toPartition(String name, String bound) {
+        if ("DEFAULT".equals(bound)) {
+            return new Partition(name, null, null, true);
+        }
+        Matcher matcher = RANGE_BOUND.matcher(bound);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected partition bound of " + name + ": " + bound);
+        }
+        return new Partition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)), false);
+    }
+
+    private static LocalDateTime parseBound(String value) {
+        if ("MINVALUE".equals(value) || "MAXVALUE".equals(value)) {
+            return null;
+        }
+        return LocalDateTime.parse(value.replace("'", "").replace(' ', 'T'));
+    }
+
+    private static String literal(LocalDateTime value) {
+        return "'" + value.format(BOUND_FORMATTER) + "'";
+    }
+
+    /**
+     * A partition of {@code endpoint_hits}; {@code null} bounds stand for MINVALUE / MAXVALUE.
+     */
+    public record Partition(String name, LocalDateTime from, LocalDateTime to, boolean isDefault) {
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.ViewStatsDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Hourly rollups of endpoint hits.
+ * <p>
+ * {@code endpoint_hits_hourly} keeps the number of hits per (app, uri, hour) and
+ * {@code endpoint_hits_hourly_ips} keeps the distinct IP hashes seen in that hour until the
+ * hour's HyperLogLog sketch is built and the hashes are pruned. Both are updated in the same
+ * transaction as the raw insert, so a stats query can read whole hours from the rollups and
+ * only scan raw hits for the partial hours at the edges. Unique counts over whole hours are
+ * merged from the sketches by {@link HitSketchRepository}; a late hit into an hour marks its
+ * sketch for rebuilding.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitRollupRepository {
+
+    private static final String UPSERT_HOURLY_SQL = """
+            INSERT INTO endpoint_hits_hourly (app, uri, bucket_start, hits)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (uri, bucket_start, app)
+            DO UPDATE SET hits = endpoint_hits_hourly.hits + EXCLUDED.hits, sketch_pending = TRUE
+            """;
+
+    private static final String INSERT_IP_SQL = """
+            INSERT INTO endpoint_hits_hourly_ips (app, uri, bucket_start, ip_hash)
+            VALUES (?, ?, ?, hashtextextended(?, 0))
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String URI_FILTER = " AND uri IN (:uris)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Adds hits to the hourly rollups.
+     * <p>
+     * Rows are aggregated in memory first and written in key order, so concurrent
+     * batches lock rollup rows in the same order and cannot deadlock each other.
+     *
+     * @param hits hits that were just inserted into {@code endpoint_hits}
+     */
+    public void applyHits(List<EndpointHitDto> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        Map<BucketKey, Long> counts = new TreeMap<>();
+        TreeSet<BucketIp> ips = new TreeSet<>();
+        for (EndpointHitDto hit : hits) {
+            BucketKey key = new BucketKey(hit.getUri(), toBucket(hit.getTimestamp()), hit.getApp());
+            counts.merge(key, 1L, Long::sum);
+            ips.add(new BucketIp(key, hit.getIp()));
+        }
+
+        List<Map.Entry<BucketKey, Long>> countRows = new ArrayList<>(counts.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_HOURLY_SQL, countRows, countRows.size(), (ps, row) -> {
+            ps.setString(1, row.getKey().app());
+            ps.setString(2, row.getKey().uri());
+            ps.setObject(3, row.getKey().bucketStart());
+            ps.setLong(4, row.getValue());
+        });
+
+        List<BucketIp> ipRows = new ArrayList<>(ips);
+        jdbcTemplate.batchUpdate(INSERT_IP_SQL, ipRows, ipRows.size(), (ps, row) -> {
+            ps.setString(1, row.key().app());
+            ps.setString(2, row.key().uri());
+            ps.setObject(3, row.key().bucketStart());
+            ps.setString(4, row.ip());
+        });
+    }
+
+    /**
+     * Returns hit counts for {@code [start, end]} combining whole hours
+     * {@code [rollupFrom, rollupTo)} from rollups with raw hits at both edges.
+     *
+     * @param start      range start (inclusive)
+     * @param end        range end (inclusive)
+     * @param rollupFrom first whole hour, {@code start} rounded up to an hour
+     * @param rollupTo   end of the last whole hour, {@code end} rounded down to an hour
+     * @param uris       URI filter, {@code null} or empty for all URIs
+     * @return stats ordered by hits descending
+     */
+    public List<ViewStatsDto> findStats(LocalDateTime start,
+                                        LocalDateTime end,
+                                        LocalDateTime rollupFrom,
+                                        LocalDateTime rollupTo,
+                                        List<String> uris) {
+        boolean filterUris = uris != null && !uris.isEmpty();
+        String uriFilter = filterUris ? URI_FILTER : "";
+
+        String sql = "SELECT app, uri, SUM(val) AS hits FROM ("
+                + "SELECT app, uri, hits AS val FROM endpoint_hits_hourly"
+                + " WHERE bucket_start >= :rollupFrom AND bucket_start < :rollupTo" + uriFilter
+                + " UNION ALL "
+                + "SELECT app, uri, 1 AS val FROM endpoint_hits"
+                + " WHERE ((timestamp >= :start AND timestamp < :rollupFrom)"
+                + " OR (timestamp >= :rollupTo AND timestamp <= :end))" + uriFilter
+                + ") t GROUP BY app, uri ORDER BY hits DESC";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("rollupFrom", rollupFrom)
+                .addValue("rollupTo", rollupTo);
+        if (filterUris) {
+            params.addValue("uris", uris);
+        }
+
+        return namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> new ViewStatsDto(
+                rs.getString("app"),
+                rs.getString("uri"),
+                rs.getLong("hits")));
+    }
+
+    private static LocalDateTime toBucket(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private record BucketKey(String uri, LocalDateTime bucketStart, String app) implements Comparable<BucketKey> {
+
+        private static final Comparator<BucketKey> ORDER = Comparator
+                .comparing(BucketKey::uri)
+                .thenComparing(BucketKey::bucketStart)
+                .thenComparing(BucketKey::app);
+
+        @Override
+        public int compareTo(BucketKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record BucketIp(BucketKey key, String ip) implements Comparable<BucketIp> {
+
+        private static final Comparator<BucketIp> ORDER = Comparator
+                .comparing(BucketIp::key)
+                .thenComparing(BucketIp::ip);
+
+        @Override
+        public int compareTo(BucketIp other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
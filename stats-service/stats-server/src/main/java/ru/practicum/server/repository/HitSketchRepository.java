@@ -0,0 +1,223 @@
+package ru.practicum.server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.server.sketch.HyperLogLog;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HyperLogLog sketches of unique IPs per (app, uri, hour).
+ * <p>
+ * A sketch is kept in {@code endpoint_hits_hourly.ip_sketch} and is built from
+ * {@code endpoint_hits_hourly_ips} once the hour is closed. A new hit into the hour sets
+ * {@code sketch_pending}; until the sketch is rebuilt the hour is read as its stored sketch,
+ * if any, merged with its IP hashes on the fly. Rebuilding merges the stored sketch with the
+ * hashes, so the hashes of sketched hours can be pruned without losing earlier IPs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HitSketchRepository {
+
+    private static final String FIND_UNSKETCHED_SQL = """
+            SELECT app, uri, bucket_start, hits
+            FROM endpoint_hits_hourly
+            WHERE sketch_pending AND bucket_start < ?
+            ORDER BY bucket_start
+            LIMIT ?
+            """;
+
+    private static final String FIND_BUCKET_SKETCHES_SQL = """
+            SELECT app, uri, bucket_start, ip_sketch
+            FROM endpoint_hits_hourly
+            WHERE (uri, bucket_start, app) IN (:buckets) AND ip_sketch IS NOT NULL
+            """;
+
+    private static final String FIND_BUCKET_IPS_SQL = """
+            SELECT app, uri, bucket_start, ip_hash
+            FROM endpoint_hits_hourly_ips
+            WHERE (uri, bucket_start, app) IN (:buckets)
+            """;
+
+    private static final String SAVE_SKETCH_SQL = """
+            UPDATE endpoint_hits_hourly
+            SET ip_sketch = ?, sketch_pending = FALSE
+            WHERE uri = ? AND bucket_start = ? AND app = ? AND hits = ? AND sketch_pending
+            """;
+
+    private static final String PRUNE_IPS_SQL = """
+            DELETE FROM endpoint_hits_hourly_ips
+            WHERE (uri, bucket_start, app, ip_hash) IN (
+                SELECT i.uri, i.bucket_start, i.app, i.ip_hash
+                FROM endpoint_hits_hourly_ips i
+                JOIN endpoint_hits_hourly h
+                ON h.uri = i.uri AND h.bucket_start = i.bucket_start AND h.app = i.app
+                WHERE i.bucket_start < ? AND NOT h.sketch_pending
+                LIMIT ?)
+            """;
+
+    private static final String URI_FILTER = " AND uri IN (:uris)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns closed hours whose sketch is missing or misses late hits, oldest first.
+     *
+     * @param before start of the current (still open) hour
+     * @param limit  maximum number of hours to return
+     */
+    public List<Bucket> findUnsketchedBuckets(LocalDateTime before, int limit) {
+        return jdbcTemplate.query(FIND_UNSKETCHED_SQL, (rs, rowNum) -> new Bucket(
+                rs.getString("app"),
+                rs.getString("uri"),
+                rs.getObject("bucket_start", LocalDateTime.class),
+                rs.getLong("hits")), before, limit);
+    }
+
+    /**
+     * Builds sketches for the given hours from their IP hashes merged with the sketches already
+     * stored for them. A stored sketch with a lower precision lowers the precision of the result.
+     */
+    public Map<Bucket, HyperLogLog> buildSketches(List<Bucket> buckets, int precision) {
+        Map<BucketKey, Bucket> byKey = new HashMap<>();
+        Map<Bucket, HyperLogLog> sketches = new LinkedHashMap<>();
+        for (Bucket bucket : buckets) {
+            byKey.put(new BucketKey(bucket.app(), bucket.uri(), bucket.bucketStart()), bucket);
+            sketches.put(bucket, new HyperLogLog(precision));
+        }
+        if (buckets.isEmpty()) {
+            return sketches;
+        }
+
+        List<Object[]> keys = buckets.stream()
+                .map(bucket -> new Object[]{bucket.uri(), bucket.bucketStart(), bucket.app()})
+                .toList();
+        MapSqlParameterSource params = new MapSqlParameterSource("buckets", keys);
+        namedParameterJdbcTemplate.query(FIND_BUCKET_SKETCHES_SQL, params, (RowCallbackHandler) rs ->
+                sketches.merge(byKey.get(bucketKey(rs)), HyperLogLog.fromBytes(rs.getBytes("ip_sketch")),
+                        HitSketchRepository::union));
+        namedParameterJdbcTemplate.query(FIND_BUCKET_IPS_SQL, params, (RowCallbackHandler) rs ->
+                sketches.get(byKey.get(bucketKey(rs))).addHash(rs.getLong("ip_hash")));
+        return sketches;
+    }
+
+    /**
+     * Stores sketches. A sketch is only stored if no hit has arrived into its hour since
+     * the hour was read, which is detected by an unchanged hit count.
+     *
+     * @return number of stored sketches
+     */
+    public int saveSketches(Map<Bucket, HyperLogLog> sketches) {
+        List<Map.Entry<Bucket, HyperLogLog>> rows = List.copyOf(sketches.entrySet());
+        int[][] results = jdbcTemplate.batchUpdate(SAVE_SKETCH_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setBytes(1, row.getValue().toBytes());
+            ps.setString(2, row.getKey().uri());
+            ps.setObject(3, row.getKey().bucketStart());
+            ps.setString(4, row.getKey().app());
+            ps.setLong(5, row.getKey().hits());
+        });
+        return Arrays.stream(results).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+
+    /**
+     * Deletes up to {@code limit} IP hashes of hours before {@code before} whose sketch is up to date.
+     *
+     * @return number of deleted hashes
+     */
+    public int pruneIpHashes(LocalDateTime before, int limit) {
+        return jdbcTemplate.update(PRUNE_IPS_SQL, before, limit);
+    }
+
+    /**
+     * Merges unique-IP sketches per (app, uri) for {@code [start, end]}: stored sketches for
+     * whole hours {@code [rollupFrom, rollupTo)}, IP hashes for whole hours whose sketch is
+     * pending and raw hits for the partial hours at both edges.
+     * <p>
+     * Sketches stored with a lower precision than requested are merged by folding the
+     * accumulated sketch down, so the result may have a lower precision than {@code precision}.
+     */
+    public Map<AppUri, HyperLogLog> mergeSketches(LocalDateTime start,
+                                                  LocalDateTime end,
+                                                  LocalDateTime rollupFrom,
+                                                  LocalDateTime rollupTo,
+                                                  List<String> uris,
+                                                  int precision) {
+        boolean filterUris = uris != null && !uris.isEmpty();
+        String uriFilter = filterUris ? URI_FILTER : "";
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("rollupFrom", rollupFrom)
+                .addValue("rollupTo", rollupTo);
+        if (filterUris) {
+            params.addValue("uris", uris);
+        }
+
+        Map<AppUri, HyperLogLog> merged = new HashMap<>();
+
+        namedParameterJdbcTemplate.query("SELECT app, uri, ip_sketch FROM endpoint_hits_hourly"
+                + " WHERE bucket_start >= :rollupFrom AND bucket_start < :rollupTo"
+                + " AND ip_sketch IS NOT NULL" + uriFilter, params, rs -> {
+            HyperLogLog sketch = HyperLogLog.fromBytes(rs.getBytes("ip_sketch"));
+            merged.merge(new AppUri(rs.getString("app"), rs.getString("uri")), sketch, HitSketchRepository::union);
+        });
+
+        String hashSql = "SELECT i.app, i.uri, i.ip_hash AS val"
+                + " FROM endpoint_hits_hourly_ips i"
+                + " JOIN endpoint_hits_hourly h"
+                + " ON h.uri = i.uri AND h.bucket_start = i.bucket_start AND h.app = i.app"
+                + " WHERE h.sketch_pending"
+                + " AND i.bucket_start >= :rollupFrom AND i.bucket_start < :rollupTo"
+                + (filterUris ? " AND i.uri IN (:uris)" : "")
+                + " UNION ALL"
+                + " SELECT app, uri, hashtextextended(ip, 0) AS val FROM endpoint_hits"
+                + " WHERE ((timestamp >= :start AND timestamp < :rollupFrom)"
+                + " OR (timestamp >= :rollupTo AND timestamp <= :end))" + uriFilter;
+        namedParameterJdbcTemplate.query(hashSql, params, rs -> {
+            AppUri key = new AppUri(rs.getString("app"), rs.getString("uri"));
+            merged.computeIfAbsent(key, k -> new HyperLogLog(precision)).addHash(rs.getLong("val"));
+        });
+        return merged;
+    }
+
+    private static BucketKey bucketKey(ResultSet rs) throws SQLException {
+        return new BucketKey(
+                rs.getString("app"),
+                rs.getString("uri"),
+                rs.getObject("bucket_start", LocalDateTime.class));
+    }
+
+    private static HyperLogLog union(HyperLogLog left, HyperLogLog right) {
+        if (left.getPrecision() > right.getPrecision()) {
+            HyperLogLog folded = left.foldTo(right.getPrecision());
+            folded.merge(right);
+            return folded;
+        }
+        left.merge(right);
+        return left;
+    }
+
+    /**
+     * An hourly bucket together with the hit count it had when it was read.
+     */
+    public record Bucket(String app, String uri, LocalDateTime bucketStart, long hits) {
+    }
+
+    public record AppUri(String app, String uri) {
+    }
+
+    private record BucketKey(String app, String uri, LocalDateTime bucketStart) {
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.server.repository.HitPartitionRepository;
+import ru.practicum.server.repository.HitPartitionRepository.Partition;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Maintains time partitions of {@code endpoint_hits}.
+ * <p>
+ * On startup an unpartitioned table left from older versions is converted in place. Then,
+ * and on every scheduled run, partitions for the current period and
+ * {@code stats.partitions.premake} periods ahead are created, and partitions that ended more
+ * than {@code stats.partitions.retention-days} ago are dropped or detached as a whole.
+ * Hourly rollups are not affected by retention and keep the aggregated history.
+ * <p>
+ * Every step takes the maintenance lock and reads the partitions inside it, so instances
+ * starting or running maintenance at the same time do not convert or create twice. A failed
+ * step is logged and does not prevent the remaining ones.
+ */
+@Slf4j
+@Component
+public class HitPartitionManager implements InitializingBean {
+
+    private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final HitPartitionRepository hitPartitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Granularity granularity;
+    private final int premake;
+    private final int retentionDays;
+    private final RetentionAction retentionAction;
+
+    public HitPartitionManager(HitPartitionRepository hitPartitionRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${stats.partitions.granularity:MONTH}") Granularity granularity,
+                               @Value("${stats.partitions.premake:2}") int premake,
+                               @Value("${stats.partitions.retention-days:0}") int retentionDays,
+                               @Value("${stats.partitions.retention-action:DROP}") RetentionAction retentionAction) {
+        if (premake < 0 || retentionDays < 0) {
+            throw new IllegalArgumentException("Invalid stats.partitions.* configuration");
+        }
+        this.hitPartitionRepository = hitPartitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.granularity = granularity;
+        this.premake = premake;
+        this.retentionDays = retentionDays;
+        this.retentionAction = retentionAction;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Состояние читается только под блокировкой: другой экземпляр мог уже перевести таблицу
+            hitPartitionRepository.lockMaintenance();
+            if (!hitPartitionRepository.isPartitioned()) {
+                LocalDateTime latest = hitPartitionRepository.lockAndFindLatestHit();
+                LocalDateTime upperBound = granularity.periodStart(LocalDateTime.now());
+                if (latest != null && !latest.isBefore(upperBound)) {
+                    upperBound = granularity.next(granularity.periodStart(latest));
+                }
+                hitPartitionRepository.convertToPartitioned(upperBound);
+                log.info("Таблица endpoint_hits переведена на партиционирование, старые данные до {}", upperBound);
+            }
+            hitPartitionRepository.createDefaultPartition();
+        });
+        maintain();
+    }
+
+    @Scheduled(cron = "${stats.partitions.maintenance-cron:0 5 * * * *}")
+    public void maintain() {
+        createAheadPartitions();
+        if (retentionDays > 0) {
+            applyRetention();
+        }
+    }
+
+    private void createAheadPartitions() {
+        LocalDateTime periodStart = granularity.periodStart(LocalDateTime.now());
+        for (int i = 0; i <= premake; i++) {
+            LocalDateTime periodEnd = granularity.next(periodStart);
+            try {
+                createPartition(periodStart, periodEnd);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось создать раздел для просмотров с {} по {}: {}",
+                        periodStart, periodEnd, e.getMessage());
+            }
+            periodStart = periodEnd;
+        }
+    }
+
+    /**
+     * Creates a partition for the part of {@code [from, to)} not covered yet, so that
+     * partitions created with another granularity are neither overlapped nor duplicated.
+     */
+    private void createPartition(LocalDateTime from, LocalDateTime to) {
+        Partition created = transactionTemplate.execute(status -> {
+            hitPartitionRepository.lockMaintenance();
+            return createUncoveredPartition(from, to);
+        });
+        if (created != null) {
+            log.info("Создан раздел {} для просмотров с {} по {}", created.name(), created.from(), created.to());
+        }
+    }
+
+    private Partition createUncoveredPartition(LocalDateTime from, LocalDateTime to) {
+        List<Partition> partitions = hitPartitionRepository.findPartitions();
+        LocalDateTime start = from;
+        LocalDateTime end = to;
+        boolean covered = true;
+        while (covered && start.isBefore(end)) {
+            covered = false;
+            for (Partition partition : partitions) {
+                if (!partition.isDefault() && contains(partition, start)) {
+                    start = partition.to() == null ? end : partition.to();
+                    covered = true;
+                }
+            }
+        }
+        for (Partition partition : partitions) {
+            if (!partition.isDefault() && partition.from() != null
+                    && partition.from().isAfter(start) && partition.from().isBefore(end)) {
+                end = partition.from();
+            }
+        }
+        if (!start.isBefore(end)) {
+            return null;
+        }
+
+        String name = HitPartitionRepository.PARENT_TABLE + "_p" + start.format(NAME_FORMATTER);
+        hitPartitionRepository.createPartition(name, start, end);
+        return new Partition(name, start, end, false);
+    }
+
+    private void applyRetention() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        for (Partition partition : hitPartitionRepository.findPartitions()) {
+            if (!isExpired(partition, cutoff)) {
+                continue;
+            }
+            try {
+                Boolean applied = transactionTemplate.execute(status -> {
+                    hitPartitionRepository.lockMaintenance();
+                    // Раздел мог быть уже удалён или отсоединён другим экземпляром
+                    if (!hitPartitionRepository.findPartitions().contains(partition)) {
+                        return false;
+                    }
+                    if (retentionAction == RetentionAction.DETACH) {
+                        String archiveName = partition.name().replaceFirst(
+                                "^" + HitPartitionRepository.PARENT_TABLE + "_",
+                                HitPartitionRepository.PARENT_TABLE + "_archive_");
+                        hitPartitionRepository.detachPartition(partition.name(), archiveName);
+                    } else {
+                        hitPartitionRepository.dropPartition(partition.name());
+                    }
+                    return true;
+                });
+                if (Boolean.TRUE.equals(applied)) {
+                    log.info("Раздел {} старше {} дней: {}", partition.name(), retentionDays, retentionAction);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Не удалось применить {} к разделу {}: {}", retentionAction, partition.name(), e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isExpired(Partition partition, LocalDateTime cutoff) {
+        return !partition.isDefault() && partition.to() != null && !partition.to().isAfter(cutoff);
+    }
+
+    private static boolean contains(Partition partition, LocalDateTime value) {
+        boolean afterFrom = partition.from() == null || !value.isBefore(partition.from());
+        boolean beforeTo = partition.to() == null || value.isBefore(partition.to());
+        return afterFrom && beforeTo;
+    }
+
+    /**
+     * Length of one partition.
+     */
+    public enum Granularity {
+        DAY,
+        MONTH;
+
+        LocalDateTime periodStart(LocalDateTime value) {
+            LocalDateTime day = value.truncatedTo(ChronoUnit.DAYS);
+            return this == DAY ? day : day.withDayOfMonth(1);
+        }
+
+        LocalDateTime next(LocalDateTime periodStart) {
+            return this == DAY ? periodStart.plusDays(1) : periodStart.plusMonths(1);
+        }
+    }
+
+    /**
+     * What happens to a partition that is older than the retention period.
+     */
+    public enum RetentionAction {
+        /** The partition and its rows are deleted. */
+        DROP,
+        /** The partition is detached and kept as an {@code endpoint_hits_archive_*} table. */
+        DETACH
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.repository.HitSketchRepository;
+import ru.practicum.server.repository.HitSketchRepository.Bucket;
+import ru.practicum.server.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds HyperLogLog sketches for closed hours in the background.
+ * <p>
+ * Hours are processed oldest first, so after an upgrade the whole history is sketched
+ * gradually. Hours that receive late hits are sketched again, merging the stored sketch.
+ * IP hashes of sketched hours older than {@code stats.hll.ip-hash-retention-hours} are then
+ * deleted in chunks of {@code stats.hll.prune-batch-size}.
+ */
+@Slf4j
+@Component
+public class HitSketchCompactor {
+
+    private final HitSketchRepository hitSketchRepository;
+    private final int precision;
+    private final int batchSize;
+    private final int ipHashRetentionHours;
+    private final int pruneBatchSize;
+
+    public HitSketchCompactor(HitSketchRepository hitSketchRepository,
+                              @Value("${stats.hll.precision:14}") int precision,
+                              @Value("${stats.hll.compaction-batch-size:500}") int batchSize,
+                              @Value("${stats.hll.ip-hash-retention-hours:24}") int ipHashRetentionHours,
+                              @Value("${stats.hll.prune-batch-size:10000}") int pruneBatchSize) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("stats.hll.precision must be between "
+                    + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("stats.hll.compaction-batch-size must be positive");
+        }
+        if (ipHashRetentionHours < 0 || pruneBatchSize <= 0) {
+            throw new IllegalArgumentException("Invalid stats.hll.ip-hash-retention-hours or stats.hll.prune-batch-size");
+        }
+        this.hitSketchRepository = hitSketchRepository;
+        this.precision = precision;
+        this.batchSize = batchSize;
+        this.ipHashRetentionHours = ipHashRetentionHours;
+        this.pruneBatchSize = pruneBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${stats.hll.compaction-interval-ms:60000}")
+    public void compact() {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        int total = 0;
+        while (true) {
+            List<Bucket> buckets = hitSketchRepository.findUnsketchedBuckets(currentHour, batchSize);
+            if (buckets.isEmpty()) {
+                break;
+            }
+            Map<Bucket, HyperLogLog> sketches = hitSketchRepository.buildSketches(buckets, precision);
+            int saved = hitSketchRepository.saveSketches(sketches);
+            total += saved;
+            // Stop if the batch was the last one or every hour was changed concurrently
+            if (buckets.size() < batchSize || saved == 0) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.debug("Построено HLL-скетчей за закрытые часы: {}", total);
+        }
+        pruneIpHashes(currentHour.minusHours(ipHashRetentionHours));
+    }
+
+    private void pruneIpHashes(LocalDateTime before) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = hitSketchRepository.pruneIpHashes(before, pruneBatchSize);
+            total += deleted;
+        } while (deleted == pruneBatchSize);
+        if (total > 0) {
+            log.debug("Удалено хешей IP за часы со скетчами: {}", total);
+        }
+    }
+}
@@ -2,17 +2,48 @@ package ru.practicum.server.service;
 
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.server.model.ApproximateStats;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 public interface StatsService {
 
     void saveHit(EndpointHitDto endpointHitDto);
 
+    /**
+     * Saves a batch of hits in a single transaction.
+     *
+     * @param hits hits to save
+     * @return number of saved hits
+     */
+    long saveHits(List<EndpointHitDto> hits);
+
+    /**
+     * Saves a stream of hits in a single transaction, inserting them in JDBC batches
+     * so that the whole stream never has to be held in memory.
+     *
+     * @param hits hits to save, consumed exactly once
+     * @return number of saved hits
+     */
+    long saveHits(Iterator<EndpointHitDto> hits);
+
+    /**
+     * Returns hit counts, or unique IP counts if {@code unique} is set. Unique counts over a
+     * range that covers whole hours are HyperLogLog estimates merged from hourly sketches.
+     */
     List<ViewStatsDto> getStats(LocalDateTime start,
                                 LocalDateTime end,
                                 List<String> uris,
                                 Boolean unique);
-}
 
+    /**
+     * Returns the same stats as {@link #getStats} together with the relative standard error of
+     * their unique counts. Total hit counts and ranges shorter than a whole hour are exact.
+     */
+    ApproximateStats getApproximateStats(LocalDateTime start,
+                                         LocalDateTime end,
+                                         List<String> uris,
+                                         Boolean unique);
+}
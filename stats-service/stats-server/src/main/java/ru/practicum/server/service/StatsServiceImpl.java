@@ -1,30 +1,73 @@
 package ru.practicum.server.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.EndpointHitDto;
 import ru.practicum.dto.ViewStatsDto;
-import ru.practicum.server.mapper.StatsMapper;
-import ru.practicum.server.model.EndpointHit;
+import ru.practicum.server.repository.EndpointHitJdbcRepository;
+import ru.practicum.server.model.ApproximateStats;
+import ru.practicum.server.repository.HitRollupRepository;
+import ru.practicum.server.repository.HitSketchRepository;
+import ru.practicum.server.repository.HitSketchRepository.AppUri;
 import ru.practicum.server.repository.StatsRepository;
+import ru.practicum.server.sketch.HyperLogLog;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class StatsServiceImpl implements StatsService {
 
     private final StatsRepository statsRepository;
-    private final StatsMapper statsMapper;
+    private final EndpointHitJdbcRepository endpointHitJdbcRepository;
+    private final HitRollupRepository hitRollupRepository;
+    private final HitSketchRepository hitSketchRepository;
+
+    /** Number of rows sent to the database in one JDBC batch. */
+    @Value("${stats.ingest.jdbc-batch-size:1000}")
+    private int jdbcBatchSize = 1000;
+
+    /** Precision of HyperLogLog sketches built for approximate unique counts. */
+    @Value("${stats.hll.precision:14}")
+    private int hllPrecision = 14;
 
     @Override
     @Transactional
     public void saveHit(EndpointHitDto endpointHitDto) {
-        EndpointHit endpointHit = statsMapper.toEntity(endpointHitDto);
-        statsRepository.save(endpointHit);
+        saveHits(List.of(endpointHitDto));
+    }
+
+    @Override
+    @Transactional
+    public long saveHits(List<EndpointHitDto> hits) {
+        return saveHits(hits.iterator());
+    }
+
+    @Override
+    @Transactional
+    public long saveHits(Iterator<EndpointHitDto> hits) {
+        List<EndpointHitDto> chunk = new ArrayList<>(Math.max(1, jdbcBatchSize));
+        long saved = 0;
+        while (hits.hasNext()) {
+            chunk.add(hits.next());
+            if (chunk.size() >= jdbcBatchSize) {
+                saved += flush(chunk);
+            }
+        }
+        saved += flush(chunk);
+        log.debug("Сохранено просмотров: {}", saved);
+        return saved;
     }
 
     @Override
@@ -32,9 +75,61 @@ public class StatsServiceImpl implements StatsService {
                                        LocalDateTime end,
                                        List<String> uris,
                                        Boolean unique) {
+        // Whole hours inside the range are answered from hourly rollups, the edges from raw hits
+        LocalDateTime rollupFrom = ceilToHour(start);
+        LocalDateTime rollupTo = end.truncatedTo(ChronoUnit.HOURS);
+        if (rollupFrom.isBefore(rollupTo)) {
+            return Boolean.TRUE.equals(unique)
+                    ? estimateUnique(start, end, rollupFrom, rollupTo, uris).getStats()
+                    : hitRollupRepository.findStats(start, end, rollupFrom, rollupTo, uris);
+        }
+
         if (Boolean.TRUE.equals(unique)) {
             return statsRepository.findStatsUnique(start, end, uris);
         }
         return statsRepository.findStats(start, end, uris);
     }
+
+    @Override
+    public ApproximateStats getApproximateStats(LocalDateTime start,
+                                                LocalDateTime end,
+                                                List<String> uris,
+                                                Boolean unique) {
+        LocalDateTime rollupFrom = ceilToHour(start);
+        LocalDateTime rollupTo = end.truncatedTo(ChronoUnit.HOURS);
+        if (!Boolean.TRUE.equals(unique) || !rollupFrom.isBefore(rollupTo)) {
+            return new ApproximateStats(getStats(start, end, uris, unique), 0.0);
+        }
+        return estimateUnique(start, end, rollupFrom, rollupTo, uris);
+    }
+
+    private ApproximateStats estimateUnique(LocalDateTime start,
+                                            LocalDateTime end,
+                                            LocalDateTime rollupFrom,
+                                            LocalDateTime rollupTo,
+                                            List<String> uris) {
+        Map<AppUri, HyperLogLog> sketches =
+                hitSketchRepository.mergeSketches(start, end, rollupFrom, rollupTo, uris, hllPrecision);
+        int precision = hllPrecision;
+        List<ViewStatsDto> stats = new ArrayList<>(sketches.size());
+        for (Map.Entry<AppUri, HyperLogLog> entry : sketches.entrySet()) {
+            stats.add(new ViewStatsDto(entry.getKey().app(), entry.getKey().uri(), entry.getValue().estimate()));
+            precision = Math.min(precision, entry.getValue().getPrecision());
+        }
+        stats.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+        return new ApproximateStats(stats, HyperLogLog.standardError(precision));
+    }
+
+    private int flush(List<EndpointHitDto> chunk) {
+        int size = chunk.size();
+        endpointHitJdbcRepository.batchInsert(chunk);
+        hitRollupRepository.applyHits(chunk);
+        chunk.clear();
+        return size;
+    }
+
+    private LocalDateTime ceilToHour(LocalDateTime value) {
+        LocalDateTime floor = value.truncatedTo(ChronoUnit.HOURS);
+        return floor.equals(value) ? floor : floor.plusHours(1);
+    }
 }
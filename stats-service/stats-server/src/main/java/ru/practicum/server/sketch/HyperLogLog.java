@@ -0,0 +1,209 @@
+package ru.practicum.server.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog cardinality sketch over 64-bit hashes.
+ * <p>
+ * A sketch with precision {@code p} keeps {@code 2^p} one-byte registers and estimates
+ * the number of distinct values with a relative standard error of {@code 1.04 / sqrt(2^p)}.
+ * Sketches are mergeable: the union of two sets is the register-wise maximum, and sketches
+ * with different precision are merged by folding the finer one down to the coarser one.
+ * <p>
+ * The serialized form starts with a precision byte and an encoding byte. Sketches with few
+ * non-empty registers are stored sparsely as {@code (index, rank)} pairs, so an hour that saw
+ * a handful of IPs costs a few bytes instead of the full register array.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final byte DENSE = 0;
+    private static final byte SPARSE = 1;
+    private static final int HEADER_SIZE = 2;
+    private static final int SPARSE_ENTRY_SIZE = 3;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between "
+                    + MIN_PRECISION + " and " + MAX_PRECISION + ", got " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Relative standard error of the estimate for the given precision.
+     */
+    public static double standardError(int precision) {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    /**
+     * Adds a value given by its 64-bit hash. The hash is re-mixed first, so inputs with
+     * weak low bits (for example database hash functions) still spread over all registers.
+     */
+    public void addHash(long hash) {
+        long mixed = mix(hash);
+        int index = (int) (mixed >>> (64 - precision));
+        long rest = mixed << precision;
+        int rank = rest == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(rest) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Merges another sketch into this one. The other sketch must not be finer than this one;
+     * use {@link #foldTo(int)} on this sketch first otherwise.
+     */
+    public void merge(HyperLogLog other) {
+        HyperLogLog source = other.precision == precision ? other : other.foldTo(precision);
+        for (int i = 0; i < registers.length; i++) {
+            if (source.registers[i] > registers[i]) {
+                registers[i] = source.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Returns a coarser copy of this sketch, as if it had been built with the given precision.
+     */
+    public HyperLogLog foldTo(int targetPrecision) {
+        if (targetPrecision > precision) {
+            throw new IllegalArgumentException("Cannot fold a sketch of precision " + precision
+                    + " up to " + targetPrecision);
+        }
+        HyperLogLog folded = new HyperLogLog(targetPrecision);
+        int shift = precision - targetPrecision;
+        int lowMask = (1 << shift) - 1;
+        for (int i = 0; i < registers.length; i++) {
+            if (registers[i] == 0) {
+                continue;
+            }
+            int lowBits = i & lowMask;
+            // The index bits dropped by folding become the leading bits of the rank
+            int rank = lowBits == 0
+                    ? shift + registers[i]
+                    : Integer.numberOfLeadingZeros(lowBits) - (32 - shift) + 1;
+            int target = i >>> shift;
+            if (rank > folded.registers[target]) {
+                folded.registers[target] = (byte) rank;
+            }
+        }
+        return folded;
+    }
+
+    /**
+     * Estimated number of distinct values added to the sketch.
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonEmpty++;
+            }
+        }
+        if (nonEmpty * SPARSE_ENTRY_SIZE < registers.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + nonEmpty * SPARSE_ENTRY_SIZE);
+            buffer.put((byte) precision).put(SPARSE);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    buffer.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+        byte[] bytes = new byte[HEADER_SIZE + registers.length];
+        bytes[0] = (byte) precision;
+        bytes[1] = DENSE;
+        System.arraycopy(registers, 0, bytes, HEADER_SIZE, registers.length);
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Malformed HyperLogLog sketch");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        HyperLogLog sketch = new HyperLogLog(buffer.get());
+        byte encoding = buffer.get();
+        if (encoding == DENSE && buffer.remaining() == sketch.registers.length) {
+            buffer.get(sketch.registers);
+        } else if (encoding == SPARSE && buffer.remaining() % SPARSE_ENTRY_SIZE == 0) {
+            while (buffer.hasRemaining()) {
+                int index = Short.toUnsignedInt(buffer.getShort());
+                if (index >= sketch.registers.length) {
+                    throw new IllegalArgumentException("Malformed HyperLogLog sketch");
+                }
+                sketch.registers[index] = buffer.get();
+            }
+        } else {
+            throw new IllegalArgumentException("Malformed HyperLogLog sketch");
+        }
+        return sketch;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HyperLogLog other)) {
+            return false;
+        }
+        return precision == other.precision && Arrays.equals(registers, other.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * precision + Arrays.hashCode(registers);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    /** MurmurHash3 64-bit finalizer. */
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb3fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
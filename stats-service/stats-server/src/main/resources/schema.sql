@@ -1,10 +1,61 @@
+-- Просмотры партиционированы по времени; разделы создаёт и удаляет HitPartitionManager,
+-- он же переводит на партиционирование таблицу, созданную прежними версиями
 CREATE TABLE IF NOT EXISTS endpoint_hits (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     app VARCHAR(255) NOT NULL,
     uri VARCHAR(512) NOT NULL,
     ip VARCHAR(45) NOT NULL,
-    timestamp TIMESTAMP NOT NULL
-);
+    timestamp TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
 
 CREATE INDEX IF NOT EXISTS idx_endpoint_hits_timestamp ON endpoint_hits (timestamp);
 CREATE INDEX IF NOT EXISTS idx_endpoint_hits_uri_timestamp ON endpoint_hits (uri, timestamp);
+
+-- Почасовые агрегаты просмотров: сколько раз (app, uri) запрашивался в течение часа
+CREATE TABLE IF NOT EXISTS endpoint_hits_hourly (
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    hits BIGINT NOT NULL,
+    PRIMARY KEY (uri, bucket_start, app)
+);
+
+CREATE INDEX IF NOT EXISTS idx_endpoint_hits_hourly_bucket ON endpoint_hits_hourly (bucket_start);
+
+-- HyperLogLog-скетч уникальных IP за закрытый час; NULL, пока скетч не построен
+ALTER TABLE endpoint_hits_hourly ADD COLUMN IF NOT EXISTS ip_sketch BYTEA;
+
+-- Скетч нужно построить: час новый или получил просмотры после построения скетча
+ALTER TABLE endpoint_hits_hourly ADD COLUMN IF NOT EXISTS sketch_pending BOOLEAN NOT NULL DEFAULT TRUE;
+
+DROP INDEX IF EXISTS idx_endpoint_hits_hourly_unsketched;
+
+CREATE INDEX IF NOT EXISTS idx_endpoint_hits_hourly_sketch_pending ON endpoint_hits_hourly (bucket_start)
+    WHERE sketch_pending;
+
+-- Уникальные IP за час в компактном виде: 64-битный хэш адреса вместо строки, без повторов внутри часа;
+-- хранятся, пока за час не построен скетч, и ещё stats.hll.ip-hash-retention-hours после этого
+CREATE TABLE IF NOT EXISTS endpoint_hits_hourly_ips (
+    app VARCHAR(255) NOT NULL,
+    uri VARCHAR(512) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    ip_hash BIGINT NOT NULL,
+    PRIMARY KEY (uri, bucket_start, app, ip_hash)
+);
+
+CREATE INDEX IF NOT EXISTS idx_endpoint_hits_hourly_ips_bucket ON endpoint_hits_hourly_ips (bucket_start);
+
+-- Однократное заполнение агрегатов по уже накопленным просмотрам
+INSERT INTO endpoint_hits_hourly (app, uri, bucket_start, hits)
+SELECT app, uri, date_trunc('hour', timestamp), COUNT(*)
+FROM endpoint_hits
+WHERE NOT EXISTS (SELECT 1 FROM endpoint_hits_hourly)
+GROUP BY app, uri, date_trunc('hour', timestamp)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO endpoint_hits_hourly_ips (app, uri, bucket_start, ip_hash)
+SELECT DISTINCT app, uri, date_trunc('hour', timestamp), hashtextextended(ip, 0)
+FROM endpoint_hits
+WHERE NOT EXISTS (SELECT 1 FROM endpoint_hits_hourly_ips)
+ON CONFLICT DO NOTHING;
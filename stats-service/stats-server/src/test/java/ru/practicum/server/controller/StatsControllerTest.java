@@ -0,0 +1,194 @@
+package ru.practicum.server.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.server.service.StatsService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MockMvc tests for the bulk hit endpoint of {@link StatsController}.
+ */
+@WebMvcTest(StatsController.class)
+@DisplayName("StatsController Web Tests")
+class StatsControllerTest {
+
+    private static final String FIRST_HIT = """
+            {"app":"ewm-main-service","uri":"/events/1","ip":"10.0.0.1","timestamp":"2030-01-01 10:00:00"}""";
+    private static final String SECOND_HIT = """
+            {"app":"ewm-main-service","uri":"/events/2","ip":"10.0.0.2","timestamp":"2030-01-01 10:05:00"}""";
+    private static final String BLANK_IP_HIT = """
+            {"app":"ewm-main-service","uri":"/events/3","ip":"","timestamp":"2030-01-01 10:10:00"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private StatsService statsService;
+
+    @Nested
+    @DisplayName("POST /hit/batch (JSON)")
+    class JsonBatchTests {
+
+        @Test
+        @DisplayName("Должен сохранить массив просмотров одним вызовом сервиса")
+        @SuppressWarnings("unchecked")
+        void saveHits_JsonArray_Saved() throws Exception {
+            // Action
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + FIRST_HIT + "," + SECOND_HIT + "]"))
+                    .andExpect(status().isCreated());
+
+            // Assert
+            ArgumentCaptor<List<EndpointHitDto>> hits = ArgumentCaptor.forClass(List.class);
+            verify(statsService).saveHits(hits.capture());
+            assertThat(hits.getValue()).extracting(EndpointHitDto::getUri).containsExactly("/events/1", "/events/2");
+            assertThat(hits.getValue().get(0).getTimestamp()).isEqualTo(LocalDateTime.of(2030, 1, 1, 10, 0));
+        }
+
+        @Test
+        @DisplayName("Должен вернуть 400 и ничего не сохранять, если один из элементов некорректен")
+        void saveHits_InvalidElement_BadRequest() throws Exception {
+            // Action & Assert
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + FIRST_HIT + "," + BLANK_IP_HIT + "]"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+
+            verify(statsService, never()).saveHits(anyList());
+        }
+
+        @Test
+        @DisplayName("Должен принять пустой массив")
+        void saveHits_EmptyArray_Created() throws Exception {
+            // Action
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isCreated());
+
+            // Assert
+            verify(statsService).saveHits(List.of());
+        }
+
+        @Test
+        @DisplayName("Должен вернуть 400 на пустое тело")
+        void saveHits_EmptyBody_BadRequest() throws Exception {
+            // Action & Assert
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(""))
+                    .andExpect(status().isBadRequest());
+
+            verify(statsService, never()).saveHits(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /hit/batch (NDJSON)")
+    class NdjsonStreamTests {
+
+        @Test
+        @DisplayName("Должен передать сервису поток просмотров построчно")
+        void saveHitStream_Lines_Saved() throws Exception {
+            // Setup
+            List<EndpointHitDto> consumed = drainStream();
+
+            // Action
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(FIRST_HIT + "\n" + SECOND_HIT + "\n"))
+                    .andExpect(status().isCreated());
+
+            // Assert
+            assertThat(consumed).extracting(EndpointHitDto::getUri).containsExactly("/events/1", "/events/2");
+        }
+
+        @Test
+        @DisplayName("Должен вернуть 400 с номером строки, если просмотр в потоке некорректен")
+        void saveHitStream_InvalidLine_BadRequest() throws Exception {
+            // Setup
+            List<EndpointHitDto> consumed = drainStream();
+
+            // Action
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(FIRST_HIT + "\n" + BLANK_IP_HIT + "\n" + SECOND_HIT + "\n"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid hit at line 2"));
+
+            // Assert
+            assertThat(consumed).extracting(EndpointHitDto::getUri).containsExactly("/events/1");
+        }
+
+        @Test
+        @DisplayName("Должен вернуть 400 с номером строки на некорректный JSON в потоке")
+        void saveHitStream_MalformedLine_BadRequest() throws Exception {
+            // Setup
+            drainStream();
+
+            // Action & Assert
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(FIRST_HIT + "\n{\"app\": \n"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Malformed NDJSON at line 2"));
+        }
+
+        @Test
+        @DisplayName("Должен принять пустой поток")
+        void saveHitStream_EmptyBody_Created() throws Exception {
+            // Setup
+            List<EndpointHitDto> consumed = drainStream();
+
+            // Action
+            mockMvc.perform(post("/hit/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(""))
+                    .andExpect(status().isCreated());
+
+            // Assert
+            assertThat(consumed).isEmpty();
+        }
+
+        /**
+         * Makes the stubbed service consume the stream the way the real one does and
+         * collects the hits it has read.
+         */
+        @SuppressWarnings("unchecked")
+        private List<EndpointHitDto> drainStream() {
+            List<EndpointHitDto> consumed = new ArrayList<>();
+            when(statsService.saveHits(any(Iterator.class))).thenAnswer(invocation -> {
+                Iterator<EndpointHitDto> hits = invocation.getArgument(0);
+                while (hits.hasNext()) {
+                    consumed.add(hits.next());
+                }
+                return (long) consumed.size();
+            });
+            return consumed;
+        }
+    }
+}
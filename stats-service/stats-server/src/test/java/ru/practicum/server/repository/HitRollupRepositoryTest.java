@@ -0,0 +1,213 @@
+package ru.practicum.server.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.ViewStatsDto;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link HitRollupRepository}; the SQL itself targets PostgreSQL, so the
+ * generated statements and their parameters are checked against stubbed JDBC templates.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HitRollupRepository Unit Tests")
+class HitRollupRepositoryTest {
+
+    private static final String APP = "ewm-main-service";
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 30);
+    private static final LocalDateTime END = LocalDateTime.of(2030, 1, 1, 13, 15);
+    private static final LocalDateTime ROLLUP_FROM = LocalDateTime.of(2030, 1, 1, 11, 0);
+    private static final LocalDateTime ROLLUP_TO = LocalDateTime.of(2030, 1, 1, 13, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @InjectMocks
+    private HitRollupRepository hitRollupRepository;
+
+    @Nested
+    @DisplayName("findStats")
+    class FindStatsTests {
+
+        @Test
+        @DisplayName("Должен сложить целые часы из агрегатов с сырыми просмотрами краёв диапазона")
+        @SuppressWarnings("unchecked")
+        void findStats_CombinesWholeHoursWithRawEdges() {
+            // Setup
+            List<ViewStatsDto> expected = List.of(new ViewStatsDto(APP, "/events/1", 42L));
+            when(namedParameterJdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                    .thenReturn(expected);
+
+            // Action
+            List<ViewStatsDto> stats = hitRollupRepository.findStats(START, END, ROLLUP_FROM, ROLLUP_TO, null);
+
+            // Assert
+            assertThat(stats).isEqualTo(expected);
+            Query query = capturedQuery();
+            assertThat(query.sql())
+                    .contains("SUM(val) AS hits")
+                    .contains("hits AS val FROM endpoint_hits_hourly"
+                            + " WHERE bucket_start >= :rollupFrom AND bucket_start < :rollupTo")
+                    .contains("(timestamp >= :start AND timestamp < :rollupFrom)")
+                    .contains("(timestamp >= :rollupTo AND timestamp <= :end)")
+                    .contains("ORDER BY hits DESC")
+                    .doesNotContain("ip_hash")
+                    .doesNotContain(":uris");
+            assertThat(query.params().getValue("start")).isEqualTo(START);
+            assertThat(query.params().getValue("end")).isEqualTo(END);
+            assertThat(query.params().getValue("rollupFrom")).isEqualTo(ROLLUP_FROM);
+            assertThat(query.params().getValue("rollupTo")).isEqualTo(ROLLUP_TO);
+            assertThat(query.params().hasValue("uris")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Должен применить фильтр URI и к агрегатам, и к сырым просмотрам")
+        void findStats_UriFilter_AppliedToBothBranches() {
+            // Setup
+            List<String> uris = List.of("/events/1", "/events/2");
+
+            // Action
+            hitRollupRepository.findStats(START, END, ROLLUP_FROM, ROLLUP_TO, uris);
+
+            // Assert
+            Query query = capturedQuery();
+            assertThat(query.sql().split("AND uri IN \\(:uris\\)", -1)).hasSize(3);
+            assertThat(query.params().getValue("uris")).isEqualTo(uris);
+        }
+
+        @Test
+        @DisplayName("Не должен фильтровать по URI при пустом списке")
+        void findStats_EmptyUris_NoFilter() {
+            // Action
+            hitRollupRepository.findStats(START, END, ROLLUP_FROM, ROLLUP_TO, List.of());
+
+            // Assert
+            Query query = capturedQuery();
+            assertThat(query.sql()).doesNotContain(":uris");
+            assertThat(query.params().hasValue("uris")).isFalse();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Query capturedQuery() {
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+            verify(namedParameterJdbcTemplate).query(sql.capture(), params.capture(), any(RowMapper.class));
+            return new Query(sql.getValue(), params.getValue());
+        }
+    }
+
+    @Nested
+    @DisplayName("applyHits")
+    class ApplyHitsTests {
+
+        @Test
+        @DisplayName("Должен сложить просмотры по часам и записать каждый IP часа один раз в порядке ключей")
+        @SuppressWarnings("unchecked")
+        void applyHits_AggregatesPerHourInKeyOrder() throws SQLException {
+            // Setup
+            List<EndpointHitDto> hits = List.of(
+                    hit("/events/2", "10.0.0.1", ROLLUP_FROM.plusMinutes(5)),
+                    hit("/events/1", "10.0.0.2", ROLLUP_FROM.plusMinutes(10)),
+                    hit("/events/1", "10.0.0.1", ROLLUP_FROM.plusMinutes(20)),
+                    hit("/events/1", "10.0.0.1", ROLLUP_FROM.plusMinutes(30)),
+                    hit("/events/1", "10.0.0.1", ROLLUP_FROM.plusHours(1)));
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<List<Object>> rows = ArgumentCaptor.forClass(List.class);
+            ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setters =
+                    ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+
+            // Action
+            hitRollupRepository.applyHits(hits);
+
+            // Assert
+            verify(jdbcTemplate, times(2)).batchUpdate(sql.capture(), rows.capture(), anyInt(), setters.capture());
+            assertThat(sql.getAllValues().get(0))
+                    .contains("INSERT INTO endpoint_hits_hourly ")
+                    .contains("sketch_pending = TRUE")
+                    .doesNotContain("ip_sketch");
+            assertThat(sql.getAllValues().get(1)).contains("INSERT INTO endpoint_hits_hourly_ips");
+            assertThat(bound(rows.getAllValues().get(0), setters.getAllValues().get(0))).containsExactly(
+                    List.of(APP, "/events/1", ROLLUP_FROM, 3L),
+                    List.of(APP, "/events/1", ROLLUP_FROM.plusHours(1), 1L),
+                    List.of(APP, "/events/2", ROLLUP_FROM, 1L));
+            assertThat(bound(rows.getAllValues().get(1), setters.getAllValues().get(1))).containsExactly(
+                    List.of(APP, "/events/1", ROLLUP_FROM, "10.0.0.1"),
+                    List.of(APP, "/events/1", ROLLUP_FROM, "10.0.0.2"),
+                    List.of(APP, "/events/1", ROLLUP_FROM.plusHours(1), "10.0.0.1"),
+                    List.of(APP, "/events/2", ROLLUP_FROM, "10.0.0.1"));
+        }
+
+        @Test
+        @DisplayName("Не должен обращаться к базе без просмотров")
+        void applyHits_Empty_NoWrites() {
+            // Action
+            hitRollupRepository.applyHits(List.of());
+
+            // Assert
+            verifyNoInteractions(jdbcTemplate, namedParameterJdbcTemplate);
+        }
+
+        /**
+         * Replays the statement setter for every batch row and returns the parameters it binds,
+         * in parameter index order.
+         */
+        private List<List<Object>> bound(List<Object> rows, ParameterizedPreparedStatementSetter<Object> setter)
+                throws SQLException {
+            List<List<Object>> bound = new ArrayList<>();
+            for (Object row : rows) {
+                Map<Integer, Object> values = new TreeMap<>();
+                PreparedStatement ps = mock(PreparedStatement.class, invocation -> {
+                    values.put(invocation.getArgument(0), invocation.getArgument(1));
+                    return null;
+                });
+                setter.setValues(ps, row);
+                bound.add(List.copyOf(values.values()));
+            }
+            return bound;
+        }
+    }
+
+    private EndpointHitDto hit(String uri, String ip, LocalDateTime timestamp) {
+        return EndpointHitDto.builder()
+                .app(APP)
+                .uri(uri)
+                .ip(ip)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private record Query(String sql, SqlParameterSource params) {
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.server.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.practicum.server.repository.HitSketchRepository.AppUri;
+import ru.practicum.server.repository.HitSketchRepository.Bucket;
+import ru.practicum.server.sketch.HyperLogLog;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Unit tests for the sketch handling of {@link HitSketchRepository}; the SQL itself targets
+ * PostgreSQL, so the JDBC templates are stubbed with result rows.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HitSketchRepository Unit Tests")
+class HitSketchRepositoryTest {
+
+    private static final String APP = "ewm-main-service";
+    private static final LocalDateTime HOUR = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @InjectMocks
+    private HitSketchRepository hitSketchRepository;
+
+    @Test
+    @DisplayName("Должен объединить сохранённые скетчи разной точности и хеши часов без скетча")
+    void mergeSketches_FoldsMixedPrecisionsAndAddsHashes() throws SQLException {
+        // Setup
+        List<Map<String, Object>> sketchRows = List.of(
+                Map.of("app", APP, "uri", "/events/1", "ip_sketch", sketch(14, 0, 3_000).toBytes()),
+                Map.of("app", APP, "uri", "/events/1", "ip_sketch", sketch(10, 3_000, 6_000).toBytes()));
+        List<Map<String, Object>> hashRows = new ArrayList<>();
+        for (long hash = 6_000; hash < 6_010; hash++) {
+            hashRows.add(Map.of("app", APP, "uri", "/events/1", "val", hash));
+        }
+        hashRows.add(Map.of("app", APP, "uri", "/events/2", "val", 42L));
+        answerRows("SELECT app, uri, ip_sketch", sketchRows);
+        answerRows("SELECT i.app, i.uri, i.ip_hash", hashRows);
+
+        // Action
+        Map<AppUri, HyperLogLog> merged = hitSketchRepository.mergeSketches(
+                HOUR.minusMinutes(30), HOUR.plusHours(2).plusMinutes(30), HOUR, HOUR.plusHours(2),
+                List.of("/events/1", "/events/2"), 14);
+
+        // Assert
+        assertThat(merged.get(new AppUri(APP, "/events/1"))).isEqualTo(sketch(10, 0, 6_010));
+        assertThat(merged.get(new AppUri(APP, "/events/2"))).isEqualTo(sketch(14, 42, 43));
+        verify(namedParameterJdbcTemplate).query(
+                contains("ip_sketch IS NOT NULL AND uri IN (:uris)"), any(SqlParameterSource.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Должен построить скетч каждого часа из хешей его IP")
+    void buildSketches_AddsHashesToTheirBuckets() throws SQLException {
+        // Setup
+        Bucket first = new Bucket(APP, "/events/1", HOUR, 3);
+        Bucket second = new Bucket(APP, "/events/2", HOUR, 1);
+        answerRows("SELECT app, uri, bucket_start, ip_sketch", List.of());
+        answerRows("SELECT app, uri, bucket_start, ip_hash", List.of(
+                Map.of("app", APP, "uri", "/events/1", "bucket_start", HOUR, "ip_hash", 1L),
+                Map.of("app", APP, "uri", "/events/2", "bucket_start", HOUR, "ip_hash", 7L),
+                Map.of("app", APP, "uri", "/events/1", "bucket_start", HOUR, "ip_hash", 2L)));
+
+        // Action
+        Map<Bucket, HyperLogLog> sketches = hitSketchRepository.buildSketches(List.of(first, second), 12);
+
+        // Assert
+        assertThat(sketches).containsOnlyKeys(first, second);
+        assertThat(sketches.get(first)).isEqualTo(sketch(12, 1, 3));
+        assertThat(sketches.get(second)).isEqualTo(sketch(12, 7, 8));
+        assertThat(hitSketchRepository.buildSketches(List.of(), 12)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Должен объединить сохранённый скетч часа с хешами поздних просмотров")
+    void buildSketches_MergesStoredSketchWithRemainingHashes() throws SQLException {
+        // Setup
+        Bucket bucket = new Bucket(APP, "/events/1", HOUR, 12);
+        answerRows("SELECT app, uri, bucket_start, ip_sketch", List.of(
+                Map.of("app", APP, "uri", "/events/1", "bucket_start", HOUR, "ip_sketch", sketch(10, 0, 10).toBytes())));
+        answerRows("SELECT app, uri, bucket_start, ip_hash", List.of(
+                Map.of("app", APP, "uri", "/events/1", "bucket_start", HOUR, "ip_hash", 10L),
+                Map.of("app", APP, "uri", "/events/1", "bucket_start", HOUR, "ip_hash", 11L)));
+
+        // Action
+        Map<Bucket, HyperLogLog> sketches = hitSketchRepository.buildSketches(List.of(bucket), 14);
+
+        // Assert
+        assertThat(sketches.get(bucket)).isEqualTo(sketch(10, 0, 12));
+    }
+
+    @Test
+    @DisplayName("Должен удалять хеши IP только за часы с актуальным скетчем")
+    void pruneIpHashes_DeletesHashesOfSketchedHours() {
+        // Setup
+        when(jdbcTemplate.update(anyString(), eq(HOUR), eq(100))).thenReturn(100);
+
+        // Action
+        int deleted = hitSketchRepository.pruneIpHashes(HOUR, 100);
+
+        // Assert
+        assertThat(deleted).isEqualTo(100);
+        verify(jdbcTemplate).update(
+                contains("WHERE i.bucket_start < ? AND NOT h.sketch_pending"), eq(HOUR), eq(100));
+    }
+
+    @Test
+    @DisplayName("Должен сохранить сериализованные скетчи и посчитать только обновлённые часы")
+    @SuppressWarnings("unchecked")
+    void saveSketches_WritesSerializedSketches() throws SQLException {
+        // Setup
+        Bucket bucket = new Bucket(APP, "/events/1", HOUR, 5);
+        HyperLogLog sketch = sketch(14, 0, 5);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Map.Entry<Bucket, HyperLogLog>>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), setter.capture()))
+                .thenReturn(new int[][]{{1, 0, Statement.SUCCESS_NO_INFO}});
+
+        // Action
+        int saved = hitSketchRepository.saveSketches(Map.of(bucket, sketch));
+
+        // Assert
+        assertThat(saved).isEqualTo(1);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, Map.entry(bucket, sketch));
+        verify(ps).setBytes(1, sketch.toBytes());
+        verify(ps).setString(2, "/events/1");
+        verify(ps).setLong(5, 5L);
+        verifyNoInteractions(namedParameterJdbcTemplate);
+    }
+
+    private void answerRows(String sqlPrefix, List<Map<String, Object>> rows) throws SQLException {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Map<String, Object> row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(namedParameterJdbcTemplate)
+                .query(startsWith(sqlPrefix), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    private ResultSet resultSet(Map<String, Object> row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getString(anyString())).thenAnswer(invocation -> row.get(invocation.<String>getArgument(0)));
+        when(rs.getBytes(anyString())).thenAnswer(invocation -> row.get(invocation.<String>getArgument(0)));
+        when(rs.getLong(anyString())).thenAnswer(invocation -> row.get(invocation.<String>getArgument(0)));
+        when(rs.getObject(anyString(), eq(LocalDateTime.class)))
+                .thenAnswer(invocation -> row.get(invocation.<String>getArgument(0)));
+        return rs;
+    }
+
+    private static HyperLogLog sketch(int precision, long from, long to) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (long hash = from; hash < to; hash++) {
+            sketch.addHash(hash);
+        }
+        return sketch;
+    }
+}
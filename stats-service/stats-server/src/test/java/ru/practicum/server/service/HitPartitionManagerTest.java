@@ -0,0 +1,143 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.server.repository.HitPartitionRepository;
+import ru.practicum.server.repository.HitPartitionRepository.Partition;
+import ru.practicum.server.service.HitPartitionManager.Granularity;
+import ru.practicum.server.service.HitPartitionManager.RetentionAction;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link HitPartitionManager} with a stubbed partition catalog.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HitPartitionManager Unit Tests")
+class HitPartitionManagerTest {
+
+    @Mock
+    private HitPartitionRepository hitPartitionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LocalDateTime currentMonth;
+    private LocalDateTime nextMonth;
+
+    @BeforeEach
+    void setUp() {
+        currentMonth = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        nextMonth = currentMonth.plusMonths(1);
+    }
+
+    @Test
+    @DisplayName("Должен проверять партиционирование только после блокировки и не переводить таблицу повторно")
+    void afterPropertiesSet_ChecksStateUnderLock() {
+        // Setup
+        HitPartitionManager manager = manager(0, 0);
+        when(hitPartitionRepository.isPartitioned()).thenReturn(true);
+        when(hitPartitionRepository.findPartitions()).thenReturn(List.of(partition(currentMonth, nextMonth)));
+
+        // Action
+        manager.afterPropertiesSet();
+
+        // Assert
+        InOrder order = inOrder(hitPartitionRepository);
+        order.verify(hitPartitionRepository).lockMaintenance();
+        order.verify(hitPartitionRepository).isPartitioned();
+        order.verify(hitPartitionRepository).createDefaultPartition();
+        verify(hitPartitionRepository, never()).lockAndFindLatestHit();
+        verify(hitPartitionRepository, never()).convertToPartitioned(any());
+    }
+
+    @Test
+    @DisplayName("Не должен создавать раздел, если другой экземпляр уже создал его")
+    void maintain_PartitionCreatedConcurrently_Skipped() {
+        // Setup
+        HitPartitionManager manager = manager(1, 0);
+        when(hitPartitionRepository.findPartitions())
+                .thenReturn(List.of(partition(currentMonth, nextMonth)))
+                .thenReturn(List.of(partition(currentMonth, nextMonth), partition(nextMonth, nextMonth.plusMonths(1))));
+
+        // Action
+        manager.maintain();
+
+        // Assert
+        InOrder order = inOrder(hitPartitionRepository);
+        order.verify(hitPartitionRepository).lockMaintenance();
+        order.verify(hitPartitionRepository).findPartitions();
+        order.verify(hitPartitionRepository).lockMaintenance();
+        order.verify(hitPartitionRepository).findPartitions();
+        verify(hitPartitionRepository, never()).createPartition(anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Ошибка создания одного раздела не должна мешать остальным разделам и удалению старых")
+    void maintain_FailureOfOnePartition_ContinuesWithOthers() {
+        // Setup
+        HitPartitionManager manager = manager(1, 30);
+        Partition expired = partition(currentMonth.minusMonths(3), currentMonth.minusMonths(2));
+        List<Partition> partitions = new ArrayList<>(List.of(expired));
+        when(hitPartitionRepository.findPartitions()).thenAnswer(invocation -> List.copyOf(partitions));
+        doThrow(new IllegalStateException("relation already exists"))
+                .when(hitPartitionRepository).createPartition(anyString(), eq(currentMonth), eq(nextMonth));
+
+        // Action
+        manager.maintain();
+
+        // Assert
+        verify(hitPartitionRepository).createPartition(anyString(), eq(nextMonth), eq(nextMonth.plusMonths(1)));
+        verify(hitPartitionRepository).dropPartition(expired.name());
+        verify(hitPartitionRepository, times(3)).lockMaintenance();
+    }
+
+    @Test
+    @DisplayName("Не должен удалять раздел, уже удалённый другим экземпляром")
+    void maintain_PartitionDroppedConcurrently_Skipped() {
+        // Setup
+        HitPartitionManager manager = manager(0, 30);
+        Partition current = partition(currentMonth, nextMonth);
+        Partition expired = partition(currentMonth.minusMonths(3), currentMonth.minusMonths(2));
+        when(hitPartitionRepository.findPartitions())
+                .thenReturn(List.of(current, expired))
+                .thenReturn(List.of(current, expired))
+                .thenReturn(List.of(current));
+
+        // Action
+        manager.maintain();
+
+        // Assert
+        verify(hitPartitionRepository, never()).dropPartition(anyString());
+        verify(hitPartitionRepository, never()).createPartition(anyString(), any(), any());
+    }
+
+    private HitPartitionManager manager(int premake, int retentionDays) {
+        return new HitPartitionManager(hitPartitionRepository, transactionManager,
+                Granularity.MONTH, premake, retentionDays, RetentionAction.DROP);
+    }
+
+    private Partition partition(LocalDateTime from, LocalDateTime to) {
+        return new Partition(HitPartitionRepository.PARENT_TABLE + "_p" + from.toLocalDate().toString().replace("-", ""),
+                from, to, false);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.server.repository.HitSketchRepository;
+import ru.practicum.server.repository.HitSketchRepository.Bucket;
+import ru.practicum.server.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link HitSketchCompactor} with a stubbed sketch repository.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HitSketchCompactor Unit Tests")
+class HitSketchCompactorTest {
+
+    private static final String APP = "ewm-main-service";
+
+    @Mock
+    private HitSketchRepository hitSketchRepository;
+
+    @Test
+    @DisplayName("Должен построить скетчи закрытых часов и затем удалить устаревшие хеши IP порциями")
+    void compact_BuildsSketchesThenPrunesInChunks() {
+        // Setup
+        HitSketchCompactor compactor = new HitSketchCompactor(hitSketchRepository, 12, 10, 24, 100);
+        Bucket bucket = new Bucket(APP, "/events/1", LocalDateTime.of(2030, 1, 1, 10, 0), 3);
+        Map<Bucket, HyperLogLog> sketches = Map.of(bucket, new HyperLogLog(12));
+        when(hitSketchRepository.findUnsketchedBuckets(any(), eq(10))).thenReturn(List.of(bucket));
+        when(hitSketchRepository.buildSketches(List.of(bucket), 12)).thenReturn(sketches);
+        when(hitSketchRepository.saveSketches(sketches)).thenReturn(1);
+        when(hitSketchRepository.pruneIpHashes(any(), eq(100))).thenReturn(100, 100, 7);
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        // Action
+        compactor.compact();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> currentHour = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(hitSketchRepository).findUnsketchedBuckets(currentHour.capture(), eq(10));
+        verify(hitSketchRepository, times(3)).pruneIpHashes(cutoff.capture(), eq(100));
+        assertThat(currentHour.getValue()).isIn(before, before.plusHours(1));
+        assertThat(cutoff.getAllValues()).containsOnly(currentHour.getValue().minusHours(24));
+    }
+
+    @Test
+    @DisplayName("Должен прекратить удаление, когда порция хешей неполная")
+    void compact_NothingToPrune_SingleDelete() {
+        // Setup
+        HitSketchCompactor compactor = new HitSketchCompactor(hitSketchRepository, 12, 10, 0, 100);
+        when(hitSketchRepository.findUnsketchedBuckets(any(), eq(10))).thenReturn(List.of());
+        when(hitSketchRepository.pruneIpHashes(any(), eq(100))).thenReturn(0);
+
+        // Action
+        compactor.compact();
+
+        // Assert
+        verify(hitSketchRepository, never()).buildSketches(any(), eq(12));
+        verify(hitSketchRepository).pruneIpHashes(any(), eq(100));
+    }
+
+    @Test
+    @DisplayName("Должен отклонить некорректные настройки удаления хешей")
+    void constructor_InvalidPruneSettings_Rejected() {
+        assertThatThrownBy(() -> new HitSketchCompactor(hitSketchRepository, 12, 10, -1, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HitSketchCompactor(hitSketchRepository, 12, 10, 24, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
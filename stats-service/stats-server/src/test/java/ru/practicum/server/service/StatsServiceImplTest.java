@@ -0,0 +1,277 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.dto.EndpointHitDto;
+import ru.practicum.dto.ViewStatsDto;
+import ru.practicum.server.model.ApproximateStats;
+import ru.practicum.server.repository.EndpointHitJdbcRepository;
+import ru.practicum.server.repository.HitRollupRepository;
+import ru.practicum.server.repository.HitSketchRepository;
+import ru.practicum.server.repository.HitSketchRepository.AppUri;
+import ru.practicum.server.repository.StatsRepository;
+import ru.practicum.server.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link StatsServiceImpl} with stubbed repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatsServiceImpl Unit Tests")
+class StatsServiceImplTest {
+
+    private static final String APP = "ewm-main-service";
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private StatsRepository statsRepository;
+
+    @Mock
+    private EndpointHitJdbcRepository endpointHitJdbcRepository;
+
+    @Mock
+    private HitRollupRepository hitRollupRepository;
+
+    @Mock
+    private HitSketchRepository hitSketchRepository;
+
+    @InjectMocks
+    private StatsServiceImpl statsService;
+
+    @Nested
+    @DisplayName("saveHits")
+    class SaveHitsTests {
+
+        @Test
+        @DisplayName("Должен записать пакет одним JDBC-батчем и добавить те же просмотры в агрегаты")
+        void saveHits_WritesOneBatchAndFeedsRollups() {
+            // Setup
+            List<EndpointHitDto> hits = hits(3);
+            List<List<EndpointHitDto>> inserted = recordBatches();
+            List<List<EndpointHitDto>> rolledUp = recordRollups();
+
+            // Action
+            long saved = statsService.saveHits(hits);
+
+            // Assert
+            assertThat(saved).isEqualTo(3);
+            assertThat(inserted).containsExactly(hits);
+            assertThat(rolledUp).containsExactly(hits);
+            InOrder order = inOrder(endpointHitJdbcRepository, hitRollupRepository);
+            order.verify(endpointHitJdbcRepository).batchInsert(anyList());
+            order.verify(hitRollupRepository).applyHits(anyList());
+        }
+
+        @Test
+        @DisplayName("Должен разбить поток на батчи размера stats.ingest.jdbc-batch-size")
+        void saveHits_Stream_SplitIntoJdbcBatches() {
+            // Setup
+            ReflectionTestUtils.setField(statsService, "jdbcBatchSize", 2);
+            List<EndpointHitDto> hits = hits(5);
+            List<List<EndpointHitDto>> inserted = recordBatches();
+            List<List<EndpointHitDto>> rolledUp = recordRollups();
+
+            // Action
+            long saved = statsService.saveHits(hits.iterator());
+
+            // Assert
+            assertThat(saved).isEqualTo(5);
+            assertThat(inserted).containsExactly(hits.subList(0, 2), hits.subList(2, 4), hits.subList(4, 5));
+            assertThat(rolledUp).isEqualTo(inserted);
+        }
+
+        /** Copies every inserted batch, since the service reuses its chunk buffer. */
+        private List<List<EndpointHitDto>> recordBatches() {
+            List<List<EndpointHitDto>> batches = new ArrayList<>();
+            doAnswer(invocation -> batches.add(List.copyOf(invocation.<List<EndpointHitDto>>getArgument(0))))
+                    .when(endpointHitJdbcRepository).batchInsert(anyList());
+            return batches;
+        }
+
+        private List<List<EndpointHitDto>> recordRollups() {
+            List<List<EndpointHitDto>> batches = new ArrayList<>();
+            doAnswer(invocation -> batches.add(List.copyOf(invocation.<List<EndpointHitDto>>getArgument(0))))
+                    .when(hitRollupRepository).applyHits(anyList());
+            return batches;
+        }
+
+        private List<EndpointHitDto> hits(int count) {
+            List<EndpointHitDto> hits = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                hits.add(EndpointHitDto.builder()
+                        .app(APP)
+                        .uri("/events/" + i)
+                        .ip("10.0.0." + i)
+                        .timestamp(DAY.plusMinutes(i))
+                        .build());
+            }
+            return hits;
+        }
+    }
+
+    @Nested
+    @DisplayName("getStats")
+    class GetStatsTests {
+
+        @Test
+        @DisplayName("Должен читать целые часы из агрегатов, а края диапазона из сырых просмотров")
+        void getStats_SplitsRangeAtWholeHours() {
+            // Setup
+            LocalDateTime start = DAY.plusHours(10).plusMinutes(30);
+            LocalDateTime end = DAY.plusHours(13).plusMinutes(15);
+            List<String> uris = List.of("/events/1");
+            List<ViewStatsDto> expected = List.of(new ViewStatsDto(APP, "/events/1", 7L));
+            when(hitRollupRepository.findStats(start, end, DAY.plusHours(11), DAY.plusHours(13), uris))
+                    .thenReturn(expected);
+
+            // Action
+            List<ViewStatsDto> stats = statsService.getStats(start, end, uris, false);
+
+            // Assert
+            assertThat(stats).isEqualTo(expected);
+            verifyNoInteractions(statsRepository, hitSketchRepository);
+        }
+
+        @Test
+        @DisplayName("Должен начинать агрегаты с начала диапазона, если оно ровно на границе часа")
+        void getStats_StartOnHour_RollupStartsAtStart() {
+            // Setup
+            LocalDateTime start = DAY.plusHours(10);
+            LocalDateTime end = DAY.plusHours(11).plusSeconds(1);
+
+            // Action
+            statsService.getStats(start, end, null, null);
+
+            // Assert
+            verify(hitRollupRepository).findStats(start, end, start, DAY.plusHours(11), null);
+            verifyNoInteractions(statsRepository);
+        }
+
+        @Test
+        @DisplayName("Должен считать уникальные просмотры за целые часы по скетчам, а не по точным хешам")
+        void getStats_UniqueOverWholeHours_MergedFromSketches() {
+            // Setup
+            LocalDateTime start = DAY.plusHours(10).plusMinutes(30);
+            LocalDateTime end = DAY.plusHours(13).plusMinutes(15);
+            List<String> uris = List.of("/events/1", "/events/2");
+            HyperLogLog few = sketch(14, 3);
+            HyperLogLog many = sketch(14, 50);
+            when(hitSketchRepository.mergeSketches(start, end, DAY.plusHours(11), DAY.plusHours(13), uris, 14))
+                    .thenReturn(Map.of(new AppUri(APP, "/events/1"), few, new AppUri(APP, "/events/2"), many));
+
+            // Action
+            List<ViewStatsDto> stats = statsService.getStats(start, end, uris, true);
+
+            // Assert
+            assertThat(stats).extracting(ViewStatsDto::getUri).containsExactly("/events/2", "/events/1");
+            assertThat(stats).extracting(ViewStatsDto::getHits).containsExactly(many.estimate(), few.estimate());
+            verifyNoInteractions(hitRollupRepository, statsRepository);
+        }
+
+        @Test
+        @DisplayName("Должен считать диапазон без целого часа по сырым просмотрам")
+        void getStats_NoWholeHour_ReadsRawHits() {
+            // Setup
+            LocalDateTime start = DAY.plusHours(10).plusMinutes(10);
+            LocalDateTime end = DAY.plusHours(10).plusMinutes(50);
+            List<String> uris = List.of("/events/1");
+            List<ViewStatsDto> expected = List.of(new ViewStatsDto(APP, "/events/1", 2L));
+            when(statsRepository.findStatsUnique(start, end, uris)).thenReturn(expected);
+            when(statsRepository.findStats(start, end, uris)).thenReturn(expected);
+
+            // Action
+            List<ViewStatsDto> unique = statsService.getStats(start, end, uris, true);
+            List<ViewStatsDto> all = statsService.getStats(start, end, uris, false);
+
+            // Assert
+            assertThat(unique).isEqualTo(expected);
+            assertThat(all).isEqualTo(expected);
+            verifyNoInteractions(hitRollupRepository, hitSketchRepository);
+        }
+
+        @Test
+        @DisplayName("Должен считать по сырым просмотрам диапазон, пересекающий границу часа без целого часа")
+        void getStats_CrossesHourBoundary_ReadsRawHits() {
+            // Setup
+            LocalDateTime start = DAY.plusHours(10).plusMinutes(30);
+            LocalDateTime end = DAY.plusHours(11).plusMinutes(30);
+
+            // Action
+            statsService.getStats(start, end, null, false);
+
+            // Assert
+            verify(statsRepository).findStats(start, end, null);
+            verifyNoInteractions(hitRollupRepository, hitSketchRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("getApproximateStats")
+    class GetApproximateStatsTests {
+
+        @Test
+        @DisplayName("Должен вернуть погрешность наименее точного скетча")
+        void getApproximateStats_ReportsErrorOfLowestPrecision() {
+            // Setup
+            LocalDateTime start = DAY.plusHours(10);
+            LocalDateTime end = DAY.plusHours(12);
+            when(hitSketchRepository.mergeSketches(start, end, start, end, null, 14))
+                    .thenReturn(Map.of(
+                            new AppUri(APP, "/events/1"), sketch(14, 3),
+                            new AppUri(APP, "/events/2"), sketch(10, 3)));
+
+            // Action
+            ApproximateStats stats = statsService.getApproximateStats(start, end, null, true);
+
+            // Assert
+            assertThat(stats.getStats()).hasSize(2);
+            assertThat(stats.getStandardError()).isCloseTo(HyperLogLog.standardError(10), within(1e-9));
+        }
+
+        @Test
+        @DisplayName("Должен вернуть точные неуникальные просмотры с нулевой погрешностью")
+        void getApproximateStats_NotUnique_Exact() {
+            // Setup
+            LocalDateTime start = DAY.plusHours(10);
+            LocalDateTime end = DAY.plusHours(12);
+            when(hitRollupRepository.findStats(start, end, start, end, null))
+                    .thenReturn(List.of(new ViewStatsDto(APP, "/events/1", 5L)));
+
+            // Action
+            ApproximateStats stats = statsService.getApproximateStats(start, end, null, false);
+
+            // Assert
+            assertThat(stats.getStats()).extracting(ViewStatsDto::getHits).containsExactly(5L);
+            assertThat(stats.getStandardError()).isZero();
+            verifyNoInteractions(hitSketchRepository);
+        }
+    }
+
+    private static HyperLogLog sketch(int precision, long distinct) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (long hash = 0; hash < distinct; hash++) {
+            sketch.addHash(hash);
+        }
+        return sketch;
+    }
+}
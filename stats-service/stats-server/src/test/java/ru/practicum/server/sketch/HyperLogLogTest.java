@@ -0,0 +1,244 @@
+package ru.practicum.server.sketch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Unit tests for {@link HyperLogLog}.
+ */
+@DisplayName("HyperLogLog Unit Tests")
+class HyperLogLogTest {
+
+    @Nested
+    @DisplayName("toBytes / fromBytes")
+    class SerializationTests {
+
+        @ParameterizedTest(name = "precision={0}")
+        @CsvSource({"4", "14", "16"})
+        @DisplayName("Должен сохранять разреженный скетч парами (индекс, ранг) и восстанавливать его без потерь")
+        void sparse_RoundTrip(int precision) {
+            // Setup
+            HyperLogLog sketch = sketch(precision, 0, 3);
+
+            // Action
+            byte[] bytes = sketch.toBytes();
+            HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+            // Assert
+            assertThat(bytes[0]).isEqualTo((byte) precision);
+            assertThat(bytes[1]).isEqualTo((byte) 1);
+            assertThat(bytes.length).isLessThanOrEqualTo(2 + 3 * 3);
+            assertThat((bytes.length - 2) % 3).isZero();
+            assertThat(restored).isEqualTo(sketch);
+            assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        }
+
+        @Test
+        @DisplayName("Должен сохранять разреженный скетч с индексами старше 2^15 как беззнаковые")
+        void sparse_HighIndicesRoundTrip() {
+            // Setup
+            HyperLogLog sketch = sketch(16, 0, 2_000);
+
+            // Action
+            HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+            // Assert
+            assertThat(sketch.toBytes()[1]).isEqualTo((byte) 1);
+            assertThat(restored).isEqualTo(sketch);
+        }
+
+        @ParameterizedTest(name = "precision={0}")
+        @CsvSource({"4", "10", "14"})
+        @DisplayName("Должен сохранять заполненный скетч массивом регистров и восстанавливать его без потерь")
+        void dense_RoundTrip(int precision) {
+            // Setup
+            HyperLogLog sketch = sketch(precision, 0, 100_000);
+
+            // Action
+            byte[] bytes = sketch.toBytes();
+            HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+
+            // Assert
+            assertThat(bytes[0]).isEqualTo((byte) precision);
+            assertThat(bytes[1]).isZero();
+            assertThat(bytes).hasSize(2 + (1 << precision));
+            assertThat(restored).isEqualTo(sketch);
+        }
+
+        @Test
+        @DisplayName("Должен сохранять пустой скетч в два байта заголовка")
+        void empty_RoundTrip() {
+            // Setup
+            HyperLogLog sketch = new HyperLogLog(14);
+
+            // Action
+            byte[] bytes = sketch.toBytes();
+
+            // Assert
+            assertThat(bytes).containsExactly(14, 1);
+            assertThat(HyperLogLog.fromBytes(bytes)).isEqualTo(sketch);
+            assertThat(HyperLogLog.fromBytes(bytes).estimate()).isZero();
+        }
+
+        @Test
+        @DisplayName("Должен отклонять повреждённые данные")
+        void fromBytes_MalformedInput_Rejected() {
+            byte[] denseTooShort = new byte[2 + 15];
+            denseTooShort[0] = 4;
+            byte[] sparseOutOfRange = ByteBuffer.allocate(5).put((byte) 4).put((byte) 1)
+                    .putShort((short) 16).put((byte) 1).array();
+
+            assertMalformed(null);
+            assertMalformed(new byte[]{4});
+            assertMalformed(new byte[]{4, 2});
+            assertMalformed(denseTooShort);
+            assertMalformed(new byte[]{4, 1, 0, 1});
+            assertMalformed(sparseOutOfRange);
+            assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{3, 1}))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("precision");
+            assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{17, 1}))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("precision");
+        }
+
+        private void assertMalformed(byte[] bytes) {
+            assertThatThrownBy(() -> HyperLogLog.fromBytes(bytes))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Malformed");
+        }
+    }
+
+    @Nested
+    @DisplayName("foldTo / merge")
+    class FoldAndMergeTests {
+
+        @ParameterizedTest(name = "{0} -> {1}")
+        @CsvSource({"14, 14", "14, 10", "16, 4", "5, 4"})
+        @DisplayName("Свёрнутый скетч должен совпадать со скетчем, построенным с меньшей точностью")
+        void foldTo_EqualsSketchBuiltAtTargetPrecision(int precision, int targetPrecision) {
+            // Setup
+            HyperLogLog fine = sketch(precision, 0, 20_000);
+
+            // Action
+            HyperLogLog folded = fine.foldTo(targetPrecision);
+
+            // Assert
+            assertThat(folded).isEqualTo(sketch(targetPrecision, 0, 20_000));
+        }
+
+        @Test
+        @DisplayName("Объединение скетчей разной точности должно совпадать со скетчем объединения множеств")
+        void merge_MixedPrecision_EqualsSketchOfUnion() {
+            // Setup
+            HyperLogLog coarse = sketch(10, 0, 30_000);
+            HyperLogLog fine = sketch(14, 20_000, 50_000);
+
+            // Action
+            coarse.merge(fine);
+
+            // Assert
+            assertThat(coarse).isEqualTo(sketch(10, 0, 50_000));
+            assertThat(coarse.getPrecision()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Объединение должно быть идемпотентным")
+        void merge_SameSketch_Idempotent() {
+            // Setup
+            HyperLogLog sketch = sketch(12, 0, 5_000);
+            HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+
+            // Action
+            sketch.merge(copy);
+
+            // Assert
+            assertThat(sketch).isEqualTo(copy);
+        }
+
+        @Test
+        @DisplayName("Должен отклонять развёртку к большей точности и недопустимую точность")
+        void invalidPrecision_Rejected() {
+            HyperLogLog sketch = new HyperLogLog(10);
+
+            assertThatThrownBy(() -> sketch.foldTo(11)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> sketch.merge(new HyperLogLog(4))).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new HyperLogLog(HyperLogLog.MIN_PRECISION - 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("estimate")
+    class EstimateTests {
+
+        @ParameterizedTest(name = "precision={0}, cardinality={1}")
+        @CsvSource({
+                "14, 1",
+                "14, 100",
+                "14, 1000",
+                "14, 10000",
+                "14, 100000",
+                "14, 1000000",
+                "10, 50000",
+                "16, 300000"
+        })
+        @DisplayName("Оценка должна попадать в 3 стандартные ошибки от истинного числа уникальных значений")
+        void estimate_WithinThreeStandardErrors(int precision, int cardinality) {
+            // Setup
+            HyperLogLog sketch = sketch(precision, 0, cardinality);
+            double tolerance = Math.max(1, 3 * HyperLogLog.standardError(precision) * cardinality);
+
+            // Action
+            long estimate = sketch.estimate();
+
+            // Assert
+            assertThat((double) estimate).isCloseTo(cardinality, offset(tolerance));
+        }
+
+        @Test
+        @DisplayName("Повторные значения не должны менять оценку")
+        void estimate_DuplicatesIgnored() {
+            // Setup
+            HyperLogLog once = sketch(14, 0, 10_000);
+            HyperLogLog twice = sketch(14, 0, 10_000);
+
+            // Action
+            for (long hash = 0; hash < 10_000; hash++) {
+                twice.addHash(hash);
+            }
+
+            // Assert
+            assertThat(twice).isEqualTo(once);
+        }
+
+        @Test
+        @DisplayName("Стандартная ошибка должна считаться как 1.04 / sqrt(2^p)")
+        void standardError_MatchesFormula() {
+            assertThat(HyperLogLog.standardError(14)).isCloseTo(1.04 / 128, offset(1e-12));
+            assertThat(HyperLogLog.standardError(4)).isCloseTo(0.26, offset(1e-12));
+        }
+    }
+
+    /**
+     * Sketch of the hashes {@code [from, to)}; the sketch re-mixes them, so consecutive values are fine.
+     */
+    private static HyperLogLog sketch(int precision, long from, long to) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (long hash = from; hash < to; hash++) {
+            sketch.addHash(hash);
+        }
+        return sketch;
+    }
+}